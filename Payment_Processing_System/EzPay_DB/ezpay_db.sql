@@ -10,20 +10,34 @@ CREATE TABLE bank_accounts (
     bankName VARCHAR(100) NOT NULL,
     accountNumber VARCHAR(30) UNIQUE NOT NULL,
     isVerified BOOLEAN NOT NULL,
+    balance BIGINT DEFAULT 0 NOT NULL, -- in paise
+    version BIGINT DEFAULT 0 NOT NULL, -- optimistic lock counter
     userId INT, 
     FOREIGN KEY (userId) REFERENCES users(userId)
 );
+-- "upi_handles" which links each UPI ID to the bank account it pays from and into
+CREATE TABLE upi_handles (
+    upiId VARCHAR(100) PRIMARY KEY,
+    accountNumber VARCHAR(30) NOT NULL,
+    FOREIGN KEY (accountNumber) REFERENCES bank_accounts(accountNumber)
+);
 -- "transfers" table which represents all the transfers made
 CREATE TABLE transfers (
-    transferId INT PRIMARY KEY,
+    transferId BIGINT PRIMARY KEY,
     senderAccountNumber VARCHAR(30) NOT NULL,
     receiverAccountNumber VARCHAR(30) NOT NULL,
-    amount DECIMAL(12,2) NOT NULL,
+    amount BIGINT NOT NULL, -- in paise
     transferDateTime TIMESTAMP NOT NULL,
     status BOOLEAN NOT NULL,
     FOREIGN KEY (senderAccountNumber) REFERENCES bank_accounts(accountNumber),
     FOREIGN KEY (receiverAccountNumber) REFERENCES bank_accounts(accountNumber)
 );
+-- An account's transfers in a time range are one range scan of these indexes
+CREATE INDEX idx_transfers_sender_time ON transfers (senderAccountNumber, transferDateTime);
+CREATE INDEX idx_transfers_receiver_time ON transfers (receiverAccountNumber, transferDateTime);
+-- "transfer_seq" hands out transfer IDs in blocks of 50 (must match the JPA allocationSize)
+-- The first block is 1052-1101, clear of the seeded transfers 1001-1004
+CREATE SEQUENCE transfer_seq START WITH 1101 INCREMENT BY 50;
 -- Inserting values to "users" table
 INSERT INTO users (userId, userName, emailId) VALUES
 (1, 'Rahul Verma', 'rahul.verma@example.com'),
@@ -41,10 +55,10 @@ INSERT INTO bank_accounts (bankId, bankName, accountNumber, isVerified, userId)
 
 -- Inserting values to "transfers" table
 INSERT INTO transfers (transferId, senderAccountNumber, receiverAccountNumber, amount, transferDateTime, status) VALUES
-(1001, 'ACC123456', 'ACC234567', 5000.00, '2025-07-30 10:00:00', TRUE),
-(1002, 'ACC234567', 'ACC345678', 1500.50, '2025-07-30 11:15:00', TRUE),
-(1003, 'ACC345678', 'ACC456789', 2500.75, '2025-07-31 09:30:00', FALSE),
-(1004, 'ACC456789', 'ACC567890', 3200.00, '2025-07-31 12:45:00', TRUE);
+(1001, 'ACC123456', 'ACC234567', 500000, '2025-07-30 10:00:00', TRUE),
+(1002, 'ACC234567', 'ACC345678', 150050, '2025-07-30 11:15:00', TRUE),
+(1003, 'ACC345678', 'ACC456789', 250075, '2025-07-31 09:30:00', FALSE),
+(1004, 'ACC456789', 'ACC567890', 320000, '2025-07-31 12:45:00', TRUE);
 
 -- Describing "users" table
 DESC users; 
@@ -54,7 +68,7 @@ SELECT userId, userName, emailId FROM users;
 -- Describing "bank_accounts" table
 DESC bank_accounts;
 -- Displaying "bank_accounts" table data
-SELECT bankid, bankName, accountNumber, isVerified, userID FROM bank_accounts;
+SELECT bankid, bankName, accountNumber, isVerified, balance, userID FROM bank_accounts;
 
 -- Describing "transfers" table
 DESC transfers;
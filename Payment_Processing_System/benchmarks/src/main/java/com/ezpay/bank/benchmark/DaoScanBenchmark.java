@@ -0,0 +1,96 @@
+package com.ezpay.bank.benchmark;
+
+import com.ezpay.bank.dao.BankAccountDaoImpl;
+import com.ezpay.bank.dao.BankAccountTable;
+import com.ezpay.bank.dao.UserDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.User;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@code getAll*} methods of {@link UserDaoImpl} and {@link BankAccountDaoImpl},
+ * which copy the whole store into a new list on every call, against reading one page or
+ * walking the store with {@code forEach*}. The GC profiler shows the bytes copied per
+ * call growing with {@code size} for the copies only. The {@code table} methods do the
+ * same over a {@link BankAccountTable}, which also prints its footprint per account.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DaoScanBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private UserDaoImpl userDao;
+    private BankAccountDaoImpl accountDao;
+    private BankAccountTable accountTable;
+
+    @Setup
+    public void fillStores() {
+        userDao = new UserDaoImpl();
+        accountDao = new BankAccountDaoImpl();
+        accountTable = new BankAccountTable();
+        for (int i = 0; i < size; i++) {
+            List<String> linked = new ArrayList<>(List.of("ACC" + i));
+            userDao.addUser(new User(i, "User " + i, "user" + i + "@example.com", linked));
+            accountDao.addAccount(new BankAccount(i, "SBI", "ACC" + i, true));
+            accountTable.addAccount(new BankAccount(i, "SBI", "ACC" + i, true));
+        }
+        System.out.println("BankAccountTable bytes per account: " + accountTable.getFootprintBytes() / size);
+    }
+
+    @Benchmark
+    public List<User> getAllUsers() {
+        return userDao.getAllUsers();
+    }
+
+    @Benchmark
+    public List<BankAccount> getAllAccounts() {
+        return accountDao.getAllAccounts();
+    }
+
+    @Benchmark
+    public List<User> firstPageOfUsers() {
+        return userDao.getUsersAfter(Integer.MIN_VALUE, 100);
+    }
+
+    @Benchmark
+    public List<BankAccount> firstPageOfAccounts() {
+        return accountDao.getAccountsAfter(null, 100);
+    }
+
+    @Benchmark
+    public void forEachAccount(Blackhole blackhole) {
+        accountDao.forEachAccount(blackhole::consume);
+    }
+
+    @Benchmark
+    public List<BankAccount> tableFirstPageOfAccounts() {
+        return accountTable.getAccountsAfter(null, 100);
+    }
+
+    @Benchmark
+    public void tableForEachAccount(Blackhole blackhole) {
+        accountTable.forEachAccount(blackhole::consume);
+    }
+}
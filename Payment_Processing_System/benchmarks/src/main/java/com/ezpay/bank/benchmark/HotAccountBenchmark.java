@@ -0,0 +1,75 @@
+package com.ezpay.bank.benchmark;
+
+import com.ezpay.bank.dao.BankAccountDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.service.AccountLedger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link AccountLedger#transfer} when a share of all payments goes to one
+ * merchant account, with and without sharding the merchant's balance.
+ *
+ * Payers are spread over many stripes, so without sharding the merchant's stripe is the
+ * only point where the eight threads meet.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class HotAccountBenchmark {
+
+    private static final int PAYERS = 4_096;
+
+    @Param({"false", "true"})
+    public boolean sharded;
+
+    @Param({"0.3", "1.0"})
+    public double merchantShare;
+
+    private AccountLedger ledger;
+    private String[] payers;
+
+    @Setup(Level.Iteration)
+    public void buildLedger() {
+        BankAccountDaoImpl accounts = new BankAccountDaoImpl();
+        accounts.addAccount(new BankAccount(0, "HDFC", "MERCHANT", true));
+        payers = new String[PAYERS];
+        for (int i = 0; i < PAYERS; i++) {
+            payers[i] = "PAYER" + i;
+            BankAccount payer = new BankAccount(i + 1, "SBI", payers[i], true);
+            payer.setBalancePaise(Long.MAX_VALUE / (2L * PAYERS));
+            accounts.addAccount(payer);
+        }
+        ledger = new AccountLedger(accounts);
+        if (sharded) {
+            ledger.markHot("MERCHANT");
+        }
+    }
+
+    @Benchmark
+    public boolean pay() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String sender = payers[random.nextInt(PAYERS)];
+        String receiver = random.nextDouble() < merchantShare ? "MERCHANT" : payers[random.nextInt(PAYERS)];
+        return ledger.transfer(sender, receiver, 100);
+    }
+}
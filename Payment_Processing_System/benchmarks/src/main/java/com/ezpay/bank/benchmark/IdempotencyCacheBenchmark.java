@@ -0,0 +1,74 @@
+package com.ezpay.bank.benchmark;
+
+import com.ezpay.bank.dao.IdempotencyCache;
+import com.ezpay.bank.model.Transfer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of an idempotency check on the payment path.
+ *
+ * {@code replay} is a retry whose key is already stored, which should stay well under a
+ * microsecond. {@code firstUse} stores a new key and pays for eviction once the cache is
+ * at its size bound.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IdempotencyCacheBenchmark {
+
+    @Param({"100000"})
+    public int keys;
+
+    private IdempotencyCache<Transfer> cache;
+    private String[] storedKeys;
+    private Transfer stored;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = new IdempotencyCache<>(keys, IdempotencyCache.DEFAULT_TTL);
+        storedKeys = new String[keys];
+        stored = new Transfer(1, "ACC1", "ACC2", 1.0, null, true);
+        for (int i = 0; i < keys; i++) {
+            storedKeys[i] = "order-" + i;
+            cache.execute(storedKeys[i], () -> stored);
+        }
+    }
+
+    @Benchmark
+    public Transfer replay() {
+        String key = storedKeys[ThreadLocalRandom.current().nextInt(keys)];
+        return cache.execute(key, () -> stored);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Transfer replayContended() {
+        String key = storedKeys[ThreadLocalRandom.current().nextInt(keys)];
+        return cache.execute(key, () -> stored);
+    }
+
+    @Benchmark
+    public Transfer firstUse() {
+        return cache.execute("new-" + next++, () -> stored);
+    }
+}
@@ -0,0 +1,102 @@
+package com.ezpay.bank.benchmark;
+
+import com.ezpay.bank.dao.BankAccountDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.service.AccountLedger;
+import com.ezpay.bank.service.Ledger;
+import com.ezpay.bank.service.SingleWriterLedger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance moves through the striped-lock {@link AccountLedger} and the
+ * {@link SingleWriterLedger}, at 1, 4, 16 and 64 producer threads.
+ *
+ * Transfers go between random pairs of {@code accounts} accounts, so fewer accounts
+ * mean more stripe collisions for the striped ledger; the single writer does not care.
+ * Results depend heavily on the number of cores: the writer needs one to itself.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LedgerModeBenchmark {
+
+    @Param({"striped", "singleWriter"})
+    public String mode;
+
+    @Param({"16", "100000"})
+    public int accounts;
+
+    private Ledger ledger;
+    private String[] accountNumbers;
+
+    @Setup(Level.Trial)
+    public void buildLedger() {
+        BankAccountDaoImpl store = new BankAccountDaoImpl();
+        accountNumbers = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            accountNumbers[i] = "ACC" + i;
+            BankAccount account = new BankAccount(i, "SBI", accountNumbers[i], true);
+            account.setBalancePaise(Long.MAX_VALUE / (2L * accounts));
+            store.addAccount(account);
+        }
+        ledger = "singleWriter".equals(mode) ? new SingleWriterLedger(store) : new AccountLedger(store);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeLedger() {
+        if (ledger instanceof SingleWriterLedger) {
+            ((SingleWriterLedger) ledger).close();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean producers1() {
+        return transfer();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean producers4() {
+        return transfer();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean producers16() {
+        return transfer();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean producers64() {
+        return transfer();
+    }
+
+    private boolean transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accounts);
+        int to = (from + 1 + random.nextInt(accounts - 1)) % accounts;
+        return ledger.transfer(accountNumbers[from], accountNumbers[to], 1);
+    }
+}
@@ -0,0 +1,114 @@
+package com.ezpay.bank.benchmark;
+
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.service.AccountLedger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance arithmetic with {@code double} rupees against {@code long} paise.
+ *
+ * The two kernel benchmarks run the same debit/credit loop over plain arrays, so the
+ * difference is only the number representation. The ledger benchmark measures the full
+ * {@link AccountLedger#transfer} path, which now moves paise.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MoneyBenchmark {
+
+    private static final int OPS = 1024;
+
+    @Param("10000")
+    public int accounts;
+
+    private double[] rupeeBalances;
+    private long[] paiseBalances;
+    private int[] senders;
+    private int[] receivers;
+    private double[] rupeeAmounts;
+    private long[] paiseAmounts;
+
+    private AccountLedger ledger;
+    private String[] accountNumbers;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        rupeeBalances = new double[accounts];
+        paiseBalances = new long[accounts];
+        ledger = new AccountLedger();
+        accountNumbers = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            rupeeBalances[i] = 1_000_000.0;
+            paiseBalances[i] = 100_000_000L;
+            accountNumbers[i] = "ACC" + i;
+            BankAccount account = new BankAccount(i, "SBI", accountNumbers[i], true);
+            account.setBalancePaise(100_000_000L);
+            ledger.addAccount(account);
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        senders = new int[OPS];
+        receivers = new int[OPS];
+        rupeeAmounts = new double[OPS];
+        paiseAmounts = new long[OPS];
+        for (int i = 0; i < OPS; i++) {
+            senders[i] = random.nextInt(accounts);
+            receivers[i] = random.nextInt(accounts);
+            paiseAmounts[i] = 1 + random.nextInt(100_000);
+            rupeeAmounts[i] = paiseAmounts[i] / 100.0;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public double doubleKernel() {
+        double[] balances = rupeeBalances;
+        for (int i = 0; i < OPS; i++) {
+            double amount = rupeeAmounts[i];
+            if (balances[senders[i]] >= amount) {
+                balances[senders[i]] -= amount;
+                balances[receivers[i]] += amount;
+            }
+        }
+        return balances[0];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public long paiseKernel() {
+        long[] balances = paiseBalances;
+        for (int i = 0; i < OPS; i++) {
+            long amount = paiseAmounts[i];
+            if (balances[senders[i]] >= amount) {
+                balances[senders[i]] -= amount;
+                balances[receivers[i]] += amount;
+            }
+        }
+        return balances[0];
+    }
+
+    @Benchmark
+    public boolean ledgerTransfer() {
+        int i = next++ & (OPS - 1);
+        return ledger.transfer(accountNumbers[senders[i]], accountNumbers[receivers[i]], paiseAmounts[i]);
+    }
+}
@@ -0,0 +1,80 @@
+package com.ezpay.bank.benchmark;
+
+import com.ezpay.bank.dao.IdempotencyCache;
+import com.ezpay.bank.dao.TransferDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.service.AccountLedger;
+import com.ezpay.bank.service.RiskGate;
+import com.ezpay.bank.service.RiskScorer;
+import com.ezpay.bank.service.RuleBasedRiskScorer;
+import com.ezpay.bank.service.TransferServiceImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution of {@link TransferServiceImpl#makeTransfer(Transfer)} with and
+ * without risk scoring, to compare their percentiles.
+ *
+ * Transfers go between random pairs of many accounts, so each sender's profile is
+ * usually cold in the cache, as in normal traffic. The gate's threshold is above the
+ * highest score, so every transfer is scored in full and still reaches the ledger. The
+ * service is rebuilt before every iteration to keep the transfer history from growing
+ * across the whole run.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RiskGateBenchmark {
+
+    @Param({"10000"})
+    public int accounts;
+
+    @Param({"false", "true"})
+    public boolean riskScoring;
+
+    private TransferServiceImpl service;
+
+    @Setup(Level.Iteration)
+    public void buildService() {
+        RiskGate gate = riskScoring
+                ? new RiskGate(new RuleBasedRiskScorer(), RiskScorer.MAX_SCORE + 1, RiskGate.DEFAULT_BUDGET_MICROS,
+                        RiskGate.Policy.FAIL_OPEN)
+                : null;
+        service = new TransferServiceImpl(new AccountLedger(), new TransferDaoImpl(), new IdempotencyCache<>(),
+                null, gate);
+        for (int i = 0; i < accounts; i++) {
+            BankAccount account = new BankAccount(i, "SBI", "ACC" + i, true);
+            account.setBalancePaise(Long.MAX_VALUE / 4);
+            service.addAccount(account);
+        }
+    }
+
+    @Benchmark
+    public boolean makeTransfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int sender = random.nextInt(accounts);
+        int receiver = (sender + 1 + random.nextInt(accounts - 1)) % accounts;
+        Transfer transfer = new Transfer(0, "ACC" + sender, "ACC" + receiver, 0, null, false);
+        transfer.setAmountPaise(100 + random.nextInt(10_000));
+        service.makeTransfer(transfer);
+        return transfer.isStatus();
+    }
+}
@@ -0,0 +1,109 @@
+package com.ezpay.bank.benchmark;
+
+import com.ezpay.bank.dao.DurableStore;
+import com.ezpay.bank.dao.TransferJournal;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cold-start time of a {@link DurableStore}.
+ *
+ * Setup writes a journal with {@code accounts} accounts and {@code transfers} transfers,
+ * compacts it into a snapshot, and then appends {@code tailTransfers} more transfers to a
+ * fresh segment. Each measured run opens the store, which loads the snapshot and replays
+ * only the tail, so startup time should track the account count and the tail length
+ * rather than the total history.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class StartupBenchmark {
+
+    @Param("1000000")
+    public int accounts;
+
+    @Param("50000000")
+    public long transfers;
+
+    @Param("100000")
+    public int tailTransfers;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void buildStore() throws IOException {
+        directory = Files.createTempDirectory("ezpay-startup");
+
+        // Segment 1 holds the accounts and the bulk history and is compacted offline
+        try (TransferJournal journal = new TransferJournal(DurableStore.segmentFile(directory, 1))) {
+            for (int i = 0; i < accounts; i++) {
+                BankAccount account = new BankAccount(i, "SBI", accountNumber(i), true);
+                account.setBalance(1_000_000.0);
+                journal.appendAccount(account);
+            }
+            writeTransfers(journal, 1, transfers);
+        }
+        DurableStore.compact(directory);
+
+        // Segment 2 is the tail replayed on every start
+        try (TransferJournal journal = new TransferJournal(DurableStore.segmentFile(directory, 2))) {
+            writeTransfers(journal, transfers + 1, tailTransfers);
+        }
+    }
+
+    @Benchmark
+    public int coldStart() throws IOException {
+        try (DurableStore store = DurableStore.open(directory)) {
+            return store.getBankAccountDao().getAllAccounts().size();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteStore() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    // Appends `count` successful transfers between pseudo-random accounts, reusing one Transfer
+    private void writeTransfers(TransferJournal journal, long firstId, long count) {
+        Transfer transfer = new Transfer(0, null, null, 1.0, LocalDateTime.now(), true);
+        long state = 42;
+        for (long i = 0; i < count; i++) {
+            state = state * 6364136223846793005L + 1442695040888963407L;
+            transfer.setTransferId(firstId + i);
+            transfer.setSenderAccountNumber(accountNumber((int) ((state >>> 33) % accounts)));
+            transfer.setReceiverAccountNumber(accountNumber((int) ((state >>> 13) % accounts)));
+            journal.appendTransfer(transfer);
+        }
+    }
+
+    private static String accountNumber(int index) {
+        return "ACC" + index;
+    }
+}
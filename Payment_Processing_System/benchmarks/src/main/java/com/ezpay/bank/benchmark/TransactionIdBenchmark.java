@@ -0,0 +1,51 @@
+package com.ezpay.bank.benchmark;
+
+import com.ezpay.bank.service.TransactionIdGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of UPI transaction ID generation.
+ *
+ * {@code randomPerCall} is the previous approach of a new {@link Random} per payment,
+ * kept as a baseline. The generator is measured from one thread and from four threads
+ * sharing a single instance, which shows the cost of compare-and-set contention.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TransactionIdBenchmark {
+
+    private final TransactionIdGenerator generator = new TransactionIdGenerator();
+
+    @Benchmark
+    public int randomPerCall() {
+        return new Random().nextInt(900000) + 100000;
+    }
+
+    @Benchmark
+    public long generator() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long generatorContended() {
+        return generator.nextId();
+    }
+}
@@ -0,0 +1,116 @@
+package com.ezpay.bank.benchmark;
+
+import com.ezpay.bank.dao.DurableStore;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
+import com.ezpay.bank.service.AccountLedger;
+import com.ezpay.bank.service.TransferPipeline;
+import com.ezpay.bank.service.TransferServiceImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Throughput of journaled transfers made synchronously and through the {@link TransferPipeline}.
+ *
+ * {@code synchronous} calls {@code makeTransfer} from eight threads, each paying for its
+ * own journal sync or sharing one through group commit. {@code pipelined} submits without
+ * waiting, so submitters run until backpressure stops them and the pipeline syncs once per
+ * batch. {@code pipelinedRoundTrip} waits for every result, as a blocking caller of the
+ * async API would. The per-stage latency histograms are printed after each iteration.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TransferPipelineBenchmark {
+
+    private static final int THREADS = 8;
+    private static final int ACCOUNTS = 64;
+
+    @State(Scope.Benchmark)
+    public static class Engine {
+
+        Path dir;
+        DurableStore store;
+        TransferServiceImpl service;
+        TransferPipeline pipeline;
+
+        @Setup(Level.Iteration)
+        public void open() throws IOException {
+            dir = Files.createTempDirectory("ezpay-pipeline");
+            store = DurableStore.open(dir.resolve("ezpay"));
+            service = new TransferServiceImpl(new AccountLedger(store.getBankAccountDao()), store.getTransferDao());
+            for (int i = 0; i < ACCOUNTS; i++) {
+                BankAccount account = new BankAccount(i, "SBI", "ACC" + i, true);
+                account.setBalancePaise(Long.MAX_VALUE / (2 * ACCOUNTS));
+                service.addAccount(account);
+            }
+            pipeline = service.startPipeline(TransferPipeline.DEFAULT_QUEUE_CAPACITY, TransferPipeline.DEFAULT_MAX_BATCH);
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() throws IOException {
+            pipeline.close();
+            for (TransferPipeline.Stage stage : TransferPipeline.Stage.values()) {
+                System.out.println(stage + ": " + pipeline.getLatency(stage));
+            }
+            System.out.println("TOTAL: " + pipeline.getTotalLatency());
+            store.close();
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public boolean synchronous(Engine engine) {
+        Transfer transfer = randomTransfer();
+        engine.service.makeTransfer(transfer);
+        return transfer.isStatus();
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public CompletableFuture<TransferResult> pipelined(Engine engine) {
+        return engine.pipeline.submit(randomTransfer());
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public TransferResult pipelinedRoundTrip(Engine engine) {
+        return engine.pipeline.submit(randomTransfer()).join();
+    }
+
+    private static Transfer randomTransfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(ACCOUNTS);
+        int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+        Transfer transfer = new Transfer(0, "ACC" + from, "ACC" + to, 0, null, false);
+        transfer.setAmountPaise(100);
+        return transfer;
+    }
+}
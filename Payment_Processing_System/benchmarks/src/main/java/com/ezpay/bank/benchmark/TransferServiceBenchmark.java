@@ -0,0 +1,103 @@
+package com.ezpay.bank.benchmark;
+
+import com.ezpay.bank.dao.TransferDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.service.AccountLedger;
+import com.ezpay.bank.service.TransferServiceImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput of {@link TransferServiceImpl#makeTransfer(Transfer)}.
+ *
+ * {@code uncontended} gives each of four threads its own pair of accounts, so the
+ * threads only share the transfer store. {@code contended} sends every thread's transfers
+ * between the same two accounts, so they all queue on one pair of ledger stripes. The
+ * service is rebuilt before every iteration to keep the transfer history from growing
+ * across the whole run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TransferServiceBenchmark {
+
+    private static final int THREADS = 4;
+
+    @State(Scope.Benchmark)
+    public static class Engine {
+
+        TransferServiceImpl service;
+
+        // Hands out account pairs to the worker threads
+        final AtomicInteger nextWorker = new AtomicInteger();
+
+        @Setup(Level.Iteration)
+        public void buildService() {
+            service = new TransferServiceImpl(new AccountLedger(), new TransferDaoImpl());
+            for (int i = 0; i < 2 * THREADS; i++) {
+                BankAccount account = new BankAccount(i, "SBI", "ACC" + i, true);
+                account.setBalancePaise(Long.MAX_VALUE / 4);
+                service.addAccount(account);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Worker {
+
+        String own;
+        String peer;
+        boolean forward;
+
+        @Setup(Level.Trial)
+        public void pickAccounts(Engine engine) {
+            int pair = engine.nextWorker.getAndIncrement() % THREADS;
+            own = "ACC" + (2 * pair);
+            peer = "ACC" + (2 * pair + 1);
+        }
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public boolean uncontended(Engine engine, Worker worker) {
+        return transfer(engine, worker, worker.own, worker.peer);
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public boolean contended(Engine engine, Worker worker) {
+        return transfer(engine, worker, "ACC0", "ACC1");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean singleThread(Engine engine, Worker worker) {
+        return transfer(engine, worker, "ACC0", "ACC1");
+    }
+
+    // Alternates direction so neither account drains
+    private static boolean transfer(Engine engine, Worker worker, String a, String b) {
+        worker.forward = !worker.forward;
+        Transfer transfer = new Transfer(0, worker.forward ? a : b, worker.forward ? b : a, 0, null, false);
+        transfer.setAmountPaise(100);
+        engine.service.makeTransfer(transfer);
+        return transfer.isStatus();
+    }
+}
@@ -0,0 +1,66 @@
+package com.ezpay.bank.benchmark;
+
+import com.ezpay.bank.dao.UPIPaymentDaoImpl;
+import com.ezpay.bank.model.Transfer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link UPIPaymentDaoImpl#getTransfersBySender} as the sender's history grows.
+ *
+ * The store holds {@code historySize} transfers from the measured sender among as many
+ * transfers from other senders. {@code fullHistory} fetches and walks the whole list;
+ * {@code lastPage} fetches the newest 20, which should stay flat as the history grows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UPIHistoryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100", "10000", "1000000"})
+    public int historySize;
+
+    private UPIPaymentDaoImpl dao;
+
+    @Setup
+    public void fillHistory() {
+        dao = new UPIPaymentDaoImpl();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < historySize; i++) {
+            dao.saveUPITransfer(new Transfer(i, "ACC1", "shop" + (i % 100) + "@ybl", 10.0, now, true));
+            dao.saveUPITransfer(new Transfer(i, "ACC" + (2 + i % 1000), "shop@ybl", 10.0, now, true));
+        }
+    }
+
+    @Benchmark
+    public void fullHistory(Blackhole blackhole) {
+        for (Transfer transfer : dao.getTransfersBySender("ACC1")) {
+            blackhole.consume(transfer);
+        }
+    }
+
+    @Benchmark
+    public List<Transfer> lastPage() {
+        return dao.getTransfersBySender("ACC1", Math.max(0, historySize - PAGE_SIZE), PAGE_SIZE);
+    }
+}
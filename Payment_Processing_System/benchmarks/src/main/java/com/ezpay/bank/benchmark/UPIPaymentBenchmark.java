@@ -0,0 +1,84 @@
+package com.ezpay.bank.benchmark;
+
+import com.ezpay.bank.dao.BankAccountDao;
+import com.ezpay.bank.dao.BankAccountDaoImpl;
+import com.ezpay.bank.dao.UPIPaymentDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.service.UPIPaymentServiceImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link UPIPaymentServiceImpl#makeUPIPayment(Transfer)}, covering UPI ID
+ * validation, handle resolution, ledger settlement, ID generation and history indexing.
+ * Payments go between random pairs of {@code accounts} linked accounts. The service is
+ * rebuilt before every iteration so the history does not grow across the run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UPIPaymentBenchmark {
+
+    @Param("1000")
+    public int accounts;
+
+    private UPIPaymentServiceImpl service;
+    private String[] accountNumbers;
+    private String[] upiIds;
+
+    @Setup(Level.Iteration)
+    public void buildService() {
+        BankAccountDao accountDao = new BankAccountDaoImpl();
+        service = new UPIPaymentServiceImpl(new UPIPaymentDaoImpl(), accountDao);
+        accountNumbers = new String[accounts];
+        upiIds = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            accountNumbers[i] = "ACC" + i;
+            upiIds[i] = "user" + i + "@okaxis";
+            BankAccount account = new BankAccount(i, "SBI", accountNumbers[i], true);
+            account.setBalancePaise(Long.MAX_VALUE / (4L * accounts));
+            accountDao.addAccount(account);
+            service.linkUpiId(upiIds[i], accountNumbers[i]);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean makeUPIPayment() {
+        return pay();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean makeUPIPaymentConcurrent() {
+        return pay();
+    }
+
+    private boolean pay() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Transfer payment = new Transfer(0, accountNumbers[random.nextInt(accounts)],
+                upiIds[random.nextInt(accounts)], 0, null, false);
+        payment.setAmountPaise(100);
+        service.makeUPIPayment(payment);
+        return payment.isStatus();
+    }
+}
@@ -0,0 +1,59 @@
+package com.ezpay.bank.benchmark;
+
+import com.ezpay.bank.service.UpiIdValidator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Throughput of UPI ID validation.
+ *
+ * {@code stringMatches} is the previous {@code String.matches} check, which compiles the
+ * pattern on every call; {@code cachedPattern} reuses one compiled {@link Pattern}; and
+ * {@code validator} is the hand-written {@link UpiIdValidator}, which also checks lengths
+ * and providers. Run with {@code -prof gc} to compare allocation per call.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UpiIdValidatorBenchmark {
+
+    private static final String REGEX = "^[\\w.-]+@[\\w.-]+$";
+    private static final Pattern PATTERN = Pattern.compile(REGEX);
+
+    private static final String[] IDS = {
+            "rahul.verma@okaxis", "9876543210@paytm", "Sneha_K@YBL", "bad id@upi",
+            "meera.nair-01@okhdfcbank", "vikram@unknownbank", "no-at-sign", "a.b.c@ibl"
+    };
+
+    private final UpiIdValidator validator = new UpiIdValidator();
+    private int next;
+
+    @Benchmark
+    public boolean stringMatches() {
+        return IDS[next++ & 7].matches(REGEX);
+    }
+
+    @Benchmark
+    public boolean cachedPattern() {
+        return PATTERN.matcher(IDS[next++ & 7]).matches();
+    }
+
+    @Benchmark
+    public boolean validator() {
+        return validator.isValid(IDS[next++ & 7]);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ezpay.bank.benchmark;
+
+import com.ezpay.bank.service.VelocityLimiter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a limit check on the payment path, which should stay well under a microsecond.
+ *
+ * {@code manyKeys} spreads payments over many senders, as in normal traffic, with four
+ * threads. {@code oneKey} sends every thread's payments from the same sender, so they
+ * all queue on that sender's monitor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VelocityLimiterBenchmark {
+
+    @Param({"100000"})
+    public int keys;
+
+    private VelocityLimiter limiter;
+    private String[] accountNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Limits high enough that every payment is admitted, so each call does the full update
+        limiter = new VelocityLimiter(new VelocityLimiter.Limits(Long.MAX_VALUE / 4, 0, Long.MAX_VALUE / 2, 0));
+        accountNumbers = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            accountNumbers[i] = "ACC" + i;
+            limiter.tryAcquire(accountNumbers[i], 1);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean manyKeys() {
+        return limiter.tryAcquire(accountNumbers[ThreadLocalRandom.current().nextInt(keys)], 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean oneKey() {
+        return limiter.tryAcquire(accountNumbers[0], 1);
+    }
+}
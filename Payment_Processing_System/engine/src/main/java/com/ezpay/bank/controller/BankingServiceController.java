@@ -11,7 +11,15 @@ import java.util.List;
  */
 public class BankingServiceController {
 
-    private final BankingService bankingService = new BankingServiceImpl();
+    private final BankingService bankingService;
+
+    public BankingServiceController() {
+        this(new BankingServiceImpl());
+    }
+
+    public BankingServiceController(BankingService bankingService) {
+        this.bankingService = bankingService;
+    }
 
     /**
      * Adds a new bank account.
@@ -22,6 +30,16 @@ public class BankingServiceController {
     	bankingService.addAccount(account);
     }
 
+    /**
+     * Adds a new bank account unless the account number is already taken.
+     *
+     * @param account The BankAccount object to be added.
+     * @return true if the account was added, false if one with the same number exists.
+     */
+    public boolean addAccountIfAbsent(BankAccount account) {
+        return bankingService.addAccountIfAbsent(account);
+    }
+
     /**
      * Retrieves a bank account using the account number.
      *
@@ -41,6 +59,17 @@ public class BankingServiceController {
         return bankingService.getAllAccounts();
     }
 
+    /**
+     * Retrieves one page of bank accounts in account number order.
+     *
+     * @param afterAccountNumber The last account number of the previous page, or null for the first page.
+     * @param limit              Maximum number of accounts to return.
+     * @return List of at most {@code limit} BankAccount objects.
+     */
+    public List<BankAccount> getAccountsAfter(String afterAccountNumber, int limit) {
+        return bankingService.getAccountsAfter(afterAccountNumber, limit);
+    }
+
     /**
      * Updates the details of an existing bank account.
      *
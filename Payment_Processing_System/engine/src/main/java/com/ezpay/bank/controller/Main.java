@@ -0,0 +1,444 @@
+package com.ezpay.bank.controller;
+
+import com.ezpay.bank.dao.BankAccountDao;
+import com.ezpay.bank.dao.BankAccountDaoImpl;
+import com.ezpay.bank.dao.DurableStore;
+import com.ezpay.bank.dao.IdempotencyCache;
+import com.ezpay.bank.dao.TransferDao;
+import com.ezpay.bank.dao.TransferDaoImpl;
+import com.ezpay.bank.dao.UPIPaymentDao;
+import com.ezpay.bank.dao.UPIPaymentDaoImpl;
+import com.ezpay.bank.dao.UserDao;
+import com.ezpay.bank.dao.UserDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Money;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
+import com.ezpay.bank.model.User;
+import com.ezpay.bank.service.AccountLedger;
+import com.ezpay.bank.service.BankingServiceImpl;
+import com.ezpay.bank.service.TransactionIdGenerator;
+import com.ezpay.bank.service.TransferServiceImpl;
+import com.ezpay.bank.service.UPIPaymentServiceImpl;
+import com.ezpay.bank.service.UpiIdValidator;
+import com.ezpay.bank.service.UserServiceImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Main entry point for the EZPay Banking System.
+ * Supports user registration, banking transfers, UPI payments, and account management.
+ *
+ * Run with {@code --journal <directory>} to keep users, accounts and transfers in a
+ * durable journal that is recovered on the next start.
+ *
+ * Run with {@code --batch <file.csv>} to apply a transfer batch file and exit instead of
+ * showing the menu. Each line of the file is {@code sender,receiver,amount} with the
+ * amount in rupees; blank lines, lines starting with {@code #} and a header line are skipped.
+ */
+public class Main {
+
+    private static final Scanner scanner = new Scanner(System.in);
+    private static UserController userController;
+    private static BankingServiceController accountController;
+    private static TransferController transferController;
+    private static UPIPaymentController upiPaymentController;
+
+    public static void main(String[] args) throws IOException {
+        int choice;
+        DurableStore store = initControllers(args);
+
+        String batchFile = option(args, "--batch");
+        if (batchFile != null) {
+            try {
+                runBatch(Paths.get(batchFile));
+            } finally {
+                if (store != null) {
+                    store.close();
+                }
+            }
+            return;
+        }
+
+        System.out.println("🌟 Welcome to the EZPay Payment Processing System 🌟");
+
+        do {
+            System.out.println("\n======= EZPay Banking System Menu =======");
+            System.out.println("1. Register User");
+            System.out.println("2. Add Bank Account");
+            System.out.println("3. Make a Bank Transfer");
+            System.out.println("4. Make a UPI Payment");
+            System.out.println("5. View All Users");
+            System.out.println("6. View All Bank Accounts");
+            System.out.println("7. View All Transfers");
+            System.out.println("8. View UPI Transfers by Sender ID");
+            System.out.println("9. Load Transfer Batch File (CSV)");
+            System.out.println("10. Link UPI ID to Bank Account");
+            System.out.println("0. Exit");
+            System.out.print("Enter your choice: ");
+            choice = scanner.nextInt();
+            scanner.nextLine(); // consume newline
+
+            switch (choice) {
+                case 1 -> registerUser();
+                case 2 -> addBankAccount();
+                case 3 -> makeBankTransfer();
+                case 4 -> makeUPIPayment();
+                case 5 -> viewAllUsers();
+                case 6 -> viewAllBankAccounts();
+                case 7 -> viewAllTransfers();
+                case 8 -> viewUPITransfersBySender();
+                case 9 -> loadTransferBatch();
+                case 10 -> linkUpiId();
+                case 0 -> System.out.println("👋 Exiting... Thank you for using EZPay!");
+                default -> System.out.println("❌ Invalid choice. Please try again.");
+            }
+        } while (choice != 0);
+
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    // How often the durable store compacts its journal into a snapshot
+    private static final Duration SNAPSHOT_INTERVAL = Duration.ofMinutes(5);
+
+    // Records fetched per page when listing users, accounts and transfers
+    private static final int PAGE_SIZE = 100;
+
+    /**
+     * Wires the controllers so that account management, bank transfers and UPI payments share
+     * one account store and one ledger.
+     * With {@code --journal <directory>} the stores are recovered from and written to that journal.
+     *
+     * @param args Command-line arguments
+     * @return The open durable store, or null when running in memory only
+     */
+    private static DurableStore initControllers(String[] args) throws IOException {
+        DurableStore store = null;
+        UserDao userDao = new UserDaoImpl();
+        BankAccountDao accountDao = new BankAccountDaoImpl();
+        TransferDao transferDao = new TransferDaoImpl();
+        UPIPaymentDao upiPaymentDao = new UPIPaymentDaoImpl();
+        IdempotencyCache<Transfer> transferIdempotency = new IdempotencyCache<>();
+        IdempotencyCache<Transfer> upiIdempotency = new IdempotencyCache<>();
+
+        String journalDir = option(args, "--journal");
+        if (journalDir != null) {
+            store = DurableStore.open(Paths.get(journalDir));
+            store.startSnapshots(SNAPSHOT_INTERVAL);
+            userDao = store.getUserDao();
+            accountDao = store.getBankAccountDao();
+            transferDao = store.getTransferDao();
+            upiPaymentDao = store.getUpiPaymentDao();
+            transferIdempotency = store.getTransferIdempotencyCache();
+            upiIdempotency = store.getUpiIdempotencyCache();
+            System.out.println("📒 Recovered state from journal " + journalDir);
+        }
+
+        userController = new UserController(new UserServiceImpl(userDao));
+        accountController = new BankingServiceController(new BankingServiceImpl(accountDao));
+        TransferServiceImpl transferService = new TransferServiceImpl(new AccountLedger(accountDao), transferDao,
+                transferIdempotency);
+        transferController = new TransferController(transferService);
+        upiPaymentController = new UPIPaymentController(new UPIPaymentServiceImpl(upiPaymentDao, accountDao,
+                transferService, new TransactionIdGenerator(), new UpiIdValidator(), upiIdempotency));
+        return store;
+    }
+
+    /**
+     * Returns the value following a command-line option.
+     *
+     * @param args Command-line arguments
+     * @param name Option name, e.g. {@code --journal}
+     * @return The option value, or null if the option is not present
+     */
+    private static String option(String[] args, String name) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (name.equals(args[i])) {
+                return args[i + 1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Register a new user with required details.
+     */
+    private static void registerUser() {
+        System.out.print("Enter User ID: ");
+        int id = scanner.nextInt();
+        scanner.nextLine();
+        System.out.print("Enter Name: ");
+        String name = scanner.nextLine();
+        System.out.print("Enter Email: ");
+        String email = scanner.nextLine();
+
+        User user = new User(id, name, email, new ArrayList<>());
+        userController.registerUser(user);
+        System.out.println("✅ User registered successfully.");
+    }
+
+    /**
+     * Add and link a bank account to a user.
+     */
+    private static void addBankAccount() {
+        System.out.print("Enter Bank ID: ");
+        int id = scanner.nextInt();
+        scanner.nextLine();
+        System.out.print("Enter Bank Name: ");
+        String name = scanner.nextLine();
+        System.out.print("Enter Account Number: ");
+        String accNo = scanner.nextLine();
+        System.out.print("Is Verified (true/false): ");
+        boolean isVerified = scanner.nextBoolean();
+
+        BankAccount account = new BankAccount(id, name, accNo, isVerified);
+        accountController.addAccount(account);
+        System.out.println("✅ Bank account added successfully.");
+
+        System.out.print("Enter User ID to link this account: ");
+        int userId = scanner.nextInt();
+        scanner.nextLine();
+
+        User user = userController.getUser(userId);
+        if (user != null) {
+            user.getAccounts().add(accNo);
+            userController.updateUser(user);
+            System.out.println("🔗 Account linked to user.");
+        } else {
+            System.out.println("⚠️ User not found.");
+        }
+    }
+
+    /**
+     * Perform bank transfer between two accounts.
+     */
+    private static void makeBankTransfer() {
+        System.out.print("Enter Sender Account Number: ");
+        String sender = scanner.nextLine();
+        System.out.print("Enter Receiver Account Number: ");
+        String receiver = scanner.nextLine();
+        long amount = readAmount();
+        if (amount <= 0) {
+            System.out.println("⚠️ Invalid amount.");
+            return;
+        }
+
+        BankAccount senderAcc = accountController.getAccount(sender);
+        BankAccount receiverAcc = accountController.getAccount(receiver);
+
+        if (senderAcc == null || receiverAcc == null) {
+            System.out.println("⚠️ Sender or Receiver account not found.");
+            return;
+        }
+
+        Transfer transfer = new Transfer(0, sender, receiver, 0, LocalDateTime.now(), true);
+        transfer.setAmountPaise(amount);
+        transferController.makeTransfer(transfer);
+        System.out.println("✅ Bank Transfer successful.");
+    }
+
+    /**
+     * Ask for a CSV batch file and apply it.
+     */
+    private static void loadTransferBatch() {
+        System.out.print("Enter Batch File Path: ");
+        String path = scanner.nextLine().trim();
+        try {
+            runBatch(Paths.get(path));
+        } catch (IOException e) {
+            System.out.println("⚠️ Could not read batch file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Applies every transfer in a CSV batch file through the batch transfer API and
+     * prints a summary plus the rows that did not go through.
+     *
+     * @param file CSV file with {@code sender,receiver,amount} lines
+     * @throws IOException if the file cannot be read
+     */
+    private static void runBatch(Path file) throws IOException {
+        List<Transfer> transfers = new ArrayList<>();
+        List<Integer> lineNumbers = new ArrayList<>();
+        int skipped = 0;
+        int lineNumber = 0;
+        boolean firstRow = true;
+
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                long amount;
+                try {
+                    amount = fields.length == 3 ? Money.parse(fields[2]) : -1;
+                } catch (NumberFormatException | ArithmeticException e) {
+                    amount = -1;
+                }
+                boolean header = firstRow;
+                firstRow = false;
+                if (amount < 0) {
+                    // Only the first row may be a header; anything else is malformed
+                    if (!header) {
+                        System.out.println("⚠️ Line " + lineNumber + " skipped: " + line);
+                        skipped++;
+                    }
+                    continue;
+                }
+                Transfer transfer = new Transfer(0, fields[0].trim(), fields[1].trim(), 0, null, false);
+                transfer.setAmountPaise(amount);
+                transfers.add(transfer);
+                lineNumbers.add(lineNumber);
+            }
+        }
+
+        TransferResult[] results = transferController.makeTransfers(transfers);
+
+        int[] counts = new int[TransferResult.values().length];
+        for (int i = 0; i < results.length; i++) {
+            counts[results[i].ordinal()]++;
+            if (!results[i].isApplied()) {
+                System.out.println("❌ Line " + lineNumbers.get(i) + ": " + results[i]);
+            }
+        }
+        System.out.println("📦 Batch of " + results.length + " transfers processed"
+                + (skipped > 0 ? ", " + skipped + " malformed lines skipped" : "") + ".");
+        for (TransferResult result : TransferResult.values()) {
+            System.out.println("   " + result + ": " + counts[result.ordinal()]);
+        }
+    }
+
+    /**
+     * Reads a rupee amount with at most two decimal places.
+     *
+     * @return Amount in paise, or -1 if the input is not a valid amount
+     */
+    private static long readAmount() {
+        System.out.print("Enter Amount: ₹");
+        try {
+            return Money.parse(scanner.nextLine());
+        } catch (NumberFormatException | ArithmeticException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Link a UPI ID to an existing bank account.
+     */
+    private static void linkUpiId() {
+        System.out.print("Enter UPI ID: ");
+        String upiId = scanner.nextLine();
+        System.out.print("Enter Account Number: ");
+        String accNo = scanner.nextLine();
+
+        if (upiPaymentController.linkUpiId(upiId, accNo)) {
+            System.out.println("🔗 UPI ID linked to account.");
+        } else {
+            System.out.println("⚠️ Invalid UPI ID or account not found.");
+        }
+    }
+
+    /**
+     * Perform UPI payment using UPI ID.
+     */
+    private static void makeUPIPayment() {
+        System.out.print("Enter Sender ID (UPI ID or Account Number): ");
+        String senderId = scanner.nextLine();
+        System.out.print("Enter Receiver UPI ID: ");
+        String receiverUpiId = scanner.nextLine();
+        long amount = readAmount();
+        if (amount <= 0) {
+            System.out.println("⚠️ Invalid amount.");
+            return;
+        }
+
+        Transfer upiTransfer = new Transfer();
+        upiTransfer.setSenderAccountNumber(senderId);
+        upiTransfer.setReceiverAccountNumber(receiverUpiId);
+        upiTransfer.setAmountPaise(amount);
+        upiTransfer.setTransferDateTime(LocalDateTime.now());
+
+        String result = upiPaymentController.makeUPIPayment(upiTransfer);
+        System.out.println(result);
+    }
+
+    /**
+     * Show all users.
+     */
+    private static void viewAllUsers() {
+        System.out.println("\n👤 Registered Users:");
+        List<User> users = userController.getUsersAfter(Integer.MIN_VALUE, PAGE_SIZE);
+        while (!users.isEmpty()) {
+            for (User u : users) {
+                System.out.println("ID: " + u.getUserID() + ", Name: " + u.getUserName() + ", Email: " + u.getEmailId());
+            }
+            users = users.size() < PAGE_SIZE ? List.of()
+                    : userController.getUsersAfter(users.get(users.size() - 1).getUserID(), PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Show all bank accounts.
+     */
+    private static void viewAllBankAccounts() {
+        System.out.println("\n🏦 Bank Accounts:");
+        List<BankAccount> accounts = accountController.getAccountsAfter(null, PAGE_SIZE);
+        while (!accounts.isEmpty()) {
+            for (BankAccount acc : accounts) {
+                System.out.println(acc.getAccountNumber() + " - " + acc.getBankName() + " [Verified: " + acc.isVerified() + "]");
+            }
+            accounts = accounts.size() < PAGE_SIZE ? List.of()
+                    : accountController.getAccountsAfter(accounts.get(accounts.size() - 1).getAccountNumber(), PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Show all banking transfers.
+     */
+    private static void viewAllTransfers() {
+        System.out.println("\n💸 Bank Transfers:");
+        List<Transfer> transfers = transferController.getTransfersAfter(0, PAGE_SIZE);
+        while (!transfers.isEmpty()) {
+            for (Transfer t : transfers) {
+                System.out.println("Transfer ID: " + t.getTransferId() + ", From: " + t.getSenderAccountNumber() +
+                        ", To: " + t.getReceiverAccountNumber() + ", ₹" + Money.format(t.getAmountPaise()) + ", Date: " + t.getTransferDateTime());
+            }
+            transfers = transfers.size() < PAGE_SIZE ? List.of()
+                    : transferController.getTransfersAfter(transfers.get(transfers.size() - 1).getTransferId(), PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Show UPI transfers for a specific sender ID.
+     */
+    private static void viewUPITransfersBySender() {
+        System.out.print("Enter Sender ID to view UPI transfers: ");
+        String senderId = scanner.nextLine();
+        List<Transfer> upiTransfers = upiPaymentController.getTransfersBySender(senderId);
+
+        System.out.println("\n📱 UPI Transfers:");
+        for (Transfer t : upiTransfers) {
+            System.out.println("Transfer ID: " + t.getTransferId() + ", To UPI: " + t.getReceiverAccountNumber() +
+                    ", ₹" + Money.format(t.getAmountPaise()) + ", Date: " + t.getTransferDateTime());
+        }
+
+        if (upiTransfers.isEmpty()) {
+            System.out.println("No UPI transfers found for sender: " + senderId);
+        }
+    }
+}
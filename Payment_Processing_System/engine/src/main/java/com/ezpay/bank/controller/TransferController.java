@@ -0,0 +1,81 @@
+package com.ezpay.bank.controller;
+
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
+import com.ezpay.bank.model.TransferTotals;
+import com.ezpay.bank.service.TransferService;
+import com.ezpay.bank.service.TransferServiceImpl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Controller class for managing transfer-related operations.
+ */
+public class TransferController {
+
+    private final TransferServiceImpl transferService;
+
+    public TransferController() {
+        this(new TransferServiceImpl());
+    }
+
+    public TransferController(TransferServiceImpl transferService) {
+        this.transferService = transferService;
+    }
+
+    public void addAccount(BankAccount account) {
+        transferService.addAccount(account);
+    }
+
+    public BankAccount getAccount(String accountNumber) {
+        return transferService.getAccount(accountNumber);
+    }
+
+    public void makeTransfer(Transfer transfer) {
+        transferService.makeTransfer(transfer);
+    }
+
+    public TransferResult[] makeTransfers(List<Transfer> transfers) {
+        return transferService.makeTransfers(transfers);
+    }
+
+    public CompletableFuture<TransferResult> submitTransfer(Transfer transfer) {
+        return transferService.submitTransfer(transfer);
+    }
+
+    public Transfer getTransfer(long id) {
+        return transferService.getTransferById(id);
+    }
+
+    public List<Transfer> getAllTransfers() {
+        return transferService.getAllTransfers();
+    }
+
+    public List<Transfer> getTransfersAfter(long afterTransferId, int limit) {
+        return transferService.getTransfersAfter(afterTransferId, limit);
+    }
+
+    public List<Transfer> getTransfersBetween(String accountNumber, LocalDateTime from, LocalDateTime to, int limit) {
+        return transferService.getTransfersBetween(accountNumber, from, to, limit);
+    }
+
+    public List<Transfer> getLatestTransfers(String accountNumber, int limit) {
+        return transferService.getLatestTransfers(accountNumber, limit);
+    }
+
+    public List<Transfer> getRecentTransfers(String accountNumber, int limit) {
+        return transferService.getRecentTransfers(accountNumber, limit);
+    }
+
+    public TransferTotals getTotals(String accountNumber) {
+        return transferService.getTotals(accountNumber);
+    }
+
+    public long getDailyVolumePaise(String accountNumber, LocalDate day) {
+        return transferService.getDailyVolumePaise(accountNumber, day);
+    }
+}
@@ -0,0 +1,104 @@
+package com.ezpay.bank.controller;
+
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
+import com.ezpay.bank.service.UPIPaymentService;
+import com.ezpay.bank.service.UPIPaymentServiceImpl;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Controller class for managing UPI payment-related operations in the EZPay system.
+ * 
+ * This class acts as a bridge between the user interface (UI/CLI/API) and the service layer.
+ * It provides high-level methods for initiating and retrieving UPI transactions.
+ */
+public class UPIPaymentController {
+
+    // Service layer dependency for handling business logic
+    private final UPIPaymentService upiPaymentService;
+
+    public UPIPaymentController() {
+        this(new UPIPaymentServiceImpl());
+    }
+
+    public UPIPaymentController(UPIPaymentService upiPaymentService) {
+        this.upiPaymentService = upiPaymentService;
+    }
+
+    /**
+     * Initiates a new UPI payment by delegating to the service layer.
+     *
+     * @param transfer The Transfer object containing sender ID, receiver UPI ID, and transfer amount.
+     * @return A string message indicating whether the payment was successful or failed.
+     */
+    public String makeUPIPayment(Transfer transfer) {
+        return upiPaymentService.makeUPIPayment(transfer);
+    }
+
+    /**
+     * Submits a UPI payment and returns before it is applied.
+     *
+     * @param transfer The Transfer object containing sender ID, receiver UPI ID, and transfer amount.
+     * @return A future completed with the payment's result once it is saved.
+     */
+    public CompletableFuture<TransferResult> submitUPIPayment(Transfer transfer) {
+        return upiPaymentService.submitUPIPayment(transfer);
+    }
+
+    /**
+     * Links a UPI ID to a bank account.
+     *
+     * @param upiId         The UPI ID to link.
+     * @param accountNumber The bank account number.
+     * @return true if the link was saved, false otherwise.
+     */
+    public boolean linkUpiId(String upiId, String accountNumber) {
+        return upiPaymentService.linkUpiId(upiId, accountNumber);
+    }
+
+    /**
+     * Retrieves all UPI transactions initiated by a specific sender.
+     *
+     * @param senderId The sender's user ID or account number.
+     * @return A list of Transfer objects representing the sender’s transaction history.
+     */
+    public List<Transfer> getTransfersBySender(String senderId) {
+        return upiPaymentService.getTransfersBySender(senderId);
+    }
+
+    /**
+     * Retrieves one page of the UPI transactions initiated by a specific sender.
+     *
+     * @param senderId The sender's user ID or account number.
+     * @param offset   Number of transactions to skip.
+     * @param limit    Maximum number of transactions to return.
+     * @return A list of at most {@code limit} Transfer objects.
+     */
+    public List<Transfer> getTransfersBySender(String senderId, int offset, int limit) {
+        return upiPaymentService.getTransfersBySender(senderId, offset, limit);
+    }
+
+    /**
+     * Retrieves all UPI transactions received by a specific UPI ID.
+     *
+     * @param receiverUpiId The receiver's UPI ID.
+     * @return A list of Transfer objects received by the UPI ID.
+     */
+    public List<Transfer> getTransfersByReceiver(String receiverUpiId) {
+        return upiPaymentService.getTransfersByReceiver(receiverUpiId);
+    }
+
+    /**
+     * Retrieves one page of the UPI transactions received by a specific UPI ID.
+     *
+     * @param receiverUpiId The receiver's UPI ID.
+     * @param offset        Number of transactions to skip.
+     * @param limit         Maximum number of transactions to return.
+     * @return A list of at most {@code limit} Transfer objects.
+     */
+    public List<Transfer> getTransfersByReceiver(String receiverUpiId, int offset, int limit) {
+        return upiPaymentService.getTransfersByReceiver(receiverUpiId, offset, limit);
+    }
+}
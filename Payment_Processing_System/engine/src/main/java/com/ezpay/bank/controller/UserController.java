@@ -11,7 +11,15 @@ import java.util.List;
  */
 public class UserController {
 
-    private final UserService userService = new UserServiceImpl();
+    private final UserService userService;
+
+    public UserController() {
+        this(new UserServiceImpl());
+    }
+
+    public UserController(UserService userService) {
+        this.userService = userService;
+    }
 
     /**
      * Registers a new user.
@@ -41,6 +49,17 @@ public class UserController {
         return userService.getAllUsers();
     }
 
+    /**
+     * Retrieves one page of users in user ID order.
+     *
+     * @param afterUserId The last user ID of the previous page.
+     * @param limit       Maximum number of users to return.
+     * @return A list of at most {@code limit} User objects.
+     */
+    public List<User> getUsersAfter(int afterUserId, int limit) {
+        return userService.getUsersAfter(afterUserId, limit);
+    }
+
     /**
      * Updates user details.
      *
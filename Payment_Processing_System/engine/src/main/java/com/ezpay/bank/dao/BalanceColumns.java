@@ -0,0 +1,42 @@
+package com.ezpay.bank.dao;
+
+/**
+ * Balances kept in primitive columns, addressed by row number.
+ *
+ * An account store that implements this lets a ledger move money without a BankAccount
+ * object per lookup: it resolves each account number to a row once, then reads and
+ * changes the balance by row. A row stays valid for the life of the store; a deleted
+ * account's row keeps its last balance and is never given to another account.
+ */
+public interface BalanceColumns {
+
+    /**
+     * @param accountNumber An account number
+     * @return The account's row, or -1 if there is no such account
+     */
+    int rowOf(String accountNumber);
+
+    /**
+     * @param row A row returned by {@link #rowOf(String)}
+     * @return The row's balance in paise
+     */
+    long balanceOf(int row);
+
+    /**
+     * Adds to a row's balance atomically; needs no lock.
+     *
+     * @param row         A row returned by {@link #rowOf(String)}
+     * @param amountPaise Amount to add in paise
+     * @throws ArithmeticException if the balance would overflow; it is then unchanged
+     */
+    void credit(int row, long amountPaise);
+
+    /**
+     * Takes an amount off a row's balance atomically. The caller must hold the ledger's
+     * lock for the account and have checked that the balance covers the amount.
+     *
+     * @param row         A row returned by {@link #rowOf(String)}
+     * @param amountPaise Amount to take off in paise
+     */
+    void debit(int row, long amountPaise);
+}
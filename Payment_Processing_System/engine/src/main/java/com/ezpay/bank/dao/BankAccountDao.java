@@ -0,0 +1,112 @@
+package com.ezpay.bank.dao;
+
+import com.ezpay.bank.model.BankAccount;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Interface for performing CRUD operations on BankAccount entities.
+ * This provides an abstraction for managing bank accounts in the system.
+ */
+public interface BankAccountDao {
+
+    /**
+     * Adds a new bank account to the system.
+     *
+     * @param account The BankAccount object to be added.
+     */
+    void addAccount(BankAccount account);
+
+    /**
+     * Adds a new bank account unless one with the same account number already exists.
+     * The check and the add are one atomic step.
+     *
+     * @param account The BankAccount object to be added.
+     * @return true if the account was added, false if the account number is taken.
+     */
+    boolean addAccountIfAbsent(BankAccount account);
+
+    /**
+     * Retrieves a bank account using its account number.
+     *
+     * @param accountNumber The account number to search for.
+     * @return The BankAccount object if found; otherwise, null.
+     */
+    BankAccount getAccountByNumber(String accountNumber);
+
+    /**
+     * Checks whether an account exists. Stores that hand out a new view per lookup
+     * override this to answer without creating one.
+     *
+     * @param accountNumber The account number to search for.
+     * @return true if the account exists.
+     */
+    default boolean containsAccount(String accountNumber) {
+        return getAccountByNumber(accountNumber) != null;
+    }
+
+    /**
+     * Retrieves all bank accounts stored in the system.
+     *
+     * @return A list of all BankAccount objects.
+     */
+    List<BankAccount> getAllAccounts();
+
+    /**
+     * Retrieves one page of bank accounts in account number order, starting after a given
+     * account number. Pass the last account number of a page to get the next one; a short
+     * page is the last.
+     *
+     * @param afterAccountNumber The account number to start after, or null for the first page.
+     * @param limit              Maximum number of accounts to return.
+     * @return A list of at most {@code limit} BankAccount objects.
+     */
+    List<BankAccount> getAccountsAfter(String afterAccountNumber, int limit);
+
+    /**
+     * Passes every bank account to an action, without copying them into a list.
+     *
+     * @param action Called once for each account.
+     */
+    void forEachAccount(Consumer<? super BankAccount> action);
+
+    /**
+     * Updates the details of an existing bank account: its bank ID, bank name and
+     * verification status. The stored balance is left alone, since balances only change
+     * through the ledger. If the account does not exist, this may add it as a new one
+     * based on implementation.
+     *
+     * @param account The updated BankAccount object.
+     */
+    void updateAccount(BankAccount account);
+
+    /**
+     * Deletes a bank account from the system using its account number.
+     *
+     * @param accountNumber The account number of the account to delete.
+     */
+    void deleteAccount(String accountNumber);
+
+    /**
+     * Points a UPI handle at a bank account, replacing any earlier link for that handle.
+     *
+     * @param upiId         The UPI handle, already normalized.
+     * @param accountNumber The account number that receives and pays for the handle.
+     */
+    void linkUpiHandle(String upiId, String accountNumber);
+
+    /**
+     * Removes a UPI handle from the directory.
+     *
+     * @param upiId The UPI handle, already normalized.
+     */
+    void unlinkUpiHandle(String upiId);
+
+    /**
+     * Retrieves the bank account a UPI handle is linked to.
+     *
+     * @param upiId The UPI handle, already normalized.
+     * @return The linked BankAccount, or null if the handle is not linked or the account no longer exists.
+     */
+    BankAccount getAccountByUpiHandle(String upiId);
+}
@@ -0,0 +1,275 @@
+package com.ezpay.bank.dao;
+
+import com.ezpay.bank.model.BankAccount;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of the BankAccountDao interface using an in-memory ConcurrentHashMap.
+ * This class provides CRUD operations for managing BankAccount entities and is safe
+ * to share between threads.
+ *
+ * Account numbers are also kept in a sorted set, so accounts can be paged in account
+ * number order while lookups stay a single hash probe.
+ *
+ * It also keeps the UPI handle directory, a map from UPI handle to account number, so a
+ * UPI payment resolves its accounts with two hash lookups.
+ *
+ * When created with a {@link TransferJournal}, every add, update and delete is journaled
+ * and synced before it is applied. An added account is journaled with its opening
+ * balance; an update journals only the account's details, so replay never overwrites a
+ * balance that later transfer records also account for.
+ */
+public class BankAccountDaoImpl implements BankAccountDao {
+
+    // Stores bank accounts with account number as the key.
+    private final Map<String, BankAccount> accountMap = new ConcurrentHashMap<>();
+
+    // Account numbers in order, for paging
+    private final NavigableSet<String> accountIndex = new ConcurrentSkipListSet<>();
+
+    // Maps UPI handle to account number
+    private final Map<String, String> upiDirectory = new ConcurrentHashMap<>();
+
+    // Optional durable journal; null keeps accounts in memory only
+    private final TransferJournal journal;
+
+    // Makes addAccountIfAbsent's check and its journaled add one step
+    private final Object addLock = new Object();
+
+    /**
+     * Creates a purely in-memory account store.
+     */
+    public BankAccountDaoImpl() {
+        this(null);
+    }
+
+    /**
+     * Creates an account store that journals every change.
+     *
+     * @param journal Journal to write to, or null for an in-memory store
+     */
+    public BankAccountDaoImpl(TransferJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Adds a new bank account to the system.
+     * If an account with the same account number already exists, it will be overwritten.
+     *
+     * @param account The BankAccount object to be added.
+     */
+    @Override
+    public void addAccount(BankAccount account) {
+        synchronized (addLock) {
+            if (journal != null) {
+                journal.sync(journal.appendAccount(account));
+            }
+            accountMap.put(account.getAccountNumber(), account);
+            accountIndex.add(account.getAccountNumber());
+        }
+    }
+
+    /**
+     * Adds a new bank account unless the account number is already taken.
+     *
+     * @param account The BankAccount object to be added.
+     * @return true if the account was added, false if the account number is taken.
+     */
+    @Override
+    public boolean addAccountIfAbsent(BankAccount account) {
+        synchronized (addLock) {
+            if (accountMap.containsKey(account.getAccountNumber())) {
+                return false;
+            }
+            addAccount(account);
+            return true;
+        }
+    }
+
+    /**
+     * Retrieves a bank account by its account number.
+     *
+     * @param accountNumber The account number to search for.
+     * @return The corresponding BankAccount object, or null if not found.
+     */
+    @Override
+    public BankAccount getAccountByNumber(String accountNumber) {
+        return accountMap.get(accountNumber);
+    }
+
+    /**
+     * Returns a list of all bank accounts stored in memory.
+     *
+     * @return A list of BankAccount objects.
+     */
+    @Override
+    public List<BankAccount> getAllAccounts() {
+        return new ArrayList<>(accountMap.values());
+    }
+
+    /**
+     * Returns one page of accounts in account number order, read from the index after the cursor.
+     * An account deleted while the page is read is skipped.
+     *
+     * @param afterAccountNumber The account number to start after, or null for the first page.
+     * @param limit              Maximum number of accounts to return.
+     * @return A list of at most {@code limit} BankAccount objects.
+     */
+    @Override
+    public List<BankAccount> getAccountsAfter(String afterAccountNumber, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        Iterable<String> numbers = afterAccountNumber == null
+                ? accountIndex
+                : accountIndex.tailSet(afterAccountNumber, false);
+        List<BankAccount> page = new ArrayList<>(Math.min(limit, 1024));
+        for (String accountNumber : numbers) {
+            if (page.size() == limit) {
+                break;
+            }
+            BankAccount account = accountMap.get(accountNumber);
+            if (account != null) {
+                page.add(account);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Passes every account to the action, in no particular order.
+     *
+     * @param action Called once for each account.
+     */
+    @Override
+    public void forEachAccount(Consumer<? super BankAccount> action) {
+        accountMap.values().forEach(action);
+    }
+
+    /**
+     * Copies the bank ID, bank name and verification status onto the stored account,
+     * keeping its balance and the object the ledger holds.
+     * If the account doesn't exist, it will be added.
+     *
+     * @param account The BankAccount object with updated information.
+     */
+    @Override
+    public void updateAccount(BankAccount account) {
+        BankAccount existing = accountMap.get(account.getAccountNumber());
+        if (existing == null) {
+            addAccount(account);
+            return;
+        }
+        if (journal != null) {
+            journal.sync(journal.appendAccountDetails(account));
+        }
+        if (existing != account) {
+            existing.setDetails(account);
+        }
+    }
+
+    /**
+     * Deletes a bank account from the system using the account number.
+     *
+     * @param accountNumber The account number of the bank account to delete.
+     */
+    @Override
+    public void deleteAccount(String accountNumber) {
+        if (journal != null) {
+            journal.sync(journal.appendAccountDeleted(accountNumber));
+        }
+        accountMap.remove(accountNumber);
+        accountIndex.remove(accountNumber);
+    }
+
+    /**
+     * Links a UPI handle to an account number.
+     *
+     * @param upiId         The UPI handle, already normalized.
+     * @param accountNumber The account number to link.
+     */
+    @Override
+    public void linkUpiHandle(String upiId, String accountNumber) {
+        if (journal != null) {
+            journal.sync(journal.appendUpiHandle(upiId, accountNumber));
+        }
+        upiDirectory.put(upiId, accountNumber);
+    }
+
+    /**
+     * Removes a UPI handle from the directory.
+     *
+     * @param upiId The UPI handle, already normalized.
+     */
+    @Override
+    public void unlinkUpiHandle(String upiId) {
+        if (journal != null) {
+            journal.sync(journal.appendUpiHandle(upiId, null));
+        }
+        upiDirectory.remove(upiId);
+    }
+
+    /**
+     * Resolves a UPI handle to its linked account.
+     *
+     * @param upiId The UPI handle, already normalized.
+     * @return The linked account, or null if there is none.
+     */
+    @Override
+    public BankAccount getAccountByUpiHandle(String upiId) {
+        if (upiId == null) {
+            return null;
+        }
+        String accountNumber = upiDirectory.get(upiId);
+        return accountNumber == null ? null : accountMap.get(accountNumber);
+    }
+
+    /**
+     * Applies a UPI handle change read from the journal.
+     *
+     * @param upiId         The replayed UPI handle
+     * @param accountNumber The linked account number, or null if the handle was unlinked
+     */
+    void restoreUpiHandle(String upiId, String accountNumber) {
+        if (accountNumber == null) {
+            upiDirectory.remove(upiId);
+        } else {
+            upiDirectory.put(upiId, accountNumber);
+        }
+    }
+
+    /**
+     * Puts back an account read from the journal.
+     *
+     * @param account The replayed account
+     */
+    void restoreAccount(BankAccount account) {
+        accountMap.put(account.getAccountNumber(), account);
+        accountIndex.add(account.getAccountNumber());
+    }
+
+    /**
+     * Applies an account details change read from the journal.
+     *
+     * @param details The replayed details; its balance is not used
+     */
+    void restoreAccountDetails(BankAccount details) {
+        BankAccount existing = accountMap.get(details.getAccountNumber());
+        if (existing != null) {
+            existing.setDetails(details);
+        }
+    }
+
+    /**
+     * Removes an account whose deletion was read from the journal.
+     *
+     * @param accountNumber The replayed account number
+     */
+    void restoreDelete(String accountNumber) {
+        accountMap.remove(accountNumber);
+        accountIndex.remove(accountNumber);
+    }
+}
@@ -0,0 +1,1012 @@
+package com.ezpay.bank.dao;
+
+import com.ezpay.bank.model.BankAccount;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Account store for very large numbers of accounts, keeping every field in primitive
+ * columns instead of one BankAccount object per account.
+ *
+ * Each account number is interned to a dense row number. The row's balance, bank ID,
+ * bank name code and flags sit in paged {@code long}, {@code int}, {@code short} and
+ * {@code byte} arrays, and its account number is stored once as UTF-8 bytes in a paged
+ * byte arena. An open-addressing {@code int} table maps account numbers to rows. Pages
+ * are never copied when the table grows, so a row stays where it is. Bank names come
+ * from a small dictionary, since a handful of banks hold every account. A live account
+ * costs 19 bytes of columns, 8 bytes of index at the worst load factor and its account
+ * number plus one length byte; see {@link #getFootprintBytes()}. Live rows are also kept
+ * in account number order for paging, in sorted chunks of row numbers that an add, delete
+ * or rename updates in place, at 4 bytes a row plus the chunks' free space.
+ *
+ * The store hands out a BankAccount view of a row at the API boundary. A view reads and
+ * writes the columns directly, so an account added here is copied in and later changes
+ * to the object passed to {@link #addAccount(BankAccount)} are not seen. The ledgers do
+ * not use views: through {@link BalanceColumns} they resolve each account number to its
+ * row and move balances with atomic array updates, so a transfer allocates nothing.
+ * Credits are lock-free compare-and-set updates; debits rely on the ledger locking the
+ * sender.
+ *
+ * Adding, deleting and renaming accounts takes a write lock; lookups read the index
+ * optimistically and only take a read lock if a write ran at the same time. A deleted
+ * row is not reused, and neither are the bytes of an old account number, so they stay
+ * allocated until the store is rebuilt. Accounts are held in memory only: this store
+ * has no journal.
+ */
+public class BankAccountTable implements BankAccountDao, BalanceColumns {
+
+    // Rows per column page
+    private static final int PAGE_BITS = 14;
+    private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+
+    // Bytes per page of the account number arena
+    private static final int KEY_PAGE_BITS = 16;
+    private static final int KEY_PAGE_SIZE = 1 << KEY_PAGE_BITS;
+    private static final int MAX_KEY_BYTES = 255;
+
+    private static final byte VERIFIED = 1;
+    private static final byte DELETED = 2;
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle SHORTS = MethodHandles.arrayElementVarHandle(short[].class);
+    private static final VarHandle BYTES = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final StampedLock lock = new StampedLock();
+
+    private volatile Columns columns = new Columns(0);
+    private volatile byte[][] keyPages = new byte[0][];
+    private volatile int[] index = new int[1024];
+    private volatile int rowCount;
+
+    // Rows in the index, and the next free byte of the arena; both guarded by the write lock
+    private int indexed;
+    private int keyEnd;
+
+    // Bank name dictionary, copied on write so views read it without locking; code 0 is a null name
+    private volatile String[] bankNames = {null};
+    private final Map<String, Short> bankCodes = new HashMap<>();
+
+    // Live rows in account number order; guarded by the lock
+    private final SortedIndex sorted = new SortedIndex();
+
+    // Maps UPI handle to account number
+    private final Map<String, String> upiDirectory = new ConcurrentHashMap<>();
+
+    // One array per column; a new Columns shares every existing page with the old one
+    private static final class Columns {
+        final long[][] balances;
+        final int[][] bankIds;
+        final short[][] bankNameCodes;
+        final byte[][] flags;
+        final int[][] keyRefs;
+
+        Columns(int pages) {
+            balances = new long[pages][];
+            bankIds = new int[pages][];
+            bankNameCodes = new short[pages][];
+            flags = new byte[pages][];
+            keyRefs = new int[pages][];
+        }
+
+        Columns(Columns old) {
+            int pages = old.balances.length + 1;
+            balances = Arrays.copyOf(old.balances, pages);
+            bankIds = Arrays.copyOf(old.bankIds, pages);
+            bankNameCodes = Arrays.copyOf(old.bankNameCodes, pages);
+            flags = Arrays.copyOf(old.flags, pages);
+            keyRefs = Arrays.copyOf(old.keyRefs, pages);
+            int rows = PAGE_MASK + 1;
+            balances[pages - 1] = new long[rows];
+            bankIds[pages - 1] = new int[rows];
+            bankNameCodes[pages - 1] = new short[rows];
+            flags[pages - 1] = new byte[rows];
+            keyRefs[pages - 1] = new int[rows];
+        }
+    }
+
+    // Row numbers in account number order, split into sorted chunks so an insert or
+    // removal shifts at most one chunk; every method needs the lock held
+    private final class SortedIndex {
+        static final int CHUNK = 512;
+
+        int[][] chunks = new int[4][];
+        int[] sizes = new int[4];
+        int count;
+
+        // Caller holds the write lock
+        void insert(int row) {
+            if (count == 0) {
+                // Chunks are never left empty, so the first row starts the first chunk
+                addChunk(0);
+                chunks[0][0] = row;
+                sizes[0] = 1;
+                return;
+            }
+            int c =Math.min(firstChunkNotBefore(row), count - 1);
+            int pos = firstNotBefore(chunks[c], sizes[c], row);
+            if (sizes[c] == CHUNK) {
+                if (c == count - 1 && pos == CHUNK) {
+                    // Appending past the last row, as numbers issued in order do: start a
+                    // new chunk rather than leave two half-full ones
+                    addChunk(count);
+                    c = count - 1;
+                    pos = 0;
+                } else {
+                    split(c);
+                    if (pos > sizes[c]) {
+                        pos -= sizes[c];
+                        c++;
+                    }
+                }
+            }
+            int[] chunk = chunks[c];
+            System.arraycopy(chunk, pos, chunk, pos + 1, sizes[c] - pos);
+            chunk[pos] = row;
+            sizes[c]++;
+        }
+
+        // Caller holds the write lock, and the row still has the number it was inserted under
+        void remove(int row) {
+            int c = firstChunkNotBefore(row);
+            if (c == count) {
+                return;
+            }
+            int[] chunk = chunks[c];
+            int pos = firstNotBefore(chunk, sizes[c], row);
+            if (pos == sizes[c] || chunk[pos] != row) {
+                return;
+            }
+            System.arraycopy(chunk, pos + 1, chunk, pos, sizes[c] - pos - 1);
+            if (--sizes[c] == 0 && count == 1) {
+                chunks[--count] = null;
+                return;
+            }
+            // Keeps neighbouring chunks more than a chunk's worth between them, so they
+            // stay at least half full on average however many rows are deleted
+            if (sizes[c] <= CHUNK / 2) {
+                if (c + 1 < count && sizes[c] + sizes[c + 1] <= CHUNK) {
+                    merge(c);
+                } else if (c > 0 && sizes[c - 1] + sizes[c] <= CHUNK) {
+                    merge(c - 1);
+                }
+            }
+        }
+
+        // Up to limit rows whose account numbers sort after the given one; caller holds the lock
+        void after(String accountNumber, int limit, List<BankAccount> page) {
+            int c = 0;
+            int pos = 0;
+            if (accountNumber != null) {
+                int low = 0;
+                int high = count;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (compareKey(chunks[mid][sizes[mid] - 1], accountNumber) <= 0) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+                c = low;
+                if (c < count) {
+                    high = sizes[c];
+                    while (pos < high) {
+                        int mid = (pos + high) >>> 1;
+                        if (compareKey(chunks[c][mid], accountNumber) <= 0) {
+                            pos = mid + 1;
+                        } else {
+                            high = mid;
+                        }
+                    }
+                }
+            }
+            for (; c < count && page.size() < limit; c++, pos = 0) {
+                for (; pos < sizes[c] && page.size() < limit; pos++) {
+                    page.add(new AccountRow(chunks[c][pos], null));
+                }
+            }
+        }
+
+        long footprintBytes() {
+            return (long) count * CHUNK * Integer.BYTES;
+        }
+
+        // First chunk whose last row does not sort before the row, or count
+        private int firstChunkNotBefore(int row) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareRows(chunks[mid][sizes[mid] - 1], row) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int firstNotBefore(int[] chunk, int size, int row) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareRows(chunk[mid], row) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void addChunk(int at) {
+            if (count == chunks.length) {
+                chunks = Arrays.copyOf(chunks, count * 2);
+                sizes = Arrays.copyOf(sizes, count * 2);
+            }
+            System.arraycopy(chunks, at, chunks, at + 1, count - at);
+            System.arraycopy(sizes, at, sizes, at + 1, count - at);
+            chunks[at] = new int[CHUNK];
+            sizes[at] = 0;
+            count++;
+        }
+
+        // Moves the upper half of a full chunk into a new chunk after it
+        private void split(int c) {
+            addChunk(c + 1);
+            int keep = sizes[c] / 2;
+            int moved = sizes[c] - keep;
+            System.arraycopy(chunks[c], keep, chunks[c + 1], 0, moved);
+            sizes[c] = keep;
+            sizes[c + 1] = moved;
+        }
+
+        // Moves chunk c + 1 onto the end of chunk c and drops it
+        private void merge(int c) {
+            System.arraycopy(chunks[c + 1], 0, chunks[c], sizes[c], sizes[c + 1]);
+            sizes[c] += sizes[c + 1];
+            System.arraycopy(chunks, c + 2, chunks, c + 1, count - c - 2);
+            System.arraycopy(sizes, c + 2, sizes, c + 1, count - c - 2);
+            chunks[--count] = null;
+        }
+    }
+
+    /**
+     * Adds an account, copying its fields into the table. An existing account with the
+     * same number is overwritten, balance included.
+     *
+     * @param account The BankAccount object to be added.
+     * @throws IllegalArgumentException if the account number is null or longer than 255 UTF-8 bytes
+     */
+    @Override
+    public void addAccount(BankAccount account) {
+        insert(account, true);
+    }
+
+    /**
+     * Adds an account unless the account number is already taken.
+     *
+     * @param account The BankAccount object to be added.
+     * @return true if the account was added, false if the account number is taken.
+     * @throws IllegalArgumentException if the account number is null or longer than 255 UTF-8 bytes
+     */
+    @Override
+    public boolean addAccountIfAbsent(BankAccount account) {
+        return insert(account, false);
+    }
+
+    /**
+     * Looks up an account. The index is read without locking unless an account is being
+     * added or deleted at the same moment.
+     *
+     * @param accountNumber The account number to search for.
+     * @return A view of the account's row, or null if not found.
+     */
+    @Override
+    public BankAccount getAccountByNumber(String accountNumber) {
+        int row = rowOf(accountNumber);
+        return row < 0 ? null : new AccountRow(row, accountNumber);
+    }
+
+    /**
+     * Checks for an account without creating a view of it.
+     *
+     * @param accountNumber The account number to search for.
+     * @return true if the account exists.
+     */
+    @Override
+    public boolean containsAccount(String accountNumber) {
+        return rowOf(accountNumber) >= 0;
+    }
+
+    /**
+     * Resolves an account number to its row, reading the index like
+     * {@link #getAccountByNumber(String)}.
+     *
+     * @param accountNumber The account number to search for.
+     * @return The account's row, or -1 if not found.
+     */
+    @Override
+    public int rowOf(String accountNumber) {
+        if (accountNumber == null) {
+            return -1;
+        }
+        int hash = hash(accountNumber);
+        long stamp = lock.tryOptimisticRead();
+        int row = stamp == 0 ? -1 : find(accountNumber, hash);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                row = find(accountNumber, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return row;
+    }
+
+    @Override
+    public long balanceOf(int row) {
+        return (long) LONGS.getVolatile(columns.balances[row >>> PAGE_BITS], row & PAGE_MASK);
+    }
+
+    @Override
+    public void credit(int row, long amountPaise) {
+        long[] page = columns.balances[row >>> PAGE_BITS];
+        int slot = row & PAGE_MASK;
+        long current;
+        do {
+            current = (long) LONGS.getVolatile(page, slot);
+        } while (!LONGS.compareAndSet(page, slot, current, Math.addExact(current, amountPaise)));
+    }
+
+    @Override
+    public void debit(int row, long amountPaise) {
+        LONGS.getAndAdd(columns.balances[row >>> PAGE_BITS], row & PAGE_MASK, -amountPaise);
+    }
+
+    /**
+     * Returns views of every live account, in the order they were added.
+     *
+     * @return A list of BankAccount views.
+     */
+    @Override
+    public List<BankAccount> getAllAccounts() {
+        List<BankAccount> accounts = new ArrayList<>(Math.max(0, indexedCount()));
+        forEachAccount(accounts::add);
+        return accounts;
+    }
+
+    /**
+     * Returns one page of accounts in account number order, read from the sorted index
+     * under the read lock, so a page never holds a deleted account.
+     *
+     * @param afterAccountNumber The account number to start after, or null for the first page.
+     * @param limit              Maximum number of accounts to return.
+     * @return A list of at most {@code limit} BankAccount views.
+     */
+    @Override
+    public List<BankAccount> getAccountsAfter(String afterAccountNumber, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        long stamp = lock.readLock();
+        try {
+            List<BankAccount> page = new ArrayList<>(Math.min(limit, indexed));
+            sorted.after(afterAccountNumber, limit, page);
+            return page;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Passes a view of every live account to the action, in the order they were added.
+     * Walks the columns directly, so nothing but the views is allocated.
+     *
+     * @param action Called once for each account.
+     */
+    @Override
+    public void forEachAccount(Consumer<? super BankAccount> action) {
+        int rows = rowCount;
+        Columns cols = columns;
+        for (int row = 0; row < rows; row++) {
+            if (((byte) BYTES.getVolatile(cols.flags[row >>> PAGE_BITS], row & PAGE_MASK) & DELETED) == 0) {
+                action.accept(new AccountRow(row, null));
+            }
+        }
+    }
+
+    /**
+     * Copies an account's bank ID, bank name and verification status into its row,
+     * keeping the balance, or adds it if it does not exist.
+     *
+     * @param account The BankAccount object with updated information.
+     */
+    @Override
+    public void updateAccount(BankAccount account) {
+        String accountNumber = account.getAccountNumber();
+        if (accountNumber != null) {
+            long stamp = lock.writeLock();
+            try {
+                int row = find(accountNumber, hash(accountNumber));
+                if (row >= 0) {
+                    writeRow(row, account.getBankid(), account.getBankName(), account.isVerified());
+                    return;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        addAccount(account);
+    }
+
+    /**
+     * Deletes an account. Its row is marked deleted and dropped from the index; views of
+     * it already handed out keep reading its last values.
+     *
+     * @param accountNumber The account number of the bank account to delete.
+     */
+    @Override
+    public void deleteAccount(String accountNumber) {
+        if (accountNumber == null) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            int[] table = index;
+            int mask = table.length - 1;
+            for (int i = hash(accountNumber) & mask; table[i] != 0; i = (i + 1) & mask) {
+                int row = table[i] - 1;
+                if (keyEquals(row, accountNumber)) {
+                    Columns cols = columns;
+                    byte[] flags = cols.flags[row >>> PAGE_BITS];
+                    BYTES.setVolatile(flags, row & PAGE_MASK, (byte) (flags[row & PAGE_MASK] | DELETED));
+                    sorted.remove(row);
+                    removeFromIndex(table, i);
+                    indexed--;
+                    return;
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Links a UPI handle to an account number.
+     *
+     * @param upiId         The UPI handle, already normalized.
+     * @param accountNumber The account number to link.
+     */
+    @Override
+    public void linkUpiHandle(String upiId, String accountNumber) {
+        upiDirectory.put(upiId, accountNumber);
+    }
+
+    /**
+     * Removes a UPI handle from the directory.
+     *
+     * @param upiId The UPI handle, already normalized.
+     */
+    @Override
+    public void unlinkUpiHandle(String upiId) {
+        upiDirectory.remove(upiId);
+    }
+
+    /**
+     * Resolves a UPI handle to its linked account.
+     *
+     * @param upiId The UPI handle, already normalized.
+     * @return The linked account, or null if there is none.
+     */
+    @Override
+    public BankAccount getAccountByUpiHandle(String upiId) {
+        if (upiId == null) {
+            return null;
+        }
+        String accountNumber = upiDirectory.get(upiId);
+        return accountNumber == null ? null : getAccountByNumber(accountNumber);
+    }
+
+    /**
+     * Estimates the memory held by the table: allocated column pages, the index, the
+     * account number arena and the sorted paging order. Object headers of the arrays and
+     * the UPI directory are not counted.
+     *
+     * @return Approximate size in bytes
+     */
+    public long getFootprintBytes() {
+        long stamp = lock.readLock();
+        try {
+            long rowCapacity = (long) columns.balances.length << PAGE_BITS;
+            long bytes = rowCapacity * (Long.BYTES + Integer.BYTES + Short.BYTES + Byte.BYTES + Integer.BYTES);
+            bytes += (long) index.length * Integer.BYTES;
+            bytes += (long) keyPages.length * KEY_PAGE_SIZE;
+            bytes += sorted.footprintBytes();
+            return bytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Copies an account into a new row, or into its existing row if overwrite is set
+    private boolean insert(BankAccount account, boolean overwrite) {
+        String accountNumber = account.getAccountNumber();
+        byte[] key = encodeKey(accountNumber);
+        long balance = account.getBalancePaise();
+        long stamp = lock.writeLock();
+        try {
+            int row = find(accountNumber, hash(accountNumber));
+            if (row >= 0 && !overwrite) {
+                return false;
+            }
+            if (row < 0) {
+                row = appendRow(key, hash(accountNumber));
+            }
+            writeRow(row, account.getBankid(), account.getBankName(), account.isVerified());
+            Columns cols = columns;
+            LONGS.setVolatile(cols.balances[row >>> PAGE_BITS], row & PAGE_MASK, balance);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Gives a row a new account number; its old number's bytes stay in the arena
+    private void rename(int row, String accountNumber) {
+        byte[] key = encodeKey(accountNumber);
+        long stamp = lock.writeLock();
+        try {
+            Columns cols = columns;
+            if ((cols.flags[row >>> PAGE_BITS][row & PAGE_MASK] & DELETED) != 0) {
+                throw new IllegalStateException("Account has been deleted");
+            }
+            int hash = hash(accountNumber);
+            int taken = find(accountNumber, hash);
+            if (taken == row) {
+                return;
+            }
+            if (taken >= 0) {
+                throw new IllegalArgumentException("Account number " + accountNumber + " is already taken");
+            }
+            String oldNumber = keyOf(row);
+            int[] table = index;
+            int mask = table.length - 1;
+            int i = keyHash(row) & mask;
+            while (table[i] != row + 1) {
+                i = (i + 1) & mask;
+            }
+            sorted.remove(row);
+            removeFromIndex(table, i);
+            indexed--;
+
+            cols.keyRefs[row >>> PAGE_BITS][row & PAGE_MASK] = appendKey(key);
+            indexRow(row, hash);
+            sorted.insert(row);
+            upiDirectory.replaceAll((upiId, linked) -> linked.equals(oldNumber) ? accountNumber : linked);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static byte[] encodeKey(String accountNumber) {
+        if (accountNumber == null) {
+            throw new IllegalArgumentException("Account number is required");
+        }
+        byte[] key = accountNumber.getBytes(StandardCharsets.UTF_8);
+        if (key.length > MAX_KEY_BYTES) {
+            throw new IllegalArgumentException("Account number is longer than " + MAX_KEY_BYTES + " bytes");
+        }
+        return key;
+    }
+
+    // Row holding the account number, or -1. Safe to call under an optimistic read: a
+    // half-written table can give a wrong answer, which validation then discards, but
+    // never an exception.
+    private int find(String accountNumber, int hash) {
+        int[] table = index;
+        int mask = table.length - 1;
+        for (int probes = 0, i = hash & mask; probes < table.length; probes++, i = (i + 1) & mask) {
+            int entry = table[i];
+            if (entry == 0) {
+                return -1;
+            }
+            if (keyEquals(entry - 1, accountNumber)) {
+                return entry - 1;
+            }
+        }
+        return -1;
+    }
+
+    // Compares a row's stored account number with a string, without decoding it for ASCII keys
+    private boolean keyEquals(int row, String accountNumber) {
+        Columns cols = columns;
+        int page = row >>> PAGE_BITS;
+        if (page >= cols.keyRefs.length || cols.keyRefs[page] == null) {
+            return false;
+        }
+        int ref = cols.keyRefs[page][row & PAGE_MASK];
+        byte[][] arena = keyPages;
+        if ((ref >>> KEY_PAGE_BITS) >= arena.length || arena[ref >>> KEY_PAGE_BITS] == null) {
+            return false;
+        }
+        byte[] bytes = arena[ref >>> KEY_PAGE_BITS];
+        int offset = ref & (KEY_PAGE_SIZE - 1);
+        int length = bytes[offset] & 0xFF;
+        if (offset + 1 + length > KEY_PAGE_SIZE) {
+            return false;
+        }
+        for (int i = 0; i < accountNumber.length(); i++) {
+            char c = accountNumber.charAt(i);
+            if (c >= 0x80) {
+                byte[] key = accountNumber.getBytes(StandardCharsets.UTF_8);
+                return Arrays.equals(key, 0, key.length, bytes, offset + 1, offset + 1 + length);
+            }
+            if (i >= length || bytes[offset + 1 + i] != c) {
+                return false;
+            }
+        }
+        return accountNumber.length() == length;
+    }
+
+    // Decodes a row's account number
+    private String keyOf(int row) {
+        int ref = columns.keyRefs[row >>> PAGE_BITS][row & PAGE_MASK];
+        byte[] bytes = keyPages[ref >>> KEY_PAGE_BITS];
+        int offset = ref & (KEY_PAGE_SIZE - 1);
+        return new String(bytes, offset + 1, bytes[offset] & 0xFF, StandardCharsets.UTF_8);
+    }
+
+    // Hash of a row's account number, equal to the String hash for ASCII keys
+    private int keyHash(int row) {
+        int ref = columns.keyRefs[row >>> PAGE_BITS][row & PAGE_MASK];
+        byte[] bytes = keyPages[ref >>> KEY_PAGE_BITS];
+        int offset = ref & (KEY_PAGE_SIZE - 1);
+        int length = bytes[offset] & 0xFF;
+        int h = 0;
+        for (int i = 1; i <= length; i++) {
+            byte b = bytes[offset + i];
+            if (b < 0) {
+                return hash(keyOf(row));
+            }
+            h = 31 * h + b;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static int hash(String accountNumber) {
+        int h = accountNumber.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    // Appends a row for a new account number and indexes it; caller holds the write lock
+    private int appendRow(byte[] key, int hash) {
+        int row = rowCount;
+        if (row == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Account table is full");
+        }
+        Columns cols = columns;
+        if ((row >>> PAGE_BITS) == cols.balances.length) {
+            cols = new Columns(cols);
+            columns = cols;
+        }
+        cols.keyRefs[row >>> PAGE_BITS][row & PAGE_MASK] = appendKey(key);
+        indexRow(row, hash);
+        rowCount = row + 1;
+        sorted.insert(row);
+        return row;
+    }
+
+    // Adds a row to the hash index under its current account number; caller holds the write lock
+    private void indexRow(int row, int hash) {
+        if ((indexed + 1) * 2 > index.length) {
+            rehash(index.length * 2);
+        }
+        int[] table = index;
+        int mask = table.length - 1;
+        int i = hash & mask;
+        while (table[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        table[i] = row + 1;
+        indexed++;
+    }
+
+    // Copies an account number into the arena; a key never spans two pages
+    private int appendKey(byte[] key) {
+        int needed = key.length + 1;
+        int offset = keyEnd & (KEY_PAGE_SIZE - 1);
+        if (offset + needed > KEY_PAGE_SIZE) {
+            if (keyEnd > Integer.MAX_VALUE - KEY_PAGE_SIZE) {
+                throw new IllegalStateException("Account table is full");
+            }
+            keyEnd += KEY_PAGE_SIZE - offset;
+        }
+        int page = keyEnd >>> KEY_PAGE_BITS;
+        byte[][] arena = keyPages;
+        if (page == arena.length) {
+            arena = Arrays.copyOf(arena, page + 1);
+            arena[page] = new byte[KEY_PAGE_SIZE];
+            keyPages = arena;
+        }
+        int ref = keyEnd;
+        int at = ref & (KEY_PAGE_SIZE - 1);
+        arena[page][at] = (byte) key.length;
+        System.arraycopy(key, 0, arena[page], at + 1, key.length);
+        keyEnd += needed;
+        return ref;
+    }
+
+    // Writes every column but the balance; caller holds the write lock
+    private void writeRow(int row, int bankId, String bankName, boolean verified) {
+        Columns cols = columns;
+        int page = row >>> PAGE_BITS;
+        int slot = row & PAGE_MASK;
+        INTS.setVolatile(cols.bankIds[page], slot, bankId);
+        SHORTS.setVolatile(cols.bankNameCodes[page], slot, bankCode(bankName));
+        byte flags = (byte) (cols.flags[page][slot] & ~VERIFIED);
+        BYTES.setVolatile(cols.flags[page], slot, (byte) (verified ? flags | VERIFIED : flags));
+    }
+
+    // Dictionary code of a bank name; caller holds the write lock
+    private short bankCode(String bankName) {
+        if (bankName == null) {
+            return 0;
+        }
+        Short code = bankCodes.get(bankName);
+        if (code == null) {
+            String[] names = bankNames;
+            if (names.length > Short.MAX_VALUE) {
+                throw new IllegalStateException("Too many distinct bank names");
+            }
+            code = (short) names.length;
+            names = Arrays.copyOf(names, names.length + 1);
+            names[code] = bankName;
+            bankNames = names;
+            bankCodes.put(bankName, code);
+        }
+        return code;
+    }
+
+    // Builds a new index table into a fresh array, so optimistic readers keep a consistent old one
+    private void rehash(int size) {
+        int[] table = new int[size];
+        int mask = size - 1;
+        int[] old = index;
+        for (int entry : old) {
+            if (entry != 0) {
+                int i = keyHash(entry - 1) & mask;
+                while (table[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = entry;
+            }
+        }
+        index = table;
+    }
+
+    // Backward-shift deletion, so linear probing needs no tombstones
+    private void removeFromIndex(int[] table, int hole) {
+        int mask = table.length - 1;
+        for (int i = (hole + 1) & mask; table[i] != 0; i = (i + 1) & mask) {
+            int home = keyHash(table[i] - 1) & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                table[hole] = table[i];
+                hole = i;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    private int indexedCount() {
+        long stamp = lock.readLock();
+        try {
+            return indexed;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Compares two rows' account numbers in String order, without decoding ASCII keys;
+    // caller holds the lock
+    private int compareRows(int a, int b) {
+        int refA = columns.keyRefs[a >>> PAGE_BITS][a & PAGE_MASK];
+        int refB = columns.keyRefs[b >>> PAGE_BITS][b & PAGE_MASK];
+        byte[] bytesA = keyPages[refA >>> KEY_PAGE_BITS];
+        byte[] bytesB = keyPages[refB >>> KEY_PAGE_BITS];
+        int offsetA = (refA & (KEY_PAGE_SIZE - 1)) + 1;
+        int offsetB = (refB & (KEY_PAGE_SIZE - 1)) + 1;
+        int lengthA = bytesA[offsetA - 1] & 0xFF;
+        int lengthB = bytesB[offsetB - 1] & 0xFF;
+        for (int i = 0, n = Math.min(lengthA, lengthB); i < n; i++) {
+            byte x = bytesA[offsetA + i];
+            byte y = bytesB[offsetB + i];
+            if (x < 0 || y < 0) {
+                return keyOf(a).compareTo(keyOf(b));
+            }
+            if (x != y) {
+                return x - y;
+            }
+        }
+        // One key is an ASCII prefix of the other, so the longer one sorts last
+        return lengthA - lengthB;
+    }
+
+    // Compares a row's account number with a string in String order; caller holds the lock
+    private int compareKey(int row, String accountNumber) {
+        int ref = columns.keyRefs[row >>> PAGE_BITS][row & PAGE_MASK];
+        byte[] bytes = keyPages[ref >>> KEY_PAGE_BITS];
+        int offset = (ref & (KEY_PAGE_SIZE - 1)) + 1;
+        int length = bytes[offset - 1] & 0xFF;
+        for (int i = 0, n = Math.min(length, accountNumber.length()); i < n; i++) {
+            byte x = bytes[offset + i];
+            char y = accountNumber.charAt(i);
+            if (x < 0 || y >= 0x80) {
+                return keyOf(row).compareTo(accountNumber);
+            }
+            if (x != y) {
+                return x - y;
+            }
+        }
+        return length - accountNumber.length();
+    }
+
+    /**
+     * View of one row. Reads and writes go straight to the columns; the balance page is
+     * held directly so a balance change is a single array access.
+     */
+    private final class AccountRow extends BankAccount {
+
+        private final int row;
+        private final long[] balancePage;
+        private final int slot;
+        private String accountNumber;
+
+        AccountRow(int row, String accountNumber) {
+            this.row = row;
+            this.balancePage = columns.balances[row >>> PAGE_BITS];
+            this.slot = row & PAGE_MASK;
+            this.accountNumber = accountNumber;
+        }
+
+        @Override
+        public int getBankid() {
+            return (int) INTS.getVolatile(columns.bankIds[row >>> PAGE_BITS], slot);
+        }
+
+        @Override
+        public String getBankName() {
+            return bankNames[(short) SHORTS.getVolatile(columns.bankNameCodes[row >>> PAGE_BITS], slot)];
+        }
+
+        @Override
+        public String getAccountNumber() {
+            // The row may have been renamed since the number was cached
+            if (accountNumber == null || !keyEquals(row, accountNumber)) {
+                accountNumber = keyOf(row);
+            }
+            return accountNumber;
+        }
+
+        @Override
+        public boolean isVerified() {
+            return ((byte) BYTES.getVolatile(columns.flags[row >>> PAGE_BITS], slot) & VERIFIED) != 0;
+        }
+
+        @Override
+        public void setBankid(int bankid) {
+            long stamp = lock.writeLock();
+            try {
+                writeRow(row, bankid, getBankName(), isVerified());
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @Override
+        public void setBankName(String bankName) {
+            long stamp = lock.writeLock();
+            try {
+                writeRow(row, getBankid(), bankName, isVerified());
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Re-keys the row: the account is found under the new number only, and UPI handles
+         * linked to the old number follow it.
+         *
+         * @throws IllegalArgumentException if the number is null, longer than 255 UTF-8 bytes
+         *                                  or taken by another account
+         * @throws IllegalStateException    if the account has been deleted
+         */
+        @Override
+        public void setAccountNumber(String accountNumber) {
+            rename(row, accountNumber);
+            this.accountNumber = accountNumber;
+        }
+
+        @Override
+        public void setVerified(boolean isVerified) {
+            long stamp = lock.writeLock();
+            try {
+                writeRow(row, getBankid(), getBankName(), isVerified);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @Override
+        public void setDetails(BankAccount details) {
+            long stamp = lock.writeLock();
+            try {
+                writeRow(row, details.getBankid(), details.getBankName(), details.isVerified());
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @Override
+        public long getBalancePaise() {
+            return (long) LONGS.getVolatile(balancePage, slot);
+        }
+
+        @Override
+        public void setBalancePaise(long balance) {
+            LONGS.setVolatile(balancePage, slot, balance);
+        }
+
+        @Override
+        public void creditPaise(long amount) {
+            long current;
+            do {
+                current = (long) LONGS.getVolatile(balancePage, slot);
+            } while (!LONGS.compareAndSet(balancePage, slot, current, Math.addExact(current, amount)));
+        }
+
+        @Override
+        public void debitPaise(long amount) {
+            LONGS.getAndAdd(balancePage, slot, -amount);
+        }
+
+        /**
+         * Does nothing: a row has a single balance, and ledgers using {@link BalanceColumns}
+         * already credit it without a lock.
+         */
+        @Override
+        public void shardBalance(int slotCount) {
+            if (slotCount <= 0) {
+                throw new IllegalArgumentException("slotCount must be positive");
+            }
+        }
+
+        @Override
+        public boolean isSharded() {
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof AccountRow && ((AccountRow) o).row == row && ((AccountRow) o).owner() == owner();
+        }
+
+        @Override
+        public int hashCode() {
+            return row;
+        }
+
+        private BankAccountTable owner() {
+            return BankAccountTable.this;
+        }
+    }
+}
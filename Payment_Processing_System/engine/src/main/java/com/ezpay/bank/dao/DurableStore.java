@@ -0,0 +1,431 @@
+package com.ezpay.bank.dao;
+
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable persistence mode for the in-memory DAOs.
+ *
+ * A store lives in a directory of numbered journal segments ({@code journal-N.log}) and
+ * snapshots ({@code snapshot-N.snap}). Snapshot N holds every account, balance, user and
+ * UPI handle link, plus the transfer-ID high-water mark, as of the end of segment N.
+ *
+ * Opening a store loads the latest snapshot and replays only the segments after it, then
+ * hands out DAOs that journal every further change. Balances are not journaled on their
+ * own: an account's record carries only its opening balance, later updates carry only
+ * its details, and a successful bank transfer record implies its debit and credit,
+ * which are re-applied in journal order. A transfer is applied to the ledger before it
+ * is journaled, so no other record may carry a balance that already includes it.
+ *
+ * {@link #snapshot()} rolls the journal to a new segment and builds the next snapshot
+ * from the previous snapshot plus the closed segment. The live DAOs are never read, so
+ * transfers keep flowing into the new segment while the snapshot is written. Compacted
+ * segments are renamed to {@code .archived}; they keep the full transfer history on disk
+ * but are no longer read at startup, and transfers older than the snapshot are not
+ * loaded back into the in-memory transfer store.
+ *
+ * Transfers that carried an idempotency key are also loaded into the store's two
+ * {@link IdempotencyCache}s, from the snapshot and the replayed segments, so a request
+ * retried across a restart is still recognized. A successful bank transfer that settled a
+ * keyed UPI payment goes into the UPI cache under the payment's key, and is replaced there
+ * by the payment's own record if that was journaled too.
+ */
+public class DurableStore implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final String ARCHIVE_SUFFIX = ".archived";
+
+    private final Path directory;
+    private final TransferJournal journal;
+    private final BankAccountDaoImpl bankAccountDao;
+    private final TransferDaoImpl transferDao;
+    private final UPIPaymentDaoImpl upiPaymentDao;
+    private final UserDaoImpl userDao;
+    private final IdempotencyCache<Transfer> transferIdempotency = new IdempotencyCache<>();
+    private final IdempotencyCache<Transfer> upiIdempotency = new IdempotencyCache<>();
+
+    // Only one snapshot is taken at a time; guards activeSegment and scheduler
+    private final Object snapshotLock = new Object();
+    private long activeSegment;
+    private ScheduledExecutorService scheduler;
+
+    // Failed background snapshots, and the most recent cause
+    private final AtomicLong snapshotFailures = new AtomicLong();
+    private volatile Exception lastSnapshotFailure;
+
+    private DurableStore(Path directory, TransferJournal journal, long activeSegment) {
+        this.directory = directory;
+        this.journal = journal;
+        this.activeSegment = activeSegment;
+        this.bankAccountDao = new BankAccountDaoImpl(journal);
+        this.transferDao = new TransferDaoImpl(journal);
+        this.upiPaymentDao = new UPIPaymentDaoImpl(journal);
+        this.userDao = new UserDaoImpl(journal);
+    }
+
+    /**
+     * Opens the store in the given directory, creating it if needed, and recovers its state
+     * from the latest snapshot and the journal segments written after it.
+     *
+     * @param directory Directory holding the journal segments and snapshots
+     * @return The recovered store
+     * @throws IOException if the files cannot be opened or read
+     */
+    public static DurableStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        long snapshotSegment = latestSnapshot(directory);
+
+        // Segments already covered by the snapshot are left over from an interrupted compaction
+        List<Long> tail = new ArrayList<>();
+        for (long segment : listSegments(directory)) {
+            if (segment <= snapshotSegment) {
+                archive(directory, segment);
+            } else {
+                tail.add(segment);
+            }
+        }
+        long active = tail.isEmpty() ? snapshotSegment + 1 : tail.remove(tail.size() - 1);
+
+        DurableStore store = new DurableStore(directory, new TransferJournal(segmentFile(directory, active)), active);
+        if (snapshotSegment > 0) {
+            store.load(StoreSnapshot.read(snapshotFile(directory, snapshotSegment)));
+        }
+        Recovery recovery = store.new Recovery();
+        for (long segment : tail) {
+            try (TransferJournal closed = new TransferJournal(segmentFile(directory, segment))) {
+                closed.replay(recovery);
+            }
+        }
+        store.journal.replay(recovery);
+        return store;
+    }
+
+    /**
+     * Compacts every journal segment in a directory into a snapshot. Intended for offline
+     * use, such as before a restart or after a bulk import; the store must not be open.
+     *
+     * @param directory Directory holding the journal segments and snapshots
+     * @throws IOException if the files cannot be read or written
+     */
+    public static void compact(Path directory) throws IOException {
+        List<Long> segments = listSegments(directory);
+        if (!segments.isEmpty()) {
+            compact(directory, segments.get(segments.size() - 1));
+        }
+    }
+
+    /**
+     * Path of a numbered journal segment, for tools that write journals offline.
+     *
+     * @param directory Store directory
+     * @param segment   Segment number, starting at 1
+     * @return Path of the segment file
+     */
+    public static Path segmentFile(Path directory, long segment) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * @return Journaled account store
+     */
+    public BankAccountDao getBankAccountDao() {
+        return bankAccountDao;
+    }
+
+    /**
+     * @return Journaled bank transfer store
+     */
+    public TransferDao getTransferDao() {
+        return transferDao;
+    }
+
+    /**
+     * @return Journaled UPI transfer store
+     */
+    public UPIPaymentDao getUpiPaymentDao() {
+        return upiPaymentDao;
+    }
+
+    /**
+     * @return Journaled user store
+     */
+    public UserDao getUserDao() {
+        return userDao;
+    }
+
+    /**
+     * @return Recovered idempotency keys of bank transfers
+     */
+    public IdempotencyCache<Transfer> getTransferIdempotencyCache() {
+        return transferIdempotency;
+    }
+
+    /**
+     * @return Recovered idempotency keys of UPI payments
+     */
+    public IdempotencyCache<Transfer> getUpiIdempotencyCache() {
+        return upiIdempotency;
+    }
+
+    /**
+     * Rolls the journal to a new segment and compacts the closed segment into a snapshot.
+     * Writers are only paused for the final fsync of the closed segment.
+     *
+     * @throws IOException if the journal cannot be rolled or the snapshot written
+     */
+    public void snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            long closedSegment = activeSegment;
+            journal.roll(segmentFile(directory, closedSegment + 1));
+            activeSegment = closedSegment + 1;
+            compact(directory, closedSegment);
+        }
+    }
+
+    /**
+     * Takes a snapshot at a fixed interval on a background thread until the store is closed.
+     * A failed snapshot is counted and kept for {@link #getLastSnapshotFailure()}, and the
+     * next one is attempted at the following interval.
+     *
+     * @param interval Time between the end of one snapshot and the start of the next
+     */
+    public void startSnapshots(Duration interval) {
+        ScheduledExecutorService started;
+        synchronized (snapshotLock) {
+            if (scheduler != null) {
+                return;
+            }
+            started = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ezpay-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler = started;
+        }
+        long millis = interval.toMillis();
+        started.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (IOException | RuntimeException e) {
+                // A runtime exception escaping here would cancel every later snapshot
+                lastSnapshotFailure = e;
+                snapshotFailures.incrementAndGet();
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return Background snapshots that failed since the store was opened
+     */
+    public long getSnapshotFailureCount() {
+        return snapshotFailures.get();
+    }
+
+    /**
+     * @return Cause of the most recent failed background snapshot, or null if none failed
+     */
+    public Exception getLastSnapshotFailure() {
+        return lastSnapshotFailure;
+    }
+
+    /**
+     * Stops periodic snapshots, flushes the journal and closes it.
+     *
+     * @throws IOException if the final write fails
+     */
+    @Override
+    public void close() throws IOException {
+        ScheduledExecutorService running;
+        synchronized (snapshotLock) {
+            running = scheduler;
+            scheduler = null;
+        }
+        if (running != null) {
+            running.shutdown();
+            try {
+                running.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        journal.close();
+    }
+
+    // Copies a snapshot into the live DAOs
+    private void load(StoreSnapshot snapshot) {
+        for (BankAccount account : snapshot.accounts.values()) {
+            bankAccountDao.restoreAccount(account);
+        }
+        for (User user : snapshot.users.values()) {
+            userDao.restoreUser(user);
+        }
+        for (Map.Entry<String, String> link : snapshot.upiHandles.entrySet()) {
+            bankAccountDao.restoreUpiHandle(link.getKey(), link.getValue());
+        }
+        transferDao.restoreSequence(snapshot.lastTransferId);
+        transferDao.restoreStats(snapshot.stats);
+        for (Transfer transfer : snapshot.keyedTransfers.values()) {
+            restoreTransferKey(transfer);
+        }
+        for (Transfer transfer : snapshot.keyedUpiTransfers.values()) {
+            restoreKey(upiIdempotency, transfer);
+        }
+    }
+
+    // A settlement's key guards the UPI payment it settled, not a bank transfer
+    private void restoreTransferKey(Transfer transfer) {
+        String key = transfer.getIdempotencyKey();
+        if (key == null || !key.startsWith(UPIPaymentDao.SETTLEMENT_KEY_PREFIX)) {
+            restoreKey(transferIdempotency, transfer);
+        } else if (transfer.isStatus()) {
+            upiIdempotency.restore(key.substring(UPIPaymentDao.SETTLEMENT_KEY_PREFIX.length()), transfer,
+                    StoreSnapshot.recordedAt(transfer));
+        }
+    }
+
+    private static void restoreKey(IdempotencyCache<Transfer> cache, Transfer transfer) {
+        if (transfer.getIdempotencyKey() != null) {
+            cache.restore(transfer.getIdempotencyKey(), transfer, StoreSnapshot.recordedAt(transfer));
+        }
+    }
+
+    // ---------------- Files ----------------
+
+    // Builds snapshot `upto` from the latest snapshot plus segments after it, then retires the inputs
+    private static void compact(Path directory, long upto) throws IOException {
+        long base = latestSnapshot(directory);
+        if (base >= upto) {
+            return;
+        }
+        StoreSnapshot state = base > 0 ? StoreSnapshot.read(snapshotFile(directory, base)) : new StoreSnapshot();
+        List<Long> segments = listSegments(directory);
+        for (long segment : segments) {
+            if (segment > base && segment <= upto) {
+                try (TransferJournal closed = new TransferJournal(segmentFile(directory, segment))) {
+                    closed.replay(state);
+                }
+            }
+        }
+        state.write(snapshotFile(directory, upto));
+
+        for (long segment : segments) {
+            if (segment <= upto) {
+                archive(directory, segment);
+            }
+        }
+        if (base > 0) {
+            Files.deleteIfExists(snapshotFile(directory, base));
+        }
+    }
+
+    private static void archive(Path directory, long segment) throws IOException {
+        Path file = segmentFile(directory, segment);
+        Files.move(file, file.resolveSibling(file.getFileName() + ARCHIVE_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static Path snapshotFile(Path directory, long segment) {
+        return directory.resolve(String.format("%s%010d%s", SNAPSHOT_PREFIX, segment, SNAPSHOT_SUFFIX));
+    }
+
+    // Highest segment number with a complete snapshot, or 0 if there is none
+    private static long latestSnapshot(Path directory) throws IOException {
+        List<Long> snapshots = list(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        return snapshots.isEmpty() ? 0 : snapshots.get(snapshots.size() - 1);
+    }
+
+    private static List<Long> listSegments(Path directory) throws IOException {
+        return list(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+    }
+
+    // Sorted numbers of the files named prefix + number + suffix
+    private static List<Long> list(Path directory, String prefix, String suffix) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                numbers.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+
+    /**
+     * Applies replayed events to the DAOs without journaling them again.
+     */
+    private class Recovery implements TransferJournal.Listener {
+
+        @Override
+        public void onAccount(BankAccount account) {
+            bankAccountDao.restoreAccount(account);
+        }
+
+        @Override
+        public void onAccountDetails(BankAccount details) {
+            bankAccountDao.restoreAccountDetails(details);
+        }
+
+        @Override
+        public void onAccountDeleted(String accountNumber) {
+            bankAccountDao.restoreDelete(accountNumber);
+        }
+
+        @Override
+        public void onTransfer(Transfer transfer) {
+            transferDao.restoreTransfer(transfer);
+            restoreTransferKey(transfer);
+            if (!transfer.isStatus()) {
+                return;
+            }
+            BankAccount sender = bankAccountDao.getAccountByNumber(transfer.getSenderAccountNumber());
+            BankAccount receiver = bankAccountDao.getAccountByNumber(transfer.getReceiverAccountNumber());
+            if (sender != null) {
+                sender.setBalancePaise(sender.getBalancePaise() - transfer.getAmountPaise());
+            }
+            if (receiver != null) {
+                receiver.setBalancePaise(receiver.getBalancePaise() + transfer.getAmountPaise());
+            }
+        }
+
+        @Override
+        public void onUpiTransfer(Transfer transfer) {
+            upiPaymentDao.restoreTransfer(transfer);
+            restoreKey(upiIdempotency, transfer);
+        }
+
+        @Override
+        public void onUser(User user) {
+            userDao.restoreUser(user);
+        }
+
+        @Override
+        public void onUserDeleted(int userId) {
+            userDao.restoreDelete(userId);
+        }
+
+        @Override
+        public void onUpiHandle(String upiId, String accountNumber) {
+            bankAccountDao.restoreUpiHandle(upiId, accountNumber);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.ezpay.bank.dao;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-expiring map from idempotency key to the result of the first request
+ * that carried it.
+ *
+ * {@link #execute(String, Supplier)} runs an action at most once per live key. A retry
+ * that arrives after the first request finished gets the stored result with a single
+ * hash lookup. A retry that arrives while the first request is still running waits for
+ * it rather than running the action a second time.
+ *
+ * Entries expire a fixed time after they were recorded. Keys are also kept in a queue in
+ * insertion order, so the oldest entries are dropped first once the cache is full or
+ * they have expired. Both checks run on insertion; lookups never scan.
+ *
+ * @param <V> Type of the stored result
+ */
+public class IdempotencyCache<V> {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1_000_000;
+    public static final Duration DEFAULT_TTL = Duration.ofHours(24);
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry<V>> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    // A stored or in-flight result
+    private static final class Entry<V> {
+        final String key;
+        final long expiresAt;
+        final CompletableFuture<V> result = new CompletableFuture<>();
+
+        Entry(String key, long expiresAt) {
+            this.key = key;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Creates a cache with the default size bound and time to live.
+     */
+    public IdempotencyCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxEntries Number of keys kept before the oldest are dropped
+     * @param ttl        How long a result is kept after it was recorded
+     */
+    public IdempotencyCache(int maxEntries, Duration ttl) {
+        if (maxEntries <= 0 || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("maxEntries and ttl must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * Returns the stored result for a key, running the action only if the key is new
+     * or has expired. If the action throws or returns null, nothing is stored and the
+     * next request with the key runs again.
+     *
+     * @param key    Idempotency key
+     * @param action Produces the result for the first request with the key
+     * @return The result of the first request with the key, or of this one
+     */
+    public V execute(String key, Supplier<V> action) {
+        Entry<V> mine = null;
+        while (mine == null) {
+            long now = System.currentTimeMillis();
+            Entry<V> existing = entries.get(key);
+            if (existing != null && existing.expiresAt > now) {
+                V result = await(existing);
+                if (result != null) {
+                    return result;
+                }
+                continue;
+            }
+            Entry<V> candidate = new Entry<>(key, now + ttlMillis);
+            boolean claimed = existing == null
+                    ? entries.putIfAbsent(key, candidate) == null
+                    : entries.replace(key, existing, candidate);
+            if (claimed) {
+                mine = candidate;
+            }
+        }
+
+        V result;
+        try {
+            result = action.get();
+        } catch (RuntimeException | Error e) {
+            entries.remove(key, mine);
+            mine.result.complete(null);
+            throw e;
+        }
+        if (result == null) {
+            entries.remove(key, mine);
+        } else {
+            insertionOrder.add(mine);
+            evict(System.currentTimeMillis());
+        }
+        mine.result.complete(result);
+        return result;
+    }
+
+    /**
+     * Looks up the stored result for a key.
+     *
+     * @param key Idempotency key
+     * @return The stored result, or null if the key is unknown, expired or still running
+     */
+    public V get(String key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.expiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+        return entry.result.getNow(null);
+    }
+
+    /**
+     * Stores a result recorded earlier, such as one read back from the journal at
+     * startup. Results older than the time to live are ignored.
+     *
+     * @param key        Idempotency key
+     * @param result     The stored result
+     * @param recordedAt When the result was recorded, in epoch milliseconds
+     */
+    public void restore(String key, V result, long recordedAt) {
+        long now = System.currentTimeMillis();
+        long expiresAt = recordedAt + ttlMillis;
+        if (expiresAt <= now) {
+            return;
+        }
+        Entry<V> entry = new Entry<>(key, expiresAt);
+        entry.result.complete(result);
+        entries.put(key, entry);
+        insertionOrder.add(entry);
+        evict(now);
+    }
+
+    /**
+     * @return Number of keys currently held, including expired ones not yet dropped
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    // Waits for an in-flight entry; null means it failed and the caller should try again
+    private static <V> V await(Entry<V> entry) {
+        try {
+            return entry.result.join();
+        } catch (CompletionException e) {
+            return null;
+        }
+    }
+
+    // Drops entries from the old end of the queue while the cache is over size or they have expired
+    private void evict(long now) {
+        Entry<V> oldest;
+        while ((oldest = insertionOrder.peek()) != null
+                && (entries.size() > maxEntries || oldest.expiresAt <= now)) {
+            if (insertionOrder.remove(oldest)) {
+                entries.remove(oldest.key, oldest);
+            }
+        }
+    }
+}
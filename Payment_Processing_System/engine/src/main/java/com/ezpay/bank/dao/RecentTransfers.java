@@ -0,0 +1,68 @@
+package com.ezpay.bank.dao;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Fixed-size ring of the IDs of the last transfers recorded for one account.
+ *
+ * A writer claims the next position with an atomic add and stores the ID there, so any
+ * number of threads append without locking and the ring never allocates after it is
+ * created. A reader copies the IDs out and puts them in whatever order it needs; the ring
+ * keeps no order of its own, since writers may finish out of order and transfers are not
+ * recorded in date-time order. A position a writer has claimed but not yet filled still
+ * holds an older ID or zero, so a transfer recorded at the same moment as the read may be
+ * missing from the result, but nothing is returned twice.
+ */
+final class RecentTransfers {
+
+    // Transfers remembered per account; a power of two so the position is a mask
+    static final int CAPACITY = 16;
+    private static final int MASK = CAPACITY - 1;
+
+    private static final VarHandle IDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle CURSOR;
+
+    static {
+        try {
+            CURSOR = MethodHandles.lookup().findVarHandle(RecentTransfers.class, "cursor", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long[] ids = new long[CAPACITY];
+
+    // Number of IDs ever added; the next one goes to position cursor & MASK
+    private volatile long cursor;
+
+    /**
+     * Remembers a transfer, overwriting the oldest one once the ring is full.
+     *
+     * @param transferId ID of the transfer; must be positive
+     */
+    void add(long transferId) {
+        long position = (long) CURSOR.getAndAdd(this, 1L);
+        IDS.setRelease(ids, (int) position & MASK, transferId);
+    }
+
+    /**
+     * Copies out the IDs the ring holds, most recently claimed position first.
+     *
+     * @return Up to {@link #CAPACITY} transfer IDs
+     */
+    long[] ids() {
+        long end = cursor;
+        int count = (int) Math.min(CAPACITY, end);
+        long[] result = new long[count];
+        int n = 0;
+        for (long position = end - 1; position >= end - count; position--) {
+            long id = (long) IDS.getAcquire(ids, (int) position & MASK);
+            if (id > 0) {
+                result[n++] = id;
+            }
+        }
+        return n == count ? result : Arrays.copyOf(result, n);
+    }
+}
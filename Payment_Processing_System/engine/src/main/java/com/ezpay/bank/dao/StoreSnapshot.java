@@ -0,0 +1,361 @@
+package com.ezpay.bank.dao;
+
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.User;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact image of all accounts, balances, users, UPI handle links, the transfer-ID
+ * high-water mark, the recent transfers that carried an idempotency key and the running
+ * {@link TransferStats}.
+ *
+ * The file layout is a fixed header {@code [int magic][int version][long lastTransferId]
+ * [int accountCount][int userCount][int upiHandleCount]}, followed by the account, user
+ * and UPI handle entries in the journal's string encoding, then the keyed bank and UPI
+ * transfers as {@code [int count][transfer...]} each, then the global counters and
+ * {@code [int accountCount][string account][counters]...}, where counters are
+ * {@code [long succeeded][long failed][long sent][long received][int days]
+ * [long epochDay][long paise]...}, followed by a CRC32C of everything before it. Keyed
+ * transfers older than {@link IdempotencyCache#DEFAULT_TTL} are left out. Version 3
+ * files, which end after the UPI handles, and version 4 files, which end after the
+ * keyed transfers, are still read; their totals start from zero.
+ * Snapshots are read through a memory-mapped buffer.
+ *
+ * A snapshot is also a {@link TransferJournal.Listener}: replaying journal segments into
+ * an earlier snapshot produces the next one without touching the live DAOs.
+ */
+final class StoreSnapshot implements TransferJournal.Listener {
+
+    private static final int MAGIC = 0x455A534E; // "EZSN"
+    private static final int VERSION = 5;
+    private static final int VERSION_WITHOUT_STATS = 4;
+    private static final int VERSION_WITHOUT_KEYS = 3;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4 + 4;
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    final Map<String, BankAccount> accounts = new LinkedHashMap<>();
+    final Map<Integer, User> users = new LinkedHashMap<>();
+    final Map<String, String> upiHandles = new LinkedHashMap<>();
+    // Keyed transfers by idempotency key, oldest first
+    final Map<String, Transfer> keyedTransfers = new LinkedHashMap<>();
+    final Map<String, Transfer> keyedUpiTransfers = new LinkedHashMap<>();
+    final TransferStats stats = new TransferStats();
+    long lastTransferId;
+
+    // ---------------- Journal events ----------------
+
+    @Override
+    public void onAccount(BankAccount account) {
+        accounts.put(account.getAccountNumber(), account);
+    }
+
+    @Override
+    public void onAccountDetails(BankAccount details) {
+        BankAccount account = accounts.get(details.getAccountNumber());
+        if (account != null) {
+            account.setDetails(details);
+        }
+    }
+
+    @Override
+    public void onAccountDeleted(String accountNumber) {
+        accounts.remove(accountNumber);
+    }
+
+    @Override
+    public void onTransfer(Transfer transfer) {
+        lastTransferId = Math.max(lastTransferId, transfer.getTransferId());
+        keep(keyedTransfers, transfer);
+        stats.record(transfer);
+        if (!transfer.isStatus()) {
+            return;
+        }
+        BankAccount sender = accounts.get(transfer.getSenderAccountNumber());
+        BankAccount receiver = accounts.get(transfer.getReceiverAccountNumber());
+        if (sender != null) {
+            sender.setBalancePaise(sender.getBalancePaise() - transfer.getAmountPaise());
+        }
+        if (receiver != null) {
+            receiver.setBalancePaise(receiver.getBalancePaise() + transfer.getAmountPaise());
+        }
+    }
+
+    @Override
+    public void onUpiTransfer(Transfer transfer) {
+        // UPI history is not part of the snapshot, only the keys that guard against retries
+        keep(keyedUpiTransfers, transfer);
+    }
+
+    // Moves a keyed transfer to the newest end of the map
+    private static void keep(Map<String, Transfer> keyed, Transfer transfer) {
+        String key = transfer.getIdempotencyKey();
+        if (key != null) {
+            keyed.remove(key);
+            keyed.put(key, transfer);
+        }
+    }
+
+    /**
+     * @param transfer A recorded transfer
+     * @return When it was recorded, in epoch milliseconds, or 0 if it has no timestamp
+     */
+    static long recordedAt(Transfer transfer) {
+        LocalDateTime time = transfer.getTransferDateTime();
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Override
+    public void onUser(User user) {
+        users.put(user.getUserID(), user);
+    }
+
+    @Override
+    public void onUserDeleted(int userId) {
+        users.remove(userId);
+    }
+
+    @Override
+    public void onUpiHandle(String upiId, String accountNumber) {
+        if (accountNumber == null) {
+            upiHandles.remove(upiId);
+        } else {
+            upiHandles.put(upiId, accountNumber);
+        }
+    }
+
+    // ---------------- File format ----------------
+
+    /**
+     * Writes the snapshot to a temporary file, syncs it and moves it into place, so a
+     * crash never leaves a half-written snapshot under the final name.
+     *
+     * @param file Destination path
+     * @throws IOException if the file cannot be written
+     */
+    void write(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer out = ByteBuffer.allocate(CHUNK_SIZE);
+            out.putInt(MAGIC).putInt(VERSION).putLong(lastTransferId).putInt(accounts.size()).putInt(users.size())
+                    .putInt(upiHandles.size());
+
+            for (BankAccount account : accounts.values()) {
+                byte[] bankName = TransferJournal.utf8(account.getBankName());
+                byte[] accountNumber = TransferJournal.utf8(account.getAccountNumber());
+                ensure(channel, out, crc, 4 + TransferJournal.sizeOf(bankName) + TransferJournal.sizeOf(accountNumber) + 1 + 8);
+                out.putInt(account.getBankid());
+                TransferJournal.putString(out, bankName);
+                TransferJournal.putString(out, accountNumber);
+                out.put((byte) (account.isVerified() ? 1 : 0));
+                out.putLong(account.getBalancePaise());
+            }
+
+            for (User user : users.values()) {
+                byte[] name = TransferJournal.utf8(user.getUserName());
+                byte[] email = TransferJournal.utf8(user.getEmailId());
+                List<String> linked = user.getAccounts();
+                ensure(channel, out, crc, 4 + TransferJournal.sizeOf(name) + TransferJournal.sizeOf(email) + 4);
+                out.putInt(user.getUserID());
+                TransferJournal.putString(out, name);
+                TransferJournal.putString(out, email);
+                out.putInt(linked == null ? -1 : linked.size());
+                if (linked != null) {
+                    for (String accountNumber : linked) {
+                        byte[] bytes = TransferJournal.utf8(accountNumber);
+                        ensure(channel, out, crc, TransferJournal.sizeOf(bytes));
+                        TransferJournal.putString(out, bytes);
+                    }
+                }
+            }
+
+            for (Map.Entry<String, String> link : upiHandles.entrySet()) {
+                byte[] upiId = TransferJournal.utf8(link.getKey());
+                byte[] accountNumber = TransferJournal.utf8(link.getValue());
+                ensure(channel, out, crc, TransferJournal.sizeOf(upiId) + TransferJournal.sizeOf(accountNumber));
+                TransferJournal.putString(out, upiId);
+                TransferJournal.putString(out, accountNumber);
+            }
+
+            long cutoff = System.currentTimeMillis() - IdempotencyCache.DEFAULT_TTL.toMillis();
+            writeKeyed(channel, out, crc, keyedTransfers, cutoff);
+            writeKeyed(channel, out, crc, keyedUpiTransfers, cutoff);
+
+            writeCounters(channel, out, crc, stats.global);
+            ensure(channel, out, crc, 4);
+            out.putInt(stats.byAccount.size());
+            for (Map.Entry<String, TransferStats.Counters> entry : stats.byAccount.entrySet()) {
+                byte[] accountNumber = TransferJournal.utf8(entry.getKey());
+                ensure(channel, out, crc, TransferJournal.sizeOf(accountNumber));
+                TransferJournal.putString(out, accountNumber);
+                writeCounters(channel, out, crc, entry.getValue());
+            }
+
+            flush(channel, out, crc);
+            out.putInt((int) crc.getValue());
+            flush(channel, out, null);
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a snapshot through a memory-mapped, read-only view of the file.
+     *
+     * @param file Snapshot path
+     * @return The decoded snapshot
+     * @throws IOException if the file cannot be read or fails its checksum
+     */
+    static StoreSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + 4 || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid snapshot size " + size + ": " + file);
+            }
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            CRC32C crc = new CRC32C();
+            ByteBuffer body = in.duplicate();
+            body.limit((int) size - 4);
+            crc.update(body);
+            if ((int) crc.getValue() != in.getInt((int) size - 4)) {
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            }
+            int magic = in.getInt();
+            int version = in.getInt();
+            if (magic != MAGIC || version < VERSION_WITHOUT_KEYS || version > VERSION) {
+                throw new IOException("Not a snapshot file: " + file);
+            }
+
+            StoreSnapshot snapshot = new StoreSnapshot();
+            snapshot.lastTransferId = in.getLong();
+            int accountCount = in.getInt();
+            int userCount = in.getInt();
+            int upiHandleCount = in.getInt();
+
+            for (int i = 0; i < accountCount; i++) {
+                BankAccount account = new BankAccount(in.getInt(), TransferJournal.getString(in),
+                        TransferJournal.getString(in), in.get() == 1);
+                account.setBalancePaise(in.getLong());
+                snapshot.accounts.put(account.getAccountNumber(), account);
+            }
+            for (int i = 0; i < userCount; i++) {
+                int userId = in.getInt();
+                String name = TransferJournal.getString(in);
+                String email = TransferJournal.getString(in);
+                int linkedCount = in.getInt();
+                List<String> linked = linkedCount < 0 ? null : new ArrayList<>(linkedCount);
+                for (int j = 0; j < linkedCount; j++) {
+                    linked.add(TransferJournal.getString(in));
+                }
+                snapshot.users.put(userId, new User(userId, name, email, linked));
+            }
+            for (int i = 0; i < upiHandleCount; i++) {
+                snapshot.upiHandles.put(TransferJournal.getString(in), TransferJournal.getString(in));
+            }
+            if (version >= VERSION_WITHOUT_STATS) {
+                readKeyed(in, snapshot.keyedTransfers);
+                readKeyed(in, snapshot.keyedUpiTransfers);
+            }
+            if (version == VERSION) {
+                readCounters(in, snapshot.stats.global);
+                int statsAccountCount = in.getInt();
+                for (int i = 0; i < statsAccountCount; i++) {
+                    readCounters(in, snapshot.stats.accountCounters(TransferJournal.getString(in)));
+                }
+            }
+            return snapshot;
+        }
+    }
+
+    // Writes the keyed transfers recorded after the cutoff, at most as many as a cache holds
+    private static void writeKeyed(FileChannel channel, ByteBuffer out, CRC32C crc, Map<String, Transfer> keyed,
+            long cutoff) throws IOException {
+        List<Transfer> recent = new ArrayList<>();
+        for (Transfer transfer : keyed.values()) {
+            if (recordedAt(transfer) > cutoff) {
+                recent.add(transfer);
+            }
+        }
+        int skip = Math.max(0, recent.size() - IdempotencyCache.DEFAULT_MAX_ENTRIES);
+        ensure(channel, out, crc, 4);
+        out.putInt(recent.size() - skip);
+        for (Transfer transfer : recent.subList(skip, recent.size())) {
+            byte[] sender = TransferJournal.utf8(transfer.getSenderAccountNumber());
+            byte[] receiver = TransferJournal.utf8(transfer.getReceiverAccountNumber());
+            byte[] key = TransferJournal.utf8(transfer.getIdempotencyKey());
+            ensure(channel, out, crc, TransferJournal.transferSize(sender, receiver, key));
+            TransferJournal.putTransfer(out, transfer, sender, receiver, key);
+        }
+    }
+
+    private static void readKeyed(ByteBuffer in, Map<String, Transfer> keyed) {
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            keep(keyed, TransferJournal.readTransfer(in));
+        }
+    }
+
+    private static void writeCounters(FileChannel channel, ByteBuffer out, CRC32C crc,
+            TransferStats.Counters counters) throws IOException {
+        List<TransferStats.DayVolume> days = new ArrayList<>(TransferStats.DAYS);
+        for (int i = 0; i < TransferStats.DAYS; i++) {
+            TransferStats.DayVolume day = counters.days.get(i);
+            if (day != null) {
+                days.add(day);
+            }
+        }
+        ensure(channel, out, crc, 8 * 4 + 4 + days.size() * 16);
+        out.putLong(counters.succeeded.sum()).putLong(counters.failed.sum()).putLong(counters.sentPaise.sum())
+                .putLong(counters.receivedPaise.sum()).putInt(days.size());
+        for (TransferStats.DayVolume day : days) {
+            out.putLong(day.epochDay).putLong(day.paise.sum());
+        }
+    }
+
+    private static void readCounters(ByteBuffer in, TransferStats.Counters counters) {
+        counters.succeeded.add(in.getLong());
+        counters.failed.add(in.getLong());
+        counters.sentPaise.add(in.getLong());
+        counters.receivedPaise.add(in.getLong());
+        int days = in.getInt();
+        for (int i = 0; i < days; i++) {
+            counters.addVolume(in.getLong(), in.getLong());
+        }
+    }
+
+    // Makes room for `needed` more bytes, writing out the chunk if necessary
+    private static void ensure(FileChannel channel, ByteBuffer out, CRC32C crc, int needed) throws IOException {
+        if (out.remaining() < needed) {
+            flush(channel, out, crc);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer out, CRC32C crc) throws IOException {
+        out.flip();
+        if (crc != null) {
+            crc.update(out.duplicate());
+        }
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+}
@@ -0,0 +1,114 @@
+package com.ezpay.bank.dao;
+
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferTotals;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * TransferDao defines the data access operations for managing fund transfer records
+ * within the EzPay banking system.
+ */
+public interface TransferDao {
+
+    /**
+     * Records a new fund transfer in the system and assigns it a unique transfer ID.
+     * May be called from several threads at once.
+     *
+     * @param transfer The Transfer object containing the transfer details.
+     */
+    void recordTransfer(Transfer transfer);
+
+    /**
+     * Records a batch of transfers, assigning them consecutive transfer IDs in list order.
+     * A durable store makes the whole batch durable with a single flush.
+     *
+     * @param transfers The transfers to record.
+     */
+    void recordTransfers(List<Transfer> transfers);
+
+    /**
+     * Retrieves a transfer by its unique transfer ID.
+     *
+     * @param transferId The ID of the transfer to retrieve.
+     * @return The Transfer object if found, or null if not found.
+     */
+    Transfer getTransferById(long transferId);
+
+    /**
+     * Retrieves a list of all fund transfers recorded in the system.
+     *
+     * @return A list of Transfer objects.
+     */
+    List<Transfer> getAllTransfers();
+
+    /**
+     * Retrieves one page of transfers in ID order, starting after a given ID. Pass the
+     * last ID of a page to get the next one; a short page is the last.
+     *
+     * @param afterTransferId The ID to start after, or 0 for the first page.
+     * @param limit           Maximum number of transfers to return.
+     * @return A list of at most {@code limit} Transfer objects with IDs above {@code afterTransferId}.
+     */
+    List<Transfer> getTransfersAfter(long afterTransferId, int limit);
+
+    /**
+     * Passes every recorded transfer to an action in ID order, without copying them into a list.
+     *
+     * @param action Called once for each transfer.
+     */
+    void forEachTransfer(Consumer<? super Transfer> action);
+
+    /**
+     * Retrieves transfers made in a time range, oldest first.
+     *
+     * @param accountNumber Account that sent or received the transfers, or null for all transfers.
+     * @param from          Start of the range, inclusive; null for no lower bound.
+     * @param to            End of the range, exclusive; null for no upper bound.
+     * @param limit         Maximum number of transfers to return.
+     * @return A list of at most {@code limit} Transfer objects.
+     */
+    List<Transfer> getTransfersBetween(String accountNumber, LocalDateTime from, LocalDateTime to, int limit);
+
+    /**
+     * Retrieves the most recent transfers, newest first.
+     *
+     * @param accountNumber Account that sent or received the transfers, or null for all transfers.
+     * @param limit         Maximum number of transfers to return.
+     * @return A list of at most {@code limit} Transfer objects.
+     */
+    List<Transfer> getLatestTransfers(String accountNumber, int limit);
+
+    /**
+     * Retrieves the transfers most recently recorded for an account, sent or received,
+     * ordered newest first by date-time and then ID, as {@link #getLatestTransfers} orders
+     * them. Meant for "recent transactions" screens, so it is cheap for small limits.
+     * Transfers without a date-time are not included.
+     *
+     * @param accountNumber The account number.
+     * @param limit         Maximum number of transfers to return.
+     * @return A list of at most {@code limit} Transfer objects.
+     */
+    List<Transfer> getRecentTransfers(String accountNumber, int limit);
+
+    /**
+     * Retrieves running counts and totals of recorded transfers, kept as transfers are
+     * recorded rather than computed from them.
+     *
+     * @param accountNumber Account that sent or received the transfers, or null for all transfers.
+     * @return The totals; all zero for an account with no transfers.
+     */
+    TransferTotals getTotals(String accountNumber);
+
+    /**
+     * Retrieves the amount moved by successful transfers on one of the last
+     * {@value TransferStats#DAYS} days.
+     *
+     * @param accountNumber Account that sent or received the transfers, or null for all transfers.
+     * @param day           The day.
+     * @return The volume in paise; 0 for a day outside the window.
+     */
+    long getDailyVolumePaise(String accountNumber, LocalDate day);
+}
@@ -0,0 +1,345 @@
+package com.ezpay.bank.dao;
+
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferTotals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * TransferDaoImpl provides an in-memory implementation of the TransferDao interface.
+ *
+ * Transfer IDs come from an atomic long sequence starting at 1. Because the IDs are
+ * dense, a transfer is stored directly at its ID inside a segmented array: the high
+ * bits pick a segment and the low bits pick the slot. Segments are created on demand
+ * with a compare-and-set, so recording a transfer never takes a lock and a lookup by
+ * ID is two array reads no matter how many transfers are held.
+ *
+ * Transfers are also indexed by date-time in a {@link TransferTimeIndex}, so time-range
+ * and "latest" queries, overall or for one account, read only the transfers they return.
+ * Each account also has a small lock-free {@link RecentTransfers} ring of its last
+ * transfer IDs, so the frequent "recent transactions" read is a map lookup, a few array
+ * reads and a sort of at most a ring's worth of transfers. Counts, totals and daily volumes are kept up to date in a {@link TransferStats} as transfers
+ * are stored, so those questions never walk the transfers either.
+ *
+ * When created with a {@link TransferJournal}, each transfer is journaled and synced
+ * before it becomes visible.
+ */
+public class TransferDaoImpl implements TransferDao {
+
+    // Each segment holds 2^16 transfers
+    private static final int SEGMENT_BITS = 16;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    // Directory size; together with the segment size this allows 2^32 transfers in memory
+    private static final int MAX_SEGMENTS = 1 << 16;
+
+    // Segment directory; a null entry means no transfer in that range has been stored yet
+    private final AtomicReferenceArray<AtomicReferenceArray<Transfer>> segments =
+            new AtomicReferenceArray<>(MAX_SEGMENTS);
+
+    // Order of recent transfers, the reverse of the time index's
+    private static final Comparator<Transfer> NEWEST_FIRST = TransferTimeIndex.TIME_ORDER.reversed();
+
+    // Last transfer ID handed out
+    private final AtomicLong transferIdSequence = new AtomicLong();
+
+    // Transfers ordered by date-time, overall and per account
+    private final TransferTimeIndex timeIndex = new TransferTimeIndex();
+
+    // Last few transfer IDs of each account that sent or received a transfer
+    private final Map<String, RecentTransfers> recentByAccount = new ConcurrentHashMap<>();
+
+    // Running counts, totals and daily volumes
+    private final TransferStats stats = new TransferStats();
+
+    // Optional durable journal; null keeps transfers in memory only
+    private final TransferJournal journal;
+
+    /**
+     * Creates a purely in-memory transfer store.
+     */
+    public TransferDaoImpl() {
+        this(null);
+    }
+
+    /**
+     * Creates a transfer store that journals every recorded transfer.
+     *
+     * @param journal Journal to write to, or null for an in-memory store
+     */
+    public TransferDaoImpl(TransferJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Records a new fund transfer by assigning it the next unique ID and storing it
+     * in the slot for that ID.
+     *
+     * @param transfer The Transfer object containing the transfer details.
+     */
+    @Override
+    public void recordTransfer(Transfer transfer) {
+        long id = transferIdSequence.incrementAndGet();
+        transfer.setTransferId(id);
+        if (journal != null) {
+            journal.sync(journal.appendTransfer(transfer));
+        }
+        segmentFor(id).set((int) (id & SEGMENT_MASK), transfer);
+        index(transfer);
+    }
+
+    /**
+     * Records a batch of transfers. The IDs are reserved with one atomic add, the
+     * transfers are appended to the journal together and synced once, and only then
+     * become visible.
+     *
+     * @param transfers The transfers to record.
+     */
+    @Override
+    public void recordTransfers(List<Transfer> transfers) {
+        int count = transfers.size();
+        if (count == 0) {
+            return;
+        }
+        long first = transferIdSequence.getAndAdd(count) + 1;
+        long seq = 0;
+        for (int i = 0; i < count; i++) {
+            Transfer transfer = transfers.get(i);
+            transfer.setTransferId(first + i);
+            if (journal != null) {
+                seq = journal.appendTransfer(transfer);
+            }
+        }
+        if (journal != null) {
+            journal.sync(seq);
+        }
+        for (int i = 0; i < count; i++) {
+            long id = first + i;
+            segmentFor(id).set((int) (id & SEGMENT_MASK), transfers.get(i));
+            index(transfers.get(i));
+        }
+    }
+
+    /**
+     * Puts back a transfer read from the journal, keeping its original ID.
+     *
+     * @param transfer The replayed transfer
+     */
+    void restoreTransfer(Transfer transfer) {
+        long id = transfer.getTransferId();
+        segmentFor(id).set((int) (id & SEGMENT_MASK), transfer);
+        index(transfer);
+        transferIdSequence.accumulateAndGet(id, Math::max);
+    }
+
+    /**
+     * Moves the ID sequence up to a high-water mark loaded from a snapshot, so new
+     * transfers never reuse an ID handed out before the snapshot.
+     *
+     * @param lastTransferId Highest transfer ID issued so far
+     */
+    void restoreSequence(long lastTransferId) {
+        transferIdSequence.accumulateAndGet(lastTransferId, Math::max);
+    }
+
+    /**
+     * Retrieves a specific transfer using its unique ID.
+     *
+     * @param transferId The ID of the transfer to be retrieved.
+     * @return The Transfer object if found, otherwise null.
+     */
+    @Override
+    public Transfer getTransferById(long transferId) {
+        if (transferId <= 0 || transferId > transferIdSequence.get()) {
+            return null;
+        }
+        AtomicReferenceArray<Transfer> segment = segments.get((int) (transferId >>> SEGMENT_BITS));
+        return segment == null ? null : segment.get((int) (transferId & SEGMENT_MASK));
+    }
+
+    /**
+     * Returns a list of all recorded fund transfers in ID order.
+     *
+     * @return A List containing all Transfer objects stored.
+     */
+    @Override
+    public List<Transfer> getAllTransfers() {
+        long last = transferIdSequence.get();
+        List<Transfer> result = new ArrayList<>((int) Math.min(last, Integer.MAX_VALUE - 8));
+        for (long id = 1; id <= last; id++) {
+            Transfer transfer = getTransferById(id);
+            // A null slot is an ID that has been handed out but not yet stored
+            if (transfer != null) {
+                result.add(transfer);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns one page of transfers in ID order. Since IDs are dense, the page starts at
+     * the slot after the cursor and reads at most {@code limit} slots past any gaps.
+     *
+     * @param afterTransferId The ID to start after, or 0 for the first page.
+     * @param limit           Maximum number of transfers to return.
+     * @return A list of at most {@code limit} Transfer objects.
+     */
+    @Override
+    public List<Transfer> getTransfersAfter(long afterTransferId, int limit) {
+        if (afterTransferId < 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        long last = transferIdSequence.get();
+        List<Transfer> page = new ArrayList<>((int) Math.min(limit, Math.max(0, last - afterTransferId)));
+        for (long id = afterTransferId + 1; id <= last && page.size() < limit; id++) {
+            Transfer transfer = getTransferById(id);
+            if (transfer != null) {
+                page.add(transfer);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Walks the segments in ID order and passes each stored transfer to the action.
+     *
+     * @param action Called once for each transfer.
+     */
+    @Override
+    public void forEachTransfer(Consumer<? super Transfer> action) {
+        long last = transferIdSequence.get();
+        for (long id = 1; id <= last; id++) {
+            Transfer transfer = getTransferById(id);
+            if (transfer != null) {
+                action.accept(transfer);
+            }
+        }
+    }
+
+    /**
+     * Reads a time range from the time index.
+     *
+     * @param accountNumber Account that sent or received the transfers, or null for all transfers.
+     * @param from          Start of the range, inclusive; null for no lower bound.
+     * @param to            End of the range, exclusive; null for no upper bound.
+     * @param limit         Maximum number of transfers to return.
+     * @return A list of at most {@code limit} Transfer objects, oldest first.
+     */
+    @Override
+    public List<Transfer> getTransfersBetween(String accountNumber, LocalDateTime from, LocalDateTime to, int limit) {
+        return timeIndex.between(accountNumber, from, to, limit);
+    }
+
+    /**
+     * Reads the newest end of the time index.
+     *
+     * @param accountNumber Account that sent or received the transfers, or null for all transfers.
+     * @param limit         Maximum number of transfers to return.
+     * @return A list of at most {@code limit} Transfer objects, newest first.
+     */
+    @Override
+    public List<Transfer> getLatestTransfers(String accountNumber, int limit) {
+        return timeIndex.latest(accountNumber, limit);
+    }
+
+    /**
+     * Reads an account's recent transfers from its ring when the limit fits in it, and
+     * from the time index otherwise. The ring's transfers are sorted on the way out into
+     * the time index's date-time and then ID order, and undated ones are left out as the
+     * index leaves them out, so both paths order the transfers the same way.
+     *
+     * @param accountNumber The account number.
+     * @param limit         Maximum number of transfers to return.
+     * @return A list of at most {@code limit} Transfer objects, newest first.
+     */
+    @Override
+    public List<Transfer> getRecentTransfers(String accountNumber, int limit) {
+        if (accountNumber == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        if (limit > RecentTransfers.CAPACITY) {
+            return timeIndex.latest(accountNumber, limit);
+        }
+        RecentTransfers recent = recentByAccount.get(accountNumber);
+        if (recent == null) {
+            return Collections.emptyList();
+        }
+        long[] ids = recent.ids();
+        List<Transfer> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Transfer transfer = getTransferById(id);
+            if (transfer != null && transfer.getTransferDateTime() != null) {
+                result.add(transfer);
+            }
+        }
+        result.sort(NEWEST_FIRST);
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    // Adds a stored transfer to the time index, its accounts' recent rings and the totals
+    private void index(Transfer transfer) {
+        timeIndex.add(transfer);
+        stats.record(transfer);
+        String sender = transfer.getSenderAccountNumber();
+        String receiver = transfer.getReceiverAccountNumber();
+        if (sender != null) {
+            recentByAccount.computeIfAbsent(sender, k -> new RecentTransfers()).add(transfer.getTransferId());
+        }
+        if (receiver != null && !receiver.equals(sender)) {
+            recentByAccount.computeIfAbsent(receiver, k -> new RecentTransfers()).add(transfer.getTransferId());
+        }
+    }
+
+    /**
+     * Reads the running totals; constant time however many transfers are held.
+     *
+     * @param accountNumber Account that sent or received the transfers, or null for all transfers.
+     * @return The totals.
+     */
+    @Override
+    public TransferTotals getTotals(String accountNumber) {
+        return stats.getTotals(accountNumber);
+    }
+
+    /**
+     * Reads one day bucket of the running totals.
+     *
+     * @param accountNumber Account that sent or received the transfers, or null for all transfers.
+     * @param day           The day.
+     * @return The volume in paise.
+     */
+    @Override
+    public long getDailyVolumePaise(String accountNumber, LocalDate day) {
+        return stats.getDailyVolumePaise(accountNumber, day);
+    }
+
+    /**
+     * Adds the totals of transfers that are no longer held, loaded from a snapshot.
+     *
+     * @param snapshotStats Totals up to the snapshot
+     */
+    void restoreStats(TransferStats snapshotStats) {
+        stats.merge(snapshotStats);
+    }
+
+    // Returns the segment holding the given ID, creating it if needed
+    private AtomicReferenceArray<Transfer> segmentFor(long id) {
+        long index = id >>> SEGMENT_BITS;
+        if (index >= MAX_SEGMENTS) {
+            throw new IllegalStateException("Transfer store is full, cannot store transfer " + id);
+        }
+        AtomicReferenceArray<Transfer> segment = segments.get((int) index);
+        if (segment == null) {
+            AtomicReferenceArray<Transfer> created = new AtomicReferenceArray<>(SEGMENT_SIZE);
+            segment = segments.compareAndSet((int) index, null, created) ? created : segments.get((int) index);
+        }
+        return segment;
+    }
+}
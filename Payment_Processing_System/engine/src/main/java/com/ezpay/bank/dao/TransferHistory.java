@@ -0,0 +1,63 @@
+package com.ezpay.bank.dao;
+
+import com.ezpay.bank.model.Transfer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Append-only list of the transfers belonging to one account, used by the DAO indexes.
+ *
+ * Appends for the same account are serialized on this object; reads take no lock.
+ * A reader first reads the published size and then the backing array, so it always
+ * sees a complete prefix of the history. Pages are returned as read-only views over
+ * the backing array, so reading never copies Transfer references.
+ */
+final class TransferHistory {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private volatile Transfer[] items = new Transfer[INITIAL_CAPACITY];
+    private volatile int size;
+
+    /**
+     * Appends a transfer to the end of the history.
+     *
+     * @param transfer The transfer to append
+     */
+    synchronized void add(Transfer transfer) {
+        Transfer[] current = items;
+        int n = size;
+        if (n == current.length) {
+            current = Arrays.copyOf(current, n + (n >> 1));
+            items = current;
+        }
+        current[n] = transfer;
+        size = n + 1;
+    }
+
+    /**
+     * @return Number of transfers in the history
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns a read-only view of part of the history, oldest first.
+     *
+     * @param offset Index of the first transfer to return
+     * @param limit  Maximum number of transfers to return
+     * @return The requested page; empty if offset is past the end
+     */
+    List<Transfer> page(int offset, int limit) {
+        int n = size;
+        Transfer[] snapshot = items;
+        if (offset >= n || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int end = (int) Math.min((long) offset + limit, n);
+        return Collections.unmodifiableList(Arrays.asList(snapshot).subList(offset, end));
+    }
+}
@@ -0,0 +1,607 @@
+package com.ezpay.bank.dao;
+
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only binary journal of account and transfer events.
+ *
+ * Each record is laid out as {@code [int length][int crc32c][byte type][payload]},
+ * where length covers the type byte and payload. Records are encoded into a shared
+ * buffer under a short lock and written to the file with a {@link FileChannel}.
+ *
+ * Durability uses group commit: {@link #sync(long)} lets one caller flush the buffer
+ * and fsync on behalf of every record appended so far, while the other callers wait
+ * for that fsync instead of issuing their own. The more concurrent writers there are,
+ * the more records each fsync covers.
+ *
+ * On startup {@link #replay(Listener)} reads the journal back, stops at the first
+ * torn or corrupt record and truncates the file there, so a crash in the middle of a
+ * write only loses records that were never acknowledged.
+ *
+ * {@link #roll(Path)} switches writing to a new file so that a finished segment can
+ * be compacted into a snapshot while transfers keep being journaled.
+ */
+public class TransferJournal implements Closeable {
+
+    // Record types
+    static final byte ACCOUNT = 1;
+    static final byte ACCOUNT_DELETED = 2;
+    static final byte TRANSFER = 3;
+    static final byte UPI_TRANSFER = 4;
+    static final byte USER = 5;
+    static final byte USER_DELETED = 6;
+    static final byte UPI_HANDLE = 7;
+    static final byte ACCOUNT_DETAILS = 8;
+
+    // Length and checksum in front of every record
+    private static final int HEADER_SIZE = 8;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    // Upper bound for a single record; anything larger on disk is treated as corruption
+    private static final int MAX_RECORD_SIZE = 1 << 18;
+
+    // Marker for a transfer without a timestamp
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    // Current segment file; replaced by roll()
+    private Path file;
+    private FileChannel channel;
+
+    // Guards buffer, crc and appendedSeq
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CRC32C crc = new CRC32C();
+    private long appendedSeq;
+
+    // Held by the caller that performs the fsync for a group of records. A lock rather
+    // than a monitor, so virtual threads waiting on an fsync do not pin their carrier.
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private volatile long durableSeq;
+
+    /**
+     * Callback for the events read back by {@link #replay(Listener)}.
+     */
+    public interface Listener {
+
+        void onAccount(BankAccount account);
+
+        void onAccountDetails(BankAccount details);
+
+        void onAccountDeleted(String accountNumber);
+
+        void onTransfer(Transfer transfer);
+
+        void onUpiTransfer(Transfer transfer);
+
+        void onUser(User user);
+
+        void onUserDeleted(int userId);
+
+        void onUpiHandle(String upiId, String accountNumber);
+    }
+
+    /**
+     * Opens or creates a journal file. Call {@link #replay(Listener)} before appending
+     * so that a torn tail from an earlier crash is cut off first.
+     *
+     * @param file Path of the journal file
+     * @throws IOException if the file cannot be opened
+     */
+    public TransferJournal(Path file) throws IOException {
+        this.file = file;
+        this.channel = openChannel(file);
+    }
+
+    /**
+     * @return The file currently being written
+     */
+    public Path getFile() {
+        writeLock.lock();
+        try {
+            return file;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Makes everything written so far durable, closes the current file and continues
+     * in a new one. Appends are blocked only for the final flush and fsync.
+     *
+     * @param next Path of the new file
+     * @return Path of the file that was closed
+     * @throws IOException if the current file cannot be synced or the new one opened
+     */
+    public Path roll(Path next) throws IOException {
+        syncLock.lock();
+        try {
+            writeLock.lock();
+            try {
+                FileChannel nextChannel = openChannel(next);
+                drain();
+                channel.force(false);
+                channel.close();
+                durableSeq = appendedSeq;
+
+                Path previous = file;
+                file = next;
+                channel = nextChannel;
+                return previous;
+            } finally {
+                writeLock.unlock();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Appends the full state of an account, including its balance. Written when an
+     * account is added, before any transfer can touch it.
+     *
+     * @param account The account that was added
+     * @return Sequence number to pass to {@link #sync(long)}
+     */
+    public long appendAccount(BankAccount account) {
+        byte[] bankName = utf8(account.getBankName());
+        byte[] accountNumber = utf8(account.getAccountNumber());
+        int size = 1 + 4 + sizeOf(bankName) + sizeOf(accountNumber) + 1 + 8;
+
+        writeLock.lock();
+        try {
+            int start = beginRecord(ACCOUNT, size);
+            buffer.putInt(account.getBankid());
+            putString(buffer, bankName);
+            putString(buffer, accountNumber);
+            buffer.put((byte) (account.isVerified() ? 1 : 0));
+            buffer.putLong(account.getBalancePaise());
+            return endRecord(start);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Appends a change to an account's bank ID, bank name and verification status. The
+     * balance is left out: it may already include transfers whose records come later in
+     * the journal, and replaying them on top of it would apply them twice.
+     *
+     * @param account The account with its new details
+     * @return Sequence number to pass to {@link #sync(long)}
+     */
+    public long appendAccountDetails(BankAccount account) {
+        byte[] bankName = utf8(account.getBankName());
+        byte[] accountNumber = utf8(account.getAccountNumber());
+        int size = 1 + 4 + sizeOf(bankName) + sizeOf(accountNumber) + 1;
+
+        writeLock.lock();
+        try {
+            int start = beginRecord(ACCOUNT_DETAILS, size);
+            buffer.putInt(account.getBankid());
+            putString(buffer, bankName);
+            putString(buffer, accountNumber);
+            buffer.put((byte) (account.isVerified() ? 1 : 0));
+            return endRecord(start);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Appends the removal of an account.
+     *
+     * @param accountNumber The account number that was deleted
+     * @return Sequence number to pass to {@link #sync(long)}
+     */
+    public long appendAccountDeleted(String accountNumber) {
+        byte[] number = utf8(accountNumber);
+        int size = 1 + sizeOf(number);
+
+        writeLock.lock();
+        try {
+            int start = beginRecord(ACCOUNT_DELETED, size);
+            putString(buffer, number);
+            return endRecord(start);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Appends a bank transfer. A successful transfer implies the matching debit and
+     * credit, so balances are rebuilt from these records on replay.
+     *
+     * @param transfer The recorded transfer, with its ID already assigned
+     * @return Sequence number to pass to {@link #sync(long)}
+     */
+    public long appendTransfer(Transfer transfer) {
+        return appendTransfer(TRANSFER, transfer);
+    }
+
+    /**
+     * Appends a UPI transfer.
+     *
+     * @param transfer The saved UPI transfer
+     * @return Sequence number to pass to {@link #sync(long)}
+     */
+    public long appendUpiTransfer(Transfer transfer) {
+        return appendTransfer(UPI_TRANSFER, transfer);
+    }
+
+    /**
+     * Appends the full state of a user, including the linked account numbers.
+     *
+     * @param user The user that was added or updated
+     * @return Sequence number to pass to {@link #sync(long)}
+     */
+    public long appendUser(User user) {
+        byte[] name = utf8(user.getUserName());
+        byte[] email = utf8(user.getEmailId());
+        List<byte[]> accounts = new ArrayList<>();
+        int size = 1 + 4 + sizeOf(name) + sizeOf(email) + 4;
+        if (user.getAccounts() != null) {
+            for (String accountNumber : user.getAccounts()) {
+                byte[] bytes = utf8(accountNumber);
+                accounts.add(bytes);
+                size += sizeOf(bytes);
+            }
+        }
+
+        writeLock.lock();
+        try {
+            int start = beginRecord(USER, size);
+            buffer.putInt(user.getUserID());
+            putString(buffer, name);
+            putString(buffer, email);
+            buffer.putInt(user.getAccounts() == null ? -1 : accounts.size());
+            for (byte[] accountNumber : accounts) {
+                putString(buffer, accountNumber);
+            }
+            return endRecord(start);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Appends the removal of a user.
+     *
+     * @param userId The ID of the deleted user
+     * @return Sequence number to pass to {@link #sync(long)}
+     */
+    public long appendUserDeleted(int userId) {
+        writeLock.lock();
+        try {
+            int start = beginRecord(USER_DELETED, 1 + 4);
+            buffer.putInt(userId);
+            return endRecord(start);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Appends a change to the UPI handle directory.
+     *
+     * @param upiId         The UPI handle
+     * @param accountNumber Account the handle now points to, or null if it was unlinked
+     * @return Sequence number to pass to {@link #sync(long)}
+     */
+    public long appendUpiHandle(String upiId, String accountNumber) {
+        byte[] handle = utf8(upiId);
+        byte[] number = utf8(accountNumber);
+        int size = 1 + sizeOf(handle) + sizeOf(number);
+
+        writeLock.lock();
+        try {
+            int start = beginRecord(UPI_HANDLE, size);
+            putString(buffer, handle);
+            putString(buffer, number);
+            return endRecord(start);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until every record up to the given sequence number is on disk.
+     *
+     * @param seq Sequence number returned by one of the append methods
+     */
+    public void sync(long seq) {
+        if (durableSeq >= seq) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            // Another caller may have covered this record while we waited
+            if (durableSeq >= seq) {
+                return;
+            }
+            long target;
+            writeLock.lock();
+            try {
+                drain();
+                target = appendedSeq;
+            } finally {
+                writeLock.unlock();
+            }
+            channel.force(false);
+            durableSeq = target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to sync transfer journal", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Reads every intact record from the start of the journal, in append order.
+     * The file is truncated after the last intact record.
+     *
+     * @param listener Receives the decoded events
+     * @throws IOException if the file cannot be read
+     */
+    public void replay(Listener listener) throws IOException {
+        writeLock.lock();
+        try {
+            drain();
+            ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+            in.flip();
+            long position = 0;
+            long fileSize = channel.size();
+            CRC32C check = new CRC32C();
+
+            while (true) {
+                if (!fill(in, position + in.remaining(), HEADER_SIZE)) {
+                    break;
+                }
+                int length = in.getInt(in.position());
+                int checksum = in.getInt(in.position() + 4);
+                if (length <= 0 || length > MAX_RECORD_SIZE || !fill(in, position + in.remaining(), HEADER_SIZE + length)) {
+                    break;
+                }
+                ByteBuffer record = in.duplicate();
+                record.position(in.position() + HEADER_SIZE).limit(in.position() + HEADER_SIZE + length);
+                check.reset();
+                check.update(record.duplicate());
+                if ((int) check.getValue() != checksum) {
+                    break;
+                }
+                dispatch(record, listener);
+                in.position(in.position() + HEADER_SIZE + length);
+                position += HEADER_SIZE + length;
+            }
+
+            if (position < fileSize) {
+                channel.truncate(position);
+            }
+            channel.position(position);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes and syncs any pending records and closes the file.
+     *
+     * @throws IOException if the final write fails
+     */
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            drain();
+            channel.force(false);
+            channel.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // ---------------- Encoding ----------------
+
+    private long appendTransfer(byte type, Transfer transfer) {
+        byte[] sender = utf8(transfer.getSenderAccountNumber());
+        byte[] receiver = utf8(transfer.getReceiverAccountNumber());
+        byte[] key = utf8(transfer.getIdempotencyKey());
+        int size = 1 + transferSize(sender, receiver, key);
+
+        writeLock.lock();
+        try {
+            int start = beginRecord(type, size);
+            putTransfer(buffer, transfer, sender, receiver, key);
+            return endRecord(start);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Encoded size of a transfer whose strings are already UTF-8 encoded
+    static int transferSize(byte[] sender, byte[] receiver, byte[] key) {
+        return 8 + sizeOf(sender) + sizeOf(receiver) + 8 + 8 + 4 + 1 + sizeOf(key);
+    }
+
+    // The idempotency key comes last, so records written before it existed still decode
+    static void putTransfer(ByteBuffer out, Transfer transfer, byte[] sender, byte[] receiver, byte[] key) {
+        LocalDateTime time = transfer.getTransferDateTime();
+        out.putLong(transfer.getTransferId());
+        putString(out, sender);
+        putString(out, receiver);
+        out.putLong(transfer.getAmountPaise());
+        out.putLong(time == null ? NO_TIME : time.toEpochSecond(ZoneOffset.UTC));
+        out.putInt(time == null ? 0 : time.getNano());
+        out.put((byte) (transfer.isStatus() ? 1 : 0));
+        putString(out, key);
+    }
+
+    // Reserves the header and writes the type byte; caller holds writeLock
+    private int beginRecord(byte type, int size) {
+        if (size > MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Journal record too large: " + size + " bytes");
+        }
+        if (buffer.remaining() < HEADER_SIZE + size) {
+            try {
+                drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write transfer journal", e);
+            }
+        }
+        int start = buffer.position();
+        buffer.position(start + HEADER_SIZE);
+        buffer.put(type);
+        return start;
+    }
+
+    // Fills in length and checksum for the record starting at start; caller holds writeLock
+    private long endRecord(int start) {
+        int end = buffer.position();
+        ByteBuffer body = buffer.duplicate();
+        body.position(start + HEADER_SIZE).limit(end);
+        crc.reset();
+        crc.update(body);
+        buffer.putInt(start, end - start - HEADER_SIZE);
+        buffer.putInt(start + 4, (int) crc.getValue());
+        return ++appendedSeq;
+    }
+
+    private static FileChannel openChannel(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        return channel;
+    }
+
+    // Writes buffered records to the file; caller holds writeLock
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Strings are a short length followed by UTF-8 bytes; length -1 encodes null
+    static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    static int sizeOf(byte[] bytes) {
+        return 2 + (bytes == null ? 0 : bytes.length);
+    }
+
+    static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal string too long: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    // ---------------- Decoding ----------------
+
+    // Makes sure at least `needed` bytes are readable in `in`; fileOffset is the file position after the buffered bytes
+    private boolean fill(ByteBuffer in, long fileOffset, int needed) throws IOException {
+        if (in.remaining() >= needed) {
+            return true;
+        }
+        in.compact();
+        long offset = fileOffset;
+        while (in.position() < needed) {
+            int read = channel.read(in, offset);
+            if (read <= 0) {
+                break;
+            }
+            offset += read;
+        }
+        in.flip();
+        return in.remaining() >= needed;
+    }
+
+    private static void dispatch(ByteBuffer record, Listener listener) {
+        byte type = record.get();
+        switch (type) {
+            case ACCOUNT -> {
+                BankAccount account = new BankAccount(record.getInt(), getString(record), getString(record), record.get() == 1);
+                account.setBalancePaise(record.getLong());
+                listener.onAccount(account);
+            }
+            case ACCOUNT_DETAILS -> listener.onAccountDetails(
+                    new BankAccount(record.getInt(), getString(record), getString(record), record.get() == 1));
+            case ACCOUNT_DELETED -> listener.onAccountDeleted(getString(record));
+            case TRANSFER -> listener.onTransfer(readTransfer(record));
+            case UPI_TRANSFER -> listener.onUpiTransfer(readTransfer(record));
+            case USER -> listener.onUser(readUser(record));
+            case USER_DELETED -> listener.onUserDeleted(record.getInt());
+            case UPI_HANDLE -> listener.onUpiHandle(getString(record), getString(record));
+            default -> {
+                // Unknown record types from a newer version are skipped
+            }
+        }
+    }
+
+    static Transfer readTransfer(ByteBuffer record) {
+        long id = record.getLong();
+        String sender = getString(record);
+        String receiver = getString(record);
+        long amountPaise = record.getLong();
+        long seconds = record.getLong();
+        int nanos = record.getInt();
+        boolean status = record.get() == 1;
+        LocalDateTime time = seconds == NO_TIME ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+        Transfer transfer = new Transfer(id, sender, receiver, 0, time, status);
+        transfer.setAmountPaise(amountPaise);
+        if (record.hasRemaining()) {
+            transfer.setIdempotencyKey(getString(record));
+        }
+        return transfer;
+    }
+
+    private static User readUser(ByteBuffer record) {
+        int userId = record.getInt();
+        String name = getString(record);
+        String email = getString(record);
+        int count = record.getInt();
+        List<String> accounts = count < 0 ? null : new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            accounts.add(getString(record));
+        }
+        return new User(userId, name, email, accounts);
+    }
+
+    static String getString(ByteBuffer record) {
+        short length = record.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,167 @@
+package com.ezpay.bank.dao;
+
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferTotals;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running aggregates over recorded transfers: success and failure counts, amounts sent
+ * and received, and the amount moved on each of the last {@value #DAYS} days, overall and
+ * per account.
+ *
+ * Every counter is a {@link LongAdder}, so transfers recorded on many threads add to
+ * separate cells instead of fighting over one word, and a query sums a handful of cells
+ * no matter how many transfers there are. Daily volumes sit in a ring of day buckets;
+ * a bucket is replaced by a fresh one when the first transfer of a newer day lands in
+ * it, and a transfer older than the ring is left out of the daily volumes only.
+ *
+ * The aggregates are fed by the transfer store as transfers are recorded or replayed,
+ * and carried in snapshots, so they are rebuilt from the journal on restart.
+ */
+public final class TransferStats {
+
+    // Days of volume kept; a month, so "this month" questions can be answered
+    public static final int DAYS = 31;
+
+    final Counters global = new Counters();
+    final Map<String, Counters> byAccount = new ConcurrentHashMap<>();
+
+    // Counters of all transfers or of one account
+    static final class Counters {
+        final LongAdder succeeded = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder sentPaise = new LongAdder();
+        final LongAdder receivedPaise = new LongAdder();
+        final AtomicReferenceArray<DayVolume> days = new AtomicReferenceArray<>(DAYS);
+
+        TransferTotals totals() {
+            return new TransferTotals(succeeded.sum(), failed.sum(), sentPaise.sum(), receivedPaise.sum());
+        }
+
+        void addVolume(long epochDay, long paise) {
+            int slot = (int) Math.floorMod(epochDay, (long) DAYS);
+            DayVolume bucket = days.get(slot);
+            while (bucket == null || bucket.epochDay < epochDay) {
+                DayVolume fresh = new DayVolume(epochDay);
+                if (days.compareAndSet(slot, bucket, fresh)) {
+                    bucket = fresh;
+                    break;
+                }
+                bucket = days.get(slot);
+            }
+            if (bucket.epochDay == epochDay) {
+                bucket.paise.add(paise);
+            }
+        }
+
+        long volume(long epochDay) {
+            DayVolume bucket = days.get((int) Math.floorMod(epochDay, (long) DAYS));
+            return bucket != null && bucket.epochDay == epochDay ? bucket.paise.sum() : 0;
+        }
+
+        void merge(Counters other) {
+            succeeded.add(other.succeeded.sum());
+            failed.add(other.failed.sum());
+            sentPaise.add(other.sentPaise.sum());
+            receivedPaise.add(other.receivedPaise.sum());
+            for (int i = 0; i < DAYS; i++) {
+                DayVolume bucket = other.days.get(i);
+                if (bucket != null) {
+                    addVolume(bucket.epochDay, bucket.paise.sum());
+                }
+            }
+        }
+    }
+
+    static final class DayVolume {
+        final long epochDay;
+        final LongAdder paise = new LongAdder();
+
+        DayVolume(long epochDay) {
+            this.epochDay = epochDay;
+        }
+    }
+
+    /**
+     * Adds a recorded transfer to the aggregates of all transfers, its sender and its receiver.
+     *
+     * @param transfer A transfer that has just been recorded
+     */
+    void record(Transfer transfer) {
+        boolean succeeded = transfer.isStatus();
+        long amount = transfer.getAmountPaise();
+        long day = transfer.getTransferDateTime() == null ? Long.MIN_VALUE
+                : transfer.getTransferDateTime().toLocalDate().toEpochDay();
+        String sender = transfer.getSenderAccountNumber();
+        String receiver = transfer.getReceiverAccountNumber();
+
+        add(global, succeeded, amount, amount, day);
+        if (sender != null) {
+            add(accountCounters(sender), succeeded, amount, 0, day);
+        }
+        if (receiver != null && !receiver.equals(sender)) {
+            add(accountCounters(receiver), succeeded, 0, amount, day);
+        }
+    }
+
+    private static void add(Counters counters, boolean succeeded, long sent, long received, long day) {
+        if (!succeeded) {
+            counters.failed.increment();
+            return;
+        }
+        counters.succeeded.increment();
+        counters.sentPaise.add(sent);
+        counters.receivedPaise.add(received);
+        if (day != Long.MIN_VALUE && sent + received > 0) {
+            counters.addVolume(day, Math.max(sent, received));
+        }
+    }
+
+    /**
+     * Returns the totals of all transfers or of one account.
+     *
+     * @param accountNumber Account that sent or received the transfers, or null for all transfers
+     * @return The totals; all zero for an account with no transfers
+     */
+    public TransferTotals getTotals(String accountNumber) {
+        if (accountNumber == null) {
+            return global.totals();
+        }
+        Counters counters = byAccount.get(accountNumber);
+        return counters == null ? new TransferTotals(0, 0, 0, 0) : counters.totals();
+    }
+
+    /**
+     * Returns the amount moved by successful transfers on one day. For an account this
+     * is what it sent plus what it received that day.
+     *
+     * @param accountNumber Account that sent or received the transfers, or null for all transfers
+     * @param day           The day; only the last {@value #DAYS} days seen are kept
+     * @return Volume in paise, or 0 if the day is outside the window
+     */
+    public long getDailyVolumePaise(String accountNumber, LocalDate day) {
+        Counters counters = accountNumber == null ? global : byAccount.get(accountNumber);
+        return counters == null ? 0 : counters.volume(day.toEpochDay());
+    }
+
+    /**
+     * Adds another set of aggregates to these, as when a snapshot's totals are loaded.
+     *
+     * @param other Aggregates to add
+     */
+    void merge(TransferStats other) {
+        global.merge(other.global);
+        for (Map.Entry<String, Counters> entry : other.byAccount.entrySet()) {
+            accountCounters(entry.getKey()).merge(entry.getValue());
+        }
+    }
+
+    Counters accountCounters(String accountNumber) {
+        return byAccount.computeIfAbsent(accountNumber, k -> new Counters());
+    }
+}
@@ -0,0 +1,117 @@
+package com.ezpay.bank.dao;
+
+import com.ezpay.bank.model.Transfer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Time-ordered index of transfers, for range and "latest" queries without a scan.
+ *
+ * Transfers are kept in skip lists ordered by date-time and then ID: one over all
+ * transfers and one per account, holding every transfer the account sent or received.
+ * A skip list rather than an append-only array, because batches and concurrent callers
+ * do not record transfers in strict time order. The Transfer objects themselves are
+ * the keys, so the index adds no key objects; their date-time and ID must not change
+ * once indexed. Transfers without a date-time are not indexed.
+ *
+ * Adds and queries take no lock. A query runs over a live view, so it sees every
+ * transfer indexed before it started and possibly some added while it runs.
+ */
+final class TransferTimeIndex {
+
+    // Also the order TransferDaoImpl sorts each account's recent transfers into
+    static final Comparator<Transfer> TIME_ORDER =
+            Comparator.comparing(Transfer::getTransferDateTime).thenComparingLong(Transfer::getTransferId);
+
+    private final NavigableSet<Transfer> all = new ConcurrentSkipListSet<>(TIME_ORDER);
+    private final Map<String, NavigableSet<Transfer>> byAccount = new ConcurrentHashMap<>();
+
+    /**
+     * Indexes a transfer that already has its ID.
+     *
+     * @param transfer The transfer to index
+     */
+    void add(Transfer transfer) {
+        if (transfer.getTransferDateTime() == null) {
+            return;
+        }
+        all.add(transfer);
+        String sender = transfer.getSenderAccountNumber();
+        String receiver = transfer.getReceiverAccountNumber();
+        if (sender != null) {
+            accountSet(sender).add(transfer);
+        }
+        if (receiver != null && !receiver.equals(sender)) {
+            accountSet(receiver).add(transfer);
+        }
+    }
+
+    /**
+     * Returns transfers in a time range, oldest first.
+     *
+     * @param accountNumber Account that sent or received the transfers, or null for all transfers
+     * @param from          Start of the range, inclusive; null for no lower bound
+     * @param to            End of the range, exclusive; null for no upper bound
+     * @param limit         Maximum number of transfers to return
+     * @return At most {@code limit} transfers
+     */
+    List<Transfer> between(String accountNumber, LocalDateTime from, LocalDateTime to, int limit) {
+        NavigableSet<Transfer> set = accountNumber == null ? all : byAccount.get(accountNumber);
+        if (set == null || limit <= 0 || (from != null && to != null && !from.isBefore(to))) {
+            return Collections.emptyList();
+        }
+        if (from != null) {
+            set = set.tailSet(probe(from), true);
+        }
+        if (to != null) {
+            set = set.headSet(probe(to), false);
+        }
+        return take(set, limit);
+    }
+
+    /**
+     * Returns the most recent transfers, newest first.
+     *
+     * @param accountNumber Account that sent or received the transfers, or null for all transfers
+     * @param limit         Maximum number of transfers to return
+     * @return At most {@code limit} transfers
+     */
+    List<Transfer> latest(String accountNumber, int limit) {
+        NavigableSet<Transfer> set = accountNumber == null ? all : byAccount.get(accountNumber);
+        if (set == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        return take(set.descendingSet(), limit);
+    }
+
+    private NavigableSet<Transfer> accountSet(String accountNumber) {
+        return byAccount.computeIfAbsent(accountNumber, k -> new ConcurrentSkipListSet<>(TIME_ORDER));
+    }
+
+    private static List<Transfer> take(NavigableSet<Transfer> set, int limit) {
+        List<Transfer> result = new ArrayList<>(Math.min(limit, 256));
+        for (Transfer transfer : set) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(transfer);
+        }
+        return result;
+    }
+
+    // Sorts before every transfer at the given time, since real IDs start at 1
+    private static Transfer probe(LocalDateTime time) {
+        Transfer probe = new Transfer();
+        probe.setTransferDateTime(time);
+        probe.setTransferId(Long.MIN_VALUE);
+        return probe;
+    }
+}
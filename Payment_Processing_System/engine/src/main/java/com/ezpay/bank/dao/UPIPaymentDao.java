@@ -0,0 +1,72 @@
+package com.ezpay.bank.dao;
+
+import com.ezpay.bank.model.Transfer;
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) interface for UPI payment operations.
+ * 
+ * This interface defines methods for persisting and retrieving UPI transfer data.
+ * Implementations may store data in-memory, in a database, or through external APIs.
+ */
+public interface UPIPaymentDao {
+
+    /**
+     * Prefix of the idempotency key carried by the bank transfer that settles a keyed UPI
+     * payment; the rest of the key is the payment's own. The settlement is journaled before
+     * the payment's record, so its key is what guards the payment if the two are split by
+     * a crash.
+     */
+    String SETTLEMENT_KEY_PREFIX = "upi-settlement:";
+
+    /**
+     * Saves a UPI transfer record.
+     * 
+     * This method is responsible for persisting the details of a completed UPI transaction.
+     * It may include assigning unique IDs, timestamps, and setting transaction status before saving.
+     *
+     * @param transfer A {@link Transfer} object containing details of the UPI payment
+     * @return true if saved successfully, false otherwise
+     */
+    boolean saveUPITransfer(Transfer transfer);
+
+    /**
+     * Retrieves all UPI transfers initiated by a specific sender.
+     *
+     * This method can be used to fetch the UPI transaction history of a particular user/account.
+     *
+     * @param senderAccount The sender's account number or user ID
+     * @return A list of {@link Transfer} objects initiated by the sender
+     */
+    List<Transfer> getTransfersBySender(String senderAccount);
+
+    /**
+     * Retrieves one page of the UPI transfers initiated by a specific sender, oldest first.
+     *
+     * Use this for large histories so a caller only receives the rows it displays.
+     *
+     * @param senderAccount The sender's account number or user ID
+     * @param offset        Number of transfers to skip
+     * @param limit         Maximum number of transfers to return
+     * @return A list of at most {@code limit} {@link Transfer} objects
+     */
+    List<Transfer> getTransfersBySender(String senderAccount, int offset, int limit);
+
+    /**
+     * Retrieves all UPI transfers received by a specific UPI ID.
+     *
+     * @param receiverUpiId The receiver's UPI ID
+     * @return A list of {@link Transfer} objects received by the UPI ID
+     */
+    List<Transfer> getTransfersByReceiver(String receiverUpiId);
+
+    /**
+     * Retrieves one page of the UPI transfers received by a specific UPI ID, oldest first.
+     *
+     * @param receiverUpiId The receiver's UPI ID
+     * @param offset        Number of transfers to skip
+     * @param limit         Maximum number of transfers to return
+     * @return A list of at most {@code limit} {@link Transfer} objects
+     */
+    List<Transfer> getTransfersByReceiver(String receiverUpiId, int offset, int limit);
+}
@@ -0,0 +1,134 @@
+package com.ezpay.bank.dao;
+
+import com.ezpay.bank.model.Transfer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory implementation of the UPIPaymentDao interface.
+ *
+ * Transfers are indexed by sender and by receiver as they are saved, so a history
+ * lookup goes straight to the account's own list instead of scanning every transfer.
+ * When created with a {@link TransferJournal}, each saved transfer is also journaled.
+ */
+public class UPIPaymentDaoImpl implements UPIPaymentDao {
+
+    // Transfer history per sender account or user ID
+    private final Map<String, TransferHistory> bySender = new ConcurrentHashMap<>();
+
+    // Transfer history per receiver UPI ID
+    private final Map<String, TransferHistory> byReceiver = new ConcurrentHashMap<>();
+
+    // Optional durable journal; null keeps transfers in memory only
+    private final TransferJournal journal;
+
+    /**
+     * Creates a purely in-memory UPI transfer store.
+     */
+    public UPIPaymentDaoImpl() {
+        this(null);
+    }
+
+    /**
+     * Creates a UPI transfer store that journals every saved transfer.
+     *
+     * @param journal Journal to write to, or null for an in-memory store
+     */
+    public UPIPaymentDaoImpl(TransferJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Saves a new UPI transfer and adds it to the sender and receiver indexes.
+     * Transfers without a sender or receiver, or with a negative amount, are rejected.
+     *
+     * @param transfer The Transfer object containing UPI payment details
+     * @return true if the transfer was added successfully, false if it was rejected
+     */
+    @Override
+    public boolean saveUPITransfer(Transfer transfer) {
+        if (transfer == null || transfer.getSenderAccountNumber() == null
+                || transfer.getReceiverAccountNumber() == null || transfer.getAmountPaise() < 0) {
+            return false;
+        }
+        if (journal != null) {
+            journal.sync(journal.appendUpiTransfer(transfer));
+        }
+        index(transfer);
+        return true;
+    }
+
+    /**
+     * Puts back a transfer read from the journal.
+     *
+     * @param transfer The replayed transfer
+     */
+    void restoreTransfer(Transfer transfer) {
+        index(transfer);
+    }
+
+    // Adds a transfer to the sender and receiver indexes
+    private void index(Transfer transfer) {
+        bySender.computeIfAbsent(transfer.getSenderAccountNumber(), k -> new TransferHistory()).add(transfer);
+        byReceiver.computeIfAbsent(transfer.getReceiverAccountNumber(), k -> new TransferHistory()).add(transfer);
+    }
+
+    /**
+     * Retrieves all UPI transfers made by a specific sender, oldest first.
+     *
+     * @param senderAccount The sender's account number or user ID
+     * @return Read-only list of Transfer objects made by the given sender
+     */
+    @Override
+    public List<Transfer> getTransfersBySender(String senderAccount) {
+        return getTransfersBySender(senderAccount, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retrieves one page of the UPI transfers made by a specific sender, oldest first.
+     *
+     * @param senderAccount The sender's account number or user ID
+     * @param offset        Number of transfers to skip
+     * @param limit         Maximum number of transfers to return
+     * @return Read-only list with at most {@code limit} transfers
+     */
+    @Override
+    public List<Transfer> getTransfersBySender(String senderAccount, int offset, int limit) {
+        return page(bySender, senderAccount, offset, limit);
+    }
+
+    /**
+     * Retrieves all UPI transfers received by a specific UPI ID, oldest first.
+     *
+     * @param receiverUpiId The receiver's UPI ID
+     * @return Read-only list of Transfer objects received by the given UPI ID
+     */
+    @Override
+    public List<Transfer> getTransfersByReceiver(String receiverUpiId) {
+        return getTransfersByReceiver(receiverUpiId, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retrieves one page of the UPI transfers received by a specific UPI ID, oldest first.
+     *
+     * @param receiverUpiId The receiver's UPI ID
+     * @param offset        Number of transfers to skip
+     * @param limit         Maximum number of transfers to return
+     * @return Read-only list with at most {@code limit} transfers
+     */
+    @Override
+    public List<Transfer> getTransfersByReceiver(String receiverUpiId, int offset, int limit) {
+        return page(byReceiver, receiverUpiId, offset, limit);
+    }
+
+    // Looks up a history in the given index and returns the requested page
+    private static List<Transfer> page(Map<String, TransferHistory> index, String key, int offset, int limit) {
+        if (key == null || offset < 0) {
+            return Collections.emptyList();
+        }
+        TransferHistory history = index.get(key);
+        return history == null ? Collections.emptyList() : history.page(offset, limit);
+    }
+}
@@ -2,6 +2,7 @@ package com.ezpay.bank.dao;
 
 import com.ezpay.bank.model.User;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interface representing the data access operations related to User.
@@ -31,6 +32,23 @@ public interface UserDao {
      */
     List<User> getAllUsers();
 
+    /**
+     * Retrieves one page of users in user ID order, starting after a given ID. Pass the
+     * last ID of a page to get the next one; a short page is the last.
+     *
+     * @param afterUserId The user ID to start after; {@code Integer.MIN_VALUE} for the first page.
+     * @param limit       Maximum number of users to return.
+     * @return A list of at most {@code limit} User objects with IDs above {@code afterUserId}.
+     */
+    List<User> getUsersAfter(int afterUserId, int limit);
+
+    /**
+     * Passes every user to an action in user ID order, without copying them into a list.
+     *
+     * @param action Called once for each user.
+     */
+    void forEachUser(Consumer<? super User> action);
+
     /**
      * Updates the details of an existing user.
      * 
@@ -0,0 +1,152 @@
+package com.ezpay.bank.dao;
+
+import com.ezpay.bank.model.User;
+import java.util.*;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of the UserDao interface using an in-memory data store.
+ * This class manages User data using a ConcurrentSkipListMap with userId as the key, so
+ * users can be paged and walked in ID order without copying the whole store.
+ *
+ * When created with a {@link TransferJournal}, every add, update and delete is journaled
+ * and synced before it is applied.
+ */
+public class UserDaoImpl implements UserDao {
+
+    // In-memory storage of users, keyed by userId
+    private final ConcurrentNavigableMap<Integer, User> userMap = new ConcurrentSkipListMap<>();
+
+    // Optional durable journal; null keeps users in memory only
+    private final TransferJournal journal;
+
+    /**
+     * Creates a purely in-memory user store.
+     */
+    public UserDaoImpl() {
+        this(null);
+    }
+
+    /**
+     * Creates a user store that journals every change.
+     *
+     * @param journal Journal to write to, or null for an in-memory store
+     */
+    public UserDaoImpl(TransferJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Adds a new user to the in-memory store.
+     * If the user already exists (same userId), it will overwrite the existing one.
+     *
+     * @param user The User object to be added.
+     */
+    @Override
+    public void addUser(User user) {
+        if (journal != null) {
+            journal.sync(journal.appendUser(user));
+        }
+        userMap.put(user.getUserID(), user);
+    }
+
+    /**
+     * Retrieves a user by their unique ID.
+     *
+     * @param userId The ID of the user to retrieve.
+     * @return The User object if found; otherwise, null.
+     */
+    @Override
+    public User getUserById(int userId) {
+        return userMap.get(userId);
+    }
+
+    /**
+     * Returns a list of all users in the system.
+     *
+     * @return A list of all stored User objects.
+     */
+    @Override
+    public List<User> getAllUsers() {
+        return new ArrayList<>(userMap.values());
+    }
+
+    /**
+     * Returns one page of users in ID order, read from the map's tail after the cursor.
+     *
+     * @param afterUserId The user ID to start after.
+     * @param limit       Maximum number of users to return.
+     * @return A list of at most {@code limit} User objects.
+     */
+    @Override
+    public List<User> getUsersAfter(int afterUserId, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<User> page = new ArrayList<>(Math.min(limit, 1024));
+        for (User user : userMap.tailMap(afterUserId, false).values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(user);
+        }
+        return page;
+    }
+
+    /**
+     * Passes every user to the action in ID order.
+     *
+     * @param action Called once for each user.
+     */
+    @Override
+    public void forEachUser(Consumer<? super User> action) {
+        userMap.values().forEach(action);
+    }
+
+    /**
+     * Updates an existing user's information.
+     * If the user does not exist, this will add the user as a new entry.
+     *
+     * @param user The User object with updated information.
+     */
+    @Override
+    public void updateUser(User user) {
+        if (journal != null) {
+            journal.sync(journal.appendUser(user));
+        }
+        userMap.put(user.getUserID(), user);
+    }
+
+    /**
+     * Deletes a user from the store based on their ID.
+     *
+     * @param userId The ID of the user to be removed.
+     */
+    @Override
+    public void deleteUser(int userId) {
+        if (journal != null) {
+            journal.sync(journal.appendUserDeleted(userId));
+        }
+        userMap.remove(userId);
+    }
+
+    /**
+     * Puts back a user read from the journal or a snapshot.
+     *
+     * @param user The recovered user
+     */
+    void restoreUser(User user) {
+        userMap.put(user.getUserID(), user);
+    }
+
+    /**
+     * Removes a user whose deletion was read from the journal.
+     *
+     * @param userId The recovered user ID
+     */
+    void restoreDelete(int userId) {
+        userMap.remove(userId);
+    }
+}
@@ -0,0 +1,247 @@
+package com.ezpay.bank.model;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Represents a bank account associated with a user in the EZPay banking system.
+ *
+ * The balance normally lives in a single field. A hot account, one that receives
+ * credits from many threads at once, can be sharded with {@link #shardBalance(int)}:
+ * its credits then go to one of several slots with a lock-free add, and its balance is
+ * the base field plus every slot. Debits always come off the base field, which may go
+ * negative while the slots hold the rest of the money.
+ */
+public class BankAccount {
+    // Unique identifier for the bank account
+    private int bankid;
+
+    // Name of the bank (e.g., SBI, HDFC, ICICI)
+    private String bankName;
+
+    // Account number associated with the bank
+    private String accountNumber;
+
+    // Status flag to check if the account is verified
+    private boolean isVerified;
+    
+    // Longs between two credit slots, so each slot sits on its own 64-byte cache line
+    private static final int SLOT_STRIDE = 8;
+
+    // Current balance in paise, excluding the credit slots; volatile so reads outside
+    // the ledger locks see the latest value
+    private volatile long balance;
+
+    // Credit slots of a sharded account, or null while the account is not sharded
+    private volatile AtomicLongArray creditSlots;
+
+    
+    /**
+     * Default constructor
+     */
+    public BankAccount() {}
+
+    /**
+     * Constructor to initialize a bank account object with given details.
+     * 
+     * @param bankid         Unique bank ID
+     * @param bankName       Name of the bank
+     * @param accountNumber  Account number
+     * @param isVerified     Verification status
+     */
+    public BankAccount(int bankid, String bankName, String accountNumber, boolean isVerified) {
+        super();
+        this.bankid = bankid;
+        this.bankName = bankName;
+        this.accountNumber = accountNumber;
+        this.isVerified = isVerified;
+    }
+
+    // Getter methods
+
+    /**
+     * Gets the unique ID of the bank.
+     * 
+     * @return Bank ID
+     */
+    public int getBankid() {
+        return bankid;
+    }
+
+    /**
+     * Gets the name of the bank.
+     * 
+     * @return Bank name
+     */
+    public String getBankName() {
+        return bankName;
+    }
+
+    /**
+     * Gets the account number.
+     * 
+     * @return Account number
+     */
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    /**
+     * Checks whether the bank account is verified.
+     * 
+     * @return true if verified, false otherwise
+     */
+    public boolean isVerified() {
+        return isVerified;
+    }
+
+    // Setter methods
+
+    /**
+     * Sets the bank ID.
+     * 
+     * @param bankid Bank ID
+     */
+    public void setBankid(int bankid) {
+        this.bankid = bankid;
+    }
+
+    /**
+     * Sets the bank name.
+     * 
+     * @param bankName Name of the bank
+     */
+    public void setBankName(String bankName) {
+        this.bankName = bankName;
+    }
+
+    /**
+     * Sets the account number.
+     * 
+     * @param accountNumber Account number
+     */
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    /**
+     * Sets the verification status of the account.
+     * 
+     * @param isVerified true if verified, false otherwise
+     */
+    public void setVerified(boolean isVerified) {
+        this.isVerified = isVerified;
+    }
+
+    /**
+     * Copies the bank ID, bank name and verification status of another account. The
+     * account number and balance are left alone.
+     *
+     * @param details Account holding the new details
+     */
+    public void setDetails(BankAccount details) {
+        setBankid(details.getBankid());
+        setBankName(details.getBankName());
+        setVerified(details.isVerified());
+    }
+
+    /**
+     * Gets the balance in rupees, including the credit slots of a sharded account.
+     *
+     * @return Balance in rupees
+     */
+    public double getBalance() {
+        return Money.toRupees(getBalancePaise());
+    }
+
+    /**
+     * Sets the balance in rupees, rounded to the nearest paisa.
+     *
+     * @param balance Balance in rupees
+     */
+    public void setBalance(double balance) {
+        setBalancePaise(Money.toPaise(balance));
+    }
+
+    /**
+     * Gets the balance in paise, including the credit slots of a sharded account.
+     *
+     * @return Balance in paise
+     */
+    public long getBalancePaise() {
+        return balance + slotTotal();
+    }
+
+    /**
+     * Sets the balance in paise.
+     * For a sharded account this is only exact while no credit is in flight.
+     *
+     * @param balance Balance in paise
+     */
+    public void setBalancePaise(long balance) {
+        this.balance = balance - slotTotal();
+    }
+
+    /**
+     * Adds a credit to the balance. On a sharded account the credit goes to a random
+     * slot and needs no lock; otherwise the caller must hold the account's ledger lock.
+     *
+     * @param amount Amount in paise
+     */
+    public void creditPaise(long amount) {
+        AtomicLongArray slots = creditSlots;
+        if (slots != null) {
+            int slot = ThreadLocalRandom.current().nextInt(slots.length() / SLOT_STRIDE);
+            slots.getAndAdd(slot * SLOT_STRIDE, amount);
+        } else {
+            balance = Math.addExact(balance, amount);
+        }
+    }
+
+    /**
+     * Takes a debit off the balance. The caller must hold the account's ledger lock and
+     * have checked that {@link #getBalancePaise()} covers the amount.
+     *
+     * @param amount Amount in paise
+     */
+    public void debitPaise(long amount) {
+        balance -= amount;
+    }
+
+    /**
+     * Splits future credits across the given number of slots. Has no effect if the
+     * account is already sharded.
+     *
+     * @param slotCount Number of credit slots; must be positive
+     */
+    public synchronized void shardBalance(int slotCount) {
+        if (slotCount <= 0) {
+            throw new IllegalArgumentException("slotCount must be positive");
+        }
+        if (creditSlots == null) {
+            creditSlots = new AtomicLongArray(slotCount * SLOT_STRIDE);
+        }
+    }
+
+    /**
+     * Checks whether the account's credits are split across slots.
+     *
+     * @return true if the account is sharded
+     */
+    public boolean isSharded() {
+        return creditSlots != null;
+    }
+
+    // Sum of the credit slots; zero for an account that is not sharded
+    private long slotTotal() {
+        AtomicLongArray slots = creditSlots;
+        long total = 0;
+        if (slots != null) {
+            for (int i = 0; i < slots.length(); i += SLOT_STRIDE) {
+                total += slots.get(i);
+            }
+        }
+        return total;
+    }
+}
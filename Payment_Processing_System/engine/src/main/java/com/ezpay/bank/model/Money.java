@@ -0,0 +1,70 @@
+package com.ezpay.bank.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Static helpers for money amounts held as {@code long} paise (1 rupee = 100 paise).
+ *
+ * All balances and transfer amounts are stored in paise so that arithmetic on the
+ * transfer path is exact integer arithmetic with no rounding drift and no allocation.
+ * Conversions to and from rupees happen only at the edges (user input and display).
+ * This matches the {@code BIGINT} paise columns in {@code ezpay_db.sql}.
+ */
+public final class Money {
+
+    public static final long PAISE_PER_RUPEE = 100;
+
+    // Largest rupee value that converts to paise without losing precision in a double
+    private static final double MAX_RUPEES = (1L << 53) / (double) PAISE_PER_RUPEE;
+
+    private Money() {}
+
+    /**
+     * Converts a rupee amount to paise, rounding to the nearest paisa.
+     *
+     * @param rupees Amount in rupees
+     * @return Amount in paise
+     * @throws IllegalArgumentException if the value is not finite or too large
+     */
+    public static long toPaise(double rupees) {
+        if (!(Math.abs(rupees) <= MAX_RUPEES)) {
+            throw new IllegalArgumentException("Invalid money amount: " + rupees);
+        }
+        return Math.round(rupees * PAISE_PER_RUPEE);
+    }
+
+    /**
+     * Converts paise to rupees for display or legacy callers.
+     *
+     * @param paise Amount in paise
+     * @return Amount in rupees
+     */
+    public static double toRupees(long paise) {
+        return paise / (double) PAISE_PER_RUPEE;
+    }
+
+    /**
+     * Parses a decimal rupee string such as "1500.50" exactly.
+     *
+     * @param text Amount in rupees with at most two decimal places
+     * @return Amount in paise
+     * @throws NumberFormatException if the text is not a number
+     * @throws ArithmeticException   if it has more than two decimal places or overflows
+     */
+    public static long parse(String text) {
+        return new BigDecimal(text.trim()).movePointRight(2).longValueExact();
+    }
+
+    /**
+     * Formats paise as a rupee string with two decimal places, e.g. "1500.50".
+     *
+     * @param paise Amount in paise
+     * @return Formatted amount
+     */
+    public static String format(long paise) {
+        String sign = paise < 0 ? "-" : "";
+        long abs = Math.abs(paise);
+        long fraction = abs % PAISE_PER_RUPEE;
+        return sign + abs / PAISE_PER_RUPEE + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
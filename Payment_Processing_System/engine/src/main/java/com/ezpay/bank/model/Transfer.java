@@ -9,7 +9,7 @@ import java.time.LocalDateTime;
 public class Transfer {
     
     // Unique ID for the transfer transaction
-    private int transferId;
+    private long transferId;
     
     // Account number of the sender
     private String senderAccountNumber;
@@ -17,14 +17,17 @@ public class Transfer {
     // Account number of the receiver
     private String receiverAccountNumber;
     
-    // Amount transferred
-    private double amount;
+    // Amount transferred, in paise
+    private long amount;
     
     // Timestamp of when the transfer was made
     private LocalDateTime transferDateTime;
     
     // Status of the transfer: true if successful, false otherwise
     private boolean status;
+
+    // Client-chosen key that identifies retries of the same request; null if none
+    private String idempotencyKey;
     
     /**
      * Default constructor
@@ -37,25 +40,32 @@ public class Transfer {
      * @param transferId             Unique identifier for the transfer
      * @param senderAccountNumber    Sender's bank account number
      * @param receiverAccountNumber  Receiver's bank account number
-     * @param amount                 Amount to be transferred
+     * @param amount                 Amount to be transferred, in rupees
      * @param transferDateTime       Date and time of transfer
      * @param status                 Status of the transaction
      */
-    public Transfer(int transferId, String senderAccountNumber, String receiverAccountNumber, double amount, LocalDateTime transferDateTime, boolean status) {
+    public Transfer(long transferId, String senderAccountNumber, String receiverAccountNumber, double amount, LocalDateTime transferDateTime, boolean status) {
         this.transferId = transferId;
         this.senderAccountNumber = senderAccountNumber;
         this.receiverAccountNumber = receiverAccountNumber;
-        this.amount = amount;
+        this.amount = Money.toPaise(amount);
         this.transferDateTime = transferDateTime;
         this.status = status;
     }
 
     // Getters
 
+    /**
+     * @return Idempotency key, or null if the request has none
+     */
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
     /**
      * @return Transfer ID
      */
-    public int getTransferId() {
+    public long getTransferId() {
         return transferId;
     }
 
@@ -74,9 +84,16 @@ public class Transfer {
     }
 
     /**
-     * @return Amount transferred
+     * @return Amount transferred, in rupees
      */
     public double getAmount() {
+        return Money.toRupees(amount);
+    }
+
+    /**
+     * @return Amount transferred, in paise
+     */
+    public long getAmountPaise() {
         return amount;
     }
 
@@ -100,7 +117,7 @@ public class Transfer {
      * Set the transfer ID
      * @param transferId Transfer ID
      */
-    public void setTransferId(int transferId) {
+    public void setTransferId(long transferId) {
         this.transferId = transferId;
     }
 
@@ -122,9 +139,17 @@ public class Transfer {
 
     /**
      * Set the amount to be transferred
-     * @param amount Transfer amount
+     * @param amount Transfer amount in rupees, rounded to the nearest paisa
      */
     public void setAmount(double amount) {
+        this.amount = Money.toPaise(amount);
+    }
+
+    /**
+     * Set the amount to be transferred
+     * @param amount Transfer amount in paise
+     */
+    public void setAmountPaise(long amount) {
         this.amount = amount;
     }
 
@@ -143,4 +168,13 @@ public class Transfer {
     public void setStatus(boolean status) {
         this.status = status;
     }
+
+    /**
+     * Set the idempotency key. Requests carrying the same key are treated as retries
+     * of the first one and are not applied again.
+     * @param idempotencyKey Client-chosen key, or null
+     */
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
 }
@@ -0,0 +1,32 @@
+package com.ezpay.bank.model;
+
+/**
+ * Outcome of a single transfer in a batch.
+ */
+public enum TransferResult {
+
+    // Balances were moved
+    APPLIED,
+
+    // Missing account number or a non-positive amount
+    INVALID,
+
+    // Sender or receiver account does not exist
+    UNKNOWN_ACCOUNT,
+
+    // Sender balance was lower than the amount
+    INSUFFICIENT_FUNDS,
+
+    // The amount or number of payments would exceed the sender's hourly or daily limit
+    LIMIT_EXCEEDED,
+
+    // Risk scoring judged the transfer too risky, or could not score it under a fail-closed policy
+    RISK_DECLINED;
+
+    /**
+     * @return true if the transfer moved money
+     */
+    public boolean isApplied() {
+        return this == APPLIED;
+    }
+}
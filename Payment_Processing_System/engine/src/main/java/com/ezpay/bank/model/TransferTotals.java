@@ -0,0 +1,22 @@
+package com.ezpay.bank.model;
+
+/**
+ * Running totals over recorded transfers, either all of them or those of one account.
+ *
+ * For one account, {@code sentPaise} and {@code receivedPaise} are the amounts it paid
+ * and received in successful transfers. Over all transfers both equal the money moved.
+ *
+ * @param succeeded     Number of successful transfers
+ * @param failed        Number of declined transfers
+ * @param sentPaise     Amount sent in successful transfers, in paise
+ * @param receivedPaise Amount received in successful transfers, in paise
+ */
+public record TransferTotals(long succeeded, long failed, long sentPaise, long receivedPaise) {
+
+    /**
+     * @return Number of recorded transfers, successful or not
+     */
+    public long count() {
+        return succeeded + failed;
+    }
+}
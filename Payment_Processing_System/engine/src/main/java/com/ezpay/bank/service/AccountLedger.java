@@ -0,0 +1,395 @@
+package com.ezpay.bank.service;
+
+import com.ezpay.bank.dao.BalanceColumns;
+import com.ezpay.bank.dao.BankAccountDao;
+import com.ezpay.bank.dao.BankAccountDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe balance ledger used by the transfer services.
+ *
+ * Balances live on the BankAccount objects held by the BankAccountDao and are moved as
+ * {@code long} paise, so the transfer path is exact integer arithmetic. A debit and
+ * its matching credit are applied while holding the locks of both accounts. Locks
+ * come from a fixed pool of stripes and are always taken in ascending stripe order,
+ * so two transfers can never deadlock and transfers between unrelated accounts run
+ * in parallel.
+ *
+ * A hot account, such as a merchant that many payers credit at once, would make its
+ * stripe a serialization point. Such an account can be sharded, either explicitly with
+ * {@link #markHot(String)} or automatically by a {@link HotAccountDetector}. Credits to a
+ * sharded account go to one of its balance slots without taking its stripe; only its
+ * debits still lock it.
+ *
+ * A store with {@link BalanceColumns}, such as BankAccountTable, is used by row number
+ * instead: each account number is resolved to a row and the balances are moved in
+ * place, so a transfer creates no BankAccount objects. Credits to a row are atomic, so
+ * every receiver is treated like a sharded account and only the sender is locked.
+ */
+public class AccountLedger implements Ledger {
+
+    // Default number of lock stripes; a power of two so the stripe index is a mask
+    public static final int DEFAULT_STRIPES = 1024;
+
+    // Credit slots given to a hot account
+    public static final int DEFAULT_HOT_SLOTS = 16;
+
+    private final BankAccountDao accountDao;
+
+    // The store's balance columns if it has them; transfers then move balances by row
+    private final BalanceColumns columns;
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    // Promotes accounts to hot from their credit rate; null disables detection
+    private final HotAccountDetector hotAccountDetector;
+
+    /**
+     * Creates a ledger over a fresh in-memory account store.
+     */
+    public AccountLedger() {
+        this(new BankAccountDaoImpl());
+    }
+
+    /**
+     * Creates a ledger over the given account store.
+     *
+     * @param accountDao Store holding the accounts whose balances are moved
+     */
+    public AccountLedger(BankAccountDao accountDao) {
+        this(accountDao, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a ledger over the given account store with a custom stripe count.
+     *
+     * @param accountDao  Store holding the accounts whose balances are moved
+     * @param stripeCount Number of locks; rounded up to the next power of two
+     */
+    public AccountLedger(BankAccountDao accountDao, int stripeCount) {
+        this(accountDao, stripeCount, null);
+    }
+
+    /**
+     * Creates a ledger that shards accounts the detector finds hot.
+     *
+     * @param accountDao         Store holding the accounts whose balances are moved
+     * @param stripeCount        Number of locks; rounded up to the next power of two
+     * @param hotAccountDetector Detector fed with every credit, or null to shard only
+     *                           accounts passed to {@link #markHot(String)}
+     */
+    public AccountLedger(BankAccountDao accountDao, int stripeCount, HotAccountDetector hotAccountDetector) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("stripeCount must be positive");
+        }
+        int size = stripeCount == 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.accountDao = accountDao;
+        this.columns = accountDao instanceof BalanceColumns ? (BalanceColumns) accountDao : null;
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+        this.hotAccountDetector = hotAccountDetector;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Registers an account with the ledger.
+     *
+     * @param account The account to add
+     */
+    @Override
+    public void addAccount(BankAccount account) {
+        accountDao.addAccount(account);
+    }
+
+    /**
+     * Looks up an account by number.
+     *
+     * @param accountNumber The account number
+     * @return The account, or null if it is unknown
+     */
+    @Override
+    public BankAccount getAccount(String accountNumber) {
+        return accountDao.getAccountByNumber(accountNumber);
+    }
+
+    /**
+     * Checks for an account without fetching it.
+     *
+     * @param accountNumber The account number
+     * @return true if the account exists
+     */
+    @Override
+    public boolean hasAccount(String accountNumber) {
+        return accountDao.containsAccount(accountNumber);
+    }
+
+    /**
+     * Shards an account's balance so that credits to it no longer take its lock.
+     *
+     * @param accountNumber The account to shard
+     * @return true if the account exists
+     */
+    public boolean markHot(String accountNumber) {
+        BankAccount account = accountDao.getAccountByNumber(accountNumber);
+        if (account == null) {
+            return false;
+        }
+        account.shardBalance(DEFAULT_HOT_SLOTS);
+        return true;
+    }
+
+    /**
+     * Moves money from one account to another.
+     *
+     * @param senderAccountNumber   Account to debit
+     * @param receiverAccountNumber Account to credit
+     * @param amountPaise           Amount to move in paise; must be positive
+     * @return true if the balances were updated, false if either account is unknown,
+     *         the amount is not positive or the sender has insufficient funds
+     * @throws ArithmeticException if the credit would overflow the receiver's balance;
+     *                             neither balance is changed
+     */
+    @Override
+    public boolean transfer(String senderAccountNumber, String receiverAccountNumber, long amountPaise) {
+        if (senderAccountNumber == null || receiverAccountNumber == null || amountPaise <= 0) {
+            return false;
+        }
+        if (columns != null) {
+            return transferRows(senderAccountNumber, receiverAccountNumber, amountPaise);
+        }
+
+        BankAccount sender = accountDao.getAccountByNumber(senderAccountNumber);
+        BankAccount receiver = accountDao.getAccountByNumber(receiverAccountNumber);
+        if (sender == null || receiver == null) {
+            return false;
+        }
+        noteCredit(receiver);
+
+        // A sharded receiver takes its credit without a lock; only the sender is locked
+        int first = stripeOf(senderAccountNumber);
+        int second = receiver.isSharded() ? first : stripeOf(receiverAccountNumber);
+        if (first > second) {
+            int tmp = first;
+            first = second;
+            second = tmp;
+        }
+
+        stripes[first].lock();
+        if (second != first) {
+            stripes[second].lock();
+        }
+        try {
+            if (sender.getBalancePaise() < amountPaise) {
+                return false;
+            }
+            // Credit first: only the credit can overflow, and then nothing has moved
+            receiver.creditPaise(amountPaise);
+            sender.debitPaise(amountPaise);
+            return true;
+        } finally {
+            if (second != first) {
+                stripes[second].unlock();
+            }
+            stripes[first].unlock();
+        }
+    }
+
+    /**
+     * Applies a batch of transfers in list order.
+     *
+     * Every transfer is validated and its accounts looked up before any lock is taken.
+     * The stripes of all accounts in the batch are then locked once, in ascending order,
+     * and the balance moves run without further locking. Later transfers in the batch
+     * see the balances left by earlier ones. A transfer whose credit would overflow the
+     * receiver's balance moves nothing and is reported as {@link TransferResult#INVALID}.
+     *
+     * @param transfers Transfers to apply; only their account numbers and amounts are read
+     * @return Result for each transfer, at the same index as in the list
+     */
+    @Override
+    public TransferResult[] transferAll(List<Transfer> transfers) {
+        if (columns != null) {
+            return transferAllRows(transfers);
+        }
+        int count = transfers.size();
+        TransferResult[] results = new TransferResult[count];
+        BankAccount[] senders = new BankAccount[count];
+        BankAccount[] receivers = new BankAccount[count];
+        BitSet held = new BitSet(stripes.length);
+
+        for (int i = 0; i < count; i++) {
+            Transfer transfer = transfers.get(i);
+            if (transfer == null || transfer.getSenderAccountNumber() == null
+                    || transfer.getReceiverAccountNumber() == null || transfer.getAmountPaise() <= 0) {
+                results[i] = TransferResult.INVALID;
+                continue;
+            }
+            senders[i] = accountDao.getAccountByNumber(transfer.getSenderAccountNumber());
+            receivers[i] = accountDao.getAccountByNumber(transfer.getReceiverAccountNumber());
+            if (senders[i] == null || receivers[i] == null) {
+                results[i] = TransferResult.UNKNOWN_ACCOUNT;
+                continue;
+            }
+            noteCredit(receivers[i]);
+            held.set(stripeOf(transfer.getSenderAccountNumber()));
+            if (!receivers[i].isSharded()) {
+                held.set(stripeOf(transfer.getReceiverAccountNumber()));
+            }
+        }
+
+        lockAll(held);
+        try {
+            for (int i = 0; i < count; i++) {
+                if (results[i] != null) {
+                    continue;
+                }
+                long amountPaise = transfers.get(i).getAmountPaise();
+                if (senders[i].getBalancePaise() < amountPaise) {
+                    results[i] = TransferResult.INSUFFICIENT_FUNDS;
+                    continue;
+                }
+                try {
+                    receivers[i].creditPaise(amountPaise);
+                } catch (ArithmeticException e) {
+                    results[i] = TransferResult.INVALID;
+                    continue;
+                }
+                senders[i].debitPaise(amountPaise);
+                results[i] = TransferResult.APPLIED;
+            }
+        } finally {
+            unlockAll(held);
+        }
+        return results;
+    }
+
+    /**
+     * Sums the balances of all accounts at a single consistent point.
+     * Every stripe is held while summing, so no transfer is half applied.
+     *
+     * @return Total money held by all accounts, in paise
+     */
+    @Override
+    public long totalBalance() {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+        try {
+            long[] total = new long[1];
+            accountDao.forEachAccount(account -> total[0] += account.getBalancePaise());
+            return total[0];
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].unlock();
+            }
+        }
+    }
+
+    // Moves a balance by row, holding only the sender's stripe
+    private boolean transferRows(String senderAccountNumber, String receiverAccountNumber, long amountPaise) {
+        int sender = columns.rowOf(senderAccountNumber);
+        int receiver = columns.rowOf(receiverAccountNumber);
+        if (sender < 0 || receiver < 0) {
+            return false;
+        }
+        ReentrantLock stripe = stripes[sender & mask];
+        stripe.lock();
+        try {
+            if (columns.balanceOf(sender) < amountPaise) {
+                return false;
+            }
+            // Credit first: only the credit can overflow, and then nothing has moved
+            columns.credit(receiver, amountPaise);
+            columns.debit(sender, amountPaise);
+            return true;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    // Applies a batch by row, holding the stripes of its senders
+    private TransferResult[] transferAllRows(List<Transfer> transfers) {
+        int count = transfers.size();
+        TransferResult[] results = new TransferResult[count];
+        int[] senders = new int[count];
+        int[] receivers = new int[count];
+        BitSet held = new BitSet(stripes.length);
+
+        for (int i = 0; i < count; i++) {
+            Transfer transfer = transfers.get(i);
+            if (transfer == null || transfer.getSenderAccountNumber() == null
+                    || transfer.getReceiverAccountNumber() == null || transfer.getAmountPaise() <= 0) {
+                results[i] = TransferResult.INVALID;
+                continue;
+            }
+            senders[i] = columns.rowOf(transfer.getSenderAccountNumber());
+            receivers[i] = columns.rowOf(transfer.getReceiverAccountNumber());
+            if (senders[i] < 0 || receivers[i] < 0) {
+                results[i] = TransferResult.UNKNOWN_ACCOUNT;
+                continue;
+            }
+            held.set(senders[i] & mask);
+        }
+
+        lockAll(held);
+        try {
+            for (int i = 0; i < count; i++) {
+                if (results[i] != null) {
+                    continue;
+                }
+                long amountPaise = transfers.get(i).getAmountPaise();
+                if (columns.balanceOf(senders[i]) < amountPaise) {
+                    results[i] = TransferResult.INSUFFICIENT_FUNDS;
+                    continue;
+                }
+                try {
+                    columns.credit(receivers[i], amountPaise);
+                } catch (ArithmeticException e) {
+                    results[i] = TransferResult.INVALID;
+                    continue;
+                }
+                columns.debit(senders[i], amountPaise);
+                results[i] = TransferResult.APPLIED;
+            }
+        } finally {
+            unlockAll(held);
+        }
+        return results;
+    }
+
+    // Locks the given stripes in ascending order
+    private void lockAll(BitSet held) {
+        for (int s = held.nextSetBit(0); s >= 0; s = held.nextSetBit(s + 1)) {
+            stripes[s].lock();
+        }
+    }
+
+    private void unlockAll(BitSet held) {
+        for (int s = held.previousSetBit(stripes.length - 1); s >= 0; s = held.previousSetBit(s - 1)) {
+            stripes[s].unlock();
+        }
+    }
+
+    // Feeds a credit to the detector and shards the receiver once it turns hot
+    private void noteCredit(BankAccount receiver) {
+        if (hotAccountDetector != null && !receiver.isSharded()
+                && hotAccountDetector.recordCredit(receiver.getAccountNumber())) {
+            receiver.shardBalance(DEFAULT_HOT_SLOTS);
+        }
+    }
+
+    // Maps an account number to its lock stripe
+    private int stripeOf(String accountNumber) {
+        int h = accountNumber.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -15,6 +15,14 @@ public interface BankingService {
      */
     void addAccount(BankAccount account);
 
+    /**
+     * Adds a new bank account unless the account number is already taken.
+     *
+     * @param account The BankAccount object to be added.
+     * @return true if the account was added, false if one with the same number exists.
+     */
+    boolean addAccountIfAbsent(BankAccount account);
+
     /**
      * Retrieves a bank account by its account number.
      *
@@ -30,6 +38,15 @@ public interface BankingService {
      */
     List<BankAccount> getAllAccounts();
 
+    /**
+     * Retrieves one page of bank accounts in account number order.
+     *
+     * @param afterAccountNumber The last account number of the previous page, or null for the first page.
+     * @param limit              Maximum number of accounts to return.
+     * @return A list of at most {@code limit} BankAccount objects.
+     */
+    List<BankAccount> getAccountsAfter(String afterAccountNumber, int limit);
+
     /**
      * Updates the details of an existing bank account.
      *
@@ -11,7 +11,15 @@ import java.util.List;
  */
 public class BankingServiceImpl implements BankingService {
 
-    private final BankAccountDao bankAccountDao = new BankAccountDaoImpl();
+    private final BankAccountDao bankAccountDao;
+
+    public BankingServiceImpl() {
+        this(new BankAccountDaoImpl());
+    }
+
+    public BankingServiceImpl(BankAccountDao bankAccountDao) {
+        this.bankAccountDao = bankAccountDao;
+    }
 
     /**
      * Adds a new bank account.
@@ -23,6 +31,17 @@ public class BankingServiceImpl implements BankingService {
         bankAccountDao.addAccount(account);
     }
 
+    /**
+     * Adds a new bank account unless the account number is already taken.
+     *
+     * @param account The BankAccount object to be added.
+     * @return true if the account was added, false if one with the same number exists.
+     */
+    @Override
+    public boolean addAccountIfAbsent(BankAccount account) {
+        return bankAccountDao.addAccountIfAbsent(account);
+    }
+
     /**
      * Retrieves a bank account by its account number.
      *
@@ -44,6 +63,18 @@ public class BankingServiceImpl implements BankingService {
         return bankAccountDao.getAllAccounts();
     }
 
+    /**
+     * Retrieves one page of bank accounts in account number order.
+     *
+     * @param afterAccountNumber The last account number of the previous page, or null for the first page.
+     * @param limit              Maximum number of accounts to return.
+     * @return A list of at most {@code limit} BankAccount objects.
+     */
+    @Override
+    public List<BankAccount> getAccountsAfter(String afterAccountNumber, int limit) {
+        return bankAccountDao.getAccountsAfter(afterAccountNumber, limit);
+    }
+
     /**
      * Updates an existing bank account's details.
      *
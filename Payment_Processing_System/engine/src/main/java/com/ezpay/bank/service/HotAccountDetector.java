@@ -0,0 +1,84 @@
+package com.ezpay.bank.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Spots accounts that receive credits faster than a threshold rate.
+ *
+ * Only one credit in {@code sampleRate} is counted, so the detector costs a random
+ * number draw on most transfers. Counts are kept per time window in a map that is
+ * replaced when the window ends, so it only ever holds the receivers of the current
+ * window.
+ */
+public class HotAccountDetector {
+
+    // Default promotion rate, window and sampling
+    public static final long DEFAULT_CREDITS_PER_SECOND = 2_000;
+    public static final long DEFAULT_WINDOW_MILLIS = 1_000;
+    public static final int DEFAULT_SAMPLE_RATE = 16;
+
+    private final long windowNanos;
+    private final int sampleRate;
+    private final long sampledThreshold;
+    private final AtomicReference<Window> window;
+
+    // Sampled credit counts for one time window
+    private static final class Window {
+        final long end;
+        final ConcurrentHashMap<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+        Window(long end) {
+            this.end = end;
+        }
+    }
+
+    /**
+     * Creates a detector with the default rate, window and sampling.
+     */
+    public HotAccountDetector() {
+        this(DEFAULT_CREDITS_PER_SECOND, DEFAULT_WINDOW_MILLIS, DEFAULT_SAMPLE_RATE);
+    }
+
+    /**
+     * Creates a detector.
+     *
+     * @param creditsPerSecond Credit rate at which an account counts as hot
+     * @param windowMillis     Length of the window the rate is measured over
+     * @param sampleRate       Counts one credit in this many; 1 counts every credit
+     */
+    public HotAccountDetector(long creditsPerSecond, long windowMillis, int sampleRate) {
+        if (creditsPerSecond <= 0 || windowMillis <= 0 || sampleRate <= 0) {
+            throw new IllegalArgumentException("Rate, window and sample rate must be positive");
+        }
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.sampleRate = sampleRate;
+        this.sampledThreshold = Math.max(1, creditsPerSecond * windowMillis / 1000 / sampleRate);
+        this.window = new AtomicReference<>(new Window(System.nanoTime() + windowNanos));
+    }
+
+    /**
+     * Notes a credit to an account.
+     *
+     * @param accountNumber The account credited
+     * @return true if the account has reached the threshold in the current window
+     */
+    public boolean recordCredit(String accountNumber) {
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return false;
+        }
+        long now = System.nanoTime();
+        Window current = window.get();
+        if (now - current.end >= 0) {
+            // Whoever loses the race simply counts into the winner's window
+            window.compareAndSet(current, new Window(now + windowNanos));
+            current = window.get();
+        }
+        LongAdder count = current.counts.computeIfAbsent(accountNumber, k -> new LongAdder());
+        count.increment();
+        return count.sum() >= sampledThreshold;
+    }
+}
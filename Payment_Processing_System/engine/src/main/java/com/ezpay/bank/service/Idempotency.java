@@ -0,0 +1,42 @@
+package com.ezpay.bank.service;
+
+import com.ezpay.bank.model.Transfer;
+
+import java.util.Objects;
+
+/**
+ * Helpers shared by the services that deduplicate requests by idempotency key.
+ */
+final class Idempotency {
+
+    private Idempotency() {
+    }
+
+    /**
+     * Answers a retried request with the outcome of the original one.
+     *
+     * @param original The transfer recorded for the key
+     * @param retry    The retried request; receives the original ID, status and timestamp
+     * @throws IllegalArgumentException if the retry is for a different payment; a retried
+     *                                  UPI payment must have its receiver normalized first
+     */
+    static void replay(Transfer original, Transfer retry) {
+        if (original.getAmountPaise() != retry.getAmountPaise()
+                || !Objects.equals(original.getReceiverAccountNumber(), retry.getReceiverAccountNumber())
+                || !Objects.equals(original.getSenderAccountNumber(), retry.getSenderAccountNumber())) {
+            throw mismatch(retry);
+        }
+        retry.setTransferId(original.getTransferId());
+        retry.setStatus(original.isStatus());
+        retry.setTransferDateTime(original.getTransferDateTime());
+    }
+
+    /**
+     * @param retry A retried request whose key was first used for another payment
+     * @return The exception to throw for it
+     */
+    static IllegalArgumentException mismatch(Transfer retry) {
+        return new IllegalArgumentException(
+                "Idempotency key " + retry.getIdempotencyKey() + " was used for a different payment");
+    }
+}
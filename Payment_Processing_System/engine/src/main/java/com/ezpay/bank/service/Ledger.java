@@ -0,0 +1,67 @@
+package com.ezpay.bank.service;
+
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
+
+import java.util.List;
+
+/**
+ * Moves balances between the accounts of a BankAccountDao. Implementations are safe to
+ * call from many threads at once and are the only code that changes those balances.
+ *
+ * {@link AccountLedger} locks the accounts a transfer touches; {@link SingleWriterLedger}
+ * hands every transfer to one thread that owns all balances.
+ */
+public interface Ledger {
+
+    /**
+     * Registers an account with the ledger.
+     *
+     * @param account The account to add
+     */
+    void addAccount(BankAccount account);
+
+    /**
+     * Looks up an account by number.
+     *
+     * @param accountNumber The account number
+     * @return The account, or null if it is unknown
+     */
+    BankAccount getAccount(String accountNumber);
+
+    /**
+     * Checks for an account without fetching it.
+     *
+     * @param accountNumber The account number
+     * @return true if the account exists
+     */
+    boolean hasAccount(String accountNumber);
+
+    /**
+     * Moves money from one account to another.
+     *
+     * @param senderAccountNumber   Account to debit
+     * @param receiverAccountNumber Account to credit
+     * @param amountPaise           Amount to move in paise; must be positive
+     * @return true if the balances were updated, false if either account is unknown,
+     *         the amount is not positive or the sender has insufficient funds
+     */
+    boolean transfer(String senderAccountNumber, String receiverAccountNumber, long amountPaise);
+
+    /**
+     * Applies a batch of transfers in list order. Later transfers in the batch see the
+     * balances left by earlier ones.
+     *
+     * @param transfers Transfers to apply; only their account numbers and amounts are read
+     * @return Result for each transfer, at the same index as in the list
+     */
+    TransferResult[] transferAll(List<Transfer> transfers);
+
+    /**
+     * Sums the balances of all accounts at a single point, with no transfer half applied.
+     *
+     * @return Total money held by all accounts, in paise
+     */
+    long totalBalance();
+}
@@ -0,0 +1,84 @@
+package com.ezpay.bank.service;
+
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
+
+/**
+ * Checks a transfer passes before it reaches the ledger: the sender's
+ * {@link VelocityLimiter} limits, then the {@link RiskGate}. Either may be absent.
+ *
+ * {@link #admit(Transfer, long)} takes a reservation against the limits, and
+ * {@link #settle(Transfer, boolean, long)} must follow for every admitted transfer once
+ * the ledger has run: a declined transfer gives its reservation back and a made one is
+ * learnt by the risk scorer. Malformed transfers are left for the ledger to reject and
+ * are never counted.
+ */
+final class PaymentChecks {
+
+    private final VelocityLimiter velocityLimiter;
+    private final RiskGate riskGate;
+
+    PaymentChecks(VelocityLimiter velocityLimiter, RiskGate riskGate) {
+        this.velocityLimiter = velocityLimiter;
+        this.riskGate = riskGate;
+    }
+
+    /**
+     * @return true if there is nothing to check
+     */
+    boolean isEmpty() {
+        return velocityLimiter == null && riskGate == null;
+    }
+
+    /**
+     * Runs the checks on a transfer about to be applied.
+     *
+     * @param transfer  The transfer
+     * @param nowMillis Time of the transfer in epoch milliseconds
+     * @return null if the transfer may go to the ledger, otherwise why it may not
+     */
+    TransferResult admit(Transfer transfer, long nowMillis) {
+        if (!isChecked(transfer)) {
+            return null;
+        }
+        String sender = transfer.getSenderAccountNumber();
+        long amount = transfer.getAmountPaise();
+        if (velocityLimiter != null && !velocityLimiter.tryAcquire(sender, amount, nowMillis)) {
+            return TransferResult.LIMIT_EXCEEDED;
+        }
+        if (riskGate != null && !riskGate.admit(sender, transfer.getReceiverAccountNumber(), amount, nowMillis)) {
+            if (velocityLimiter != null) {
+                velocityLimiter.release(sender, amount, nowMillis);
+            }
+            return TransferResult.RISK_DECLINED;
+        }
+        return null;
+    }
+
+    /**
+     * Finishes the checks of an admitted transfer once the ledger has run.
+     *
+     * @param transfer  The transfer {@link #admit(Transfer, long)} let through
+     * @param applied   Whether the ledger moved the money
+     * @param nowMillis The time passed to {@code admit}
+     */
+    void settle(Transfer transfer, boolean applied, long nowMillis) {
+        if (!isChecked(transfer)) {
+            return;
+        }
+        if (applied) {
+            if (riskGate != null) {
+                riskGate.record(transfer.getSenderAccountNumber(), transfer.getReceiverAccountNumber(),
+                        transfer.getAmountPaise(), nowMillis);
+            }
+        } else if (velocityLimiter != null) {
+            velocityLimiter.release(transfer.getSenderAccountNumber(), transfer.getAmountPaise(), nowMillis);
+        }
+    }
+
+    // Malformed transfers never reach the checks; the ledger rejects them as INVALID
+    private static boolean isChecked(Transfer transfer) {
+        return transfer != null && transfer.getSenderAccountNumber() != null
+                && transfer.getReceiverAccountNumber() != null && transfer.getAmountPaise() > 0;
+    }
+}
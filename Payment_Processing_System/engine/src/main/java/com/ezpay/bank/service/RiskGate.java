@@ -0,0 +1,165 @@
+package com.ezpay.bank.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Risk-scoring stage of the payment path: admits or declines a payment from its
+ * {@link RiskScorer} score, within a time budget.
+ *
+ * The scorer runs inline on the paying thread, with no hand-off to another thread, so
+ * scoring adds only its own cost to a payment. The budget is a deadline passed to the
+ * scorer, not a timeout the gate enforces: the gate cannot stop a scorer, so a scorer
+ * that ignores the deadline or hangs holds up the payment for as long as it runs, and
+ * the overrun is only accounted for once it returns. Each call is timed. A score that
+ * took the whole budget or longer, or a scorer that failed, is not trusted, and the
+ * gate's {@link Policy} decides instead: fail-open lets the payment through unscored,
+ * fail-closed declines it. Overruns and failures are counted, and the scoring time of every payment
+ * is kept in a {@link LatencyHistogram}, so a slow scorer shows up in the numbers rather
+ * than as a silent change in what gets declined.
+ */
+public class RiskGate {
+
+    /**
+     * What to do with a payment that could not be scored in time.
+     */
+    public enum Policy {
+        FAIL_OPEN, FAIL_CLOSED
+    }
+
+    // Declines payments scoring this much or more
+    public static final int DEFAULT_THRESHOLD = 70;
+
+    // Default time one payment's scoring may take
+    public static final long DEFAULT_BUDGET_MICROS = 50;
+
+    private final RiskScorer scorer;
+    private final int threshold;
+    private final long budgetNanos;
+    private final Policy policy;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder declined = new LongAdder();
+    private final LongAdder overBudget = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Creates a gate over the rule-based scorer with the default threshold and budget, failing open.
+     */
+    public RiskGate() {
+        this(new RuleBasedRiskScorer(), DEFAULT_THRESHOLD, DEFAULT_BUDGET_MICROS, Policy.FAIL_OPEN);
+    }
+
+    /**
+     * Creates a gate.
+     *
+     * @param scorer       Scorer consulted for every payment
+     * @param threshold    Score at which a payment is declined
+     * @param budgetMicros Time one payment's scoring may take
+     * @param policy       Decision for payments that were not scored in time
+     */
+    public RiskGate(RiskScorer scorer, int threshold, long budgetMicros, Policy policy) {
+        if (scorer == null || policy == null || budgetMicros <= 0) {
+            throw new IllegalArgumentException("A scorer, a policy and a positive budget are required");
+        }
+        this.scorer = scorer;
+        this.threshold = threshold;
+        this.budgetNanos = TimeUnit.MICROSECONDS.toNanos(budgetMicros);
+        this.policy = policy;
+    }
+
+    /**
+     * Decides whether a payment may go ahead. Returns only once the scorer has returned;
+     * see {@link RiskScorer#score(String, String, long, long, long)} for the deadline.
+     *
+     * @param senderAccountNumber   Account paying
+     * @param receiverAccountNumber Account being paid
+     * @param amountPaise           Amount in paise
+     * @param nowMillis             Time of the payment in epoch milliseconds
+     * @return true to make the payment, false to decline it
+     */
+    public boolean admit(String senderAccountNumber, String receiverAccountNumber, long amountPaise, long nowMillis) {
+        long start = System.nanoTime();
+        int score;
+        try {
+            score = scorer.score(senderAccountNumber, receiverAccountNumber, amountPaise, nowMillis,
+                    start + budgetNanos);
+        } catch (RuntimeException e) {
+            latency.record(System.nanoTime() - start);
+            failures.increment();
+            return decideUnscored();
+        }
+        long elapsed = System.nanoTime() - start;
+        latency.record(elapsed);
+        // A scorer that gave up at the deadline has used the whole budget
+        if (elapsed >= budgetNanos) {
+            overBudget.increment();
+            return decideUnscored();
+        }
+        if (score >= threshold) {
+            declined.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Tells the scorer about a payment that was made. A failing scorer is counted and
+     * otherwise ignored, since the money has already moved.
+     *
+     * @param senderAccountNumber   Account that paid
+     * @param receiverAccountNumber Account that was paid
+     * @param amountPaise           Amount in paise
+     * @param nowMillis             Time of the payment in epoch milliseconds
+     */
+    public void record(String senderAccountNumber, String receiverAccountNumber, long amountPaise, long nowMillis) {
+        try {
+            scorer.record(senderAccountNumber, receiverAccountNumber, amountPaise, nowMillis);
+        } catch (RuntimeException e) {
+            failures.increment();
+        }
+    }
+
+    private boolean decideUnscored() {
+        if (policy == Policy.FAIL_OPEN) {
+            return true;
+        }
+        declined.increment();
+        return false;
+    }
+
+    /**
+     * @return Time spent scoring each payment
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return Payments declined, for their score or under a fail-closed policy
+     */
+    public long getDeclinedCount() {
+        return declined.sum();
+    }
+
+    /**
+     * @return Payments whose scoring took longer than the budget
+     */
+    public long getOverBudgetCount() {
+        return overBudget.sum();
+    }
+
+    /**
+     * @return Calls on which the scorer threw
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * @return Decision for payments that were not scored in time
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+}
@@ -0,0 +1,57 @@
+package com.ezpay.bank.service;
+
+/**
+ * Scores how risky a payment looks before any money moves.
+ *
+ * Implementations are called inline on the payment path by a {@link RiskGate}, once per
+ * payment and from many threads at once, so they must be thread-safe and should read
+ * only state they keep up to date themselves rather than scan payment history.
+ */
+public interface RiskScorer {
+
+    // Lowest and highest scores
+    int MIN_SCORE = 0;
+    int MAX_SCORE = 100;
+
+    /**
+     * Scores a payment that is about to be made.
+     *
+     * @param senderAccountNumber   Account paying
+     * @param receiverAccountNumber Account being paid
+     * @param amountPaise           Amount in paise
+     * @param nowMillis             Time of the payment in epoch milliseconds
+     * @return A score from {@link #MIN_SCORE}, no risk, to {@link #MAX_SCORE}
+     */
+    int score(String senderAccountNumber, String receiverAccountNumber, long amountPaise, long nowMillis);
+
+    /**
+     * Scores a payment that is about to be made, by a deadline. A {@link RiskGate} cannot
+     * interrupt a scorer, since scoring runs on the paying thread, so a scorer that can
+     * take long, such as one that waits on another service, should override this and
+     * give up once {@code System.nanoTime() - deadlineNanos >= 0}. It may then return any
+     * score: the gate sees the overrun and applies its policy instead. The default ignores
+     * the deadline.
+     *
+     * @param senderAccountNumber   Account paying
+     * @param receiverAccountNumber Account being paid
+     * @param amountPaise           Amount in paise
+     * @param nowMillis             Time of the payment in epoch milliseconds
+     * @param deadlineNanos         {@link System#nanoTime()} value by which the score is due
+     * @return A score from {@link #MIN_SCORE}, no risk, to {@link #MAX_SCORE}
+     */
+    default int score(String senderAccountNumber, String receiverAccountNumber, long amountPaise, long nowMillis,
+                      long deadlineNanos) {
+        return score(senderAccountNumber, receiverAccountNumber, amountPaise, nowMillis);
+    }
+
+    /**
+     * Learns from a payment that was made, so later scores reflect it.
+     *
+     * @param senderAccountNumber   Account that paid
+     * @param receiverAccountNumber Account that was paid
+     * @param amountPaise           Amount in paise
+     * @param nowMillis             Time of the payment in epoch milliseconds
+     */
+    default void record(String senderAccountNumber, String receiverAccountNumber, long amountPaise, long nowMillis) {
+    }
+}
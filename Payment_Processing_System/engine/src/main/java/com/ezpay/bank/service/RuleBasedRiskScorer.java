@@ -0,0 +1,167 @@
+package com.ezpay.bank.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Scores payments from three rules over statistics kept per sender account:
+ * <ul>
+ *   <li>new receiver: the sender has not paid this account among its last
+ *       {@value #KNOWN_RECEIVERS} distinct receivers, {@value #NEW_RECEIVER_POINTS} points;</li>
+ *   <li>unusual amount: the amount is {@value #HIGH_Z_SCORE} or more standard deviations
+ *       above the sender's mean, {@value #HIGH_AMOUNT_POINTS} points, or
+ *       {@value #RAISED_Z_SCORE} or more, half that; only once the sender has made
+ *       {@value #MIN_HISTORY} payments;</li>
+ *   <li>burst: the sender's recent payment attempts, decayed with a one-minute half-life,
+ *       exceed {@value #BURST_ATTEMPTS}, {@value #BURST_POINTS} points.</li>
+ * </ul>
+ * A new receiver with an unusual amount, the usual shape of a taken-over account, reaches
+ * {@link RiskGate#DEFAULT_THRESHOLD} on its own.
+ *
+ * The statistics are updated a payment at a time: the amount mean and variance with
+ * Welford's method, the receivers in a small ring of hash codes and the attempt rate as
+ * one decayed counter. Scoring reads a handful of fields of one sender's profile under
+ * that profile's monitor, so it costs the same however long the sender's history is.
+ * Attempts count towards the burst rate when scored; amounts and receivers are learnt
+ * only from payments that were made, so declined payments do not make themselves normal.
+ *
+ * Profiles are held in a map per {@value #PROFILE_GENERATION_DAYS}-day generation, as
+ * {@link VelocityLimiter} holds its keys: a sender seen in the current generation is moved
+ * into the current map, and when a new generation starts the map before last is dropped
+ * whole. If a whole generation passes with no payment at all, both maps are dropped. A
+ * sender idle for two generations therefore starts again with no history, and the
+ * scorer's memory stays bounded by its recently active senders.
+ */
+public class RuleBasedRiskScorer implements RiskScorer {
+
+    public static final int NEW_RECEIVER_POINTS = 30;
+    public static final int HIGH_AMOUNT_POINTS = 40;
+    public static final int BURST_POINTS = 30;
+
+    public static final double HIGH_Z_SCORE = 3.0;
+    public static final double RAISED_Z_SCORE = 2.0;
+    public static final int MIN_HISTORY = 5;
+    public static final int KNOWN_RECEIVERS = 16;
+    public static final int BURST_ATTEMPTS = 10;
+
+    // Length of a profile generation; a sender idle for two of them loses its profile
+    public static final int PROFILE_GENERATION_DAYS = 30;
+
+    private static final double BURST_HALF_LIFE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final long GENERATION_MILLIS = TimeUnit.DAYS.toMillis(PROFILE_GENERATION_DAYS);
+
+    // Smallest standard deviation used, so a sender who always pays the same amount is not
+    // flagged for paying a little more: a tenth of the mean, and at least ₹1
+    private static final double MIN_DEVIATION_SHARE = 0.1;
+    private static final double MIN_DEVIATION_PAISE = 100;
+
+    private final AtomicReference<Generation> generation = new AtomicReference<>(
+            new Generation(System.currentTimeMillis() + GENERATION_MILLIS, new ConcurrentHashMap<>()));
+
+    // Senders seen in the current generation, and in the one before it
+    private static final class Generation {
+        final long end;
+        final ConcurrentHashMap<String, Profile> current = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, Profile> previous;
+
+        Generation(long end, ConcurrentHashMap<String, Profile> previous) {
+            this.end = end;
+            this.previous = previous;
+        }
+    }
+
+    // Running statistics of one sender
+    private static final class Profile {
+        long payments;
+        double meanPaise;
+        double squaredDeviations;
+        // Hash codes of recent distinct receivers, 0 for an empty slot
+        final int[] receivers = new int[KNOWN_RECEIVERS];
+        int nextReceiver;
+        double attempts;
+        long lastAttemptMillis;
+
+        boolean knows(int receiver) {
+            for (int known : receivers) {
+                if (known == receiver) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public int score(String senderAccountNumber, String receiverAccountNumber, long amountPaise, long nowMillis) {
+        Profile profile = profile(senderAccountNumber, nowMillis);
+        int receiver = receiverHash(receiverAccountNumber);
+        int score = 0;
+        synchronized (profile) {
+            if (!profile.knows(receiver)) {
+                score += NEW_RECEIVER_POINTS;
+            }
+            if (profile.payments >= MIN_HISTORY) {
+                double deviation = Math.sqrt(profile.squaredDeviations / (profile.payments - 1));
+                deviation = Math.max(deviation, Math.max(profile.meanPaise * MIN_DEVIATION_SHARE, MIN_DEVIATION_PAISE));
+                double z = (amountPaise - profile.meanPaise) / deviation;
+                if (z >= HIGH_Z_SCORE) {
+                    score += HIGH_AMOUNT_POINTS;
+                } else if (z >= RAISED_Z_SCORE) {
+                    score += HIGH_AMOUNT_POINTS / 2;
+                }
+            }
+            long elapsed = Math.max(0, nowMillis - profile.lastAttemptMillis);
+            profile.attempts = profile.attempts * Math.pow(0.5, elapsed / BURST_HALF_LIFE_MILLIS) + 1;
+            profile.lastAttemptMillis = Math.max(profile.lastAttemptMillis, nowMillis);
+            if (profile.attempts > BURST_ATTEMPTS) {
+                score += BURST_POINTS;
+            }
+        }
+        return Math.min(score, MAX_SCORE);
+    }
+
+    @Override
+    public void record(String senderAccountNumber, String receiverAccountNumber, long amountPaise, long nowMillis) {
+        Profile profile = profile(senderAccountNumber, nowMillis);
+        int receiver = receiverHash(receiverAccountNumber);
+        synchronized (profile) {
+            profile.payments++;
+            double delta = amountPaise - profile.meanPaise;
+            profile.meanPaise += delta / profile.payments;
+            profile.squaredDeviations += delta * (amountPaise - profile.meanPaise);
+            if (!profile.knows(receiver)) {
+                profile.receivers[profile.nextReceiver] = receiver;
+                profile.nextReceiver = (profile.nextReceiver + 1) % KNOWN_RECEIVERS;
+            }
+        }
+    }
+
+    // Finds a sender's profile in the current generation, moving it from the previous one if needed
+    private Profile profile(String senderAccountNumber, long now) {
+        Generation current = generation.get();
+        if (now - current.end >= 0) {
+            // Whoever loses the race simply uses the winner's generation; a map whose
+            // generation ended a generation ago holds only idle senders, so it is not kept
+            ConcurrentHashMap<String, Profile> kept =
+                    now - current.end >= GENERATION_MILLIS ? new ConcurrentHashMap<>() : current.current;
+            generation.compareAndSet(current, new Generation(now + GENERATION_MILLIS, kept));
+            current = generation.get();
+        }
+        Profile profile = current.current.get(senderAccountNumber);
+        if (profile != null) {
+            return profile;
+        }
+        ConcurrentHashMap<String, Profile> previous = current.previous;
+        return current.current.computeIfAbsent(senderAccountNumber, k -> {
+            Profile carried = previous.remove(k);
+            return carried != null ? carried : new Profile();
+        });
+    }
+
+    // Never 0, which marks an empty slot
+    private static int receiverHash(String accountNumber) {
+        int h = accountNumber.hashCode();
+        return h == 0 ? 1 : h;
+    }
+}
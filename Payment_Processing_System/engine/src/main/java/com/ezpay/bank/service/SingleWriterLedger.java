@@ -0,0 +1,419 @@
+package com.ezpay.bank.service;
+
+import com.ezpay.bank.dao.BalanceColumns;
+import com.ezpay.bank.dao.BankAccountDao;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ledger in which a single writer thread owns every balance.
+ *
+ * Callers do not take locks. Instead they claim a sequence number, fill the matching
+ * slot of a preallocated ring buffer with the command, and publish it. The writer
+ * applies the commands strictly in sequence order, so that order is also the order in
+ * which balances change, for journaling or replication. The writer leaves each result
+ * in the command's slot, and the caller frees the slot once it has read it, so a single
+ * transfer allocates nothing on the way through the ring.
+ *
+ * When the ring is full, callers wait for the writer to catch up. The writer and waiting
+ * callers spin briefly, then yield, then park for a few microseconds, so an idle ledger
+ * does not hold a core. The JDK cannot pin a thread to a core; for the lowest latency,
+ * pin the process with the operating system and give it a spare core for the writer.
+ *
+ * {@link #close()} claims one last sequence for a stop command in the same atomic step
+ * that closes the ledger to new claims, so every command claimed before it is applied
+ * and every later call is rejected without publishing anything.
+ *
+ * Only this ledger may move the balances of its accounts. Mixing it with an
+ * {@link AccountLedger} over the same store would race with the writer. Hot accounts
+ * need no special handling here, since no credit ever waits for a lock.
+ */
+public class SingleWriterLedger implements Ledger, AutoCloseable {
+
+    // Default ring size; a power of two so the slot index is a mask
+    public static final int DEFAULT_RING_SIZE = 1 << 16;
+
+    private static final int TRANSFER = 0;
+    private static final int BATCH = 1;
+    private static final int TOTAL = 2;
+    private static final int STOP = 3;
+
+    // Result left in a slot whose command threw; the exception is in its payload
+    private static final int FAILED = -1;
+
+    // Set in the next sequence to claim once the stop command has been claimed
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private static final TransferResult[] RESULTS = TransferResult.values();
+    private static final long PARK_NANOS = 20_000;
+
+    private final BankAccountDao accountDao;
+
+    // The store's balance columns if it has them, so the writer moves balances by row
+    private final BalanceColumns columns;
+
+    private final int ringSize;
+    private final int mask;
+
+    // Slot contents, one array per field so the ring is allocated once; the writer
+    // writes a command's result over its slot
+    private final int[] kinds;
+    private final String[] senders;
+    private final String[] receivers;
+    private final long[] amounts;
+    private final Object[] payloads;
+    private final int[] results;
+    private final long[] values;
+
+    // Sequence last published in each slot
+    private final AtomicLongArray published;
+
+    // Sequence whose caller last freed each slot; a slot is claimed again only once freed
+    private final AtomicLongArray freed;
+
+    // Next sequence to claim, with CLOSED set once the ledger is closed
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    // Last sequence applied by the writer
+    private final AtomicLong applied = new AtomicLong(-1);
+
+    private final Thread writer;
+    private volatile boolean stopped;
+
+    /**
+     * Creates a ledger with the default ring size and starts its writer.
+     *
+     * @param accountDao Store holding the accounts whose balances are moved
+     */
+    public SingleWriterLedger(BankAccountDao accountDao) {
+        this(accountDao, DEFAULT_RING_SIZE);
+    }
+
+    /**
+     * Creates a ledger and starts its writer.
+     *
+     * @param accountDao Store holding the accounts whose balances are moved
+     * @param ringSize   Commands that may wait for the writer; rounded up to a power of two
+     */
+    public SingleWriterLedger(BankAccountDao accountDao, int ringSize) {
+        if (ringSize <= 0) {
+            throw new IllegalArgumentException("ringSize must be positive");
+        }
+        this.accountDao = accountDao;
+        this.columns = accountDao instanceof BalanceColumns ? (BalanceColumns) accountDao : null;
+        this.ringSize = ringSize == 1 ? 1 : Integer.highestOneBit(ringSize - 1) << 1;
+        this.mask = this.ringSize - 1;
+        this.kinds = new int[this.ringSize];
+        this.senders = new String[this.ringSize];
+        this.receivers = new String[this.ringSize];
+        this.amounts = new long[this.ringSize];
+        this.payloads = new Object[this.ringSize];
+        this.results = new int[this.ringSize];
+        this.values = new long[this.ringSize];
+        this.published = new AtomicLongArray(this.ringSize);
+        this.freed = new AtomicLongArray(this.ringSize);
+        for (int i = 0; i < this.ringSize; i++) {
+            published.set(i, -1);
+            // As if the previous lap's command in the slot had been read
+            freed.set(i, i - this.ringSize);
+        }
+
+        this.writer = new Thread(this::runWriter, "ezpay-ledger-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void addAccount(BankAccount account) {
+        accountDao.addAccount(account);
+    }
+
+    @Override
+    public BankAccount getAccount(String accountNumber) {
+        return accountDao.getAccountByNumber(accountNumber);
+    }
+
+    @Override
+    public boolean hasAccount(String accountNumber) {
+        return accountDao.containsAccount(accountNumber);
+    }
+
+    /**
+     * @throws IllegalStateException if the ledger has been closed
+     */
+    @Override
+    public boolean transfer(String senderAccountNumber, String receiverAccountNumber, long amountPaise) {
+        if (senderAccountNumber == null || receiverAccountNumber == null || amountPaise <= 0) {
+            return false;
+        }
+        long seq = call(TRANSFER, senderAccountNumber, receiverAccountNumber, amountPaise, null);
+        int slot = (int) seq & mask;
+        int result = results[slot];
+        Object failure = payloads[slot];
+        release(slot, seq);
+        return RESULTS[checked(result, failure)].isApplied();
+    }
+
+    /**
+     * The batch is applied by the writer as one command, so no other transfer runs in
+     * between. A transfer whose credit would overflow the receiver's balance moves nothing
+     * and is reported as {@link TransferResult#INVALID}.
+     *
+     * @throws IllegalStateException if the ledger has been closed
+     */
+    @Override
+    public TransferResult[] transferAll(List<Transfer> transfers) {
+        long seq = call(BATCH, null, null, 0, transfers);
+        int slot = (int) seq & mask;
+        int result = results[slot];
+        Object payload = payloads[slot];
+        release(slot, seq);
+        checked(result, payload);
+        return (TransferResult[]) payload;
+    }
+
+    /**
+     * Computed by the writer between two commands, so no transfer is half applied.
+     *
+     * @throws IllegalStateException if the ledger has been closed
+     */
+    @Override
+    public long totalBalance() {
+        long seq = call(TOTAL, null, null, 0, null);
+        int slot = (int) seq & mask;
+        int result = results[slot];
+        Object failure = payloads[slot];
+        long total = values[slot];
+        release(slot, seq);
+        checked(result, failure);
+        return total;
+    }
+
+    /**
+     * @return Sequence number of the last command the writer applied
+     */
+    public long getAppliedSequence() {
+        return applied.get();
+    }
+
+    /**
+     * Applies every command already claimed and stops the writer. Calls made once close
+     * has begun are rejected.
+     */
+    @Override
+    public void close() {
+        long seq = nextSequence.get();
+        while (seq >= 0 && !nextSequence.compareAndSet(seq, (seq + 1) | CLOSED)) {
+            seq = nextSequence.get();
+        }
+        if (seq >= 0) {
+            int slot = awaitSlot(seq);
+            if (slot >= 0) {
+                kinds[slot] = STOP;
+                published.setRelease(slot, seq);
+            }
+        }
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Publishes a command and waits for the writer to apply it; the caller must read the
+    // result from the slot and then release it
+    private long call(int kind, String sender, String receiver, long amount, Object payload) {
+        long seq = claim();
+        int slot = awaitSlot(seq);
+        if (slot < 0) {
+            throw new IllegalStateException("Ledger writer has stopped");
+        }
+        kinds[slot] = kind;
+        senders[slot] = sender;
+        receivers[slot] = receiver;
+        amounts[slot] = amount;
+        payloads[slot] = payload;
+        published.setRelease(slot, seq);
+
+        int idle = 0;
+        while (applied.get() < seq) {
+            if (stopped && applied.get() < seq) {
+                throw new IllegalStateException("Ledger writer has stopped");
+            }
+            idle = backOff(idle);
+        }
+        return seq;
+    }
+
+    // Claims the next sequence, unless the ledger is closed
+    private long claim() {
+        while (true) {
+            long seq = nextSequence.get();
+            if (seq < 0) {
+                throw new IllegalStateException("Ledger is closed");
+            }
+            if (nextSequence.compareAndSet(seq, seq + 1)) {
+                return seq;
+            }
+        }
+    }
+
+    // Waits until the caller of the previous command in the sequence's slot has read its
+    // result; -1 if the writer stopped first
+    private int awaitSlot(long seq) {
+        int slot = (int) seq & mask;
+        long previous = seq - ringSize;
+        int idle = 0;
+        while (freed.getAcquire(slot) != previous) {
+            if (stopped) {
+                return -1;
+            }
+            idle = backOff(idle);
+        }
+        return slot;
+    }
+
+    private void release(int slot, long seq) {
+        payloads[slot] = null;
+        freed.setRelease(slot, seq);
+    }
+
+    // Returns the result ordinal, or throws the exception the writer caught for the command
+    private static int checked(int result, Object payload) {
+        if (result == FAILED) {
+            throw (RuntimeException) payload;
+        }
+        return result;
+    }
+
+    private void runWriter() {
+        long next = 0;
+        int idle = 0;
+        try {
+            while (true) {
+                int slot = (int) next & mask;
+                if (published.getAcquire(slot) != next) {
+                    idle = backOff(idle);
+                    continue;
+                }
+                idle = 0;
+                if (kinds[slot] == STOP) {
+                    applied.set(next);
+                    return;
+                }
+                try {
+                    switch (kinds[slot]) {
+                        case TRANSFER:
+                            results[slot] = apply(senders[slot], receivers[slot], amounts[slot]).ordinal();
+                            break;
+                        case BATCH:
+                            payloads[slot] = applyAll(payloads[slot]);
+                            results[slot] = TransferResult.APPLIED.ordinal();
+                            break;
+                        default:
+                            values[slot] = sumBalances();
+                            results[slot] = TransferResult.APPLIED.ordinal();
+                            break;
+                    }
+                } catch (RuntimeException e) {
+                    // The command fails on its caller's thread; the writer carries on
+                    payloads[slot] = e;
+                    results[slot] = FAILED;
+                }
+                senders[slot] = null;
+                receivers[slot] = null;
+                applied.set(next);
+                next++;
+            }
+        } finally {
+            stopped = true;
+        }
+    }
+
+    // Runs on the writer only, so balances are read and changed without locks
+    private TransferResult apply(String senderAccountNumber, String receiverAccountNumber, long amountPaise) {
+        if (senderAccountNumber == null || receiverAccountNumber == null || amountPaise <= 0) {
+            return TransferResult.INVALID;
+        }
+        if (columns != null) {
+            return applyRows(columns.rowOf(senderAccountNumber), columns.rowOf(receiverAccountNumber), amountPaise);
+        }
+        BankAccount sender = accountDao.getAccountByNumber(senderAccountNumber);
+        BankAccount receiver = accountDao.getAccountByNumber(receiverAccountNumber);
+        if (sender == null || receiver == null) {
+            return TransferResult.UNKNOWN_ACCOUNT;
+        }
+        if (sender.getBalancePaise() < amountPaise) {
+            return TransferResult.INSUFFICIENT_FUNDS;
+        }
+        // Credit first: only the credit can overflow, and then nothing has moved
+        try {
+            receiver.creditPaise(amountPaise);
+        } catch (ArithmeticException e) {
+            return TransferResult.INVALID;
+        }
+        sender.debitPaise(amountPaise);
+        return TransferResult.APPLIED;
+    }
+
+    // Same as apply, on rows of the balance columns, so no account view is created
+    private TransferResult applyRows(int sender, int receiver, long amountPaise) {
+        if (sender < 0 || receiver < 0) {
+            return TransferResult.UNKNOWN_ACCOUNT;
+        }
+        if (columns.balanceOf(sender) < amountPaise) {
+            return TransferResult.INSUFFICIENT_FUNDS;
+        }
+        try {
+            columns.credit(receiver, amountPaise);
+        } catch (ArithmeticException e) {
+            return TransferResult.INVALID;
+        }
+        columns.debit(sender, amountPaise);
+        return TransferResult.APPLIED;
+    }
+
+    @SuppressWarnings("unchecked")
+    private TransferResult[] applyAll(Object payload) {
+        List<Transfer> transfers = (List<Transfer>) payload;
+        TransferResult[] batchResults = new TransferResult[transfers.size()];
+        for (int i = 0; i < batchResults.length; i++) {
+            Transfer transfer = transfers.get(i);
+            batchResults[i] = transfer == null
+                    ? TransferResult.INVALID
+                    : apply(transfer.getSenderAccountNumber(), transfer.getReceiverAccountNumber(),
+                            transfer.getAmountPaise());
+        }
+        return batchResults;
+    }
+
+    private long sumBalances() {
+        long[] total = new long[1];
+        accountDao.forEachAccount(account -> total[0] += account.getBalancePaise());
+        return total[0];
+    }
+
+    // Spins, then yields, then parks, so a waiting thread gives up its core
+    private static int backOff(int idle) {
+        if (idle < 100) {
+            Thread.onSpinWait();
+        } else if (idle < 200) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return idle + 1;
+    }
+}
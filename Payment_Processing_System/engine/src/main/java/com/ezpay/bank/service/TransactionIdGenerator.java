@@ -0,0 +1,95 @@
+package com.ezpay.bank.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free generator of unique, time-ordered 64-bit transaction IDs.
+ *
+ * An ID packs {@code [41 bits milliseconds since 2025-01-01][10 bits node][12 bits sequence]}
+ * into a positive long, so IDs from one generator are strictly increasing and IDs from
+ * generators with different node numbers never collide. Up to 4096 IDs are issued per
+ * millisecond; past that the generator borrows the next millisecond instead of waiting,
+ * and the clock catches up again as soon as the burst ends. A clock that steps backwards
+ * is handled the same way, by continuing from the last issued ID.
+ *
+ * The whole state is the last issued ID in one {@link AtomicLong}, advanced with
+ * compare-and-set, so {@link #nextId()} never blocks and never allocates.
+ */
+public class TransactionIdGenerator {
+
+    // 2025-01-01T00:00:00Z
+    private static final long EPOCH_MILLIS = 1_735_689_600_000L;
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int TIME_SHIFT = NODE_BITS + SEQUENCE_BITS;
+
+    public static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    // Node bits already shifted into place
+    private final long nodeBits;
+
+    // Last ID handed out
+    private final AtomicLong last = new AtomicLong();
+
+    /**
+     * Creates a generator for node 0, for single-instance deployments.
+     */
+    public TransactionIdGenerator() {
+        this(0);
+    }
+
+    /**
+     * Creates a generator for one node of a multi-instance deployment.
+     *
+     * @param nodeId Number between 0 and {@link #MAX_NODE}, unique per running instance
+     */
+    public TransactionIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE) {
+            throw new IllegalArgumentException("nodeId must be between 0 and " + MAX_NODE);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    /**
+     * Issues the next ID. Safe to call from any number of threads.
+     *
+     * @return A positive ID greater than every ID this generator issued before
+     */
+    public long nextId() {
+        while (true) {
+            long previous = last.get();
+            long previousTime = previous >>> TIME_SHIFT;
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+
+            long next;
+            if (now > previousTime) {
+                next = (now << TIME_SHIFT) | nodeBits;
+            } else if ((previous & MAX_SEQUENCE) < MAX_SEQUENCE) {
+                next = previous + 1;
+            } else {
+                next = ((previousTime + 1) << TIME_SHIFT) | nodeBits;
+            }
+            if (last.compareAndSet(previous, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * @param id An ID issued by a generator
+     * @return Wall-clock time the ID was issued at, in epoch milliseconds
+     */
+    public static long timestampOf(long id) {
+        return (id >>> TIME_SHIFT) + EPOCH_MILLIS;
+    }
+
+    /**
+     * @param id An ID issued by a generator
+     * @return Node number of the generator that issued the ID
+     */
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ezpay.bank.service;
+
+import com.ezpay.bank.model.TransferResult;
+
+/**
+ * Thrown when a transfer reached the ledger but could not be recorded. The ledger's
+ * result still stands: if it is {@link TransferResult#APPLIED}, the money has moved
+ * even though the transfer store has no record of it.
+ */
+public class TransferNotRecordedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient TransferResult result;
+
+    /**
+     * @param result What the ledger did with the transfer
+     * @param cause  Why recording it failed
+     */
+    public TransferNotRecordedException(TransferResult result, Throwable cause) {
+        super("Transfer was " + result + " by the ledger but could not be recorded", cause);
+        this.result = result;
+    }
+
+    /**
+     * @return What the ledger did with the transfer
+     */
+    public TransferResult getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,412 @@
+package com.ezpay.bank.service;
+
+import com.ezpay.bank.dao.TransferDao;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous transfer submission through a staged pipeline.
+ *
+ * {@link #submit(Transfer)} returns at once with a future for the transfer's result.
+ * Each transfer then passes four stages:
+ * <ol>
+ *   <li>validate: on the submitting thread, the amount and both accounts are checked,
+ *       the transfer is counted against the sender's {@link VelocityLimiter} and scored by
+ *       the {@link RiskGate}, if any, and rejected transfers complete straight away without
+ *       being recorded;</li>
+ *   <li>sequence: one thread drains the inbound queue into batches in arrival order;</li>
+ *   <li>apply: one writer thread applies each batch to the {@link Ledger} with
+ *       {@link Ledger#transferAll(List)}; an {@link AccountLedger} takes each lock stripe
+ *       once per batch;</li>
+ *   <li>persist: one thread records each batch with {@link TransferDao#recordTransfers(List)},
+ *       so a durable store syncs once per batch, then completes the futures.</li>
+ * </ol>
+ * The stages are joined by bounded queues. When a later stage falls behind, the queue in
+ * front of it fills and the stage before it waits, down to {@code submit}, which blocks
+ * the caller once {@code queueCapacity} transfers are waiting. A burst up to that size
+ * is accepted without blocking.
+ *
+ * Every stage records how long each transfer spent in it, including the time it waited
+ * in the stage's queue; see {@link #getLatency(Stage)}.
+ *
+ * A failure in a stage fails only the batch it was working on, and the stage carries on
+ * with the next. If the ledger throws, the batch's futures complete exceptionally with
+ * that exception and any limit reservations are given back. If recording throws after
+ * the ledger has run, each future completes exceptionally with a
+ * {@link TransferNotRecordedException} that carries the ledger's result, since an applied
+ * transfer has moved money even though it was not recorded. See {@link #getFailedBatchCount()}.
+ *
+ * Futures complete on the persist thread, so callers should chain blocking work with
+ * the {@code Async} variants of {@link CompletableFuture}. As with
+ * {@link TransferService#makeTransfers(List)}, idempotency keys are not checked.
+ */
+public class TransferPipeline implements AutoCloseable {
+
+    /**
+     * Pipeline stages, in the order a transfer passes them.
+     */
+    public enum Stage {
+        VALIDATE, SEQUENCE, APPLY, PERSIST
+    }
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 8192;
+    public static final int DEFAULT_MAX_BATCH = 256;
+
+    private static final Submission[] END = new Submission[0];
+
+    private final Ledger ledger;
+    private final TransferDao transferDao;
+    private final int maxBatch;
+    private final PaymentChecks checks;
+
+    private final BlockingQueue<Submission> inbound;
+    private final BlockingQueue<Submission[]> sequenced;
+    private final BlockingQueue<Submission[]> applied;
+
+    private final Map<Stage, LatencyHistogram> latencies = new EnumMap<>(Stage.class);
+    private final LatencyHistogram totalLatency = new LatencyHistogram();
+
+    // Last stage; once it has stopped, every submitted transfer is complete
+    private final Thread persister;
+
+    // Batches the writer or the persister could not finish
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    private volatile boolean closed;
+    private volatile boolean sequencerDone;
+
+    // A transfer in flight, with the time it left each stage
+    private static final class Submission {
+        final Transfer transfer;
+        final CompletableFuture<TransferResult> future = new CompletableFuture<>();
+        final long submittedAt;
+        // Wall-clock time the transfer passed the limit and risk checks, or 0 if there were none
+        long checkedAt;
+        long validatedAt;
+        long sequencedAt;
+        long appliedAt;
+        TransferResult result;
+
+        Submission(Transfer transfer, long submittedAt) {
+            this.transfer = transfer;
+            this.submittedAt = submittedAt;
+        }
+    }
+
+    /**
+     * Creates and starts a pipeline with the default queue capacity and batch size.
+     *
+     * @param ledger      Ledger the writer stage applies transfers to
+     * @param transferDao Store the persist stage records transfers in
+     */
+    public TransferPipeline(Ledger ledger, TransferDao transferDao) {
+        this(ledger, transferDao, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_BATCH);
+    }
+
+    /**
+     * Creates and starts a pipeline.
+     *
+     * @param ledger        Ledger the writer stage applies transfers to
+     * @param transferDao   Store the persist stage records transfers in
+     * @param queueCapacity Transfers that may wait for sequencing before submit blocks
+     * @param maxBatch      Most transfers applied and recorded together
+     */
+    public TransferPipeline(Ledger ledger, TransferDao transferDao, int queueCapacity, int maxBatch) {
+        this(ledger, transferDao, queueCapacity, maxBatch, null);
+    }
+
+    /**
+     * Creates and starts a pipeline that holds senders to their limits.
+     *
+     * @param ledger          Ledger the writer stage applies transfers to
+     * @param transferDao     Store the persist stage records transfers in
+     * @param queueCapacity   Transfers that may wait for sequencing before submit blocks
+     * @param maxBatch        Most transfers applied and recorded together
+     * @param velocityLimiter Limits per sender account, or null for none
+     */
+    public TransferPipeline(Ledger ledger, TransferDao transferDao, int queueCapacity, int maxBatch,
+                            VelocityLimiter velocityLimiter) {
+        this(ledger, transferDao, queueCapacity, maxBatch, velocityLimiter, null);
+    }
+
+    /**
+     * Creates and starts a pipeline that holds senders to their limits and scores transfers for risk.
+     *
+     * @param ledger          Ledger the writer stage applies transfers to
+     * @param transferDao     Store the persist stage records transfers in
+     * @param queueCapacity   Transfers that may wait for sequencing before submit blocks
+     * @param maxBatch        Most transfers applied and recorded together
+     * @param velocityLimiter Limits per sender account, or null for none
+     * @param riskGate        Risk scoring in the validate stage, or null for none
+     */
+    public TransferPipeline(Ledger ledger, TransferDao transferDao, int queueCapacity, int maxBatch,
+                            VelocityLimiter velocityLimiter, RiskGate riskGate) {
+        if (queueCapacity <= 0 || maxBatch <= 0) {
+            throw new IllegalArgumentException("queueCapacity and maxBatch must be positive");
+        }
+        this.ledger = ledger;
+        this.transferDao = transferDao;
+        this.maxBatch = maxBatch;
+        this.checks = new PaymentChecks(velocityLimiter, riskGate);
+        int batches = Math.max(2, queueCapacity / maxBatch);
+        this.inbound = new ArrayBlockingQueue<>(queueCapacity);
+        this.sequenced = new ArrayBlockingQueue<>(batches);
+        this.applied = new ArrayBlockingQueue<>(batches);
+        for (Stage stage : Stage.values()) {
+            latencies.put(stage, new LatencyHistogram());
+        }
+
+        start("ezpay-pipeline-sequencer", this::runSequencer);
+        start("ezpay-pipeline-writer", this::runWriter);
+        this.persister = start("ezpay-pipeline-persister", this::runPersister);
+    }
+
+    /**
+     * Validates a transfer and queues it for the ledger, waiting for room if the
+     * pipeline is full. The transfer's status, timestamp and ID are set before the
+     * future completes.
+     *
+     * @param transfer The transfer to make
+     * @return Future completed with the transfer's result once it is recorded, or
+     *         completed exceptionally if the pipeline is closed, the ledger throws or
+     *         recording fails
+     */
+    public CompletableFuture<TransferResult> submit(Transfer transfer) {
+        Submission submission = new Submission(transfer, System.nanoTime());
+        if (closed) {
+            submission.future.completeExceptionally(new RejectedExecutionException("Transfer pipeline is closed"));
+            return submission.future;
+        }
+
+        TransferResult rejection = validate(submission);
+        submission.validatedAt = System.nanoTime();
+        latencies.get(Stage.VALIDATE).record(submission.validatedAt - submission.submittedAt);
+        if (rejection != null) {
+            if (transfer != null) {
+                transfer.setStatus(false);
+            }
+            submission.future.complete(rejection);
+            return submission.future;
+        }
+
+        try {
+            inbound.put(submission);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            submission.future.completeExceptionally(e);
+            return submission.future;
+        }
+        // The sequencer may have made its final pass before this transfer arrived
+        if (sequencerDone && inbound.remove(submission)) {
+            submission.future.completeExceptionally(new RejectedExecutionException("Transfer pipeline is closed"));
+        }
+        return submission.future;
+    }
+
+    /**
+     * @param stage A pipeline stage
+     * @return Time transfers spent in the stage, including waiting in its queue
+     */
+    public LatencyHistogram getLatency(Stage stage) {
+        return latencies.get(stage);
+    }
+
+    /**
+     * @return Time from submission until the future completed, for transfers that reached the ledger
+     */
+    public LatencyHistogram getTotalLatency() {
+        return totalLatency;
+    }
+
+    /**
+     * @return Number of batches whose futures completed exceptionally because the ledger
+     *         or the transfer store threw
+     */
+    public long getFailedBatchCount() {
+        return failedBatches.get();
+    }
+
+    /**
+     * Stops accepting transfers, finishes those already submitted and stops the stage threads.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        boolean interrupted = false;
+        while (persister.isAlive()) {
+            try {
+                persister.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Rejects transfers the ledger would refuse, without taking any lock, then runs the limit and risk checks
+    private TransferResult validate(Submission submission) {
+        Transfer transfer = submission.transfer;
+        if (transfer == null || transfer.getSenderAccountNumber() == null
+                || transfer.getReceiverAccountNumber() == null || transfer.getAmountPaise() <= 0) {
+            return TransferResult.INVALID;
+        }
+        if (!ledger.hasAccount(transfer.getSenderAccountNumber())
+                || !ledger.hasAccount(transfer.getReceiverAccountNumber())) {
+            return TransferResult.UNKNOWN_ACCOUNT;
+        }
+        if (!checks.isEmpty()) {
+            long now = System.currentTimeMillis();
+            TransferResult rejection = checks.admit(transfer, now);
+            if (rejection != null) {
+                return rejection;
+            }
+            submission.checkedAt = now;
+        }
+        return null;
+    }
+
+    private void runSequencer() {
+        List<Submission> batch = new ArrayList<>(maxBatch);
+        try {
+            while (true) {
+                Submission first = inbound.poll(10, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed) {
+                        break;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                inbound.drainTo(batch, maxBatch - 1);
+                sequenced.put(seal(batch));
+            }
+            sequencerDone = true;
+            while (inbound.drainTo(batch, maxBatch) > 0) {
+                sequenced.put(seal(batch));
+            }
+            sequenced.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Stamps a batch as sequenced and hands it off as an array
+    private Submission[] seal(List<Submission> batch) {
+        Submission[] sealed = batch.toArray(new Submission[0]);
+        batch.clear();
+        long now = System.nanoTime();
+        LatencyHistogram latency = latencies.get(Stage.SEQUENCE);
+        for (Submission submission : sealed) {
+            submission.sequencedAt = now;
+            latency.record(now - submission.validatedAt);
+        }
+        return sealed;
+    }
+
+    private void runWriter() {
+        LatencyHistogram latency = latencies.get(Stage.APPLY);
+        try {
+            while (true) {
+                Submission[] batch = sequenced.take();
+                if (batch == END) {
+                    applied.put(END);
+                    return;
+                }
+                TransferResult[] results;
+                try {
+                    results = ledger.transferAll(transfersOf(batch));
+                } catch (RuntimeException e) {
+                    failApply(batch, e);
+                    continue;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                long appliedAt = System.nanoTime();
+                for (int i = 0; i < batch.length; i++) {
+                    Submission submission = batch[i];
+                    submission.result = results[i];
+                    submission.transfer.setStatus(results[i].isApplied());
+                    submission.transfer.setTransferDateTime(now);
+                    submission.appliedAt = appliedAt;
+                    if (submission.checkedAt != 0) {
+                        checks.settle(submission.transfer, results[i].isApplied(), submission.checkedAt);
+                    }
+                    latency.record(appliedAt - submission.sequencedAt);
+                }
+                applied.put(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Fails a batch the ledger threw on, giving back the reservations its transfers took
+    private void failApply(Submission[] batch, RuntimeException e) {
+        failedBatches.incrementAndGet();
+        for (Submission submission : batch) {
+            submission.transfer.setStatus(false);
+            if (submission.checkedAt != 0) {
+                checks.settle(submission.transfer, false, submission.checkedAt);
+            }
+            submission.future.completeExceptionally(e);
+        }
+    }
+
+    private void runPersister() {
+        LatencyHistogram latency = latencies.get(Stage.PERSIST);
+        try {
+            while (true) {
+                Submission[] batch = applied.take();
+                if (batch == END) {
+                    return;
+                }
+                try {
+                    transferDao.recordTransfers(transfersOf(batch));
+                } catch (RuntimeException e) {
+                    failedBatches.incrementAndGet();
+                    for (Submission submission : batch) {
+                        submission.future.completeExceptionally(new TransferNotRecordedException(submission.result, e));
+                    }
+                    continue;
+                }
+                long persistedAt = System.nanoTime();
+                for (Submission submission : batch) {
+                    latency.record(persistedAt - submission.appliedAt);
+                    totalLatency.record(persistedAt - submission.submittedAt);
+                    submission.future.complete(submission.result);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<Transfer> transfersOf(Submission[] batch) {
+        Transfer[] transfers = new Transfer[batch.length];
+        for (int i = 0; i < batch.length; i++) {
+            transfers[i] = batch[i].transfer;
+        }
+        return Arrays.asList(transfers);
+    }
+
+    private static Thread start(String name, Runnable stage) {
+        Thread thread = new Thread(stage, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,111 @@
+package com.ezpay.bank.service;
+
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
+import com.ezpay.bank.model.TransferTotals;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service interface for handling transfer-related operations.
+ */
+public interface TransferService {
+
+    /**
+     * Records a new transfer.
+     *
+     * @param transfer The Transfer object to be recorded.
+     */
+    void makeTransfer(Transfer transfer);
+
+    /**
+     * Applies and records a batch of transfers, such as a payroll or disbursement file.
+     * Each transfer's status and ID are set as for {@link #makeTransfer(Transfer)}.
+     *
+     * @param transfers The transfers to make, applied in list order.
+     * @return The result of each transfer, at the same index as in the list.
+     */
+    TransferResult[] makeTransfers(List<Transfer> transfers);
+
+    /**
+     * Submits a transfer without waiting for it to be applied.
+     * The transfer's status and ID are set before the returned future completes.
+     *
+     * @param transfer The transfer to make.
+     * @return A future completed with the transfer's result once it is recorded.
+     */
+    CompletableFuture<TransferResult> submitTransfer(Transfer transfer);
+
+    /**
+     * Retrieves a transfer by its unique ID.
+     *
+     * @param transferId The ID of the transfer to retrieve.
+     * @return The Transfer object if found, otherwise null.
+     */
+    Transfer getTransferById(long transferId);
+
+    /**
+     * Retrieves all recorded transfers.
+     *
+     * @return A list of all Transfer objects.
+     */
+    List<Transfer> getAllTransfers();
+
+    /**
+     * Retrieves one page of recorded transfers in ID order.
+     *
+     * @param afterTransferId The last ID of the previous page, or 0 for the first page.
+     * @param limit           Maximum number of transfers to return.
+     * @return A list of at most {@code limit} Transfer objects.
+     */
+    List<Transfer> getTransfersAfter(long afterTransferId, int limit);
+
+    /**
+     * Retrieves transfers made in a time range, oldest first.
+     *
+     * @param accountNumber Account that sent or received the transfers, or null for all transfers.
+     * @param from          Start of the range, inclusive; null for no lower bound.
+     * @param to            End of the range, exclusive; null for no upper bound.
+     * @param limit         Maximum number of transfers to return.
+     * @return A list of at most {@code limit} Transfer objects.
+     */
+    List<Transfer> getTransfersBetween(String accountNumber, LocalDateTime from, LocalDateTime to, int limit);
+
+    /**
+     * Retrieves the most recent transfers, newest first.
+     *
+     * @param accountNumber Account that sent or received the transfers, or null for all transfers.
+     * @param limit         Maximum number of transfers to return.
+     * @return A list of at most {@code limit} Transfer objects.
+     */
+    List<Transfer> getLatestTransfers(String accountNumber, int limit);
+
+    /**
+     * Retrieves the transfers most recently recorded for an account, newest first by
+     * date-time and then ID.
+     *
+     * @param accountNumber The account number.
+     * @param limit         Maximum number of transfers to return.
+     * @return A list of at most {@code limit} Transfer objects.
+     */
+    List<Transfer> getRecentTransfers(String accountNumber, int limit);
+
+    /**
+     * Retrieves running counts and totals of recorded transfers.
+     *
+     * @param accountNumber Account that sent or received the transfers, or null for all transfers.
+     * @return The totals.
+     */
+    TransferTotals getTotals(String accountNumber);
+
+    /**
+     * Retrieves the amount moved by successful transfers on one recent day.
+     *
+     * @param accountNumber Account that sent or received the transfers, or null for all transfers.
+     * @param day           The day.
+     * @return The volume in paise.
+     */
+    long getDailyVolumePaise(String accountNumber, LocalDate day);
+}
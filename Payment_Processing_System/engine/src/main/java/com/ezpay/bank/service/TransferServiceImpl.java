@@ -0,0 +1,252 @@
+package com.ezpay.bank.service;
+
+import com.ezpay.bank.dao.IdempotencyCache;
+import com.ezpay.bank.dao.TransferDao;
+import com.ezpay.bank.dao.TransferDaoImpl;
+import com.ezpay.bank.dao.UPIPaymentDao;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
+import com.ezpay.bank.model.TransferTotals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implementation of the TransferService interface for managing transfers.
+ * Balances are moved through a {@link Ledger}, an {@link AccountLedger} unless another
+ * is given, so the service is safe to call from many threads at once.
+ *
+ * A transfer that carries an idempotency key goes through an {@link IdempotencyCache}:
+ * a retry with the same key gets the first attempt's ID, status and timestamp copied
+ * into it and moves no money. Batches submitted with {@link #makeTransfers(List)} are not
+ * deduplicated.
+ *
+ * Once {@link #startPipeline(int, int)} has been called, {@link #submitTransfer(Transfer)}
+ * hands transfers to a {@link TransferPipeline} instead of applying them on the calling thread.
+ *
+ * With a {@link VelocityLimiter}, every transfer is first counted against its sender
+ * account's hourly and daily limits, on every path. A transfer over a limit is declined
+ * with {@link TransferResult#LIMIT_EXCEEDED} and recorded like any other declined
+ * transfer; one declined by the ledger gives its reservation back. With a
+ * {@link RiskGate}, a transfer within its limits is then scored, and one the gate
+ * declines is recorded as {@link TransferResult#RISK_DECLINED}.
+ */
+public class TransferServiceImpl implements TransferService {
+
+    private final TransferDao transferDao;
+
+    // Concurrent account store that moves the balances
+    private final Ledger ledger;
+
+    // First result for each idempotency key
+    private final IdempotencyCache<Transfer> idempotencyCache;
+
+    // Per-sender-account limits; null for none
+    private final VelocityLimiter velocityLimiter;
+
+    // Risk scoring before the ledger; null for none
+    private final RiskGate riskGate;
+
+    // The limit and risk checks together
+    private final PaymentChecks checks;
+
+    // Asynchronous submission path; null until started
+    private volatile TransferPipeline pipeline;
+
+    public TransferServiceImpl() {
+        this(new AccountLedger(), new TransferDaoImpl());
+    }
+
+    public TransferServiceImpl(Ledger ledger, TransferDao transferDao) {
+        this(ledger, transferDao, new IdempotencyCache<>());
+    }
+
+    public TransferServiceImpl(Ledger ledger, TransferDao transferDao,
+                               IdempotencyCache<Transfer> idempotencyCache) {
+        this(ledger, transferDao, idempotencyCache, null);
+    }
+
+    public TransferServiceImpl(Ledger ledger, TransferDao transferDao,
+                               IdempotencyCache<Transfer> idempotencyCache, VelocityLimiter velocityLimiter) {
+        this(ledger, transferDao, idempotencyCache, velocityLimiter, null);
+    }
+
+    public TransferServiceImpl(Ledger ledger, TransferDao transferDao,
+                               IdempotencyCache<Transfer> idempotencyCache, VelocityLimiter velocityLimiter,
+                               RiskGate riskGate) {
+        this.ledger = ledger;
+        this.transferDao = transferDao;
+        this.idempotencyCache = idempotencyCache;
+        this.velocityLimiter = velocityLimiter;
+        this.riskGate = riskGate;
+        this.checks = new PaymentChecks(velocityLimiter, riskGate);
+    }
+
+    public void addAccount(BankAccount account) {
+        ledger.addAccount(account);
+    }
+
+    public BankAccount getAccount(String accountNumber) {
+        return ledger.getAccount(accountNumber);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the idempotency key was first used for a
+     *                                  different sender, receiver or amount, or is
+     *                                  reserved for UPI settlements
+     */
+    @Override
+    public void makeTransfer(Transfer transfer) {
+        String key = transfer.getIdempotencyKey();
+        if (key == null) {
+            apply(transfer);
+            return;
+        }
+        if (key.startsWith(UPIPaymentDao.SETTLEMENT_KEY_PREFIX)) {
+            throw new IllegalArgumentException("Idempotency keys starting with "
+                    + UPIPaymentDao.SETTLEMENT_KEY_PREFIX + " are reserved");
+        }
+        Transfer original = idempotencyCache.execute(key, () -> {
+            apply(transfer);
+            return transfer;
+        });
+        if (original != transfer) {
+            Idempotency.replay(original, transfer);
+        }
+    }
+
+    private void apply(Transfer transfer) {
+        long now = System.currentTimeMillis();
+        boolean applied = false;
+        if (checks.isEmpty()) {
+            applied = ledger.transfer(transfer.getSenderAccountNumber(),
+                    transfer.getReceiverAccountNumber(), transfer.getAmountPaise());
+        } else if (checks.admit(transfer, now) == null) {
+            applied = ledger.transfer(transfer.getSenderAccountNumber(),
+                    transfer.getReceiverAccountNumber(), transfer.getAmountPaise());
+            checks.settle(transfer, applied, now);
+        }
+
+        transfer.setStatus(applied);
+        transfer.setTransferDateTime(LocalDateTime.now());
+        transferDao.recordTransfer(transfer);
+    }
+
+    @Override
+    public TransferResult[] makeTransfers(List<Transfer> transfers) {
+        TransferResult[] results = checks.isEmpty()
+                ? ledger.transferAll(transfers)
+                : transferAllChecked(transfers);
+
+        // A null entry has nothing to record; it is only reported as INVALID
+        List<Transfer> recorded = new ArrayList<>(transfers.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < results.length; i++) {
+            Transfer transfer = transfers.get(i);
+            if (transfer == null) {
+                continue;
+            }
+            transfer.setStatus(results[i].isApplied());
+            transfer.setTransferDateTime(now);
+            recorded.add(transfer);
+        }
+        transferDao.recordTransfers(recorded);
+        return results;
+    }
+
+    // Runs the limit and risk checks on each transfer; those they decline skip the ledger
+    private TransferResult[] transferAllChecked(List<Transfer> transfers) {
+        long now = System.currentTimeMillis();
+        int count = transfers.size();
+        TransferResult[] rejections = new TransferResult[count];
+        List<Transfer> admitted = new ArrayList<>(transfers);
+        for (int i = 0; i < count; i++) {
+            rejections[i] = checks.admit(transfers.get(i), now);
+            if (rejections[i] != null) {
+                admitted.set(i, null);
+            }
+        }
+        TransferResult[] results = ledger.transferAll(admitted);
+        for (int i = 0; i < count; i++) {
+            if (rejections[i] != null) {
+                results[i] = rejections[i];
+            } else {
+                checks.settle(transfers.get(i), results[i].isApplied(), now);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Without a started pipeline the transfer is applied on the calling thread as a
+     * batch of one, and the returned future is already complete.
+     */
+    @Override
+    public CompletableFuture<TransferResult> submitTransfer(Transfer transfer) {
+        TransferPipeline current = pipeline;
+        if (current == null) {
+            return CompletableFuture.completedFuture(makeTransfers(Collections.singletonList(transfer))[0]);
+        }
+        return current.submit(transfer);
+    }
+
+    /**
+     * Starts the asynchronous pipeline used by {@link #submitTransfer(Transfer)}, over
+     * this service's ledger and transfer store. Calling it again returns the running pipeline.
+     *
+     * @param queueCapacity Transfers that may wait before submitters block
+     * @param maxBatch      Most transfers applied and recorded together
+     * @return The pipeline; close it to stop its threads
+     */
+    public synchronized TransferPipeline startPipeline(int queueCapacity, int maxBatch) {
+        if (pipeline == null) {
+            pipeline = new TransferPipeline(ledger, transferDao, queueCapacity, maxBatch, velocityLimiter, riskGate);
+        }
+        return pipeline;
+    }
+
+    @Override
+    public Transfer getTransferById(long transferId) {
+        return transferDao.getTransferById(transferId);
+    }
+
+    @Override
+    public List<Transfer> getAllTransfers() {
+        return transferDao.getAllTransfers();
+    }
+
+    @Override
+    public List<Transfer> getTransfersAfter(long afterTransferId, int limit) {
+        return transferDao.getTransfersAfter(afterTransferId, limit);
+    }
+
+    @Override
+    public List<Transfer> getTransfersBetween(String accountNumber, LocalDateTime from, LocalDateTime to, int limit) {
+        return transferDao.getTransfersBetween(accountNumber, from, to, limit);
+    }
+
+    @Override
+    public List<Transfer> getLatestTransfers(String accountNumber, int limit) {
+        return transferDao.getLatestTransfers(accountNumber, limit);
+    }
+
+    @Override
+    public List<Transfer> getRecentTransfers(String accountNumber, int limit) {
+        return transferDao.getRecentTransfers(accountNumber, limit);
+    }
+
+    @Override
+    public TransferTotals getTotals(String accountNumber) {
+        return transferDao.getTotals(accountNumber);
+    }
+
+    @Override
+    public long getDailyVolumePaise(String accountNumber, LocalDate day) {
+        return transferDao.getDailyVolumePaise(accountNumber, day);
+    }
+}
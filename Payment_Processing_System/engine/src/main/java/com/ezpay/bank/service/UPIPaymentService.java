@@ -0,0 +1,88 @@
+package com.ezpay.bank.service;
+
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service interface for handling UPI payment operations in the EZPay banking system.
+ * 
+ * This interface defines the core functionalities required for initiating and retrieving UPI transfers.
+ */
+public interface UPIPaymentService {
+
+    /**
+     * Processes a new UPI payment transaction.
+     * 
+     * This method will handle all business logic such as:
+     * - Validating the UPI ID format
+     * - Resolving the sender and receiver to their linked bank accounts
+     * - Debiting and crediting the accounts if the sender has sufficient balance
+     * - Assigning a unique transfer ID and timestamp
+     * - Saving the transaction in the system
+     * 
+     * @param transfer A {@link Transfer} object containing details like sender ID, receiver UPI ID, and amount.
+     * @return A message indicating whether the transaction was successful or failed, with reasons.
+     */
+    String makeUPIPayment(Transfer transfer);
+
+    /**
+     * Submits a UPI payment without waiting for the balance update and persistence.
+     * The UPI ID is validated and both sides resolved on the calling thread; the
+     * settlement then goes through {@link TransferService#submitTransfer(Transfer)}.
+     *
+     * @param transfer A {@link Transfer} object containing the sender ID, receiver UPI ID and amount.
+     * @return A future completed with the payment's result once it is saved.
+     */
+    CompletableFuture<TransferResult> submitUPIPayment(Transfer transfer);
+
+    /**
+     * Links a UPI ID to a bank account, so payments to and from it move money in that account.
+     *
+     * @param upiId         The UPI ID to link.
+     * @param accountNumber The bank account number to link it to.
+     * @return true if the link was saved, false if the UPI ID is invalid or the account does not exist.
+     */
+    boolean linkUpiId(String upiId, String accountNumber);
+
+    /**
+     * Retrieves all UPI transfer transactions made by a specific sender.
+     * 
+     * This can be used for:
+     * - Displaying UPI transaction history to a user
+     * - Performing audits or analytics on user-specific transfers
+     * 
+     * @param senderId The ID or account number of the sender whose UPI transactions are to be fetched.
+     * @return A list of {@link Transfer} objects associated with the given sender.
+     */
+    List<Transfer> getTransfersBySender(String senderId);
+
+    /**
+     * Retrieves one page of the UPI transfers made by a specific sender, oldest first.
+     *
+     * @param senderId The ID or account number of the sender.
+     * @param offset   Number of transfers to skip.
+     * @param limit    Maximum number of transfers to return.
+     * @return A list of at most {@code limit} {@link Transfer} objects.
+     */
+    List<Transfer> getTransfersBySender(String senderId, int offset, int limit);
+
+    /**
+     * Retrieves all UPI transfers received by a specific UPI ID.
+     *
+     * @param receiverUpiId The receiver's UPI ID.
+     * @return A list of {@link Transfer} objects received by the UPI ID.
+     */
+    List<Transfer> getTransfersByReceiver(String receiverUpiId);
+
+    /**
+     * Retrieves one page of the UPI transfers received by a specific UPI ID, oldest first.
+     *
+     * @param receiverUpiId The receiver's UPI ID.
+     * @param offset        Number of transfers to skip.
+     * @param limit         Maximum number of transfers to return.
+     * @return A list of at most {@code limit} {@link Transfer} objects.
+     */
+    List<Transfer> getTransfersByReceiver(String receiverUpiId, int offset, int limit);
+}
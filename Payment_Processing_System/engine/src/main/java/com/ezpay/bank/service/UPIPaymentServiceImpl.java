@@ -0,0 +1,382 @@
+package com.ezpay.bank.service;
+
+import com.ezpay.bank.dao.BankAccountDao;
+import com.ezpay.bank.dao.BankAccountDaoImpl;
+import com.ezpay.bank.dao.IdempotencyCache;
+import com.ezpay.bank.dao.TransferDaoImpl;
+import com.ezpay.bank.dao.UPIPaymentDao;
+import com.ezpay.bank.dao.UPIPaymentDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Implementation of the UPIPaymentService interface.
+ * 
+ * This class contains business logic for validating and processing UPI payments,
+ * as well as retrieving transaction history for a given sender.
+ *
+ * UPI handles are resolved to bank accounts through the directory in the
+ * {@link BankAccountDao}. The money then moves as a bank transfer between the two
+ * accounts through the {@link TransferService}, so UPI and bank transfers share one
+ * ledger and one set of balances, and the settlement is journaled like any other transfer.
+ *
+ * A payment that carries an idempotency key is paid at most once: a retry of a successful
+ * payment with the same key gets the original transaction ID back and moves no money.
+ * Rejected payments are not remembered, since they moved no money either. The settling
+ * bank transfer carries the key too, behind {@link UPIPaymentDao#SETTLEMENT_KEY_PREFIX},
+ * so a payment whose settlement was journaled but whose own record was lost in a crash
+ * is still recognized after a restart; its retry saves the missing record and moves no money.
+ *
+ * A payment made from a UPI ID can be held to that UPI ID's hourly and daily limits by a
+ * {@link VelocityLimiter}, on top of any limits the {@link TransferService} applies to
+ * the paying account. A payment that is then declined gives its reservation back.
+ */
+public class UPIPaymentServiceImpl implements UPIPaymentService {
+
+    // DAO for interacting with the underlying data store (in-memory or persistent)
+    private final UPIPaymentDao dao;
+
+    // Accounts and the UPI handle directory
+    private final BankAccountDao accountDao;
+
+    // Settles payments between the resolved accounts
+    private final TransferService transferService;
+
+    // Source of unique, time-ordered transaction IDs
+    private final TransactionIdGenerator idGenerator;
+
+    // Checks receiver UPI IDs against the known providers
+    private final UpiIdValidator upiIdValidator;
+
+    // Successful payment for each idempotency key
+    private final IdempotencyCache<Transfer> idempotencyCache;
+
+    // Per-UPI-ID limits on payments made from a UPI ID; null for none
+    private final VelocityLimiter upiLimiter;
+
+    // Bank transfer that settles a payment, or why the payment was rejected before any money moved.
+    // A payment counted against a UPI ID's limits carries that UPI ID and the time it was counted.
+    private record Settlement(Transfer transfer, TransferResult rejection, String message, String limitedUpiId,
+                              long limitedAt) {
+
+        static Settlement rejected(TransferResult rejection, String message) {
+            return new Settlement(null, rejection, message, null, 0);
+        }
+    }
+
+    public UPIPaymentServiceImpl() {
+        this(new UPIPaymentDaoImpl(), new BankAccountDaoImpl());
+    }
+
+    public UPIPaymentServiceImpl(UPIPaymentDao dao, BankAccountDao accountDao) {
+        this(dao, accountDao, new TransferServiceImpl(new AccountLedger(accountDao), new TransferDaoImpl()));
+    }
+
+    public UPIPaymentServiceImpl(UPIPaymentDao dao, BankAccountDao accountDao, TransferService transferService) {
+        this(dao, accountDao, transferService, new TransactionIdGenerator(), new UpiIdValidator());
+    }
+
+    public UPIPaymentServiceImpl(UPIPaymentDao dao, BankAccountDao accountDao, TransferService transferService,
+                                 TransactionIdGenerator idGenerator, UpiIdValidator upiIdValidator) {
+        this(dao, accountDao, transferService, idGenerator, upiIdValidator, new IdempotencyCache<>());
+    }
+
+    public UPIPaymentServiceImpl(UPIPaymentDao dao, BankAccountDao accountDao, TransferService transferService,
+                                 TransactionIdGenerator idGenerator, UpiIdValidator upiIdValidator,
+                                 IdempotencyCache<Transfer> idempotencyCache) {
+        this(dao, accountDao, transferService, idGenerator, upiIdValidator, idempotencyCache, null);
+    }
+
+    public UPIPaymentServiceImpl(UPIPaymentDao dao, BankAccountDao accountDao, TransferService transferService,
+                                 TransactionIdGenerator idGenerator, UpiIdValidator upiIdValidator,
+                                 IdempotencyCache<Transfer> idempotencyCache, VelocityLimiter upiLimiter) {
+        this.dao = dao;
+        this.accountDao = accountDao;
+        this.transferService = transferService;
+        this.idGenerator = idGenerator;
+        this.upiIdValidator = upiIdValidator;
+        this.idempotencyCache = idempotencyCache;
+        this.upiLimiter = upiLimiter;
+    }
+
+    /**
+     * Executes the UPI payment transaction.
+     * 
+     * This method performs the following:
+     * - Validates the UPI ID and stores it in lower case.
+     * - Resolves the sender and receiver to their bank accounts.
+     * - Debits the sender and credits the receiver through the shared ledger.
+     * - Generates transaction ID and timestamp.
+     * - Persists the transfer record using DAO.
+     * A retry carrying the idempotency key of an earlier successful payment skips all of
+     * this and gets the earlier transaction ID.
+     * 
+     * @param transfer Transfer object containing sender ID, receiver UPI ID, amount, etc.
+     * @return A result message indicating success or failure.
+     */
+    @Override
+    public String makeUPIPayment(Transfer transfer) {
+        String key = transfer.getIdempotencyKey();
+        if (key == null) {
+            return pay(transfer);
+        }
+        String[] message = new String[1];
+        Transfer original = idempotencyCache.execute(key, () -> {
+            message[0] = pay(transfer);
+            return transfer.isStatus() ? transfer : null;
+        });
+        if (original == null || original == transfer) {
+            return message[0];
+        }
+        String receiverUpiId = upiIdValidator.normalize(transfer.getReceiverAccountNumber());
+        if (receiverUpiId != null) {
+            transfer.setReceiverAccountNumber(receiverUpiId);
+        }
+        if (isSettlement(original)) {
+            return finishSettled(original, transfer);
+        }
+        Idempotency.replay(original, transfer);
+        return successMessage(transfer);
+    }
+
+    private static boolean isSettlement(Transfer transfer) {
+        String key = transfer.getIdempotencyKey();
+        return key != null && key.startsWith(UPIPaymentDao.SETTLEMENT_KEY_PREFIX);
+    }
+
+    // Saves the record of a payment whose settlement was recovered without it
+    private String finishSettled(Transfer settlement, Transfer transfer) {
+        BankAccount sender = resolveSender(transfer.getSenderAccountNumber());
+        BankAccount receiver = accountDao.getAccountByUpiHandle(transfer.getReceiverAccountNumber());
+        if (sender == null || receiver == null || settlement.getAmountPaise() != transfer.getAmountPaise()
+                || !sender.getAccountNumber().equals(settlement.getSenderAccountNumber())
+                || !receiver.getAccountNumber().equals(settlement.getReceiverAccountNumber())) {
+            throw Idempotency.mismatch(transfer);
+        }
+        String key = transfer.getIdempotencyKey();
+        synchronized (settlement) {
+            Transfer recorded = idempotencyCache.get(key);
+            if (recorded != null && recorded != settlement) {
+                Idempotency.replay(recorded, transfer);
+                return successMessage(transfer);
+            }
+            transfer.setTransferDateTime(settlement.getTransferDateTime());
+            transfer.setTransferId(idGenerator.nextId());
+            transfer.setStatus(true);
+            dao.saveUPITransfer(transfer);
+            idempotencyCache.restore(key, transfer, System.currentTimeMillis());
+        }
+        return successMessage(transfer);
+    }
+
+    /**
+     * Asynchronous form of {@link #makeUPIPayment(Transfer)}. Idempotency keys are not
+     * checked on this path. The payment is saved on a pool thread, off the pipeline's
+     * persist stage. If the settlement fails instead, for example because the pipeline
+     * was closed, the payment is marked failed and its hold on the sender's UPI limits is
+     * given back before the future completes with that failure.
+     *
+     * @param transfer Transfer object containing sender ID, receiver UPI ID, amount, etc.
+     * @return A future completed with the result once the payment is saved.
+     */
+    @Override
+    public CompletableFuture<TransferResult> submitUPIPayment(Transfer transfer) {
+        Settlement settlement = prepare(transfer);
+        if (settlement.transfer() == null) {
+            transfer.setStatus(false);
+            return CompletableFuture.completedFuture(settlement.rejection());
+        }
+        return transferService.submitTransfer(settlement.transfer()).handleAsync((result, failure) -> {
+            if (failure != null) {
+                abandon(transfer, settlement, failure);
+                throw failure instanceof CompletionException completion ? completion : new CompletionException(failure);
+            }
+            settle(transfer, settlement, result);
+            return result;
+        });
+    }
+
+    private String pay(Transfer transfer) {
+        Settlement settlement = prepare(transfer);
+        if (settlement.transfer() == null) {
+            transfer.setStatus(false);
+            return settlement.message();
+        }
+
+        // Move the money between the two accounts
+        TransferResult result = transferService.makeTransfers(Collections.singletonList(settlement.transfer()))[0];
+        return settle(transfer, settlement, result);
+    }
+
+    // Validates a payment and resolves both sides to the bank transfer that settles it
+    private Settlement prepare(Transfer transfer) {
+        // Validate and normalize receiver's UPI ID
+        String receiverUpiId = upiIdValidator.normalize(transfer.getReceiverAccountNumber());
+        if (receiverUpiId == null) {
+            return Settlement.rejected(TransferResult.INVALID, " Invalid UPI ID.");
+        }
+        transfer.setReceiverAccountNumber(receiverUpiId);
+
+        BankAccount receiver = accountDao.getAccountByUpiHandle(receiverUpiId);
+        if (receiver == null) {
+            return Settlement.rejected(TransferResult.UNKNOWN_ACCOUNT,
+                    "Receiver UPI ID is not linked to a bank account.");
+        }
+        BankAccount sender = resolveSender(transfer.getSenderAccountNumber());
+        if (sender == null) {
+            return Settlement.rejected(TransferResult.UNKNOWN_ACCOUNT, "Sender account not found.");
+        }
+        if (transfer.getAmountPaise() <= 0) {
+            return Settlement.rejected(TransferResult.INVALID, "Invalid amount.");
+        }
+
+        // Only a payment made from a UPI ID has a UPI ID to hold to its limits
+        String senderUpiId = null;
+        long limitedAt = 0;
+        if (upiLimiter != null && transfer.getSenderAccountNumber().indexOf('@') >= 0) {
+            senderUpiId = upiIdValidator.normalize(transfer.getSenderAccountNumber());
+            limitedAt = System.currentTimeMillis();
+            if (!upiLimiter.tryAcquire(senderUpiId, transfer.getAmountPaise(), limitedAt)) {
+                return Settlement.rejected(TransferResult.LIMIT_EXCEEDED, "UPI payment limit exceeded.");
+            }
+        }
+
+        Transfer settlement = new Transfer(0, sender.getAccountNumber(), receiver.getAccountNumber(), 0, null, false);
+        settlement.setAmountPaise(transfer.getAmountPaise());
+        if (transfer.getIdempotencyKey() != null) {
+            settlement.setIdempotencyKey(UPIPaymentDao.SETTLEMENT_KEY_PREFIX + transfer.getIdempotencyKey());
+        }
+        return new Settlement(settlement, null, null, senderUpiId, limitedAt);
+    }
+
+    // Marks a payment failed after its settlement threw. The UPI limits are given back
+    // unless the ledger moved the money before recording failed, as the payment then stands.
+    private void abandon(Transfer transfer, Settlement settlement, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        boolean moved = cause instanceof TransferNotRecordedException notRecorded
+                && notRecorded.getResult().isApplied();
+        if (!moved && settlement.limitedUpiId() != null) {
+            upiLimiter.release(settlement.limitedUpiId(), transfer.getAmountPaise(), settlement.limitedAt());
+        }
+        transfer.setStatus(false);
+    }
+
+    // Completes a payment after its settlement ran and saves it if money moved
+    private String settle(Transfer transfer, Settlement settlement, TransferResult result) {
+        if (!result.isApplied()) {
+            if (settlement.limitedUpiId() != null) {
+                upiLimiter.release(settlement.limitedUpiId(), transfer.getAmountPaise(), settlement.limitedAt());
+            }
+            transfer.setStatus(false);
+            return switch (result) {
+                case LIMIT_EXCEEDED -> "Account payment limit exceeded.";
+                case RISK_DECLINED -> "Payment declined by risk checks.";
+                default -> "Insufficient balance.";
+            };
+        }
+
+        // Add timestamp and generate transaction ID
+        transfer.setTransferDateTime(settlement.transfer().getTransferDateTime());
+        transfer.setTransferId(idGenerator.nextId());
+        transfer.setStatus(true);
+
+        // Persist the transaction
+        dao.saveUPITransfer(transfer);
+
+        return successMessage(transfer);
+    }
+
+    private static String successMessage(Transfer transfer) {
+        return "UPI Payment Successful! Transaction ID: " + transfer.getTransferId();
+    }
+
+    /**
+     * Links a UPI ID to an existing bank account.
+     *
+     * @param upiId         The UPI ID to link.
+     * @param accountNumber The account that pays and receives for the UPI ID.
+     * @return true if the UPI ID is valid and the account exists, false otherwise.
+     */
+    @Override
+    public boolean linkUpiId(String upiId, String accountNumber) {
+        String normalized = upiIdValidator.normalize(upiId);
+        if (normalized == null || accountDao.getAccountByNumber(accountNumber) == null) {
+            return false;
+        }
+        accountDao.linkUpiHandle(normalized, accountNumber);
+        return true;
+    }
+
+    /**
+     * Retrieves all UPI transactions made by a specific sender.
+     * 
+     * @param senderId ID or account number of the sender.
+     * @return A list of Transfer objects initiated by the sender.
+     */
+    @Override
+    public List<Transfer> getTransfersBySender(String senderId) {
+        return dao.getTransfersBySender(senderId);
+    }
+
+    /**
+     * Retrieves one page of the UPI transactions made by a specific sender.
+     *
+     * @param senderId ID or account number of the sender.
+     * @param offset   Number of transactions to skip.
+     * @param limit    Maximum number of transactions to return.
+     * @return A list of at most {@code limit} Transfer objects.
+     */
+    @Override
+    public List<Transfer> getTransfersBySender(String senderId, int offset, int limit) {
+        return dao.getTransfersBySender(senderId, offset, limit);
+    }
+
+    /**
+     * Retrieves all UPI transactions received by a specific UPI ID.
+     *
+     * @param receiverUpiId Receiver's UPI ID.
+     * @return A list of Transfer objects received by the UPI ID.
+     */
+    @Override
+    public List<Transfer> getTransfersByReceiver(String receiverUpiId) {
+        String normalized = upiIdValidator.normalize(receiverUpiId);
+        return dao.getTransfersByReceiver(normalized == null ? receiverUpiId : normalized);
+    }
+
+    /**
+     * Retrieves one page of the UPI transactions received by a specific UPI ID.
+     *
+     * @param receiverUpiId Receiver's UPI ID.
+     * @param offset        Number of transactions to skip.
+     * @param limit         Maximum number of transactions to return.
+     * @return A list of at most {@code limit} Transfer objects.
+     */
+    @Override
+    public List<Transfer> getTransfersByReceiver(String receiverUpiId, int offset, int limit) {
+        String normalized = upiIdValidator.normalize(receiverUpiId);
+        return dao.getTransfersByReceiver(normalized == null ? receiverUpiId : normalized, offset, limit);
+    }
+
+    /**
+     * Finds the account paying for a UPI payment.
+     *
+     * @param senderId The sender's UPI ID or bank account number
+     * @return The sender's account, or null if it cannot be resolved
+     */
+    private BankAccount resolveSender(String senderId) {
+        if (senderId == null) {
+            return null;
+        }
+        if (senderId.indexOf('@') >= 0) {
+            return accountDao.getAccountByUpiHandle(upiIdValidator.normalize(senderId));
+        }
+        return accountDao.getAccountByNumber(senderId);
+    }
+}
@@ -0,0 +1,166 @@
+package com.ezpay.bank.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Validates and normalizes UPI IDs of the form {@code handle@provider}.
+ *
+ * The handle may contain ASCII letters, digits, '.', '-' and '_' and the provider must
+ * be one of a fixed set of known provider suffixes, compared without regard to case.
+ * Both parts have length limits. Validation scans the characters by hand and looks the
+ * provider up in a small open-addressing table using the characters in place, so
+ * checking an ID never allocates. Instances are immutable and safe to share.
+ */
+public class UpiIdValidator {
+
+    public static final int MIN_HANDLE_LENGTH = 2;
+    public static final int MAX_HANDLE_LENGTH = 64;
+    public static final int MAX_PROVIDER_LENGTH = 32;
+
+    // Provider suffixes accepted when no list is given
+    private static final List<String> DEFAULT_PROVIDERS = List.of(
+            "upi", "ybl", "ibl", "axl", "paytm", "apl", "okaxis", "okhdfcbank", "okicici", "oksbi",
+            "sbi", "hdfcbank", "icici", "axisbank", "kotak", "pnb", "boi", "barodampay", "yesbank", "idfcbank");
+
+    // Lower-case providers by hash; null marks an empty slot
+    private final String[] providers;
+    private final int mask;
+
+    /**
+     * Creates a validator that accepts the common Indian UPI provider suffixes.
+     */
+    public UpiIdValidator() {
+        this(DEFAULT_PROVIDERS);
+    }
+
+    /**
+     * Creates a validator that accepts only the given provider suffixes.
+     *
+     * @param knownProviders Provider suffixes such as "okaxis", in any case
+     */
+    public UpiIdValidator(Collection<String> knownProviders) {
+        int size = Integer.highestOneBit(Math.max(knownProviders.size(), 1) * 4 - 1) << 1;
+        this.providers = new String[size];
+        this.mask = size - 1;
+        for (String provider : knownProviders) {
+            String lower = provider.toLowerCase(Locale.ROOT);
+            if (lower.isEmpty() || lower.length() > MAX_PROVIDER_LENGTH || !isProviderText(lower)) {
+                throw new IllegalArgumentException("Invalid UPI provider: " + provider);
+            }
+            int slot = hash(lower, 0, lower.length()) & mask;
+            while (providers[slot] != null && !providers[slot].equals(lower)) {
+                slot = (slot + 1) & mask;
+            }
+            providers[slot] = lower;
+        }
+    }
+
+    /**
+     * Checks a UPI ID without allocating.
+     *
+     * @param upiId The UPI ID to check
+     * @return true if the ID is well formed and its provider is known
+     */
+    public boolean isValid(String upiId) {
+        if (upiId == null) {
+            return false;
+        }
+        int length = upiId.length();
+        if (length > MAX_HANDLE_LENGTH + 1 + MAX_PROVIDER_LENGTH) {
+            return false;
+        }
+        int at = -1;
+        for (int i = 0; i < length; i++) {
+            char c = upiId.charAt(i);
+            if (c == '@') {
+                at = i;
+                break;
+            }
+            if (!isHandleChar(c)) {
+                return false;
+            }
+        }
+        if (at < MIN_HANDLE_LENGTH || at > MAX_HANDLE_LENGTH) {
+            return false;
+        }
+        int providerLength = length - at - 1;
+        return providerLength > 0 && providerLength <= MAX_PROVIDER_LENGTH && isKnownProvider(upiId, at + 1, length);
+    }
+
+    /**
+     * Validates a UPI ID and returns its canonical lower-case form. An ID that is already
+     * lower case is returned as is.
+     *
+     * @param upiId The UPI ID to normalize
+     * @return The lower-case UPI ID, or null if it is not valid
+     */
+    public String normalize(String upiId) {
+        if (!isValid(upiId)) {
+            return null;
+        }
+        for (int i = 0; i < upiId.length(); i++) {
+            char c = upiId.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                return upiId.toLowerCase(Locale.ROOT);
+            }
+        }
+        return upiId;
+    }
+
+    /**
+     * @return The accepted provider suffixes, lower case and sorted
+     */
+    public List<String> getKnownProviders() {
+        return Arrays.stream(providers).filter(p -> p != null).sorted().toList();
+    }
+
+    // Looks up text[from, to) in the provider table, ignoring case
+    private boolean isKnownProvider(String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!isProviderChar(text.charAt(i))) {
+                return false;
+            }
+        }
+        int length = to - from;
+        int slot = hash(text, from, to) & mask;
+        String candidate;
+        while ((candidate = providers[slot]) != null) {
+            if (candidate.length() == length && candidate.regionMatches(true, 0, text, from, length)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    // Case-insensitive hash of text[from, to)
+    private static int hash(String text, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            h = 31 * h + (c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean isHandleChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '.' || c == '-' || c == '_';
+    }
+
+    private static boolean isProviderChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isProviderText(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!isProviderChar(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
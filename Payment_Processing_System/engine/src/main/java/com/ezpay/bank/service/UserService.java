@@ -31,6 +31,15 @@ public interface UserService {
      */
     List<User> getAllUsers();
 
+    /**
+     * Retrieves one page of users in user ID order.
+     *
+     * @param afterUserId The last user ID of the previous page, or {@code Integer.MIN_VALUE} for the first page.
+     * @param limit       Maximum number of users to return.
+     * @return A List of at most {@code limit} User objects.
+     */
+    List<User> getUsersAfter(int afterUserId, int limit);
+
     /**
      * Updates the details of an existing user.
      *
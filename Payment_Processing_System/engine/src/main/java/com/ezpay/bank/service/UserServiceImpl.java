@@ -11,7 +11,15 @@ import java.util.List;
  */
 public class UserServiceImpl implements UserService {
 
-    private UserDao userDao = new UserDaoImpl();
+    private final UserDao userDao;
+
+    public UserServiceImpl() {
+        this(new UserDaoImpl());
+    }
+
+    public UserServiceImpl(UserDao userDao) {
+        this.userDao = userDao;
+    }
 
     /**
      * Registers a new user by delegating to the UserDao.
@@ -44,6 +52,18 @@ public class UserServiceImpl implements UserService {
         return userDao.getAllUsers();
     }
 
+    /**
+     * Retrieves one page of users in user ID order.
+     *
+     * @param afterUserId The last user ID of the previous page.
+     * @param limit       Maximum number of users to return.
+     * @return A List of at most {@code limit} User objects.
+     */
+    @Override
+    public List<User> getUsersAfter(int afterUserId, int limit) {
+        return userDao.getUsersAfter(afterUserId, limit);
+    }
+
     /**
      * Updates an existing user's details.
      *
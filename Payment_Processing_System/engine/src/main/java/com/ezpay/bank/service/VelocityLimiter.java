@@ -0,0 +1,236 @@
+package com.ezpay.bank.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Enforces hourly and daily amount and count limits per key, such as a sender account
+ * number or a sender UPI ID, over sliding windows.
+ *
+ * Each key has two time wheels: the last hour in twelve five-minute buckets and the last
+ * day in 24 one-hour buckets, each with a running total of its live buckets. A payment
+ * advances the key's wheels to the current time, clearing only the buckets that expired
+ * since the key was last used, so a check is a few additions however long the key was
+ * idle. Each key's wheels are guarded by their own monitor, so payments from different
+ * keys never contend.
+ *
+ * Keys are held in a map per day: a key used in the current day is moved into the
+ * current map, and when a new day starts the map of the day before last is dropped whole,
+ * together with every key idle for at least a day. Stale keys are therefore discarded
+ * without any scan or background thread.
+ *
+ * A payment reserves its amount with {@link #tryAcquire(String, long)} before it is
+ * applied, and gives it back with {@link #release(String, long, long)} if it then fails,
+ * so declined payments do not use up a limit.
+ */
+public class VelocityLimiter {
+
+    /**
+     * Limits for one key. A limit of zero or less means no limit.
+     *
+     * @param hourlyPaise Most paise in any sliding hour
+     * @param hourlyCount Most payments in any sliding hour
+     * @param dailyPaise  Most paise in any sliding 24 hours
+     * @param dailyCount  Most payments in any sliding 24 hours
+     */
+    public record Limits(long hourlyPaise, long hourlyCount, long dailyPaise, long dailyCount) {
+
+        // No limit at all
+        public static final Limits NONE = new Limits(0, 0, 0, 0);
+    }
+
+    // Defaults for bank accounts: ₹2,00,000 a day, at most ₹50,000 of it in an hour
+    public static final Limits DEFAULT_ACCOUNT_LIMITS = new Limits(5_000_000, 0, 20_000_000, 0);
+
+    // Defaults for UPI IDs: ₹1,00,000 and 20 payments a day
+    public static final Limits DEFAULT_UPI_LIMITS = new Limits(0, 0, 10_000_000, 20);
+
+    private static final long HOUR_BUCKET_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final int HOUR_BUCKETS = 12;
+    private static final long DAY_BUCKET_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final int DAY_BUCKETS = 24;
+    private static final long GENERATION_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final Limits limits;
+    private final AtomicReference<Generation> generation;
+
+    // Keys used in the current day, and in the day before it
+    private static final class Generation {
+        final long end;
+        final ConcurrentHashMap<String, long[]> current = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, long[]> previous;
+
+        Generation(long end, ConcurrentHashMap<String, long[]> previous) {
+            this.end = end;
+            this.previous = previous;
+        }
+    }
+
+    // A key's usage is one long[] holding both wheels, so a check touches a few cache lines
+    // rather than several objects. Each wheel is [tick, totalPaise, totalCount] followed by
+    // a [paise, count] pair per bucket.
+    private static final int TICK = 0;
+    private static final int TOTAL_PAISE = 1;
+    private static final int TOTAL_COUNT = 2;
+    private static final int FIRST_BUCKET = 3;
+    private static final int HOUR_WHEEL = 0;
+    private static final int DAY_WHEEL = FIRST_BUCKET + 2 * HOUR_BUCKETS;
+    private static final int USAGE_LENGTH = DAY_WHEEL + FIRST_BUCKET + 2 * DAY_BUCKETS;
+
+    private static long[] newUsage() {
+        long[] usage = new long[USAGE_LENGTH];
+        usage[HOUR_WHEEL + TICK] = Long.MIN_VALUE;
+        usage[DAY_WHEEL + TICK] = Long.MIN_VALUE;
+        return usage;
+    }
+
+    // Moves a wheel to the bucket of `now`, clearing the buckets that fell out of the window
+    private static void advance(long[] usage, int wheel, int buckets, long bucketMillis, long now) {
+        long target = Math.floorDiv(now, bucketMillis);
+        long tick = usage[wheel + TICK];
+        if (target <= tick) {
+            return;
+        }
+        if (tick == Long.MIN_VALUE || target - tick >= buckets) {
+            Arrays.fill(usage, wheel + TOTAL_PAISE, wheel + FIRST_BUCKET + 2 * buckets, 0);
+        } else {
+            for (long t = tick + 1; t <= target; t++) {
+                int bucket = wheel + FIRST_BUCKET + 2 * (int) Math.floorMod(t, (long) buckets);
+                usage[wheel + TOTAL_PAISE] -= usage[bucket];
+                usage[wheel + TOTAL_COUNT] -= usage[bucket + 1];
+                usage[bucket] = 0;
+                usage[bucket + 1] = 0;
+            }
+        }
+        usage[wheel + TICK] = target;
+    }
+
+    private static boolean admits(long[] usage, int wheel, long amountPaise, long paiseLimit, long countLimit) {
+        return (paiseLimit <= 0 || amountPaise <= paiseLimit - usage[wheel + TOTAL_PAISE])
+                && (countLimit <= 0 || usage[wheel + TOTAL_COUNT] < countLimit);
+    }
+
+    private static void add(long[] usage, int wheel, int buckets, long amountPaise) {
+        int bucket = wheel + FIRST_BUCKET + 2 * (int) Math.floorMod(usage[wheel + TICK], (long) buckets);
+        usage[bucket] += amountPaise;
+        usage[bucket + 1]++;
+        usage[wheel + TOTAL_PAISE] += amountPaise;
+        usage[wheel + TOTAL_COUNT]++;
+    }
+
+    // Takes a payment back out of the bucket it went into, unless that bucket has expired
+    private static void remove(long[] usage, int wheel, int buckets, long bucketMillis, long amountPaise, long at) {
+        long tick = usage[wheel + TICK];
+        long t = Math.min(Math.floorDiv(at, bucketMillis), tick);
+        if (tick - t >= buckets) {
+            return;
+        }
+        int bucket = wheel + FIRST_BUCKET + 2 * (int) Math.floorMod(t, (long) buckets);
+        if (usage[bucket + 1] == 0) {
+            return;
+        }
+        usage[bucket] -= amountPaise;
+        usage[bucket + 1]--;
+        usage[wheel + TOTAL_PAISE] -= amountPaise;
+        usage[wheel + TOTAL_COUNT]--;
+    }
+
+    /**
+     * Creates a limiter.
+     *
+     * @param limits Limits applied to every key
+     */
+    public VelocityLimiter(Limits limits) {
+        if (limits == null) {
+            throw new IllegalArgumentException("limits must not be null");
+        }
+        this.limits = limits;
+        this.generation = new AtomicReference<>(new Generation(System.currentTimeMillis() + GENERATION_MILLIS,
+                new ConcurrentHashMap<>()));
+    }
+
+    /**
+     * @return The limits applied to every key
+     */
+    public Limits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Reserves a payment against a key's limits, now.
+     *
+     * @param key         Sender account number or UPI ID
+     * @param amountPaise Amount of the payment in paise
+     * @return true if the payment fits every limit and was counted, false if it was not counted
+     */
+    public boolean tryAcquire(String key, long amountPaise) {
+        return tryAcquire(key, amountPaise, System.currentTimeMillis());
+    }
+
+    /**
+     * Reserves a payment against a key's limits at a given time.
+     *
+     * @param key         Sender account number or UPI ID
+     * @param amountPaise Amount of the payment in paise
+     * @param nowMillis   Time of the payment in epoch milliseconds
+     * @return true if the payment fits every limit and was counted, false if it was not counted
+     */
+    public boolean tryAcquire(String key, long amountPaise, long nowMillis) {
+        long[] usage = usage(key, nowMillis);
+        synchronized (usage) {
+            advance(usage, HOUR_WHEEL, HOUR_BUCKETS, HOUR_BUCKET_MILLIS, nowMillis);
+            advance(usage, DAY_WHEEL, DAY_BUCKETS, DAY_BUCKET_MILLIS, nowMillis);
+            if (!admits(usage, HOUR_WHEEL, amountPaise, limits.hourlyPaise(), limits.hourlyCount())
+                    || !admits(usage, DAY_WHEEL, amountPaise, limits.dailyPaise(), limits.dailyCount())) {
+                return false;
+            }
+            add(usage, HOUR_WHEEL, HOUR_BUCKETS, amountPaise);
+            add(usage, DAY_WHEEL, DAY_BUCKETS, amountPaise);
+            return true;
+        }
+    }
+
+    /**
+     * Gives back a payment reserved with {@link #tryAcquire(String, long, long)} that was
+     * then not made.
+     *
+     * @param key         Key the payment was reserved against
+     * @param amountPaise Amount that was reserved
+     * @param atMillis    Time the payment was reserved at
+     */
+    public void release(String key, long amountPaise, long atMillis) {
+        Generation current = generation.get();
+        long[] usage = current.current.get(key);
+        if (usage == null) {
+            usage = current.previous.get(key);
+        }
+        if (usage == null) {
+            return;
+        }
+        synchronized (usage) {
+            remove(usage, HOUR_WHEEL, HOUR_BUCKETS, HOUR_BUCKET_MILLIS, amountPaise, atMillis);
+            remove(usage, DAY_WHEEL, DAY_BUCKETS, DAY_BUCKET_MILLIS, amountPaise, atMillis);
+        }
+    }
+
+    // Finds a key's usage in the current day's map, moving it from the previous day's if needed
+    private long[] usage(String key, long now) {
+        Generation current = generation.get();
+        if (now - current.end >= 0) {
+            // Whoever loses the race simply uses the winner's generation
+            generation.compareAndSet(current, new Generation(now + GENERATION_MILLIS, current.current));
+            current = generation.get();
+        }
+        long[] usage = current.current.get(key);
+        if (usage != null) {
+            return usage;
+        }
+        ConcurrentHashMap<String, long[]> previous = current.previous;
+        return current.current.computeIfAbsent(key, k -> {
+            long[] carried = previous.remove(k);
+            return carried != null ? carried : newUsage();
+        });
+    }
+}
@@ -0,0 +1,197 @@
+package com.ezpay.bank.service_test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ezpay.bank.dao.BankAccountTable;
+import com.ezpay.bank.dao.TransferDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.service.AccountLedger;
+import com.ezpay.bank.service.TransferServiceImpl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Tests the primitive-column account store: views, growth, deletion and transfers over it.
+ */
+public class BankAccountTableTest {
+
+    @Test
+    public void testViewsReadAndWriteTheColumns() {
+        BankAccountTable table = new BankAccountTable();
+        BankAccount original = new BankAccount(7, "HDFC", "ACC1", true);
+        original.setBalancePaise(12_345);
+        table.addAccount(original);
+
+        BankAccount view = table.getAccountByNumber("ACC1");
+        assertEquals(7, view.getBankid());
+        assertEquals("HDFC", view.getBankName());
+        assertEquals("ACC1", view.getAccountNumber());
+        assertTrue(view.isVerified());
+        assertEquals(12_345, view.getBalancePaise());
+        assertFalse(view.isSharded());
+
+        view.creditPaise(100);
+        view.debitPaise(45);
+        view.setVerified(false);
+        view.setBankName("SBI");
+        BankAccount again = table.getAccountByNumber("ACC1");
+        assertEquals(12_400, again.getBalancePaise());
+        assertFalse(again.isVerified());
+        assertEquals("SBI", again.getBankName());
+        assertEquals(view, again);
+        assertThrows(ArithmeticException.class, () -> view.creditPaise(Long.MAX_VALUE));
+
+        // The store copies the account, so the original object is detached
+        original.setBalancePaise(0);
+        assertEquals(12_400, table.getAccountByNumber("ACC1").getBalancePaise());
+        assertNull(table.getAccountByNumber("NOPE"));
+        assertNull(table.getAccountByNumber(null));
+    }
+
+    /**
+     * Renaming through a view re-keys the row, keeps its balance and moves its UPI handles.
+     */
+    @Test
+    public void testSetAccountNumberRenamesTheRow() {
+        BankAccountTable table = new BankAccountTable();
+        BankAccount account = new BankAccount(1, "SBI", "ACC1", true);
+        account.setBalancePaise(500);
+        table.addAccount(account);
+        table.addAccount(new BankAccount(2, "SBI", "ACC2", true));
+        table.linkUpiHandle("ravi@upi", "ACC1");
+
+        BankAccount view = table.getAccountByNumber("ACC1");
+        BankAccount stale = table.getAccountByNumber("ACC1");
+        view.setAccountNumber("ACC9");
+        assertEquals("ACC9", view.getAccountNumber());
+        assertEquals("ACC9", stale.getAccountNumber());
+        assertNull(table.getAccountByNumber("ACC1"));
+        assertEquals(500, table.getAccountByNumber("ACC9").getBalancePaise());
+        assertEquals("ACC9", table.getAccountByUpiHandle("ravi@upi").getAccountNumber());
+
+        assertThrows(IllegalArgumentException.class, () -> view.setAccountNumber("ACC2"));
+        assertThrows(IllegalArgumentException.class, () -> view.setAccountNumber(null));
+        view.setAccountNumber("ACC9");
+        table.deleteAccount("ACC9");
+        assertThrows(IllegalStateException.class, () -> view.setAccountNumber("ACC1"));
+    }
+
+    /**
+     * Pages follow account number order as accounts are added, deleted and renamed.
+     */
+    @Test
+    public void testPagingFollowsAddsDeletesAndRenames() {
+        BankAccountTable table = new BankAccountTable();
+        TreeSet<String> expected = new TreeSet<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 5_000; i++) {
+            String number = "ACC" + random.nextInt(100_000);
+            table.addAccount(new BankAccount(i, "SBI", number, true));
+            expected.add(number);
+        }
+        table.addAccount(new BankAccount(0, "SBI", "खाता-1", true));
+        expected.add("खाता-1");
+        for (String number : new ArrayList<>(expected).subList(0, 1_000)) {
+            table.deleteAccount(number);
+            expected.remove(number);
+        }
+        String first = expected.first();
+        table.getAccountByNumber(first).setAccountNumber("ZZZ");
+        expected.remove(first);
+        expected.add("ZZZ");
+
+        List<String> paged = new ArrayList<>();
+        String after = null;
+        List<BankAccount> page;
+        while (!(page = table.getAccountsAfter(after, 300)).isEmpty()) {
+            for (BankAccount account : page) {
+                paged.add(account.getAccountNumber());
+            }
+            after = paged.get(paged.size() - 1);
+        }
+        assertEquals(new ArrayList<>(expected), paged);
+        assertEquals(List.of("ZZZ", "खाता-1"), accountNumbers(table.getAccountsAfter("ACC99999", 10)));
+    }
+
+    @Test
+    public void testGrowthDeletionAndReAdd() {
+        BankAccountTable table = new BankAccountTable();
+        int count = 40_000;
+        for (int i = 0; i < count; i++) {
+            BankAccount account = new BankAccount(i, i % 2 == 0 ? "SBI" : "ICICI", "ACC" + i, i % 3 == 0);
+            account.setBalancePaise(i);
+            table.addAccount(account);
+        }
+        for (int i = 0; i < count; i += 2) {
+            table.deleteAccount("ACC" + i);
+        }
+
+        for (int i = 0; i < count; i++) {
+            BankAccount account = table.getAccountByNumber("ACC" + i);
+            if (i % 2 == 0) {
+                assertNull(account, "ACC" + i);
+            } else {
+                assertEquals(i, account.getBalancePaise());
+                assertEquals("ICICI", account.getBankName());
+                assertEquals(i % 3 == 0, account.isVerified());
+            }
+        }
+        assertEquals(count / 2, table.getAllAccounts().size());
+
+        table.addAccount(new BankAccount(0, "SBI", "ACC0", true));
+        table.addAccount(new BankAccount(0, "SBI", "खाता-1", true));
+        assertNotNull(table.getAccountByNumber("ACC0"));
+        assertEquals("खाता-1", table.getAccountByNumber("खाता-1").getAccountNumber());
+
+        // 19 bytes of columns per row, plus the index, the key arena and the sorted order,
+        // whose chunks are at least half full
+        long perAccount = table.getFootprintBytes() / count;
+        assertTrue(perAccount < 54, "bytes per account " + perAccount);
+    }
+
+    @Test
+    public void testTransfersOverTheTableConserveMoney() throws Exception {
+        BankAccountTable table = new BankAccountTable();
+        for (int i = 0; i < 8; i++) {
+            BankAccount account = new BankAccount(i, "SBI", "ACC" + i, true);
+            account.setBalancePaise(100_000);
+            table.addAccount(account);
+        }
+        TransferServiceImpl service = new TransferServiceImpl(new AccountLedger(table), new TransferDaoImpl());
+        AccountLedger ledger = new AccountLedger(table);
+
+        List<Thread> payers = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            int seed = p;
+            payers.add(new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    ledger.transfer("ACC" + ((seed + i) % 8), "ACC" + ((seed + i + 3) % 8), 1 + i % 20);
+                }
+            }));
+        }
+        for (Thread payer : payers) {
+            payer.start();
+        }
+        for (Thread payer : payers) {
+            payer.join();
+        }
+        assertEquals(800_000, ledger.totalBalance());
+
+        Transfer transfer = new Transfer(0, "ACC0", "ACC1", 1.0, null, false);
+        long before = table.getAccountByNumber("ACC0").getBalancePaise();
+        service.makeTransfer(transfer);
+        assertTrue(transfer.isStatus());
+        assertEquals(before - 100, table.getAccountByNumber("ACC0").getBalancePaise());
+    }
+
+    private static List<String> accountNumbers(List<BankAccount> accounts) {
+        return accounts.stream().map(BankAccount::getAccountNumber).collect(Collectors.toList());
+    }
+}
@@ -81,4 +81,24 @@ public class BankingServiceImplTest {
         BankAccount updated = service.getAccountByNumber("ACC100");
         assertEquals(initialBalance, updated.getBalance(), 0.01);
     }
+
+    /**
+     * Tests that adding a taken account number leaves the existing account alone, and
+     * that an update keeps the balance and the stored object.
+     */
+    @Test
+    public void testAddIfAbsentAndUpdateKeepTheStoredAccount() {
+        BankAccount duplicate = new BankAccount(2, "HDFC", "ACC100", false);
+        assertFalse(service.addAccountIfAbsent(duplicate));
+        assertSame(account, service.getAccountByNumber("ACC100"));
+        assertEquals(1000.0, account.getBalance(), 0.01);
+
+        service.updateAccount(duplicate);
+        assertSame(account, service.getAccountByNumber("ACC100"));
+        assertEquals("HDFC", account.getBankName());
+        assertFalse(account.isVerified());
+        assertEquals(1000.0, account.getBalance(), 0.01);
+
+        assertTrue(service.addAccountIfAbsent(new BankAccount(1, "SBI", "ACC200", true)));
+    }
 }
@@ -0,0 +1,110 @@
+package com.ezpay.bank.service_test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ezpay.bank.dao.TransferDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.service.AccountLedger;
+import com.ezpay.bank.service.TransferServiceImpl;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stress test for the striped-lock transfer engine.
+ *
+ * Runs millions of random transfers from many threads and checks that money is
+ * neither created nor destroyed, both while the run is in progress and at the end.
+ */
+@Tag("load")
+public class ConcurrentTransferStressTest {
+
+    private static final int ACCOUNTS = 1_000;
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_PER_THREAD = 250_000;
+    private static final long OPENING_BALANCE_PAISE = 1_000_000;
+
+    @Test
+    public void testTotalMoneyIsConservedUnderConcurrentTransfers() throws Exception {
+        AccountLedger ledger = new AccountLedger();
+        TransferDaoImpl transferDao = new TransferDaoImpl();
+        TransferServiceImpl service = new TransferServiceImpl(ledger, transferDao);
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            BankAccount account = new BankAccount(i, "SBI", "ACC" + i, true);
+            account.setBalancePaise(OPENING_BALANCE_PAISE);
+            service.addAccount(account);
+        }
+        long expectedTotal = ACCOUNTS * OPENING_BALANCE_PAISE;
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong successful = new AtomicLong();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                awaitQuietly(start);
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    String sender = "ACC" + random.nextInt(ACCOUNTS);
+                    String receiver = "ACC" + random.nextInt(ACCOUNTS);
+                    // Amounts with paise; the ledger total must still be exact
+                    Transfer transfer = new Transfer(0, sender, receiver, 0, null, false);
+                    transfer.setAmountPaise(1 + random.nextInt(50_000));
+                    service.makeTransfer(transfer);
+                    if (transfer.isStatus()) {
+                        successful.incrementAndGet();
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+
+        // Auditor samples the ledger total while transfers are in flight
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Long> samples = new ArrayList<>();
+        Thread auditor = new Thread(() -> {
+            while (running.get()) {
+                samples.add(ledger.totalBalance());
+                Thread.yield();
+            }
+        });
+        auditor.start();
+
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        running.set(false);
+        auditor.join();
+
+        for (long sample : samples) {
+            assertEquals(expectedTotal, sample, "Total balance changed during the run");
+        }
+        assertEquals(expectedTotal, ledger.totalBalance(), "Total balance changed after the run");
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            assertTrue(service.getAccount("ACC" + i).getBalancePaise() >= 0, "Balance went negative");
+        }
+
+        List<Transfer> recorded = service.getAllTransfers();
+        assertEquals((long) THREADS * TRANSFERS_PER_THREAD, recorded.size(), "Every transfer should be recorded");
+        assertEquals(successful.get(), recorded.stream().filter(Transfer::isStatus).count());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
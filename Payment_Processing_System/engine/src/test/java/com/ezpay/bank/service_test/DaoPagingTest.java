@@ -0,0 +1,89 @@
+package com.ezpay.bank.service_test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ezpay.bank.dao.BankAccountDao;
+import com.ezpay.bank.dao.BankAccountDaoImpl;
+import com.ezpay.bank.dao.BankAccountTable;
+import com.ezpay.bank.dao.TransferDaoImpl;
+import com.ezpay.bank.dao.UserDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.User;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests cursor paging and walking of the transfer, user and account stores.
+ */
+public class DaoPagingTest {
+
+    @Test
+    public void testTransferPagesFollowIdOrder() {
+        TransferDaoImpl dao = new TransferDaoImpl();
+        for (int i = 0; i < 25; i++) {
+            dao.recordTransfer(new Transfer(0, "A", "B", 1.0, null, true));
+        }
+
+        List<Long> ids = new ArrayList<>();
+        List<Transfer> page = dao.getTransfersAfter(0, 10);
+        while (!page.isEmpty()) {
+            assertTrue(page.size() <= 10);
+            page.forEach(transfer -> ids.add(transfer.getTransferId()));
+            page = dao.getTransfersAfter(page.get(page.size() - 1).getTransferId(), 10);
+        }
+        assertEquals(25, ids.size());
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i) > ids.get(i - 1));
+        }
+
+        List<Transfer> walked = new ArrayList<>();
+        dao.forEachTransfer(walked::add);
+        assertEquals(dao.getAllTransfers().size(), walked.size());
+        assertTrue(dao.getTransfersAfter(0, 0).isEmpty());
+        assertTrue(dao.getTransfersAfter(-1, 10).isEmpty());
+    }
+
+    @Test
+    public void testUserPagesFollowIdOrder() {
+        UserDaoImpl dao = new UserDaoImpl();
+        for (int id : new int[] {42, 7, 19, 3}) {
+            dao.addUser(new User(id, "User " + id, "user" + id + "@example.com", new ArrayList<>()));
+        }
+
+        List<User> first = dao.getUsersAfter(Integer.MIN_VALUE, 3);
+        assertEquals(List.of(3, 7, 19), first.stream().map(User::getUserID).toList());
+        List<User> second = dao.getUsersAfter(19, 3);
+        assertEquals(1, second.size());
+        assertEquals(42, second.get(0).getUserID());
+
+        int[] count = new int[1];
+        dao.forEachUser(user -> count[0]++);
+        assertEquals(4, count[0]);
+    }
+
+    @Test
+    public void testAccountPagesFollowAccountNumberOrder() {
+        for (BankAccountDao dao : List.of(new BankAccountDaoImpl(), new BankAccountTable())) {
+            for (String number : new String[] {"ACC30", "ACC10", "ACC40", "ACC20", "ACC50"}) {
+                dao.addAccount(new BankAccount(1, "SBI", number, true));
+            }
+            dao.deleteAccount("ACC40");
+
+            List<BankAccount> first = dao.getAccountsAfter(null, 2);
+            assertEquals(List.of("ACC10", "ACC20"), first.stream().map(BankAccount::getAccountNumber).toList());
+            List<BankAccount> second = dao.getAccountsAfter("ACC20", 2);
+            assertEquals(List.of("ACC30", "ACC50"), second.stream().map(BankAccount::getAccountNumber).toList());
+            assertTrue(dao.getAccountsAfter("ACC50", 2).isEmpty());
+            assertEquals(List.of("ACC30"),
+                    dao.getAccountsAfter("ACC25", 1).stream().map(BankAccount::getAccountNumber).toList());
+
+            List<BankAccount> walked = new ArrayList<>();
+            dao.forEachAccount(walked::add);
+            assertEquals(4, walked.size());
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.ezpay.bank.service_test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ezpay.bank.dao.DurableStore;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.User;
+import com.ezpay.bank.service.AccountLedger;
+import com.ezpay.bank.service.TransferServiceImpl;
+import com.ezpay.bank.service.UPIPaymentServiceImpl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests recovery of accounts, balances and transfers from the transfer journal and snapshots.
+ */
+public class DurableStoreTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Balances and transfer history survive a restart.
+     */
+    @Test
+    public void testStateIsRecoveredAfterRestart() throws IOException {
+        Path journal = dir.resolve("ezpay");
+
+        try (DurableStore store = DurableStore.open(journal)) {
+            TransferServiceImpl service = serviceOver(store);
+            service.addAccount(account("ACC123", 1000.0));
+            service.addAccount(account("ACC456", 500.0));
+
+            service.makeTransfer(new Transfer(0, "ACC123", "ACC456", 200.0, LocalDateTime.now(), false));
+            service.makeTransfer(new Transfer(0, "ACC456", "ACC123", 5000.0, LocalDateTime.now(), false));
+            store.getUpiPaymentDao().saveUPITransfer(new Transfer(424242, "ACC123", "bob@upi", 50.0, LocalDateTime.now(), true));
+        }
+
+        try (DurableStore store = DurableStore.open(journal)) {
+            TransferServiceImpl service = serviceOver(store);
+            assertEquals(800.0, service.getAccount("ACC123").getBalance(), 0.001);
+            assertEquals(700.0, service.getAccount("ACC456").getBalance(), 0.001);
+
+            List<Transfer> transfers = service.getAllTransfers();
+            assertEquals(2, transfers.size());
+            assertTrue(transfers.get(0).isStatus());
+            assertFalse(transfers.get(1).isStatus());
+
+            // New transfers continue after the recovered ID high-water mark
+            Transfer next = new Transfer(0, "ACC123", "ACC456", 1.0, LocalDateTime.now(), false);
+            service.makeTransfer(next);
+            assertEquals(3L, next.getTransferId());
+
+            assertEquals(1, store.getUpiPaymentDao().getTransfersBySender("ACC123").size());
+        }
+    }
+
+    /**
+     * A torn record at the end of the journal is cut off and earlier records are kept.
+     */
+    @Test
+    public void testTornTailIsDiscarded() throws IOException {
+        Path journal = dir.resolve("torn");
+        Path segment = DurableStore.segmentFile(journal, 1);
+
+        try (DurableStore store = DurableStore.open(journal)) {
+            TransferServiceImpl service = serviceOver(store);
+            service.addAccount(account("ACC1", 100.0));
+            service.addAccount(account("ACC2", 100.0));
+            service.makeTransfer(new Transfer(0, "ACC1", "ACC2", 40.0, LocalDateTime.now(), false));
+        }
+        long intactSize = Files.size(segment);
+        Files.write(segment, new byte[] {0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (DurableStore store = DurableStore.open(journal)) {
+            TransferServiceImpl service = serviceOver(store);
+            assertEquals(60.0, service.getAccount("ACC1").getBalance(), 0.001);
+            assertEquals(140.0, service.getAccount("ACC2").getBalance(), 0.001);
+        }
+        assertEquals(intactSize, Files.size(segment), "Torn tail should be truncated");
+    }
+
+    /**
+     * Concurrent writers share fsyncs through group commit without losing records.
+     */
+    @Test
+    public void testConcurrentWritersAreAllRecovered() throws Exception {
+        Path journal = dir.resolve("concurrent");
+        int threads = 4;
+        int transfersPerThread = 500;
+
+        try (DurableStore store = DurableStore.open(journal)) {
+            TransferServiceImpl service = serviceOver(store);
+            service.addAccount(account("ACC1", 1_000_000.0));
+            service.addAccount(account("ACC2", 0.0));
+
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Thread writer = new Thread(() -> {
+                    for (int i = 0; i < transfersPerThread; i++) {
+                        service.makeTransfer(new Transfer(0, "ACC1", "ACC2", 1.0, LocalDateTime.now(), false));
+                    }
+                });
+                writers.add(writer);
+                writer.start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+        }
+
+        try (DurableStore store = DurableStore.open(journal)) {
+            TransferServiceImpl service = serviceOver(store);
+            assertEquals(threads * transfersPerThread, service.getAllTransfers().size());
+            assertEquals(threads * transfersPerThread, service.getAccount("ACC2").getBalance(), 0.001);
+        }
+    }
+
+    /**
+     * A batch is journaled as a whole and recovered with its balances.
+     */
+    @Test
+    public void testBatchIsRecoveredAfterRestart() throws IOException {
+        Path journal = dir.resolve("batch");
+
+        try (DurableStore store = DurableStore.open(journal)) {
+            TransferServiceImpl service = serviceOver(store);
+            service.addAccount(account("ACC1", 1000.0));
+            service.addAccount(account("ACC2", 0.0));
+            List<Transfer> batch = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                batch.add(new Transfer(0, "ACC1", "ACC2", 1.5, null, false));
+            }
+            service.makeTransfers(batch);
+        }
+
+        try (DurableStore store = DurableStore.open(journal)) {
+            TransferServiceImpl service = serviceOver(store);
+            assertEquals(1000, service.getAllTransfers().size());
+            assertEquals(666, service.getAllTransfers().stream().filter(Transfer::isStatus).count());
+            assertEquals(1.0, service.getAccount("ACC1").getBalance(), 0.001);
+            assertEquals(999.0, service.getAccount("ACC2").getBalance(), 0.001);
+        }
+    }
+
+    /**
+     * UPI handle links and the balances moved by UPI payments survive a snapshot and a restart.
+     */
+    @Test
+    public void testUpiLinksAndBalancesAreRecovered() throws IOException {
+        Path journal = dir.resolve("upi");
+
+        try (DurableStore store = DurableStore.open(journal)) {
+            UPIPaymentServiceImpl upi = upiOver(store);
+            store.getBankAccountDao().addAccount(account("ACC1", 100.0));
+            store.getBankAccountDao().addAccount(account("ACC2", 0.0));
+            upi.linkUpiId("bob@ybl", "ACC2");
+            upi.makeUPIPayment(new Transfer(0, "ACC1", "bob@ybl", 30.0, null, false));
+            store.snapshot();
+            upi.linkUpiId("alice@okaxis", "ACC1");
+            upi.makeUPIPayment(new Transfer(0, "alice@okaxis", "bob@ybl", 20.0, null, false));
+        }
+
+        try (DurableStore store = DurableStore.open(journal)) {
+            assertEquals("ACC2", store.getBankAccountDao().getAccountByUpiHandle("bob@ybl").getAccountNumber());
+            assertEquals("ACC1", store.getBankAccountDao().getAccountByUpiHandle("alice@okaxis").getAccountNumber());
+            assertEquals(50.0, store.getBankAccountDao().getAccountByNumber("ACC1").getBalance(), 0.001);
+            assertEquals(50.0, store.getBankAccountDao().getAccountByNumber("ACC2").getBalance(), 0.001);
+        }
+    }
+
+    /**
+     * An account update journaled after a transfer has moved the balance but before the
+     * transfer itself was journaled does not make replay apply the transfer twice, with or
+     * without a snapshot in between.
+     */
+    @Test
+    public void testAccountUpdateBetweenApplyAndRecordIsNotDoubleCounted() throws IOException {
+        Path journal = dir.resolve("update-gap");
+
+        try (DurableStore store = DurableStore.open(journal)) {
+            AccountLedger ledger = new AccountLedger(store.getBankAccountDao());
+            ledger.addAccount(account("ACC1", 100.0));
+            ledger.addAccount(account("ACC2", 0.0));
+
+            // The ledger moves the money, an update is journaled, then the transfer is recorded
+            assertTrue(ledger.transfer("ACC1", "ACC2", 4_000));
+            BankAccount details = new BankAccount(9, "HDFC", "ACC1", false);
+            details.setBalance(12_345.0);
+            store.getBankAccountDao().updateAccount(details);
+            Transfer transfer = new Transfer(0, "ACC1", "ACC2", 40.0, LocalDateTime.now(), true);
+            store.getTransferDao().recordTransfer(transfer);
+
+            BankAccount live = store.getBankAccountDao().getAccountByNumber("ACC1");
+            assertEquals(60.0, live.getBalance(), 0.001, "an update never sets the balance");
+            assertEquals("HDFC", live.getBankName());
+        }
+
+        for (int restart = 0; restart < 2; restart++) {
+            try (DurableStore store = DurableStore.open(journal)) {
+                BankAccount recovered = store.getBankAccountDao().getAccountByNumber("ACC1");
+                assertEquals(60.0, recovered.getBalance(), 0.001);
+                assertEquals(40.0, store.getBankAccountDao().getAccountByNumber("ACC2").getBalance(), 0.001);
+                assertEquals(9, recovered.getBankid());
+                assertEquals("HDFC", recovered.getBankName());
+                assertFalse(recovered.isVerified());
+                // The second restart reads the same state back from a snapshot
+                store.snapshot();
+            }
+        }
+    }
+
+    /**
+     * After a snapshot, startup loads the snapshot and replays only the newer segment,
+     * while transfers made during the snapshot are kept.
+     */
+    @Test
+    public void testSnapshotTruncatesJournalAndKeepsState() throws Exception {
+        Path journal = dir.resolve("snapshots");
+
+        try (DurableStore store = DurableStore.open(journal)) {
+            TransferServiceImpl service = serviceOver(store);
+            store.getUserDao().addUser(new User(7, "Meera", "meera@example.com", new ArrayList<>(List.of("ACC1"))));
+            service.addAccount(account("ACC1", 1000.0));
+            service.addAccount(account("ACC2", 0.0));
+            for (int i = 0; i < 100; i++) {
+                service.makeTransfer(new Transfer(0, "ACC1", "ACC2", 1.0, LocalDateTime.now(), false));
+            }
+
+            // Keep transferring while the snapshot is taken
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    service.makeTransfer(new Transfer(0, "ACC1", "ACC2", 1.0, LocalDateTime.now(), false));
+                }
+            });
+            writer.start();
+            store.snapshot();
+            writer.join();
+        }
+
+        assertFalse(Files.exists(DurableStore.segmentFile(journal, 1)), "Compacted segment should be retired");
+
+        try (DurableStore store = DurableStore.open(journal)) {
+            TransferServiceImpl service = serviceOver(store);
+            assertEquals(800.0, service.getAccount("ACC1").getBalance(), 0.001);
+            assertEquals(200.0, service.getAccount("ACC2").getBalance(), 0.001);
+            assertEquals("Meera", store.getUserDao().getUserById(7).getUserName());
+            assertEquals(List.of("ACC1"), store.getUserDao().getUserById(7).getAccounts());
+
+            // Totals up to the snapshot come from it, the rest from the replayed segment
+            assertEquals(200, store.getTransferDao().getTotals("ACC1").succeeded());
+            assertEquals(20_000, store.getTransferDao().getTotals("ACC2").receivedPaise());
+            assertEquals(20_000, store.getTransferDao().getDailyVolumePaise(null, LocalDate.now()));
+
+            Transfer next = new Transfer(0, "ACC1", "ACC2", 1.0, LocalDateTime.now(), false);
+            service.makeTransfer(next);
+            assertEquals(201L, next.getTransferId(), "IDs should continue after the snapshot high-water mark");
+        }
+    }
+
+    /**
+     * A background snapshot that fails is counted and its cause kept, and later snapshots
+     * are still attempted.
+     */
+    @Test
+    public void testFailedBackgroundSnapshotsAreReported() throws Exception {
+        Path journal = dir.resolve("failing");
+
+        try (DurableStore store = DurableStore.open(journal)) {
+            assertEquals(0, store.getSnapshotFailureCount());
+            assertNull(store.getLastSnapshotFailure());
+
+            // Rolling the journal needs a new segment file in the store directory
+            try (var files = Files.list(journal)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(journal);
+            store.startSnapshots(Duration.ofMillis(10));
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (store.getSnapshotFailureCount() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(store.getSnapshotFailureCount() >= 2, "snapshots should keep being retried");
+            assertInstanceOf(IOException.class, store.getLastSnapshotFailure());
+        }
+    }
+
+    private static TransferServiceImpl serviceOver(DurableStore store) {
+        return new TransferServiceImpl(new AccountLedger(store.getBankAccountDao()), store.getTransferDao());
+    }
+
+    private static UPIPaymentServiceImpl upiOver(DurableStore store) {
+        return new UPIPaymentServiceImpl(store.getUpiPaymentDao(), store.getBankAccountDao(), serviceOver(store));
+    }
+
+    private static BankAccount account(String number, double balance) {
+        BankAccount account = new BankAccount(1, "SBI", number, true);
+        account.setBalance(balance);
+        return account;
+    }
+}
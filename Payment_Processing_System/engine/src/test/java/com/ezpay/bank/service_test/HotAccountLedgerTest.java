@@ -0,0 +1,115 @@
+package com.ezpay.bank.service_test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ezpay.bank.dao.BankAccountDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
+import com.ezpay.bank.service.AccountLedger;
+import com.ezpay.bank.service.HotAccountDetector;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for sharded hot-account balances in the AccountLedger.
+ */
+public class HotAccountLedgerTest {
+
+    private static final int PAYERS = 8;
+    private static final long OPENING_BALANCE_PAISE = 1_000_000;
+
+    private BankAccountDaoImpl accounts;
+
+    @BeforeEach
+    public void setUp() {
+        accounts = new BankAccountDaoImpl();
+        accounts.addAccount(new BankAccount(0, "HDFC", "MERCHANT", true));
+        for (int i = 1; i <= PAYERS; i++) {
+            BankAccount payer = new BankAccount(i, "SBI", "PAYER" + i, true);
+            payer.setBalancePaise(OPENING_BALANCE_PAISE);
+            accounts.addAccount(payer);
+        }
+    }
+
+    @Test
+    public void testConcurrentCreditsToShardedAccountAreNotLost() throws Exception {
+        AccountLedger ledger = new AccountLedger(accounts);
+        assertTrue(ledger.markHot("MERCHANT"));
+        assertFalse(ledger.markHot("UNKNOWN"));
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 1; i <= PAYERS; i++) {
+            String payer = "PAYER" + i;
+            threads.add(new Thread(() -> {
+                for (int n = 0; n < 10_000; n++) {
+                    assertTrue(ledger.transfer(payer, "MERCHANT", 10));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(PAYERS * 100_000L, accounts.getAccountByNumber("MERCHANT").getBalancePaise());
+        assertEquals(PAYERS * OPENING_BALANCE_PAISE, ledger.totalBalance());
+    }
+
+    @Test
+    public void testDebitFromShardedAccountUsesWholeBalance() {
+        AccountLedger ledger = new AccountLedger(accounts);
+        ledger.markHot("MERCHANT");
+        for (int i = 1; i <= PAYERS; i++) {
+            ledger.transfer("PAYER" + i, "MERCHANT", 1_000);
+        }
+
+        // The credits sit in slots, yet they show in the balance and a debit can spend all of them and no more
+        assertEquals(PAYERS * 10.0, accounts.getAccountByNumber("MERCHANT").getBalance(), 0.001);
+        assertFalse(ledger.transfer("MERCHANT", "PAYER1", PAYERS * 1_000 + 1));
+        assertTrue(ledger.transfer("MERCHANT", "PAYER1", PAYERS * 1_000));
+        assertEquals(0, accounts.getAccountByNumber("MERCHANT").getBalancePaise());
+
+        List<Transfer> batch = List.of(new Transfer(0, "PAYER2", "MERCHANT", 5.0, null, false),
+                new Transfer(0, "MERCHANT", "PAYER3", 5.0, null, false),
+                new Transfer(0, "MERCHANT", "PAYER3", 0.01, null, false));
+        TransferResult[] results = ledger.transferAll(batch);
+        assertArrayEquals(new TransferResult[] { TransferResult.APPLIED, TransferResult.APPLIED,
+                TransferResult.INSUFFICIENT_FUNDS }, results);
+    }
+
+    @Test
+    public void testSetBalanceOnShardedAccount() {
+        BankAccount account = accounts.getAccountByNumber("MERCHANT");
+        account.shardBalance(4);
+        account.creditPaise(700);
+        assertEquals(700, account.getBalancePaise());
+
+        account.setBalancePaise(250);
+        assertEquals(250, account.getBalancePaise());
+        assertTrue(account.isSharded());
+    }
+
+    @Test
+    public void testDetectorShardsFrequentlyCreditedAccount() {
+        // One credit a second over five seconds, counting every credit: the fifth makes it hot
+        HotAccountDetector detector = new HotAccountDetector(1, 5_000, 1);
+        AccountLedger ledger = new AccountLedger(accounts, 64, detector);
+
+        for (int n = 0; n < 4; n++) {
+            ledger.transfer("PAYER1", "MERCHANT", 1);
+        }
+        assertFalse(accounts.getAccountByNumber("MERCHANT").isSharded());
+
+        ledger.transfer("PAYER1", "MERCHANT", 1);
+        assertTrue(accounts.getAccountByNumber("MERCHANT").isSharded());
+        assertFalse(accounts.getAccountByNumber("PAYER2").isSharded());
+        assertEquals(5, accounts.getAccountByNumber("MERCHANT").getBalancePaise());
+    }
+}
@@ -0,0 +1,288 @@
+package com.ezpay.bank.service_test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ezpay.bank.dao.BankAccountDao;
+import com.ezpay.bank.dao.BankAccountDaoImpl;
+import com.ezpay.bank.dao.DurableStore;
+import com.ezpay.bank.dao.IdempotencyCache;
+import com.ezpay.bank.dao.TransferDaoImpl;
+import com.ezpay.bank.dao.UPIPaymentDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.service.AccountLedger;
+import com.ezpay.bank.service.TransactionIdGenerator;
+import com.ezpay.bank.service.TransferServiceImpl;
+import com.ezpay.bank.service.UPIPaymentServiceImpl;
+import com.ezpay.bank.service.UpiIdValidator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests that retried transfers and UPI payments carrying an idempotency key move money only once.
+ */
+public class IdempotencyTest {
+
+    @TempDir
+    Path dir;
+
+    private BankAccountDao accounts;
+    private TransferServiceImpl transferService;
+    private UPIPaymentServiceImpl upiService;
+
+    @BeforeEach
+    public void setUp() {
+        accounts = new BankAccountDaoImpl();
+        transferService = new TransferServiceImpl(new AccountLedger(accounts), new TransferDaoImpl());
+        upiService = new UPIPaymentServiceImpl(new UPIPaymentDaoImpl(), accounts, transferService);
+
+        accounts.addAccount(account("ACC1", 1000.0));
+        accounts.addAccount(account("ACC2", 0.0));
+        assertTrue(upiService.linkUpiId("bob@ybl", "ACC2"));
+    }
+
+    /**
+     * A retried transfer gets the first transfer's ID and does not move money again.
+     */
+    @Test
+    public void testRetriedTransferIsAppliedOnce() {
+        Transfer first = keyed("ACC1", "ACC2", 100.0, "order-1");
+        transferService.makeTransfer(first);
+        Transfer retry = keyed("ACC1", "ACC2", 100.0, "order-1");
+        transferService.makeTransfer(retry);
+
+        assertTrue(retry.isStatus());
+        assertEquals(first.getTransferId(), retry.getTransferId());
+        assertEquals(first.getTransferDateTime(), retry.getTransferDateTime());
+        assertEquals(900.0, accounts.getAccountByNumber("ACC1").getBalance(), 0.001);
+        assertEquals(1, transferService.getAllTransfers().size());
+
+        // Transfers without a key are never deduplicated
+        transferService.makeTransfer(new Transfer(0, "ACC1", "ACC2", 100.0, null, false));
+        transferService.makeTransfer(new Transfer(0, "ACC1", "ACC2", 100.0, null, false));
+        assertEquals(700.0, accounts.getAccountByNumber("ACC1").getBalance(), 0.001);
+    }
+
+    /**
+     * Reusing a key for a different payload is rejected.
+     */
+    @Test
+    public void testKeyReusedForDifferentTransferIsRejected() {
+        transferService.makeTransfer(keyed("ACC1", "ACC2", 100.0, "order-1"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> transferService.makeTransfer(keyed("ACC1", "ACC2", 200.0, "order-1")));
+        assertEquals(900.0, accounts.getAccountByNumber("ACC1").getBalance(), 0.001);
+    }
+
+    /**
+     * Duplicates arriving at the same time are applied once; the others wait for the first.
+     */
+    @Test
+    public void testConcurrentDuplicatesAreAppliedOnce() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Transfer> attempts = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Transfer attempt = keyed("ACC1", "ACC2", 10.0, "order-1");
+            attempts.add(attempt);
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                transferService.makeTransfer(attempt);
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(990.0, accounts.getAccountByNumber("ACC1").getBalance(), 0.001);
+        assertEquals(1, transferService.getAllTransfers().size());
+        for (Transfer attempt : attempts) {
+            assertEquals(attempts.get(0).getTransferId(), attempt.getTransferId());
+        }
+    }
+
+    /**
+     * A retried UPI payment returns the original transaction ID; a failed one may be retried.
+     */
+    @Test
+    public void testRetriedUpiPaymentIsAppliedOnce() {
+        Transfer failed = keyed("ACC1", "bob@ybl", 5000.0, "pay-1");
+        assertEquals("Insufficient balance.", upiService.makeUPIPayment(failed));
+
+        Transfer first = keyed("ACC1", "bob@ybl", 250.0, "pay-2");
+        String message = upiService.makeUPIPayment(first);
+        Transfer retry = keyed("ACC1", "BOB@ybl", 250.0, "pay-2");
+
+        assertEquals(message, upiService.makeUPIPayment(retry));
+        assertEquals(first.getTransferId(), retry.getTransferId());
+        assertEquals("bob@ybl", retry.getReceiverAccountNumber());
+        assertEquals(750.0, accounts.getAccountByNumber("ACC1").getBalance(), 0.001);
+        assertEquals(1, upiService.getTransfersBySender("ACC1").size());
+
+        // The failed key ran nothing, so a retry after a top-up goes through
+        accounts.getAccountByNumber("ACC1").setBalance(5750.0);
+        upiService.makeUPIPayment(keyed("ACC1", "bob@ybl", 5000.0, "pay-1"));
+        assertEquals(2, upiService.getTransfersBySender("ACC1").size());
+    }
+
+    /**
+     * Keys are recovered from the journal and from snapshots, so a retry after a restart
+     * is still recognized.
+     */
+    @Test
+    public void testKeysSurviveRestart() throws IOException {
+        Path journal = dir.resolve("ezpay");
+        long firstId;
+        long upiId;
+
+        try (DurableStore store = DurableStore.open(journal)) {
+            TransferServiceImpl service = serviceOver(store);
+            service.addAccount(account("ACC1", 1000.0));
+            service.addAccount(account("ACC2", 0.0));
+            UPIPaymentServiceImpl upi = upiOver(store, service);
+            assertTrue(upi.linkUpiId("bob@ybl", "ACC2"));
+
+            Transfer first = keyed("ACC1", "ACC2", 100.0, "order-1");
+            service.makeTransfer(first);
+            firstId = first.getTransferId();
+            store.snapshot();
+
+            Transfer payment = keyed("ACC1", "bob@ybl", 50.0, "pay-1");
+            upi.makeUPIPayment(payment);
+            upiId = payment.getTransferId();
+        }
+
+        try (DurableStore store = DurableStore.open(journal)) {
+            TransferServiceImpl service = serviceOver(store);
+            UPIPaymentServiceImpl upi = upiOver(store, service);
+
+            Transfer retry = keyed("ACC1", "ACC2", 100.0, "order-1");
+            service.makeTransfer(retry);
+            assertEquals(firstId, retry.getTransferId());
+
+            Transfer paymentRetry = keyed("ACC1", "bob@ybl", 50.0, "pay-1");
+            upi.makeUPIPayment(paymentRetry);
+            assertEquals(upiId, paymentRetry.getTransferId());
+
+            assertEquals(850.0, service.getAccount("ACC1").getBalance(), 0.001);
+        }
+    }
+
+    /**
+     * A UPI payment whose settlement was journaled but whose own record was lost is still
+     * recognized after a restart: the retry saves the record once and moves no money.
+     */
+    @Test
+    public void testUpiRetryAfterLostPaymentRecordPaysOnce() throws IOException {
+        Path journal = dir.resolve("lost-record");
+
+        try (DurableStore store = DurableStore.open(journal)) {
+            TransferServiceImpl service = serviceOver(store);
+            service.addAccount(account("ACC1", 1000.0));
+            service.addAccount(account("ACC2", 0.0));
+            assertTrue(upiOver(store, service).linkUpiId("bob@ybl", "ACC2"));
+
+            // The process dies after the settlement is journaled, before the payment is saved
+            UPIPaymentServiceImpl crashing = new UPIPaymentServiceImpl(new UPIPaymentDaoImpl() {
+                @Override
+                public boolean saveUPITransfer(Transfer transfer) {
+                    throw new IllegalStateException("crashed");
+                }
+            }, store.getBankAccountDao(), service, new TransactionIdGenerator(), new UpiIdValidator(),
+                    store.getUpiIdempotencyCache());
+            assertThrows(IllegalStateException.class,
+                    () -> crashing.makeUPIPayment(keyed("ACC1", "bob@ybl", 50.0, "pay-lost")));
+        }
+
+        long paymentId;
+        try (DurableStore store = DurableStore.open(journal)) {
+            TransferServiceImpl service = serviceOver(store);
+            UPIPaymentServiceImpl upi = upiOver(store, service);
+            assertEquals(950.0, service.getAccount("ACC1").getBalance(), 0.001);
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> upi.makeUPIPayment(keyed("ACC1", "bob@ybl", 60.0, "pay-lost")));
+            Transfer retry = keyed("ACC1", "BOB@ybl", 50.0, "pay-lost");
+            upi.makeUPIPayment(retry);
+            assertTrue(retry.isStatus());
+            paymentId = retry.getTransferId();
+
+            assertEquals(950.0, service.getAccount("ACC1").getBalance(), 0.001);
+            assertEquals(1, upi.getTransfersByReceiver("bob@ybl").size());
+        }
+
+        try (DurableStore store = DurableStore.open(journal)) {
+            TransferServiceImpl service = serviceOver(store);
+            UPIPaymentServiceImpl upi = upiOver(store, service);
+            Transfer retry = keyed("ACC1", "bob@ybl", 50.0, "pay-lost");
+            upi.makeUPIPayment(retry);
+            assertEquals(paymentId, retry.getTransferId());
+            assertEquals(950.0, service.getAccount("ACC1").getBalance(), 0.001);
+            assertEquals(50.0, service.getAccount("ACC2").getBalance(), 0.001);
+        }
+    }
+
+    /**
+     * The cache drops its oldest keys once full and ignores restored results past their time to live.
+     */
+    @Test
+    public void testCacheIsBounded() {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(2, Duration.ofMinutes(1));
+        AtomicInteger runs = new AtomicInteger();
+
+        cache.execute("a", () -> "A" + runs.incrementAndGet());
+        cache.execute("b", () -> "B" + runs.incrementAndGet());
+        cache.execute("c", () -> "C" + runs.incrementAndGet());
+        assertEquals(2, cache.size());
+        assertNull(cache.get("a"));
+        assertEquals("C3", cache.execute("c", () -> "C" + runs.incrementAndGet()));
+
+        cache.restore("old", "OLD", System.currentTimeMillis() - Duration.ofMinutes(2).toMillis());
+        assertNull(cache.get("old"));
+
+        // A failed action leaves nothing behind
+        assertThrows(IllegalStateException.class, () -> cache.execute("d", () -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals("D4", cache.execute("d", () -> "D" + runs.incrementAndGet()));
+    }
+
+    private static TransferServiceImpl serviceOver(DurableStore store) {
+        return new TransferServiceImpl(new AccountLedger(store.getBankAccountDao()), store.getTransferDao(),
+                store.getTransferIdempotencyCache());
+    }
+
+    private static UPIPaymentServiceImpl upiOver(DurableStore store, TransferServiceImpl service) {
+        return new UPIPaymentServiceImpl(store.getUpiPaymentDao(), store.getBankAccountDao(), service,
+                new TransactionIdGenerator(), new UpiIdValidator(), store.getUpiIdempotencyCache());
+    }
+
+    private static Transfer keyed(String sender, String receiver, double amount, String key) {
+        Transfer transfer = new Transfer(0, sender, receiver, amount, null, false);
+        transfer.setIdempotencyKey(key);
+        return transfer;
+    }
+
+    private static BankAccount account(String number, double balance) {
+        BankAccount account = new BankAccount(1, "SBI", number, true);
+        account.setBalance(balance);
+        return account;
+    }
+}
@@ -0,0 +1,228 @@
+package com.ezpay.bank.service_test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ezpay.bank.dao.BankAccountDao;
+import com.ezpay.bank.dao.BankAccountDaoImpl;
+import com.ezpay.bank.dao.IdempotencyCache;
+import com.ezpay.bank.dao.TransferDaoImpl;
+import com.ezpay.bank.dao.UPIPaymentDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
+import com.ezpay.bank.service.AccountLedger;
+import com.ezpay.bank.service.RiskGate;
+import com.ezpay.bank.service.RiskScorer;
+import com.ezpay.bank.service.RuleBasedRiskScorer;
+import com.ezpay.bank.service.TransactionIdGenerator;
+import com.ezpay.bank.service.TransferPipeline;
+import com.ezpay.bank.service.TransferServiceImpl;
+import com.ezpay.bank.service.UPIPaymentServiceImpl;
+import com.ezpay.bank.service.UpiIdValidator;
+import com.ezpay.bank.service.VelocityLimiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the rule-based risk scorer, the risk gate's time budget and policies, and the
+ * gate's use on the transfer and UPI paths.
+ */
+public class RiskScoringTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * Each rule adds its points: a new receiver, an unusual amount once there is enough
+     * history, and a burst of attempts.
+     */
+    @Test
+    public void testRules() {
+        RuleBasedRiskScorer scorer = new RuleBasedRiskScorer();
+        // Attempts ten minutes apart have decayed away before the next one
+        long now = System.currentTimeMillis();
+
+        assertEquals(RuleBasedRiskScorer.NEW_RECEIVER_POINTS, scorer.score("ACC1", "ACC2", 1_000, now));
+        long[] history = {900, 950, 1_000, 1_050};
+        for (long amount : history) {
+            scorer.record("ACC1", "ACC2", amount, now);
+            now += 10 * MINUTE;
+            assertEquals(0, scorer.score("ACC1", "ACC2", 100_000, now), "too little history to judge amounts");
+        }
+        scorer.record("ACC1", "ACC2", 1_100, now);
+
+        // Mean 1,000, deviation raised to the ₹1 floor
+        now += 10 * MINUTE;
+        assertEquals(0, scorer.score("ACC1", "ACC2", 1_150, now));
+        now += 10 * MINUTE;
+        assertEquals(RuleBasedRiskScorer.HIGH_AMOUNT_POINTS / 2, scorer.score("ACC1", "ACC2", 1_200, now));
+        now += 10 * MINUTE;
+        assertEquals(RuleBasedRiskScorer.HIGH_AMOUNT_POINTS, scorer.score("ACC1", "ACC2", 1_300, now));
+        now += 10 * MINUTE;
+        assertTrue(scorer.score("ACC1", "ACC3", 1_300, now) >= RiskGate.DEFAULT_THRESHOLD,
+                "a large payment to a new receiver is declined by default");
+
+        // Declined payments were not learnt, and other senders have their own history
+        now += 10 * MINUTE;
+        assertEquals(0, scorer.score("ACC1", "ACC2", 1_000, now));
+        assertEquals(RuleBasedRiskScorer.NEW_RECEIVER_POINTS, scorer.score("ACC9", "ACC2", 1_000, now));
+
+        now += 10 * MINUTE;
+        int score = 0;
+        for (int i = 0; i <= RuleBasedRiskScorer.BURST_ATTEMPTS; i++) {
+            score = scorer.score("ACC1", "ACC2", 1_000, now);
+        }
+        assertEquals(RuleBasedRiskScorer.BURST_POINTS, score);
+        assertEquals(0, scorer.score("ACC1", "ACC2", 1_000, now + 10 * MINUTE), "the burst decays");
+    }
+
+    /**
+     * A scorer that fails or overruns its budget is not trusted: fail-open admits the
+     * payment and fail-closed declines it.
+     */
+    @Test
+    public void testPoliciesForUnscoredPayments() {
+        RiskScorer failing = (sender, receiver, amount, now) -> {
+            throw new IllegalStateException("scorer down");
+        };
+        RiskScorer slow = (sender, receiver, amount, now) -> {
+            long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1);
+            while (System.nanoTime() < until) {
+                Thread.onSpinWait();
+            }
+            return RiskScorer.MIN_SCORE;
+        };
+        long now = System.currentTimeMillis();
+
+        RiskGate open = new RiskGate(failing, RiskGate.DEFAULT_THRESHOLD, 1, RiskGate.Policy.FAIL_OPEN);
+        assertTrue(open.admit("ACC1", "ACC2", 100, now));
+        RiskGate closed = new RiskGate(failing, RiskGate.DEFAULT_THRESHOLD, 1, RiskGate.Policy.FAIL_CLOSED);
+        assertFalse(closed.admit("ACC1", "ACC2", 100, now));
+        assertEquals(1, closed.getFailureCount());
+        assertEquals(1, closed.getDeclinedCount());
+
+        open = new RiskGate(slow, RiskGate.DEFAULT_THRESHOLD, 1, RiskGate.Policy.FAIL_OPEN);
+        assertTrue(open.admit("ACC1", "ACC2", 100, now));
+        assertEquals(1, open.getOverBudgetCount());
+        assertEquals(0, open.getDeclinedCount());
+        closed = new RiskGate(slow, RiskGate.DEFAULT_THRESHOLD, 1, RiskGate.Policy.FAIL_CLOSED);
+        assertFalse(closed.admit("ACC1", "ACC2", 100, now));
+        assertEquals(1, closed.getOverBudgetCount());
+        assertTrue(closed.getLatency().getMax() >= TimeUnit.MILLISECONDS.toNanos(1));
+
+        RiskGate scored = new RiskGate((sender, receiver, amount, at) -> amount > 500 ? 80 : 10,
+                RiskGate.DEFAULT_THRESHOLD, TimeUnit.SECONDS.toMicros(1), RiskGate.Policy.FAIL_CLOSED);
+        assertTrue(scored.admit("ACC1", "ACC2", 500, now));
+        assertFalse(scored.admit("ACC1", "ACC2", 501, now));
+        assertThrows(IllegalArgumentException.class, () -> new RiskGate(slow, 70, 0, RiskGate.Policy.FAIL_OPEN));
+    }
+
+    /**
+     * The gate hands the scorer its deadline, and a scorer that gives up there is treated
+     * as over budget whatever it returns.
+     */
+    @Test
+    public void testScorerCanGiveUpAtTheDeadline() {
+        long[] deadline = new long[1];
+        RiskScorer patient = new RiskScorer() {
+            @Override
+            public int score(String sender, String receiver, long amount, long now) {
+                throw new AssertionError("the gate should pass a deadline");
+            }
+
+            @Override
+            public int score(String sender, String receiver, long amount, long now, long deadlineNanos) {
+                deadline[0] = deadlineNanos;
+                while (System.nanoTime() - deadlineNanos < 0) {
+                    Thread.onSpinWait();
+                }
+                return RiskScorer.MAX_SCORE;
+            }
+        };
+
+        RiskGate gate = new RiskGate(patient, RiskGate.DEFAULT_THRESHOLD, 200, RiskGate.Policy.FAIL_OPEN);
+        long before = System.nanoTime();
+        assertTrue(gate.admit("ACC1", "ACC2", 100, System.currentTimeMillis()));
+        long after = System.nanoTime();
+        assertTrue(deadline[0] - before >= TimeUnit.MICROSECONDS.toNanos(200));
+        assertTrue(after - deadline[0] >= 0);
+        assertEquals(1, gate.getOverBudgetCount());
+        assertEquals(0, gate.getDeclinedCount());
+    }
+
+    /**
+     * A sender's profile survives one idle generation and is dropped after two, so the
+     * sender starts again with no history.
+     */
+    @Test
+    public void testIdleProfilesAgeOut() {
+        RuleBasedRiskScorer scorer = new RuleBasedRiskScorer();
+        long generation = TimeUnit.DAYS.toMillis(RuleBasedRiskScorer.PROFILE_GENERATION_DAYS);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < RuleBasedRiskScorer.MIN_HISTORY; i++) {
+            scorer.record("ACC1", "ACC2", 1_000, now);
+        }
+
+        now += generation;
+        assertEquals(RuleBasedRiskScorer.HIGH_AMOUNT_POINTS, scorer.score("ACC1", "ACC2", 10_000, now),
+                "the profile is carried into the next generation");
+        now += 2 * generation;
+        assertEquals(RuleBasedRiskScorer.NEW_RECEIVER_POINTS, scorer.score("ACC1", "ACC2", 10_000, now),
+                "the idle profile has been dropped");
+    }
+
+    /**
+     * Transfers the gate declines are recorded as RISK_DECLINED on the single, batch and
+     * UPI paths, and give back their reservation against the sender's limits.
+     */
+    @Test
+    public void testDeclinedTransfersOnEveryPath() throws Exception {
+        BankAccountDao accounts = new BankAccountDaoImpl();
+        accounts.addAccount(account("ACC1", 1_000.0));
+        accounts.addAccount(account("ACC2", 0.0));
+        accounts.addAccount(account("ACC3", 0.0));
+        RiskGate gate = new RiskGate((sender, receiver, amount, now) -> "ACC3".equals(receiver) ? 100 : 0,
+                RiskGate.DEFAULT_THRESHOLD, TimeUnit.SECONDS.toMicros(1), RiskGate.Policy.FAIL_OPEN);
+        TransferServiceImpl service = new TransferServiceImpl(new AccountLedger(accounts), new TransferDaoImpl(),
+                new IdempotencyCache<>(), new VelocityLimiter(new VelocityLimiter.Limits(0, 0, 50_000, 0)), gate);
+
+        Transfer risky = new Transfer(0, "ACC1", "ACC3", 300.0, null, false);
+        service.makeTransfer(risky);
+        assertFalse(risky.isStatus());
+        Transfer first = new Transfer(0, "ACC1", "ACC2", 300.0, null, false);
+        service.makeTransfer(first);
+        assertTrue(first.isStatus(), "the declined transfer should not count against the limit");
+
+        TransferResult[] results = service.makeTransfers(Arrays.asList(
+                new Transfer(0, "ACC1", "ACC3", 100.0, null, false),
+                new Transfer(0, "ACC1", "ACC2", 100.0, null, false),
+                new Transfer(0, "ACC1", "ACC2", 200.0, null, false)));
+        assertArrayEquals(new TransferResult[] {TransferResult.RISK_DECLINED, TransferResult.APPLIED,
+                TransferResult.LIMIT_EXCEEDED}, results);
+
+        try (TransferPipeline pipeline = service.startPipeline(16, 4)) {
+            assertEquals(TransferResult.RISK_DECLINED, pipeline.submit(
+                    new Transfer(0, "ACC1", "ACC3", 50.0, null, false)).get(5, TimeUnit.SECONDS));
+            assertEquals(TransferResult.APPLIED, pipeline.submit(
+                    new Transfer(0, "ACC1", "ACC2", 50.0, null, false)).get(5, TimeUnit.SECONDS));
+        }
+
+        UPIPaymentServiceImpl upiService = new UPIPaymentServiceImpl(new UPIPaymentDaoImpl(), accounts,
+                service, new TransactionIdGenerator(), new UpiIdValidator(), new IdempotencyCache<>());
+        assertTrue(upiService.linkUpiId("carol@okaxis", "ACC3"));
+        assertEquals("Payment declined by risk checks.",
+                upiService.makeUPIPayment(new Transfer(0, "ACC1", "carol@okaxis", 10.0, null, false)));
+
+        assertEquals(550.0, accounts.getAccountByNumber("ACC1").getBalance(), 0.001);
+        assertEquals(0.0, accounts.getAccountByNumber("ACC3").getBalance(), 0.001);
+        assertEquals(4, gate.getDeclinedCount());
+    }
+
+    private static BankAccount account(String number, double balance) {
+        BankAccount account = new BankAccount(1, "SBI", number, true);
+        account.setBalance(balance);
+        return account;
+    }
+}
@@ -0,0 +1,169 @@
+package com.ezpay.bank.service_test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ezpay.bank.dao.BankAccountDaoImpl;
+import com.ezpay.bank.dao.TransferDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
+import com.ezpay.bank.service.SingleWriterLedger;
+import com.ezpay.bank.service.TransferServiceImpl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests the single-writer ledger: ordering, results, conservation of money and shutdown.
+ */
+public class SingleWriterLedgerTest {
+
+    private static final int ACCOUNTS = 16;
+    private static final long OPENING_BALANCE_PAISE = 100_000;
+
+    private BankAccountDaoImpl accounts;
+    private SingleWriterLedger ledger;
+
+    @BeforeEach
+    public void setUp() {
+        accounts = new BankAccountDaoImpl();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            BankAccount account = new BankAccount(i, "SBI", "ACC" + i, true);
+            account.setBalancePaise(OPENING_BALANCE_PAISE);
+            accounts.addAccount(account);
+        }
+        // A tiny ring, so producers regularly wait for the writer to free a slot
+        ledger = new SingleWriterLedger(accounts, 8);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ledger.close();
+    }
+
+    @Test
+    public void testTransferResults() {
+        assertTrue(ledger.transfer("ACC0", "ACC1", 500));
+        assertFalse(ledger.transfer("ACC0", "ACC1", OPENING_BALANCE_PAISE));
+        assertFalse(ledger.transfer("ACC0", "NOPE", 1));
+        assertFalse(ledger.transfer("ACC0", "ACC1", 0));
+        assertEquals(OPENING_BALANCE_PAISE - 500, accounts.getAccountByNumber("ACC0").getBalancePaise());
+        assertEquals(OPENING_BALANCE_PAISE + 500, accounts.getAccountByNumber("ACC1").getBalancePaise());
+
+        List<Transfer> batch = new ArrayList<>();
+        batch.add(new Transfer(0, "ACC2", "ACC3", 10.0, null, false));
+        batch.add(null);
+        batch.add(new Transfer(0, "ACC3", "ACC2", 2_000.0, null, false));
+        batch.add(new Transfer(0, "ACC2", "GONE", 1.0, null, false));
+        assertArrayEquals(new TransferResult[] {TransferResult.APPLIED, TransferResult.INVALID,
+                TransferResult.INSUFFICIENT_FUNDS, TransferResult.UNKNOWN_ACCOUNT}, ledger.transferAll(batch));
+        assertEquals(ACCOUNTS * OPENING_BALANCE_PAISE, ledger.totalBalance());
+    }
+
+    @Test
+    public void testConcurrentProducersConserveMoney() throws Exception {
+        AtomicInteger applied = new AtomicInteger();
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < 8; p++) {
+            int seed = p;
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    int from = (seed + i) % ACCOUNTS;
+                    int to = (seed * 7 + i * 3 + 1) % ACCOUNTS;
+                    if (from != to && ledger.transfer("ACC" + from, "ACC" + to, 1 + i % 50)) {
+                        applied.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread producer : producers) {
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertTrue(applied.get() > 0);
+        assertEquals(ACCOUNTS * OPENING_BALANCE_PAISE, ledger.totalBalance());
+        for (BankAccount account : accounts.getAllAccounts()) {
+            assertTrue(account.getBalancePaise() >= 0);
+        }
+    }
+
+    @Test
+    public void testServiceOverSingleWriterLedger() {
+        TransferServiceImpl service = new TransferServiceImpl(ledger, new TransferDaoImpl());
+        Transfer transfer = new Transfer(0, "ACC4", "ACC5", 25.0, null, false);
+        service.makeTransfer(transfer);
+
+        assertTrue(transfer.isStatus());
+        assertEquals(97_500, service.getAccount("ACC4").getBalancePaise());
+        assertEquals(1, service.getAllTransfers().size());
+    }
+
+    @Test
+    public void testClosedLedgerRejectsCommands() {
+        assertTrue(ledger.transfer("ACC0", "ACC1", 1));
+        long before = ledger.getAppliedSequence();
+        ledger.close();
+
+        assertTrue(ledger.getAppliedSequence() > before);
+        assertThrows(IllegalStateException.class, () -> ledger.transfer("ACC0", "ACC1", 1));
+        assertEquals(OPENING_BALANCE_PAISE - 1, accounts.getAccountByNumber("ACC0").getBalancePaise());
+    }
+
+    /**
+     * A transfer whose credit would overflow is declined and the writer keeps going.
+     */
+    @Test
+    public void testOverflowingCreditIsDeclined() {
+        accounts.getAccountByNumber("ACC1").setBalancePaise(Long.MAX_VALUE - 10);
+        assertFalse(ledger.transfer("ACC0", "ACC1", 11));
+        assertEquals(OPENING_BALANCE_PAISE, accounts.getAccountByNumber("ACC0").getBalancePaise());
+        assertTrue(ledger.transfer("ACC0", "ACC2", 11));
+    }
+
+    /**
+     * Closing while producers are busy never applies a command whose caller was told the
+     * ledger is closed: every paisa the sink received was reported as applied.
+     */
+    @Test
+    public void testCloseDuringTrafficReportsEveryAppliedTransfer() throws Exception {
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 1; p < 9; p++) {
+            String from = "ACC" + p;
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    try {
+                        if (ledger.transfer(from, "ACC0", 1)) {
+                            applied.incrementAndGet();
+                        }
+                    } catch (IllegalStateException e) {
+                        rejected.incrementAndGet();
+                        return;
+                    }
+                }
+            }));
+        }
+        for (Thread producer : producers) {
+            producer.start();
+        }
+        while (applied.get() < 1_000) {
+            Thread.onSpinWait();
+        }
+        ledger.close();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertEquals(OPENING_BALANCE_PAISE + applied.get(), accounts.getAccountByNumber("ACC0").getBalancePaise());
+        assertTrue(rejected.get() > 0 || applied.get() == 8 * 50_000);
+    }
+}
@@ -0,0 +1,106 @@
+package com.ezpay.bank.service_test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ezpay.bank.service.TransactionIdGenerator;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Tests that UPI transaction IDs are unique and ordered under concurrent use.
+ */
+public class TransactionIdGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 1_250_000;
+
+    /**
+     * 10M IDs drawn from many threads at once contain no duplicates, and each thread
+     * sees its own IDs in increasing order.
+     */
+    @Test
+    @Tag("load")
+    public void testIdsAreUniqueAcrossThreads() throws Exception {
+        TransactionIdGenerator generator = new TransactionIdGenerator(7);
+        long[][] drawn = new long[THREADS][IDS_PER_THREAD];
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long[] ids = drawn[t];
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = generator.nextId();
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        long[] all = new long[THREADS * IDS_PER_THREAD];
+        for (int t = 0; t < THREADS; t++) {
+            for (int i = 1; i < IDS_PER_THREAD; i++) {
+                assertTrue(drawn[t][i] > drawn[t][i - 1], "IDs went backwards within a thread");
+            }
+            System.arraycopy(drawn[t], 0, all, t * IDS_PER_THREAD, IDS_PER_THREAD);
+        }
+        Arrays.sort(all);
+        assertTrue(all[0] > 0, "IDs must be positive");
+        for (int i = 1; i < all.length; i++) {
+            assertNotEquals(all[i - 1], all[i], "Duplicate transaction ID");
+        }
+        assertTrue(Arrays.stream(all).allMatch(id -> TransactionIdGenerator.nodeOf(id) == 7));
+    }
+
+    /**
+     * IDs carry the time they were issued at.
+     */
+    @Test
+    public void testIdCarriesTimestamp() {
+        long before = System.currentTimeMillis();
+        long id = new TransactionIdGenerator(3).nextId();
+        long after = System.currentTimeMillis();
+
+        assertTrue(TransactionIdGenerator.timestampOf(id) >= before);
+        // A burst may borrow a few milliseconds ahead of the clock
+        assertTrue(TransactionIdGenerator.timestampOf(id) <= after + 1);
+        assertEquals(3, TransactionIdGenerator.nodeOf(id));
+    }
+
+    /**
+     * Generators for different nodes never issue the same ID.
+     */
+    @Test
+    public void testNodesDoNotCollide() {
+        TransactionIdGenerator a = new TransactionIdGenerator(1);
+        TransactionIdGenerator b = new TransactionIdGenerator(2);
+        for (int i = 0; i < 100_000; i++) {
+            assertNotEquals(a.nextId(), b.nextId());
+        }
+    }
+
+    /**
+     * Node numbers outside the 10-bit range are rejected.
+     */
+    @Test
+    public void testInvalidNodeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TransactionIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new TransactionIdGenerator(TransactionIdGenerator.MAX_NODE + 1));
+    }
+}
@@ -0,0 +1,227 @@
+package com.ezpay.bank.service_test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ezpay.bank.dao.TransferDaoImpl;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferTotals;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for the lock-free TransferDaoImpl store.
+ */
+public class TransferDaoImplTest {
+
+    private static final int THREADS = 4;
+    private static final int TRANSFERS_PER_THREAD = 200_000;
+
+    /**
+     * IDs start at 1 and can be looked up directly.
+     */
+    @Test
+    public void testRecordAssignsSequentialIds() {
+        TransferDaoImpl dao = new TransferDaoImpl();
+        Transfer first = new Transfer(0, "ACC1", "ACC2", 10.0, null, true);
+        Transfer second = new Transfer(0, "ACC2", "ACC1", 5.0, null, true);
+
+        dao.recordTransfer(first);
+        dao.recordTransfer(second);
+
+        assertEquals(1L, first.getTransferId());
+        assertEquals(2L, second.getTransferId());
+        assertSame(second, dao.getTransferById(2L));
+        assertNull(dao.getTransferById(3L));
+        assertNull(dao.getTransferById(0L));
+    }
+
+    /**
+     * Time-range and latest queries follow transfer time, not recording order, and
+     * per-account queries include transfers the account received.
+     */
+    @Test
+    public void testTimeRangeQueries() {
+        TransferDaoImpl dao = new TransferDaoImpl();
+        LocalDateTime day = LocalDateTime.of(2025, 7, 30, 0, 0);
+        // Recorded out of time order, as a batch or concurrent callers can
+        int[] hours = {9, 3, 15, 3, 21, 12};
+        List<Transfer> batch = new ArrayList<>();
+        for (int i = 0; i < hours.length; i++) {
+            String sender = i % 2 == 0 ? "ACC1" : "ACC2";
+            batch.add(new Transfer(0, sender, "ACC3", 1.0, day.plusHours(hours[i]), true));
+        }
+        dao.recordTransfers(batch.subList(0, 3));
+        dao.recordTransfers(batch.subList(3, 6));
+        dao.recordTransfer(new Transfer(0, "ACC1", "ACC2", 1.0, null, true));
+
+        List<Transfer> morning = dao.getTransfersBetween(null, day, day.plusHours(12), 10);
+        assertEquals(List.of(batch.get(1), batch.get(3), batch.get(0)), morning);
+        assertEquals(List.of(batch.get(1)), dao.getTransfersBetween(null, day, day.plusHours(12), 1));
+        assertEquals(6, dao.getTransfersBetween(null, null, null, 10).size());
+        assertEquals(List.of(batch.get(5), batch.get(2), batch.get(4)),
+                dao.getTransfersBetween(null, day.plusHours(12), null, 10));
+
+        assertEquals(List.of(batch.get(0), batch.get(2), batch.get(4)), dao.getTransfersBetween("ACC1", day, null, 10));
+        assertEquals(6, dao.getTransfersBetween("ACC3", day, day.plusDays(1), 10).size());
+        assertTrue(dao.getTransfersBetween("NOPE", day, null, 10).isEmpty());
+        assertTrue(dao.getTransfersBetween(null, day.plusHours(5), day.plusHours(5), 10).isEmpty());
+
+        assertEquals(List.of(batch.get(4), batch.get(2)), dao.getLatestTransfers(null, 2));
+        assertEquals(List.of(batch.get(5), batch.get(3), batch.get(1)), dao.getLatestTransfers("ACC2", 5));
+        assertTrue(dao.getLatestTransfers(null, 0).isEmpty());
+    }
+
+    /**
+     * Recent transfers come newest first from both sides of a transfer, survive the ring
+     * wrapping, and fall back to the time index past the ring's capacity.
+     */
+    @Test
+    public void testRecentTransfersPerAccount() throws Exception {
+        TransferDaoImpl dao = new TransferDaoImpl();
+        LocalDateTime start = LocalDateTime.of(2025, 7, 30, 10, 0);
+        for (int i = 0; i < 40; i++) {
+            String sender = i % 2 == 0 ? "ACC1" : "ACC2";
+            String receiver = i % 2 == 0 ? "ACC2" : "ACC3";
+            dao.recordTransfer(new Transfer(0, sender, receiver, 1.0, start.plusMinutes(i), true));
+        }
+
+        List<Transfer> recent = dao.getRecentTransfers("ACC2", 5);
+        assertEquals(List.of(40L, 39L, 38L, 37L, 36L), recent.stream().map(Transfer::getTransferId).toList());
+        assertEquals(List.of(39L, 37L), dao.getRecentTransfers("ACC1", 2).stream().map(Transfer::getTransferId).toList());
+        assertEquals(20, dao.getRecentTransfers("ACC3", 100).size());
+        assertEquals(40L, dao.getRecentTransfers("ACC2", 30).get(0).getTransferId());
+        assertTrue(dao.getRecentTransfers("NOPE", 5).isEmpty());
+        assertTrue(dao.getRecentTransfers("ACC2", 0).isEmpty());
+
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    dao.recordTransfer(new Transfer(0, "HOT", "ACC" + i, 1.0, start, true));
+                }
+            }));
+        }
+        for (Thread writer : writers) {
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        List<Long> hot = dao.getRecentTransfers("HOT", 16).stream().map(Transfer::getTransferId).toList();
+        assertEquals(16, hot.size());
+        assertEquals(40L + THREADS * 10_000, hot.get(0));
+        for (int i = 1; i < hot.size(); i++) {
+            assertTrue(hot.get(i) < hot.get(i - 1));
+        }
+    }
+
+    /**
+     * Transfers read from the ring come out in the time index's date-time order even when
+     * they were recorded out of it, so a limit within the ring and one past it agree.
+     */
+    @Test
+    public void testRecentTransfersFollowTimeOrder() throws Exception {
+        TransferDaoImpl dao = new TransferDaoImpl();
+        LocalDateTime start = LocalDateTime.of(2025, 7, 30, 10, 0);
+        for (int i = 0; i < 12; i++) {
+            // Later IDs get earlier times every other transfer
+            int minutes = i % 2 == 0 ? i : 100 - i;
+            dao.recordTransfer(new Transfer(0, "ACC1", "ACC2", 1.0, start.plusMinutes(minutes), true));
+        }
+        dao.recordTransfer(new Transfer(0, "ACC1", "ACC2", 1.0, null, true));
+
+        List<Transfer> fromRing = dao.getRecentTransfers("ACC1", 16);
+        assertEquals(12, fromRing.size());
+        assertEquals(dao.getRecentTransfers("ACC1", 17), fromRing);
+        assertEquals(dao.getLatestTransfers("ACC1", 16), fromRing);
+        assertEquals(dao.getLatestTransfers("ACC1", 3), dao.getRecentTransfers("ACC1", 3));
+        assertEquals(2L, fromRing.get(0).getTransferId());
+        assertEquals(fromRing, dao.getRecentTransfers("ACC2", 16));
+    }
+
+    /**
+     * Running totals count declined transfers without their amounts, split amounts into
+     * sent and received per account, and keep one volume bucket per recent day.
+     */
+    @Test
+    public void testRunningTotals() throws Exception {
+        TransferDaoImpl dao = new TransferDaoImpl();
+        LocalDateTime today = LocalDateTime.of(2025, 7, 30, 10, 0);
+        dao.recordTransfer(new Transfer(0, "ACC1", "ACC2", 10.0, today, true));
+        dao.recordTransfer(new Transfer(0, "ACC2", "ACC3", 2.5, today.minusDays(1), true));
+        dao.recordTransfer(new Transfer(0, "ACC1", "ACC3", 99.0, today, false));
+        dao.recordTransfer(new Transfer(0, "ACC1", "ACC2", 1.0, null, true));
+
+        assertEquals(new TransferTotals(3, 1, 1350, 1350), dao.getTotals(null));
+        assertEquals(new TransferTotals(2, 1, 1100, 0), dao.getTotals("ACC1"));
+        assertEquals(new TransferTotals(3, 0, 250, 1100), dao.getTotals("ACC2"));
+        assertEquals(4, dao.getTotals(null).count());
+        assertEquals(new TransferTotals(0, 0, 0, 0), dao.getTotals("NOPE"));
+
+        LocalDate day = today.toLocalDate();
+        assertEquals(1000, dao.getDailyVolumePaise(null, day));
+        assertEquals(250, dao.getDailyVolumePaise(null, day.minusDays(1)));
+        assertEquals(1000, dao.getDailyVolumePaise("ACC2", day));
+        assertEquals(250, dao.getDailyVolumePaise("ACC2", day.minusDays(1)));
+        assertEquals(0, dao.getDailyVolumePaise("ACC3", day));
+
+        // A newer day takes over the bucket of the day a month before; older days are dropped
+        dao.recordTransfer(new Transfer(0, "ACC1", "ACC2", 4.0, today.plusDays(31), true));
+        dao.recordTransfer(new Transfer(0, "ACC1", "ACC2", 7.0, today, true));
+        assertEquals(400, dao.getDailyVolumePaise(null, day.plusDays(31)));
+        assertEquals(0, dao.getDailyVolumePaise(null, day));
+        assertEquals(5, dao.getTotals(null).succeeded());
+
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    dao.recordTransfer(new Transfer(0, "HOT", "ACC" + i % 10, 0.01, today, true));
+                }
+            }));
+        }
+        for (Thread writer : writers) {
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        assertEquals(new TransferTotals(THREADS * 10_000, 0, THREADS * 10_000, 0), dao.getTotals("HOT"));
+    }
+
+    /**
+     * Concurrent writers must never receive duplicate IDs or lose records,
+     * including across segment boundaries.
+     */
+    @Test
+    public void testConcurrentRecordsAreUniqueAndComplete() throws Exception {
+        TransferDaoImpl dao = new TransferDaoImpl();
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    dao.recordTransfer(new Transfer(0, "ACC1", "ACC2", 1.0, null, true));
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        long total = (long) THREADS * TRANSFERS_PER_THREAD;
+        List<Transfer> all = dao.getAllTransfers();
+        assertEquals(total, all.size());
+        for (long id = 1; id <= total; id++) {
+            Transfer transfer = dao.getTransferById(id);
+            assertNotNull(transfer, "Missing transfer " + id);
+            assertEquals(id, transfer.getTransferId());
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.ezpay.bank.service_test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ezpay.bank.dao.BankAccountDaoImpl;
+import com.ezpay.bank.dao.TransferDaoImpl;
+import com.ezpay.bank.dao.UPIPaymentDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
+import com.ezpay.bank.service.AccountLedger;
+import com.ezpay.bank.service.LatencyHistogram;
+import com.ezpay.bank.service.TransferNotRecordedException;
+import com.ezpay.bank.service.TransferPipeline;
+import com.ezpay.bank.service.TransferServiceImpl;
+import com.ezpay.bank.service.UPIPaymentServiceImpl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tests the asynchronous transfer pipeline: results, backpressure, shutdown and latency recording.
+ */
+public class TransferPipelineTest {
+
+    private static final int ACCOUNTS = 8;
+
+    private BankAccountDaoImpl accounts;
+    private TransferDaoImpl transfers;
+    private AccountLedger ledger;
+    private TransferPipeline pipeline;
+
+    @BeforeEach
+    public void setUp() {
+        accounts = new BankAccountDaoImpl();
+        transfers = new TransferDaoImpl();
+        ledger = new AccountLedger(accounts);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            BankAccount account = new BankAccount(i, "SBI", "ACC" + i, true);
+            account.setBalance(1000.0);
+            accounts.addAccount(account);
+        }
+        // A small queue so the tests below fill it
+        pipeline = new TransferPipeline(ledger, transfers, 16, 4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pipeline.close();
+    }
+
+    /**
+     * Each future completes with the transfer's result; rejected transfers complete at once and are not recorded.
+     */
+    @Test
+    public void testResultsMatchLedger() {
+        Transfer ok = new Transfer(0, "ACC0", "ACC1", 100.0, null, false);
+        Transfer tooMuch = new Transfer(0, "ACC2", "ACC3", 5000.0, null, false);
+        Transfer unknown = new Transfer(0, "ACC0", "NOPE", 1.0, null, false);
+        Transfer zero = new Transfer(0, "ACC0", "ACC1", 0.0, null, false);
+
+        CompletableFuture<TransferResult> unknownResult = pipeline.submit(unknown);
+        assertTrue(unknownResult.isDone());
+        assertEquals(TransferResult.UNKNOWN_ACCOUNT, unknownResult.join());
+        assertEquals(TransferResult.INVALID, pipeline.submit(zero).join());
+        assertEquals(TransferResult.APPLIED, pipeline.submit(ok).join());
+        assertEquals(TransferResult.INSUFFICIENT_FUNDS, pipeline.submit(tooMuch).join());
+
+        assertTrue(ok.isStatus());
+        assertNotNull(ok.getTransferDateTime());
+        assertEquals(ok, transfers.getTransferById(ok.getTransferId()));
+        assertFalse(tooMuch.isStatus());
+        assertEquals(2, transfers.getAllTransfers().size());
+        assertEquals(900.0, accounts.getAccountByNumber("ACC0").getBalance(), 0.001);
+    }
+
+    /**
+     * Many more transfers than the queue holds all complete, and no money is created or lost.
+     */
+    @Test
+    public void testBurstLargerThanQueueCompletes() throws Exception {
+        long before = ledger.totalBalance();
+        List<CompletableFuture<TransferResult>> results = new ArrayList<>();
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            int offset = p;
+            List<CompletableFuture<TransferResult>> mine = new ArrayList<>();
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    String from = "ACC" + ((i + offset) % ACCOUNTS);
+                    String to = "ACC" + ((i + offset + 1) % ACCOUNTS);
+                    mine.add(pipeline.submit(new Transfer(0, from, to, 1.0, null, false)));
+                }
+                synchronized (results) {
+                    results.addAll(mine);
+                }
+            }));
+        }
+        for (Thread producer : producers) {
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture<?>[]::new)).join();
+
+        assertEquals(8_000, transfers.getAllTransfers().size());
+        assertEquals(before, ledger.totalBalance());
+        assertEquals(8_000, pipeline.getTotalLatency().getCount());
+        for (TransferPipeline.Stage stage : TransferPipeline.Stage.values()) {
+            assertEquals(8_000, pipeline.getLatency(stage).getCount(), stage.name());
+        }
+    }
+
+    /**
+     * Closing finishes transfers already submitted and rejects new ones.
+     */
+    @Test
+    public void testCloseDrainsAndRejects() {
+        List<CompletableFuture<TransferResult>> results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            results.add(pipeline.submit(new Transfer(0, "ACC0", "ACC1", 1.0, null, false)));
+        }
+        pipeline.close();
+
+        for (CompletableFuture<TransferResult> result : results) {
+            assertTrue(result.isDone());
+            assertEquals(TransferResult.APPLIED, result.join());
+        }
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> pipeline.submit(new Transfer(0, "ACC0", "ACC1", 1.0, null, false)).join());
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+    }
+
+    /**
+     * A batch the ledger or the store throws on fails on its own: the stages carry on, a
+     * ledger failure moves nothing and a store failure still reports the ledger's result.
+     */
+    @Test
+    public void testFailedBatchesDoNotStopThePipeline() {
+        pipeline.close();
+        AtomicBoolean failApply = new AtomicBoolean(true);
+        AtomicBoolean failRecord = new AtomicBoolean(false);
+        AccountLedger failingLedger = new AccountLedger(accounts) {
+            @Override
+            public TransferResult[] transferAll(List<Transfer> batch) {
+                if (failApply.getAndSet(false)) {
+                    throw new IllegalStateException("ledger down");
+                }
+                return super.transferAll(batch);
+            }
+        };
+        TransferDaoImpl failingStore = new TransferDaoImpl() {
+            @Override
+            public void recordTransfers(List<Transfer> batch) {
+                if (failRecord.getAndSet(false)) {
+                    throw new IllegalStateException("disk full");
+                }
+                super.recordTransfers(batch);
+            }
+        };
+        pipeline = new TransferPipeline(failingLedger, failingStore, 16, 4);
+
+        CompletionException applyFailure = assertThrows(CompletionException.class,
+                () -> pipeline.submit(new Transfer(0, "ACC0", "ACC1", 10.0, null, false)).join());
+        assertInstanceOf(IllegalStateException.class, applyFailure.getCause());
+        assertEquals(1000.0, accounts.getAccountByNumber("ACC0").getBalance(), 0.001);
+
+        failRecord.set(true);
+        CompletionException recordFailure = assertThrows(CompletionException.class,
+                () -> pipeline.submit(new Transfer(0, "ACC0", "ACC1", 10.0, null, false)).join());
+        TransferNotRecordedException notRecorded =
+                assertInstanceOf(TransferNotRecordedException.class, recordFailure.getCause());
+        assertEquals(TransferResult.APPLIED, notRecorded.getResult());
+        assertEquals(990.0, accounts.getAccountByNumber("ACC0").getBalance(), 0.001);
+
+        // A credit that would overflow the receiver moves nothing and fails only itself
+        accounts.getAccountByNumber("ACC3").setBalancePaise(Long.MAX_VALUE);
+        assertEquals(TransferResult.INVALID,
+                pipeline.submit(new Transfer(0, "ACC2", "ACC3", 1.0, null, false)).join());
+        assertEquals(1000.0, accounts.getAccountByNumber("ACC2").getBalance(), 0.001);
+
+        assertEquals(TransferResult.APPLIED, pipeline.submit(new Transfer(0, "ACC0", "ACC1", 10.0, null, false)).join());
+        assertEquals(2, pipeline.getFailedBatchCount());
+        assertEquals(2, failingStore.getAllTransfers().size());
+    }
+
+    /**
+     * UPI payments submitted asynchronously settle through the service's pipeline.
+     */
+    @Test
+    public void testAsyncUpiPayment() {
+        TransferServiceImpl transferService = new TransferServiceImpl(ledger, transfers);
+        UPIPaymentServiceImpl upiService = new UPIPaymentServiceImpl(new UPIPaymentDaoImpl(), accounts, transferService);
+        assertTrue(upiService.linkUpiId("shop@okaxis", "ACC1"));
+
+        try (TransferPipeline started = transferService.startPipeline(16, 4)) {
+            assertSame(started, transferService.startPipeline(16, 4));
+
+            Transfer payment = new Transfer(0, "ACC0", "shop@okaxis", 250.0, null, false);
+            assertEquals(TransferResult.APPLIED, upiService.submitUPIPayment(payment).join());
+            assertTrue(payment.isStatus());
+            assertEquals(1, upiService.getTransfersBySender("ACC0").size());
+            assertEquals(1250.0, accounts.getAccountByNumber("ACC1").getBalance(), 0.001);
+
+            Transfer unlinked = new Transfer(0, "ACC0", "nobody@okaxis", 1.0, null, false);
+            assertEquals(TransferResult.UNKNOWN_ACCOUNT, upiService.submitUPIPayment(unlinked).join());
+            Transfer tooMuch = new Transfer(0, "ACC0", "shop@okaxis", 5000.0, null, false);
+            assertEquals(TransferResult.INSUFFICIENT_FUNDS, upiService.submitUPIPayment(tooMuch).join());
+            assertFalse(tooMuch.isStatus());
+        }
+    }
+
+    /**
+     * Percentiles are reported within the histogram's bucket precision.
+     */
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 10_000; v++) {
+            histogram.record(v * 1_000);
+        }
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMax());
+        long p50 = histogram.getValueAtPercentile(50);
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(p50 >= 5_000_000 && p50 <= 5_000_000 * 1.125, "p50 " + p50);
+        assertTrue(p99 >= 9_900_000 && p99 <= 10_000_000, "p99 " + p99);
+        assertEquals(5_000_500.0, histogram.getMean(), 0.001);
+    }
+}
@@ -4,12 +4,15 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import com.ezpay.bank.model.BankAccount;
 import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
 import com.ezpay.bank.controller.TransferController;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 
 /** This test class tests for multiple test service for Transfer 
     Service for users an service.
@@ -89,4 +92,40 @@ public class TransferServiceImplTest {
         assertEquals(1000.0, updatedReceiver.getBalance(), 0.01);
         assertFalse(transfer.isStatus());
     }
+
+    // Case 4: Test case for a batch with one result per transfer, applied in order
+    @Test
+    public void testBatchTransferResults() {
+        List<Transfer> batch = Arrays.asList(
+                new Transfer(0, "ACC123", "ACC456", 600.0, null, false),
+                new Transfer(0, "ACC123", "ACC456", 600.0, null, false),
+                new Transfer(0, "ACC456", "ACC999", 10.0, null, false),
+                new Transfer(0, "ACC456", "ACC123", 0.0, null, false),
+                new Transfer(0, "ACC456", "ACC123", 100.0, null, false));
+
+        TransferResult[] results = transferController.makeTransfers(batch);
+
+        assertArrayEquals(new TransferResult[] {
+                TransferResult.APPLIED,
+                TransferResult.INSUFFICIENT_FUNDS,
+                TransferResult.UNKNOWN_ACCOUNT,
+                TransferResult.INVALID,
+                TransferResult.APPLIED}, results);
+        assertEquals(500.0, transferController.getAccount("ACC123").getBalance(), 0.01);
+        assertEquals(1500.0, transferController.getAccount("ACC456").getBalance(), 0.01);
+
+        // Every transfer is recorded with consecutive IDs and its status
+        assertEquals(5, transferController.getAllTransfers().size());
+        for (int i = 0; i < batch.size(); i++) {
+            assertEquals(i + 1, batch.get(i).getTransferId());
+            assertEquals(results[i].isApplied(), batch.get(i).isStatus());
+        }
+    }
+
+    // Case 5: Test case for an empty batch
+    @Test
+    public void testEmptyBatchTransfer() {
+        assertEquals(0, transferController.makeTransfers(List.of()).length);
+        assertTrue(transferController.getAllTransfers().isEmpty());
+    }
 }
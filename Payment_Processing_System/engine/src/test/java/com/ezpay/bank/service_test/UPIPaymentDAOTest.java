@@ -1,12 +1,19 @@
+package com.ezpay.bank.service_test;
+
+import com.ezpay.bank.dao.UPIPaymentDao;
+import com.ezpay.bank.dao.UPIPaymentDaoImpl;
+import com.ezpay.bank.model.Transfer;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
- * Unit tests for UPIPaymentDAO interface using UPIPaymentDAOImpl.
+ * Unit tests for UPIPaymentDao interface using UPIPaymentDaoImpl.
  * 
  * @author: Muskan  
  * @version: 0.0.1
@@ -14,14 +21,14 @@ import java.util.List;
  */
 public class UPIPaymentDAOTest {
 
-    private UPIPaymentDAO dao;
+    private UPIPaymentDao dao;
 
     /**
      * Initialize a fresh instance of DAO before each test.
      */
     @BeforeEach
     public void setUp() {
-        dao = new UPIPaymentDAOImpl(); // using in-memory list implementation
+        dao = new UPIPaymentDaoImpl(); // using in-memory list implementation
     }
 
     /**
@@ -30,7 +37,7 @@ public class UPIPaymentDAOTest {
      */
     @Test
     public void testSaveUPITransfer() {
-        Transfer transfer = new Transfer("TXN123", "Alice", "Bob", 100.0, "2025-07-29");
+        Transfer transfer = upiTransfer("Alice", "Bob", 100.0, "2025-07-29");
         boolean result = dao.saveUPITransfer(transfer);
         assertTrue(result, "Transfer should be saved successfully");
     }
@@ -41,15 +48,49 @@ public class UPIPaymentDAOTest {
      */
     @Test
     public void testGetTransfersBySender() {
-        dao.saveUPITransfer(new Transfer("TXN123", "Alice", "Bob", 100.0, "2025-07-29"));
-        dao.saveUPITransfer(new Transfer("TXN124", "Charlie", "Alice", 50.0, "2025-07-29"));
-        dao.saveUPITransfer(new Transfer("TXN125", "Alice", "David", 75.0, "2025-07-29"));
+        dao.saveUPITransfer(upiTransfer("Alice", "Bob", 100.0, "2025-07-29"));
+        dao.saveUPITransfer(upiTransfer("Charlie", "Alice", 50.0, "2025-07-29"));
+        dao.saveUPITransfer(upiTransfer("Alice", "David", 75.0, "2025-07-29"));
 
         List<Transfer> transfers = dao.getTransfersBySender("Alice");
         assertEquals(2, transfers.size(), "Alice should have 2 outgoing transfers");
         for (Transfer t : transfers) {
-            assertEquals("Alice", t.getSender(), "Sender should be Alice");
+            assertEquals("Alice", t.getSenderAccountNumber(), "Sender should be Alice");
+        }
+    }
+
+    /**
+     * Test retrieving transfers by receiver.
+     * Verifies that only transfers received by "Alice" are returned.
+     */
+    @Test
+    public void testGetTransfersByReceiver() {
+        dao.saveUPITransfer(upiTransfer("Alice", "Bob", 100.0, "2025-07-29"));
+        dao.saveUPITransfer(upiTransfer("Charlie", "Alice", 50.0, "2025-07-29"));
+
+        List<Transfer> transfers = dao.getTransfersByReceiver("Alice");
+        assertEquals(1, transfers.size(), "Alice should have 1 incoming transfer");
+        assertEquals("Charlie", transfers.get(0).getSenderAccountNumber());
+    }
+
+    /**
+     * Test paging through a sender's history.
+     * Pages are returned oldest first and stop at the end of the history.
+     */
+    @Test
+    public void testGetTransfersBySenderPaged() {
+        for (int i = 1; i <= 25; i++) {
+            dao.saveUPITransfer(upiTransfer("Alice", "Shop" + i, i, "2025-07-29"));
         }
+
+        List<Transfer> firstPage = dao.getTransfersBySender("Alice", 0, 10);
+        List<Transfer> lastPage = dao.getTransfersBySender("Alice", 20, 10);
+
+        assertEquals(10, firstPage.size());
+        assertEquals("Shop1", firstPage.get(0).getReceiverAccountNumber());
+        assertEquals(5, lastPage.size());
+        assertEquals("Shop25", lastPage.get(4).getReceiverAccountNumber());
+        assertTrue(dao.getTransfersBySender("Alice", 25, 10).isEmpty(), "Page past the end should be empty");
     }
 
     /**
@@ -95,7 +136,7 @@ public class UPIPaymentDAOTest {
      */
     @Test
     public void testNegativeAmountTransfer() {
-        Transfer transfer = new Transfer("TXN_NEG", "NegSender", "NegReceiver", -100.0, "2025-08-01");
+        Transfer transfer = upiTransfer("NegSender", "NegReceiver", -100.0, "2025-08-01");
         boolean result = dao.saveUPITransfer(transfer);
         assertFalse(result, "Negative amount transfers should be rejected");
     }
@@ -106,7 +147,7 @@ public class UPIPaymentDAOTest {
      */
     @Test
     public void testLargeAmountTransfer() {
-        Transfer transfer = new Transfer("TXN_LARGE", "RichieRich", "GoldSeller", 1_000_000_000.0, "2025-08-01");
+        Transfer transfer = upiTransfer("RichieRich", "GoldSeller", 1_000_000_000.0, "2025-08-01");
         boolean result = dao.saveUPITransfer(transfer);
         assertTrue(result, "Large amount transfer should be saved");
 
@@ -121,7 +162,7 @@ public class UPIPaymentDAOTest {
      */
     @Test
     public void testTransferWithNullSender() {
-        Transfer transfer = new Transfer("TXN_NULL", null, "ReceiverOnly", 50.0, "2025-08-01");
+        Transfer transfer = upiTransfer(null, "ReceiverOnly", 50.0, "2025-08-01");
         boolean result = dao.saveUPITransfer(transfer);
         assertFalse(result, "Transfers with null sender should be rejected");
     }
@@ -132,8 +173,15 @@ public class UPIPaymentDAOTest {
      */
     @Test
     public void testTransferWithNullReceiver() {
-        Transfer transfer = new Transfer("TXN_NULL2", "SenderOnly", null, 50.0, "2025-08-01");
+        Transfer transfer = upiTransfer("SenderOnly", null, 50.0, "2025-08-01");
         boolean result = dao.saveUPITransfer(transfer);
         assertFalse(result, "Transfers with null receiver should be rejected");
     }
+
+    /**
+     * Builds a UPI transfer dated at the start of the given day.
+     */
+    private static Transfer upiTransfer(String sender, String receiver, double amount, String date) {
+        return new Transfer(0, sender, receiver, amount, LocalDate.parse(date).atStartOfDay(), false);
+    }
 }
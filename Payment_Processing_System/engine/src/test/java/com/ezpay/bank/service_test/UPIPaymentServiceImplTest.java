@@ -0,0 +1,141 @@
+package com.ezpay.bank.service_test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ezpay.bank.dao.BankAccountDao;
+import com.ezpay.bank.dao.BankAccountDaoImpl;
+import com.ezpay.bank.dao.TransferDaoImpl;
+import com.ezpay.bank.dao.UPIPaymentDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.service.AccountLedger;
+import com.ezpay.bank.service.TransferServiceImpl;
+import com.ezpay.bank.service.UPIPaymentServiceImpl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests that UPI payments resolve handles to bank accounts and move real balances
+ * through the same ledger as bank transfers.
+ */
+public class UPIPaymentServiceImplTest {
+
+    private BankAccountDao accounts;
+    private TransferServiceImpl transferService;
+    private UPIPaymentServiceImpl upiService;
+
+    @BeforeEach
+    public void setUp() {
+        accounts = new BankAccountDaoImpl();
+        transferService = new TransferServiceImpl(new AccountLedger(accounts), new TransferDaoImpl());
+        upiService = new UPIPaymentServiceImpl(new UPIPaymentDaoImpl(), accounts, transferService);
+
+        accounts.addAccount(account("ACC1", 1000.0));
+        accounts.addAccount(account("ACC2", 0.0));
+        assertTrue(upiService.linkUpiId("alice@okaxis", "ACC1"));
+        assertTrue(upiService.linkUpiId("bob@ybl", "ACC2"));
+    }
+
+    /**
+     * A payment debits the sender's account and credits the account linked to the receiver's UPI ID.
+     */
+    @Test
+    public void testPaymentMovesBalances() {
+        Transfer payment = new Transfer(0, "ACC1", "bob@ybl", 250.0, null, false);
+        upiService.makeUPIPayment(payment);
+
+        assertTrue(payment.isStatus());
+        assertEquals(750.0, accounts.getAccountByNumber("ACC1").getBalance(), 0.001);
+        assertEquals(250.0, accounts.getAccountByNumber("ACC2").getBalance(), 0.001);
+        assertEquals(1, upiService.getTransfersBySender("ACC1").size());
+
+        // The settlement shows up as a bank transfer between the two accounts
+        List<Transfer> settlements = transferService.getAllTransfers();
+        assertEquals(1, settlements.size());
+        assertEquals("ACC2", settlements.get(0).getReceiverAccountNumber());
+    }
+
+    /**
+     * The sender may be given by UPI ID instead of account number.
+     */
+    @Test
+    public void testSenderByUpiId() {
+        Transfer payment = new Transfer(0, "Alice@OKAXIS", "bob@ybl", 1.0, null, false);
+        upiService.makeUPIPayment(payment);
+
+        assertTrue(payment.isStatus());
+        assertEquals(999.0, accounts.getAccountByNumber("ACC1").getBalance(), 0.001);
+    }
+
+    /**
+     * Payments beyond the sender's balance, to unlinked UPI IDs or from unknown senders fail
+     * without moving money.
+     */
+    @Test
+    public void testFailedPaymentsLeaveBalancesUnchanged() {
+        Transfer tooLarge = new Transfer(0, "ACC1", "bob@ybl", 1000.01, null, false);
+        assertEquals("Insufficient balance.", upiService.makeUPIPayment(tooLarge));
+
+        Transfer unlinked = new Transfer(0, "ACC1", "carol@ybl", 10.0, null, false);
+        upiService.makeUPIPayment(unlinked);
+
+        Transfer unknownSender = new Transfer(0, "ACC9", "bob@ybl", 10.0, null, false);
+        upiService.makeUPIPayment(unknownSender);
+
+        assertFalse(tooLarge.isStatus());
+        assertFalse(unlinked.isStatus());
+        assertFalse(unknownSender.isStatus());
+        assertEquals(1000.0, accounts.getAccountByNumber("ACC1").getBalance(), 0.001);
+        assertEquals(0.0, accounts.getAccountByNumber("ACC2").getBalance(), 0.001);
+        assertTrue(upiService.getTransfersBySender("ACC1").isEmpty());
+    }
+
+    /**
+     * Linking fails for invalid UPI IDs and unknown accounts.
+     */
+    @Test
+    public void testLinkValidation() {
+        assertFalse(upiService.linkUpiId("bad id@ybl", "ACC1"));
+        assertFalse(upiService.linkUpiId("carol@ybl", "ACC9"));
+        assertNull(accounts.getAccountByUpiHandle("carol@ybl"));
+    }
+
+    /**
+     * Concurrent UPI payments and bank transfers on the same accounts conserve money.
+     */
+    @Test
+    public void testUpiAndBankTransfersShareLedger() throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            boolean upi = t % 2 == 0;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    if (upi) {
+                        upiService.makeUPIPayment(new Transfer(0, "ACC1", "bob@ybl", 0.05, null, false));
+                    } else {
+                        transferService.makeTransfer(new Transfer(0, "ACC2", "ACC1", 0.03, null, false));
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long total = accounts.getAccountByNumber("ACC1").getBalancePaise()
+                + accounts.getAccountByNumber("ACC2").getBalancePaise();
+        assertEquals(100_000L, total);
+    }
+
+    private static BankAccount account(String number, double balance) {
+        BankAccount account = new BankAccount(1, "SBI", number, true);
+        account.setBalance(balance);
+        return account;
+    }
+}
@@ -0,0 +1,105 @@
+package com.ezpay.bank.service_test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ezpay.bank.dao.BankAccountDao;
+import com.ezpay.bank.dao.BankAccountDaoImpl;
+import com.ezpay.bank.dao.UPIPaymentDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.service.UPIPaymentServiceImpl;
+import com.ezpay.bank.service.UpiIdValidator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Tests for UPI ID validation and normalization.
+ */
+public class UpiIdValidatorTest {
+
+    private final UpiIdValidator validator = new UpiIdValidator();
+
+    /**
+     * Well-formed IDs with a known provider are accepted, in any case.
+     */
+    @Test
+    public void testValidIds() {
+        assertTrue(validator.isValid("alice@okaxis"));
+        assertTrue(validator.isValid("rahul.verma-99_x@ybl"));
+        assertTrue(validator.isValid("9876543210@paytm"));
+        assertTrue(validator.isValid("Alice@OkAxis"));
+    }
+
+    /**
+     * Malformed IDs are rejected.
+     */
+    @Test
+    public void testMalformedIds() {
+        assertFalse(validator.isValid(null));
+        assertFalse(validator.isValid(""));
+        assertFalse(validator.isValid("alice"));
+        assertFalse(validator.isValid("@okaxis"));
+        assertFalse(validator.isValid("a@okaxis"), "Handle too short");
+        assertFalse(validator.isValid("alice@"));
+        assertFalse(validator.isValid("alice@@okaxis"));
+        assertFalse(validator.isValid("al ice@okaxis"));
+        assertFalse(validator.isValid("alice@ok.axis"));
+        assertFalse(validator.isValid("alicé@okaxis"));
+        assertFalse(validator.isValid("x".repeat(UpiIdValidator.MAX_HANDLE_LENGTH + 1) + "@upi"));
+        assertTrue(validator.isValid("x".repeat(UpiIdValidator.MAX_HANDLE_LENGTH) + "@upi"));
+    }
+
+    /**
+     * Only known providers are accepted, and a custom provider list replaces the default one.
+     */
+    @Test
+    public void testKnownProviders() {
+        assertFalse(validator.isValid("alice@unknownbank"));
+        assertFalse(validator.isValid("alice@okaxi"));
+
+        UpiIdValidator custom = new UpiIdValidator(List.of("EzPay"));
+        assertTrue(custom.isValid("alice@ezpay"));
+        assertFalse(custom.isValid("alice@okaxis"));
+        assertEquals(List.of("ezpay"), custom.getKnownProviders());
+    }
+
+    /**
+     * Normalization lower-cases valid IDs and returns null for invalid ones.
+     */
+    @Test
+    public void testNormalize() {
+        String lower = "alice@okaxis";
+        assertSame(lower, validator.normalize(lower));
+        assertEquals("alice.k@okhdfcbank", validator.normalize("Alice.K@OKHDFCBANK"));
+        assertNull(validator.normalize("alice@nowhere"));
+    }
+
+    /**
+     * The UPI payment service stores the receiver's UPI ID in normalized form.
+     */
+    @Test
+    public void testPaymentServiceNormalizesReceiver() {
+        BankAccountDao accounts = new BankAccountDaoImpl();
+        BankAccount bob = new BankAccount(1, "SBI", "ACC2", true);
+        BankAccount alice = new BankAccount(2, "SBI", "ACC1", true);
+        alice.setBalance(100.0);
+        accounts.addAccount(alice);
+        accounts.addAccount(bob);
+        UPIPaymentServiceImpl service = new UPIPaymentServiceImpl(new UPIPaymentDaoImpl(), accounts);
+        assertTrue(service.linkUpiId("BOB@ybl", "ACC2"));
+
+        Transfer transfer = new Transfer(0, "ACC1", "Bob@YBL", 10.0, null, false);
+
+        service.makeUPIPayment(transfer);
+
+        assertTrue(transfer.isStatus());
+        assertEquals("bob@ybl", transfer.getReceiverAccountNumber());
+        assertEquals(1, service.getTransfersByReceiver("BOB@ybl").size());
+
+        Transfer rejected = new Transfer(0, "ACC1", "bob@nowhere", 10.0, null, false);
+        service.makeUPIPayment(rejected);
+        assertFalse(rejected.isStatus());
+    }
+}
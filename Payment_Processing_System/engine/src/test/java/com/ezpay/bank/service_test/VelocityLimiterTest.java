@@ -0,0 +1,206 @@
+package com.ezpay.bank.service_test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ezpay.bank.dao.BankAccountDao;
+import com.ezpay.bank.dao.BankAccountDaoImpl;
+import com.ezpay.bank.dao.IdempotencyCache;
+import com.ezpay.bank.dao.TransferDaoImpl;
+import com.ezpay.bank.dao.UPIPaymentDaoImpl;
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
+import com.ezpay.bank.service.AccountLedger;
+import com.ezpay.bank.service.TransactionIdGenerator;
+import com.ezpay.bank.service.TransferServiceImpl;
+import com.ezpay.bank.service.UPIPaymentServiceImpl;
+import com.ezpay.bank.service.UpiIdValidator;
+import com.ezpay.bank.service.VelocityLimiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests the sliding hourly and daily limits and their use on the transfer and UPI paths.
+ */
+public class VelocityLimiterTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * Amounts leave the hourly window an hour after they were counted and the daily window
+     * a day after, and the count limit is independent of the amounts.
+     */
+    @Test
+    public void testSlidingHourAndDayWindows() {
+        VelocityLimiter limiter = new VelocityLimiter(new VelocityLimiter.Limits(1_000, 0, 2_500, 4));
+        // Start on a bucket boundary so the expected expiry times are exact
+        long start = System.currentTimeMillis() / HOUR * HOUR;
+
+        assertTrue(limiter.tryAcquire("ACC1", 600, start));
+        assertTrue(limiter.tryAcquire("ACC1", 400, start + 10 * MINUTE));
+        assertFalse(limiter.tryAcquire("ACC1", 1, start + 30 * MINUTE), "hourly amount reached");
+        assertTrue(limiter.tryAcquire("ACC2", 1_000, start + 30 * MINUTE), "keys are independent");
+
+        // The first 600 leaves the hour window once its five-minute bucket is an hour old
+        assertFalse(limiter.tryAcquire("ACC1", 600, start + 59 * MINUTE));
+        assertTrue(limiter.tryAcquire("ACC1", 600, start + 60 * MINUTE));
+        assertFalse(limiter.tryAcquire("ACC1", 1_000, start + 3 * HOUR), "daily amount reached: 1,600 of 2,500");
+        assertTrue(limiter.tryAcquire("ACC1", 900, start + 3 * HOUR));
+        assertFalse(limiter.tryAcquire("ACC1", 1, start + 4 * HOUR), "daily count reached");
+
+        // A day later everything has expired, without the key being touched in between
+        assertTrue(limiter.tryAcquire("ACC1", 1_000, start + 27 * HOUR));
+
+        // A released payment no longer counts
+        limiter.release("ACC1", 1_000, start + 27 * HOUR);
+        assertTrue(limiter.tryAcquire("ACC1", 1_000, start + 27 * HOUR));
+
+        VelocityLimiter unlimited = new VelocityLimiter(VelocityLimiter.Limits.NONE);
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(unlimited.tryAcquire("ACC1", Long.MAX_VALUE / 2_000, start));
+        }
+    }
+
+    /**
+     * Concurrent payments from one key are admitted exactly up to the limit.
+     */
+    @Test
+    public void testConcurrentPaymentsStopAtTheLimit() throws Exception {
+        VelocityLimiter limiter = new VelocityLimiter(new VelocityLimiter.Limits(0, 0, 10_000, 0));
+        AtomicInteger admitted = new AtomicInteger();
+        List<Thread> payers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            payers.add(new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    if (limiter.tryAcquire("HOT", 1)) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread payer : payers) {
+            payer.start();
+        }
+        for (Thread payer : payers) {
+            payer.join();
+        }
+        assertEquals(10_000, admitted.get());
+    }
+
+    /**
+     * Transfers over the sender's limit are declined and recorded on the single and batch
+     * paths, and a transfer the ledger declines does not use up the limit.
+     */
+    @Test
+    public void testTransfersAreHeldToSenderLimits() {
+        BankAccountDao accounts = new BankAccountDaoImpl();
+        accounts.addAccount(account("ACC1", 450.0));
+        accounts.addAccount(account("ACC2", 0.0));
+        TransferServiceImpl service = new TransferServiceImpl(new AccountLedger(accounts), new TransferDaoImpl(),
+                new IdempotencyCache<>(), new VelocityLimiter(new VelocityLimiter.Limits(0, 0, 50_000, 0)));
+
+        Transfer tooLarge = new Transfer(0, "ACC1", "ACC2", 460.0, null, false);
+        service.makeTransfer(tooLarge);
+        assertFalse(tooLarge.isStatus());
+
+        Transfer first = new Transfer(0, "ACC1", "ACC2", 300.0, null, false);
+        service.makeTransfer(first);
+        assertTrue(first.isStatus(), "the declined transfer should not count against the limit");
+
+        Transfer overLimit = new Transfer(0, "ACC1", "ACC2", 250.0, null, false);
+        service.makeTransfer(overLimit);
+        assertFalse(overLimit.isStatus());
+        assertEquals(150.0, accounts.getAccountByNumber("ACC1").getBalance(), 0.001);
+
+        TransferResult[] results = service.makeTransfers(Arrays.asList(
+                new Transfer(0, "ACC1", "ACC2", 100.0, null, false),
+                new Transfer(0, "ACC1", "ACC2", 100.01, null, false),
+                new Transfer(0, "ACC2", "NOPE", 1.0, null, false),
+                new Transfer(0, "ACC2", "ACC1", 50.0, null, false)));
+        assertArrayEquals(new TransferResult[] {TransferResult.APPLIED, TransferResult.LIMIT_EXCEEDED,
+                TransferResult.UNKNOWN_ACCOUNT, TransferResult.APPLIED}, results);
+        assertEquals(7, service.getTotals(null).count(), "declined transfers are still recorded");
+    }
+
+    /**
+     * Payments from a UPI ID are held to its limits; payments from the account number are not.
+     */
+    @Test
+    public void testUpiPaymentsAreHeldToUpiIdLimits() {
+        BankAccountDao accounts = new BankAccountDaoImpl();
+        accounts.addAccount(account("ACC1", 500.0));
+        accounts.addAccount(account("ACC2", 0.0));
+        TransferServiceImpl transferService = new TransferServiceImpl(new AccountLedger(accounts),
+                new TransferDaoImpl(), new IdempotencyCache<>(),
+                new VelocityLimiter(new VelocityLimiter.Limits(0, 0, 80_000, 0)));
+        UPIPaymentServiceImpl upiService = new UPIPaymentServiceImpl(new UPIPaymentDaoImpl(), accounts,
+                transferService, new TransactionIdGenerator(), new UpiIdValidator(), new IdempotencyCache<>(),
+                new VelocityLimiter(new VelocityLimiter.Limits(0, 2, 0, 0)));
+        assertTrue(upiService.linkUpiId("alice@okaxis", "ACC1"));
+        assertTrue(upiService.linkUpiId("bob@ybl", "ACC2"));
+
+        assertEquals("Insufficient balance.",
+                upiService.makeUPIPayment(new Transfer(0, "alice@okaxis", "bob@ybl", 600.0, null, false)));
+        assertTrue(upiService.makeUPIPayment(new Transfer(0, "alice@okaxis", "bob@ybl", 10.0, null, false))
+                .startsWith("UPI Payment Successful!"));
+        assertTrue(upiService.makeUPIPayment(new Transfer(0, "Alice@OKAXIS", "bob@ybl", 10.0, null, false))
+                .startsWith("UPI Payment Successful!"));
+
+        Transfer third = new Transfer(0, "alice@okaxis", "bob@ybl", 10.0, null, false);
+        assertEquals("UPI payment limit exceeded.", upiService.makeUPIPayment(third));
+        assertFalse(third.isStatus());
+
+        // The declined 600 was given back, so the account is still below its own limit, and then reaches it
+        assertTrue(upiService.makeUPIPayment(new Transfer(0, "ACC1", "bob@ybl", 400.0, null, false))
+                .startsWith("UPI Payment Successful!"));
+        assertEquals("Account payment limit exceeded.",
+                upiService.makeUPIPayment(new Transfer(0, "ACC1", "bob@ybl", 390.0, null, false)));
+        assertEquals(80.0, accounts.getAccountByNumber("ACC1").getBalance(), 0.001);
+    }
+
+    /**
+     * A UPI payment whose settlement fails, here because the pipeline has closed, is
+     * marked failed and gives its hold on the UPI ID's limits back.
+     */
+    @Test
+    public void testFailedUpiSubmitReleasesItsLimit() {
+        BankAccountDao accounts = new BankAccountDaoImpl();
+        accounts.addAccount(account("ACC1", 500.0));
+        accounts.addAccount(account("ACC2", 0.0));
+        TransferServiceImpl transferService = new TransferServiceImpl(new AccountLedger(accounts), new TransferDaoImpl());
+        UPIPaymentServiceImpl upiService = new UPIPaymentServiceImpl(new UPIPaymentDaoImpl(), accounts,
+                transferService, new TransactionIdGenerator(), new UpiIdValidator(), new IdempotencyCache<>(),
+                new VelocityLimiter(new VelocityLimiter.Limits(0, 1, 0, 0)));
+        assertTrue(upiService.linkUpiId("alice@okaxis", "ACC1"));
+        assertTrue(upiService.linkUpiId("bob@ybl", "ACC2"));
+        transferService.startPipeline(16, 4).close();
+
+        Transfer payment = new Transfer(0, "alice@okaxis", "bob@ybl", 10.0, null, true);
+        CompletionException failure = assertThrows(CompletionException.class,
+                () -> upiService.submitUPIPayment(payment).join());
+        assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+        assertFalse(payment.isStatus());
+        assertEquals(500.0, accounts.getAccountByNumber("ACC1").getBalance(), 0.001);
+
+        // The one payment the UPI ID is allowed this hour is still available
+        assertTrue(upiService.makeUPIPayment(new Transfer(0, "alice@okaxis", "bob@ybl", 10.0, null, false))
+                .startsWith("UPI Payment Successful!"));
+        assertEquals("UPI payment limit exceeded.",
+                upiService.makeUPIPayment(new Transfer(0, "alice@okaxis", "bob@ybl", 10.0, null, false)));
+    }
+
+    private static BankAccount account(String number, double balance) {
+        BankAccount account = new BankAccount(1, "SBI", number, true);
+        account.setBalance(balance);
+        return account;
+    }
+}
@@ -0,0 +1,179 @@
+package com.nwg.ezpay.config;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.ezpay.bank.controller.BankingServiceController;
+import com.ezpay.bank.controller.TransferController;
+import com.ezpay.bank.controller.UPIPaymentController;
+import com.ezpay.bank.controller.UserController;
+import com.ezpay.bank.dao.BankAccountDao;
+import com.ezpay.bank.dao.BankAccountDaoImpl;
+import com.ezpay.bank.dao.BankAccountTable;
+import com.ezpay.bank.dao.DurableStore;
+import com.ezpay.bank.dao.IdempotencyCache;
+import com.ezpay.bank.dao.TransferDao;
+import com.ezpay.bank.dao.TransferDaoImpl;
+import com.ezpay.bank.dao.UPIPaymentDao;
+import com.ezpay.bank.dao.UPIPaymentDaoImpl;
+import com.ezpay.bank.dao.UserDao;
+import com.ezpay.bank.dao.UserDaoImpl;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.service.AccountLedger;
+import com.ezpay.bank.service.BankingServiceImpl;
+import com.ezpay.bank.service.HotAccountDetector;
+import com.ezpay.bank.service.Ledger;
+import com.ezpay.bank.service.SingleWriterLedger;
+import com.ezpay.bank.service.RiskGate;
+import com.ezpay.bank.service.RuleBasedRiskScorer;
+import com.ezpay.bank.service.TransactionIdGenerator;
+import com.ezpay.bank.service.TransferServiceImpl;
+import com.ezpay.bank.service.UPIPaymentServiceImpl;
+import com.ezpay.bank.service.UpiIdValidator;
+import com.ezpay.bank.service.UserServiceImpl;
+import com.ezpay.bank.service.VelocityLimiter;
+
+/**
+ * Wires the payment engine into the Spring context.
+ *
+ * All four engine controllers share one account store and one ledger, exactly as the
+ * console {@code Main} does. The engine is thread-safe, so a single instance serves
+ * every request thread. With {@code ezpay.journal.dir} set, the stores are recovered
+ * from and journaled to a {@link DurableStore}; otherwise they are in memory only.
+ */
+@Configuration
+public class EngineConfiguration {
+
+	/**
+	 * How the engine ledger serializes balance changes.
+	 */
+	public enum LedgerMode {
+		STRIPED, SINGLE_WRITER
+	}
+
+	/**
+	 * Engine stores, either in memory or backed by the durable journal.
+	 */
+	public record EngineStores(DurableStore durableStore, UserDao userDao, BankAccountDao accountDao,
+			TransferDao transferDao, UPIPaymentDao upiPaymentDao, IdempotencyCache<Transfer> transferIdempotency,
+			IdempotencyCache<Transfer> upiIdempotency) implements AutoCloseable {
+
+		@Override
+		public void close() throws IOException {
+			if (durableStore != null) {
+				durableStore.close();
+			}
+		}
+	}
+
+	/**
+	 * With no {@code ezpay.journal.dir} the stores are in memory, and
+	 * {@code ezpay.accounts.table} keeps accounts in the primitive-column
+	 * {@link BankAccountTable} instead of one object per account.
+	 */
+	@Bean(destroyMethod = "close")
+	public EngineStores engineStores(@Value("${ezpay.journal.dir:}") String journalDir,
+			@Value("${ezpay.journal.snapshot-interval:5m}") Duration snapshotInterval,
+			@Value("${ezpay.accounts.table:false}") boolean accountTable) throws IOException {
+		if (journalDir.isBlank()) {
+			BankAccountDao accountDao = accountTable ? new BankAccountTable() : new BankAccountDaoImpl();
+			return new EngineStores(null, new UserDaoImpl(), accountDao, new TransferDaoImpl(),
+					new UPIPaymentDaoImpl(), new IdempotencyCache<>(), new IdempotencyCache<>());
+		}
+		DurableStore store = DurableStore.open(Paths.get(journalDir));
+		store.startSnapshots(snapshotInterval);
+		return new EngineStores(store, store.getUserDao(), store.getBankAccountDao(), store.getTransferDao(),
+				store.getUpiPaymentDao(), store.getTransferIdempotencyCache(), store.getUpiIdempotencyCache());
+	}
+
+	/**
+	 * {@code ezpay.ledger.mode} picks the striped-lock ledger ({@code STRIPED}) or one
+	 * writer thread that owns every balance ({@code SINGLE_WRITER}). With the striped
+	 * ledger and {@code ezpay.ledger.hot-account-detection} on, accounts credited faster
+	 * than {@code ezpay.ledger.hot-credits-per-second} are sharded so their credits stop
+	 * serializing on one lock. Spring closes the single-writer ledger on shutdown.
+	 */
+	@Bean
+	public Ledger accountLedger(EngineStores stores,
+			@Value("${ezpay.ledger.mode:STRIPED}") LedgerMode mode,
+			@Value("${ezpay.ledger.hot-account-detection:false}") boolean hotAccountDetection,
+			@Value("${ezpay.ledger.hot-credits-per-second:" + HotAccountDetector.DEFAULT_CREDITS_PER_SECOND + "}") long hotCreditsPerSecond) {
+		if (mode == LedgerMode.SINGLE_WRITER) {
+			return new SingleWriterLedger(stores.accountDao());
+		}
+		HotAccountDetector detector = hotAccountDetection
+				? new HotAccountDetector(hotCreditsPerSecond, HotAccountDetector.DEFAULT_WINDOW_MILLIS,
+						HotAccountDetector.DEFAULT_SAMPLE_RATE)
+				: null;
+		return new AccountLedger(stores.accountDao(), AccountLedger.DEFAULT_STRIPES, detector);
+	}
+
+	/**
+	 * With {@code ezpay.limits.enabled} on, every transfer is held to the hourly and daily
+	 * limits under {@code ezpay.limits.account} for its sender account. With
+	 * {@code ezpay.risk.enabled} on, every transfer within its limits is then scored by the
+	 * rule-based risk scorer.
+	 */
+	@Bean
+	public TransferServiceImpl transferService(EngineStores stores, Ledger ledger, Environment env) {
+		return new TransferServiceImpl(ledger, stores.transferDao(), stores.transferIdempotency(),
+				velocityLimiter(env, "ezpay.limits.account", VelocityLimiter.DEFAULT_ACCOUNT_LIMITS),
+				riskGate(env));
+	}
+
+	@Bean
+	public UserController engineUserController(EngineStores stores) {
+		return new UserController(new UserServiceImpl(stores.userDao()));
+	}
+
+	@Bean
+	public BankingServiceController engineBankingServiceController(EngineStores stores) {
+		return new BankingServiceController(new BankingServiceImpl(stores.accountDao()));
+	}
+
+	@Bean
+	public TransferController engineTransferController(TransferServiceImpl transferService) {
+		return new TransferController(transferService);
+	}
+
+	/**
+	 * With {@code ezpay.limits.enabled} on, payments made from a UPI ID are also held to
+	 * the limits under {@code ezpay.limits.upi} for that UPI ID.
+	 */
+	@Bean
+	public UPIPaymentController engineUpiPaymentController(EngineStores stores, TransferServiceImpl transferService,
+			Environment env) {
+		return new UPIPaymentController(new UPIPaymentServiceImpl(stores.upiPaymentDao(), stores.accountDao(),
+				transferService, new TransactionIdGenerator(), new UpiIdValidator(), stores.upiIdempotency(),
+				velocityLimiter(env, "ezpay.limits.upi", VelocityLimiter.DEFAULT_UPI_LIMITS)));
+	}
+
+	// Reads the risk threshold, budget and policy; null when risk scoring is off
+	private static RiskGate riskGate(Environment env) {
+		if (!env.getProperty("ezpay.risk.enabled", Boolean.class, false)) {
+			return null;
+		}
+		return new RiskGate(new RuleBasedRiskScorer(),
+				env.getProperty("ezpay.risk.threshold", Integer.class, RiskGate.DEFAULT_THRESHOLD),
+				env.getProperty("ezpay.risk.budget-micros", Long.class, RiskGate.DEFAULT_BUDGET_MICROS),
+				env.getProperty("ezpay.risk.policy", RiskGate.Policy.class, RiskGate.Policy.FAIL_OPEN));
+	}
+
+	// Reads one set of limits, amounts in rupees; null when limits are off
+	private static VelocityLimiter velocityLimiter(Environment env, String prefix, VelocityLimiter.Limits defaults) {
+		if (!env.getProperty("ezpay.limits.enabled", Boolean.class, false)) {
+			return null;
+		}
+		return new VelocityLimiter(new VelocityLimiter.Limits(
+				env.getProperty(prefix + ".hourly-amount", Long.class, defaults.hourlyPaise() / 100) * 100,
+				env.getProperty(prefix + ".hourly-count", Long.class, defaults.hourlyCount()),
+				env.getProperty(prefix + ".daily-amount", Long.class, defaults.dailyPaise() / 100) * 100,
+				env.getProperty(prefix + ".daily-count", Long.class, defaults.dailyCount())));
+	}
+}
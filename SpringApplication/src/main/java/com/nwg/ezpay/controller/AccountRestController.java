@@ -0,0 +1,96 @@
+package com.nwg.ezpay.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ezpay.bank.controller.BankingServiceController;
+import com.ezpay.bank.model.BankAccount;
+import com.nwg.ezpay.dto.AccountRequest;
+import com.nwg.ezpay.dto.AccountResponse;
+
+/**
+ * REST endpoints for managing bank accounts.
+ *
+ * A balance is only taken when an account is created; after that it changes through
+ * transfers alone, so an update carries the account's details and keeps its balance.
+ */
+@RestController
+@RequestMapping("/api/accounts")
+public class AccountRestController {
+
+	private final BankingServiceController bankingController;
+
+	public AccountRestController(BankingServiceController bankingController) {
+		this.bankingController = bankingController;
+	}
+
+	/**
+	 * Opens an account. An account number that is already taken answers 409 and leaves
+	 * the existing account alone.
+	 */
+	@PostMapping
+	public ResponseEntity<AccountResponse> addAccount(@RequestBody AccountRequest request) {
+		BankAccount account = request.toAccount();
+		if (!bankingController.addAccountIfAbsent(account)) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).build();
+		}
+		return ResponseEntity.status(HttpStatus.CREATED).body(AccountResponse.from(account));
+	}
+
+	@GetMapping("/{accountNumber}")
+	public ResponseEntity<AccountResponse> getAccount(@PathVariable String accountNumber) {
+		BankAccount account = bankingController.getAccount(accountNumber);
+		return account == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(AccountResponse.from(account));
+	}
+
+	/**
+	 * Lists accounts in account number order, one page at a time. Pass the last account
+	 * number of a page as {@code after} to get the next.
+	 */
+	@GetMapping
+	public List<AccountResponse> getAccounts(@RequestParam(required = false) String after,
+			@RequestParam(defaultValue = "100") int limit) {
+		return bankingController.getAccountsAfter(after, Math.min(limit, TransferRestController.MAX_PAGE_SIZE))
+				.stream().map(AccountResponse::from).toList();
+	}
+
+	/**
+	 * Updates the bank ID, bank name and verification status of an account. A request
+	 * carrying a balance is rejected, since a balance only moves through transfers.
+	 */
+	@PutMapping("/{accountNumber}")
+	public ResponseEntity<AccountResponse> updateAccount(@PathVariable String accountNumber,
+			@RequestBody AccountRequest request) {
+		if (request.balance() != null) {
+			throw new IllegalArgumentException("The balance cannot be set by an update; it only changes through transfers");
+		}
+		if (bankingController.getAccount(accountNumber) == null) {
+			return ResponseEntity.notFound().build();
+		}
+		BankAccount details = request.toAccount();
+		details.setAccountNumber(accountNumber);
+		bankingController.updateAccount(details);
+		BankAccount account = bankingController.getAccount(accountNumber);
+		return account == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(AccountResponse.from(account));
+	}
+
+	@DeleteMapping("/{accountNumber}")
+	public ResponseEntity<Void> deleteAccount(@PathVariable String accountNumber) {
+		if (bankingController.getAccount(accountNumber) == null) {
+			return ResponseEntity.notFound().build();
+		}
+		bankingController.deleteAccount(accountNumber);
+		return ResponseEntity.noContent().build();
+	}
+}
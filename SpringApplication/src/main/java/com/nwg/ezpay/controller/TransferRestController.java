@@ -0,0 +1,138 @@
+package com.nwg.ezpay.controller;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ezpay.bank.controller.TransferController;
+import com.ezpay.bank.model.Transfer;
+import com.ezpay.bank.model.TransferResult;
+import com.nwg.ezpay.dto.TotalsResponse;
+import com.nwg.ezpay.dto.TransferRequest;
+import com.nwg.ezpay.dto.TransferResponse;
+
+/**
+ * REST endpoints for account-to-account transfers.
+ *
+ * A declined transfer is still recorded, so it is returned with status {@code false}
+ * rather than as an HTTP error.
+ */
+@RestController
+@RequestMapping("/api/transfers")
+public class TransferRestController {
+
+	static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+	// Largest page any listing endpoint returns, whatever limit is asked for
+	static final int MAX_PAGE_SIZE = 1000;
+
+	private final TransferController transferController;
+
+	public TransferRestController(TransferController transferController) {
+		this.transferController = transferController;
+	}
+
+	/**
+	 * Makes one transfer. A retry with the same {@code Idempotency-Key} header returns
+	 * the first result without moving money again.
+	 */
+	@PostMapping
+	public TransferResponse makeTransfer(@RequestBody TransferRequest request,
+			@RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		Transfer transfer = request.toTransfer();
+		transfer.setIdempotencyKey(idempotencyKey);
+		transferController.makeTransfer(transfer);
+		return TransferResponse.from(transfer);
+	}
+
+	/**
+	 * Applies a batch of transfers in one ledger pass and one journal sync.
+	 *
+	 * @return one result per request, in request order
+	 */
+	@PostMapping("/batch")
+	public TransferResult[] makeTransfers(@RequestBody List<TransferRequest> requests) {
+		List<Transfer> transfers = new ArrayList<>(requests.size());
+		for (TransferRequest request : requests) {
+			transfers.add(request.toTransfer());
+		}
+		return transferController.makeTransfers(transfers);
+	}
+
+	/**
+	 * Lists transfers made from {@code from} (inclusive) up to {@code to} (exclusive),
+	 * oldest first, optionally only those an account sent or received. Times are ISO
+	 * local date-times; either bound may be left out.
+	 */
+	@GetMapping("/range")
+	public List<TransferResponse> getTransfersBetween(@RequestParam(required = false) String account,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+			@RequestParam(defaultValue = "100") int limit) {
+		return transferController.getTransfersBetween(account, from, to, Math.min(limit, MAX_PAGE_SIZE)).stream()
+				.map(TransferResponse::from).toList();
+	}
+
+	/**
+	 * Lists the most recent transfers, newest first, optionally only an account's.
+	 */
+	@GetMapping("/latest")
+	public List<TransferResponse> getLatestTransfers(@RequestParam(required = false) String account,
+			@RequestParam(defaultValue = "10") int limit) {
+		return transferController.getLatestTransfers(account, Math.min(limit, MAX_PAGE_SIZE)).stream()
+				.map(TransferResponse::from).toList();
+	}
+
+	/**
+	 * Lists the transfers most recently recorded for an account, newest first by date-time.
+	 * Small limits are served from the account's recent-transfer ring.
+	 */
+	@GetMapping("/recent")
+	public List<TransferResponse> getRecentTransfers(@RequestParam String account,
+			@RequestParam(defaultValue = "5") int limit) {
+		return transferController.getRecentTransfers(account, Math.min(limit, MAX_PAGE_SIZE)).stream()
+				.map(TransferResponse::from).toList();
+	}
+
+	/**
+	 * Returns running counts and totals, overall or for one account, and the volume
+	 * moved on {@code day} (today by default). Served from counters kept as transfers
+	 * are recorded, so the cost does not grow with history.
+	 */
+	@GetMapping("/totals")
+	public TotalsResponse getTotals(@RequestParam(required = false) String account,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day) {
+		LocalDate volumeDay = day == null ? LocalDate.now() : day;
+		return TotalsResponse.from(account, transferController.getTotals(account), volumeDay,
+				transferController.getDailyVolumePaise(account, volumeDay));
+	}
+
+	@GetMapping("/{transferId}")
+	public ResponseEntity<TransferResponse> getTransfer(@PathVariable long transferId) {
+		Transfer transfer = transferController.getTransfer(transferId);
+		return transfer == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(TransferResponse.from(transfer));
+	}
+
+	/**
+	 * Lists transfers in ID order, one page at a time. Pass the last ID of a page as
+	 * {@code after} to get the next; a page shorter than {@code limit} is the last.
+	 */
+	@GetMapping
+	public List<TransferResponse> getTransfers(@RequestParam(defaultValue = "0") long after,
+			@RequestParam(defaultValue = "100") int limit) {
+		return transferController.getTransfersAfter(after, Math.min(limit, MAX_PAGE_SIZE)).stream()
+				.map(TransferResponse::from).toList();
+	}
+}
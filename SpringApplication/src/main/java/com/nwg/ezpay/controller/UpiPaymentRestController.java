@@ -0,0 +1,73 @@
+package com.nwg.ezpay.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ezpay.bank.controller.UPIPaymentController;
+import com.ezpay.bank.model.Transfer;
+import com.nwg.ezpay.dto.TransferRequest;
+import com.nwg.ezpay.dto.TransferResponse;
+import com.nwg.ezpay.dto.UpiLinkRequest;
+import com.nwg.ezpay.dto.UpiPaymentResponse;
+
+/**
+ * REST endpoints for UPI payments and UPI ID links.
+ *
+ * For a payment the sender is a UPI ID or an account number and the receiver is a UPI
+ * ID. A rejected payment answers 422 with the engine's reason.
+ */
+@RestController
+@RequestMapping("/api/upi")
+public class UpiPaymentRestController {
+
+	private final UPIPaymentController upiPaymentController;
+
+	public UpiPaymentRestController(UPIPaymentController upiPaymentController) {
+		this.upiPaymentController = upiPaymentController;
+	}
+
+	/**
+	 * Makes a UPI payment. A retry of a successful payment with the same
+	 * {@code Idempotency-Key} header gets the original transaction back.
+	 */
+	@PostMapping("/payments")
+	public ResponseEntity<UpiPaymentResponse> makeUPIPayment(@RequestBody TransferRequest request,
+			@RequestHeader(name = TransferRestController.IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		Transfer transfer = request.toTransfer();
+		transfer.setIdempotencyKey(idempotencyKey);
+		String message = upiPaymentController.makeUPIPayment(transfer).strip();
+		HttpStatus status = transfer.isStatus() ? HttpStatus.CREATED : HttpStatus.UNPROCESSABLE_ENTITY;
+		return ResponseEntity.status(status).body(new UpiPaymentResponse(message, TransferResponse.from(transfer)));
+	}
+
+	@PostMapping("/handles")
+	public ResponseEntity<Void> linkUpiId(@RequestBody UpiLinkRequest request) {
+		boolean linked = upiPaymentController.linkUpiId(request.upiId(), request.accountNumber());
+		return linked ? ResponseEntity.noContent().build() : ResponseEntity.unprocessableEntity().build();
+	}
+
+	@GetMapping("/payments")
+	public List<TransferResponse> getTransfersBySender(@RequestParam String sender,
+			@RequestParam(defaultValue = "0") int offset, @RequestParam(defaultValue = "50") int limit) {
+		return upiPaymentController
+				.getTransfersBySender(sender, offset, Math.min(limit, TransferRestController.MAX_PAGE_SIZE))
+				.stream().map(TransferResponse::from).toList();
+	}
+
+	@GetMapping("/payments/received")
+	public List<TransferResponse> getTransfersByReceiver(@RequestParam String receiver,
+			@RequestParam(defaultValue = "0") int offset, @RequestParam(defaultValue = "50") int limit) {
+		return upiPaymentController
+				.getTransfersByReceiver(receiver, offset, Math.min(limit, TransferRestController.MAX_PAGE_SIZE))
+				.stream().map(TransferResponse::from).toList();
+	}
+}
@@ -0,0 +1,79 @@
+package com.nwg.ezpay.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ezpay.bank.controller.UserController;
+import com.ezpay.bank.model.User;
+import com.nwg.ezpay.dto.UserRequest;
+import com.nwg.ezpay.dto.UserResponse;
+
+/**
+ * REST endpoints for user registration and lookup.
+ */
+@RestController
+@RequestMapping("/api/users")
+public class UserRestController {
+
+	private final UserController userController;
+
+	public UserRestController(UserController userController) {
+		this.userController = userController;
+	}
+
+	@PostMapping
+	public ResponseEntity<UserResponse> registerUser(@RequestBody UserRequest request) {
+		User user = request.toUser();
+		userController.registerUser(user);
+		return ResponseEntity.status(HttpStatus.CREATED).body(UserResponse.from(user));
+	}
+
+	@GetMapping("/{userId}")
+	public ResponseEntity<UserResponse> getUser(@PathVariable int userId) {
+		User user = userController.getUser(userId);
+		return user == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(UserResponse.from(user));
+	}
+
+	/**
+	 * Lists users in ID order, one page at a time. Pass the last ID of a page as
+	 * {@code after} to get the next.
+	 */
+	@GetMapping
+	public List<UserResponse> getUsers(@RequestParam(required = false) Integer after,
+			@RequestParam(defaultValue = "100") int limit) {
+		int afterUserId = after == null ? Integer.MIN_VALUE : after;
+		return userController.getUsersAfter(afterUserId, Math.min(limit, TransferRestController.MAX_PAGE_SIZE))
+				.stream().map(UserResponse::from).toList();
+	}
+
+	@PutMapping("/{userId}")
+	public ResponseEntity<UserResponse> updateUser(@PathVariable int userId, @RequestBody UserRequest request) {
+		if (userController.getUser(userId) == null) {
+			return ResponseEntity.notFound().build();
+		}
+		User user = request.toUser();
+		user.setUserId(userId);
+		userController.updateUser(user);
+		return ResponseEntity.ok(UserResponse.from(user));
+	}
+
+	@DeleteMapping("/{userId}")
+	public ResponseEntity<Void> deleteUser(@PathVariable int userId) {
+		if (userController.getUser(userId) == null) {
+			return ResponseEntity.notFound().build();
+		}
+		userController.deleteUser(userId);
+		return ResponseEntity.noContent().build();
+	}
+}
@@ -0,0 +1,23 @@
+package com.nwg.ezpay.dto;
+
+import java.math.BigDecimal;
+
+import com.ezpay.bank.model.BankAccount;
+import com.ezpay.bank.model.Money;
+
+/**
+ * Request body for adding or updating a bank account. The balance is the opening
+ * balance in rupees and may carry at most two decimal places; it is only accepted when
+ * the account is added.
+ */
+public record AccountRequest(int bankId, String bankName, String accountNumber, boolean verified,
+		BigDecimal balance) {
+
+	public BankAccount toAccount() {
+		BankAccount account = new BankAccount(bankId, bankName, accountNumber, verified);
+		if (balance != null) {
+			account.setBalancePaise(Money.parse(balance.toPlainString()));
+		}
+		return account;
+	}
+}
@@ -0,0 +1,17 @@
+package com.nwg.ezpay.dto;
+
+import java.math.BigDecimal;
+
+import com.ezpay.bank.model.BankAccount;
+
+/**
+ * A bank account as returned by the REST API, with its balance in rupees.
+ */
+public record AccountResponse(int bankId, String bankName, String accountNumber, boolean verified,
+		BigDecimal balance) {
+
+	public static AccountResponse from(BankAccount account) {
+		return new AccountResponse(account.getBankid(), account.getBankName(), account.getAccountNumber(),
+				account.isVerified(), BigDecimal.valueOf(account.getBalancePaise(), 2));
+	}
+}
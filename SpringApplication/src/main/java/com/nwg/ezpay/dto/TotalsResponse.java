@@ -0,0 +1,19 @@
+package com.nwg.ezpay.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.ezpay.bank.model.TransferTotals;
+
+/**
+ * Running transfer totals as returned by the REST API, with amounts in rupees.
+ */
+public record TotalsResponse(String account, long succeeded, long failed, BigDecimal sent, BigDecimal received,
+		LocalDate day, BigDecimal dayVolume) {
+
+	public static TotalsResponse from(String account, TransferTotals totals, LocalDate day, long dayVolumePaise) {
+		return new TotalsResponse(account, totals.succeeded(), totals.failed(),
+				BigDecimal.valueOf(totals.sentPaise(), 2), BigDecimal.valueOf(totals.receivedPaise(), 2), day,
+				BigDecimal.valueOf(dayVolumePaise, 2));
+	}
+}
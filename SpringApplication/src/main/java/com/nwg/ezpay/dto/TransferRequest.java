@@ -0,0 +1,22 @@
+package com.nwg.ezpay.dto;
+
+import java.math.BigDecimal;
+
+import com.ezpay.bank.model.Money;
+import com.ezpay.bank.model.Transfer;
+
+/**
+ * Request body for an account-to-account transfer. The amount is in rupees and may
+ * carry at most two decimal places.
+ */
+public record TransferRequest(String sender, String receiver, BigDecimal amount) {
+
+	public Transfer toTransfer() {
+		if (amount == null) {
+			throw new IllegalArgumentException("amount is required");
+		}
+		Transfer transfer = new Transfer(0, sender, receiver, 0, null, false);
+		transfer.setAmountPaise(Money.parse(amount.toPlainString()));
+		return transfer;
+	}
+}
@@ -0,0 +1,19 @@
+package com.nwg.ezpay.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.ezpay.bank.model.Transfer;
+
+/**
+ * A transfer as returned by the REST API, with its amount in rupees.
+ */
+public record TransferResponse(long transferId, String sender, String receiver, BigDecimal amount,
+		LocalDateTime transferDateTime, boolean status) {
+
+	public static TransferResponse from(Transfer transfer) {
+		return new TransferResponse(transfer.getTransferId(), transfer.getSenderAccountNumber(),
+				transfer.getReceiverAccountNumber(), BigDecimal.valueOf(transfer.getAmountPaise(), 2),
+				transfer.getTransferDateTime(), transfer.isStatus());
+	}
+}
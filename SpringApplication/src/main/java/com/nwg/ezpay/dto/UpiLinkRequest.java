@@ -0,0 +1,7 @@
+package com.nwg.ezpay.dto;
+
+/**
+ * Request body for linking a UPI ID to a bank account.
+ */
+public record UpiLinkRequest(String upiId, String accountNumber) {
+}
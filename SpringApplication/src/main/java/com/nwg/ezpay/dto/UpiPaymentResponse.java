@@ -0,0 +1,7 @@
+package com.nwg.ezpay.dto;
+
+/**
+ * Outcome of a UPI payment: the engine's result message and the recorded transfer.
+ */
+public record UpiPaymentResponse(String message, TransferResponse transfer) {
+}
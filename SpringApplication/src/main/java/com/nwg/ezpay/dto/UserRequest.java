@@ -0,0 +1,15 @@
+package com.nwg.ezpay.dto;
+
+import java.util.List;
+
+import com.ezpay.bank.model.User;
+
+/**
+ * Request body for registering or updating a user.
+ */
+public record UserRequest(int userId, String userName, String emailId, List<String> accounts) {
+
+	public User toUser() {
+		return new User(userId, userName, emailId, accounts == null ? List.of() : accounts);
+	}
+}
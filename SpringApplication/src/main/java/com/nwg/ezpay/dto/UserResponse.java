@@ -0,0 +1,15 @@
+package com.nwg.ezpay.dto;
+
+import java.util.List;
+
+import com.ezpay.bank.model.User;
+
+/**
+ * A user as returned by the REST API.
+ */
+public record UserResponse(int userId, String userName, String emailId, List<String> accounts) {
+
+	public static UserResponse from(User user) {
+		return new UserResponse(user.getUserID(), user.getUserName(), user.getEmailId(), user.getAccounts());
+	}
+}
@@ -0,0 +1,100 @@
+package com.nwg.ezpay.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+/**
+ * Row of the {@code bank_accounts} table. The balance is in paise.
+ *
+ * {@code version} is bumped by every balance change, which lets
+ * {@link com.nwg.ezpay.service.LockingMode#OPTIMISTIC} transfers detect a concurrent
+ * update at commit time.
+ */
+@Entity
+@Table(name = "bank_accounts")
+public class BankAccountEntity {
+
+	@Id
+	@Column(name = "bankid")
+	private Integer bankId;
+
+	@Column(name = "bankName", nullable = false, length = 100)
+	private String bankName;
+
+	@Column(name = "accountNumber", nullable = false, unique = true, length = 30)
+	private String accountNumber;
+
+	@Column(name = "isVerified", nullable = false)
+	private boolean verified;
+
+	@Column(name = "balance", nullable = false)
+	private long balancePaise;
+
+	@Version
+	@Column(name = "version", nullable = false)
+	private Long version;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "userId")
+	private UserEntity user;
+
+	protected BankAccountEntity() {
+	}
+
+	public BankAccountEntity(Integer bankId, String bankName, String accountNumber, boolean verified) {
+		this.bankId = bankId;
+		this.bankName = bankName;
+		this.accountNumber = accountNumber;
+		this.verified = verified;
+	}
+
+	public Integer getBankId() {
+		return bankId;
+	}
+
+	public String getBankName() {
+		return bankName;
+	}
+
+	public void setBankName(String bankName) {
+		this.bankName = bankName;
+	}
+
+	public String getAccountNumber() {
+		return accountNumber;
+	}
+
+	public boolean isVerified() {
+		return verified;
+	}
+
+	public void setVerified(boolean verified) {
+		this.verified = verified;
+	}
+
+	public long getBalancePaise() {
+		return balancePaise;
+	}
+
+	public void setBalancePaise(long balancePaise) {
+		this.balancePaise = balancePaise;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public UserEntity getUser() {
+		return user;
+	}
+
+	public void setUser(UserEntity user) {
+		this.user = user;
+	}
+}
@@ -0,0 +1,90 @@
+package com.nwg.ezpay.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * Row of the {@code transfers} table. The amount is in paise.
+ *
+ * IDs come from {@code transfer_seq} through Hibernate's pooled optimizer: one
+ * sequence call reserves {@value #ID_ALLOCATION_SIZE} IDs, so a batch of inserts needs
+ * no round trip per row and can be sent as one JDBC batch. The sequence must be created
+ * with the same increment.
+ *
+ * The sender and receiver are kept as plain account numbers so that an insert never
+ * loads the account rows. Each is indexed together with the date-time, so an
+ * account's transfers in a time range are one index range scan.
+ */
+@Entity
+@Table(name = "transfers", indexes = {
+		@Index(name = "idx_transfers_sender_time", columnList = "senderAccountNumber, transferDateTime"),
+		@Index(name = "idx_transfers_receiver_time", columnList = "receiverAccountNumber, transferDateTime") })
+public class TransferEntity {
+
+	public static final int ID_ALLOCATION_SIZE = 50;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfer_seq")
+	@SequenceGenerator(name = "transfer_seq", sequenceName = "transfer_seq", allocationSize = ID_ALLOCATION_SIZE)
+	@Column(name = "transferId")
+	private Long transferId;
+
+	@Column(name = "senderAccountNumber", nullable = false, length = 30)
+	private String senderAccountNumber;
+
+	@Column(name = "receiverAccountNumber", nullable = false, length = 30)
+	private String receiverAccountNumber;
+
+	@Column(name = "amount", nullable = false)
+	private long amountPaise;
+
+	@Column(name = "transferDateTime", nullable = false)
+	private LocalDateTime transferDateTime;
+
+	@Column(name = "status", nullable = false)
+	private boolean status;
+
+	protected TransferEntity() {
+	}
+
+	public TransferEntity(String senderAccountNumber, String receiverAccountNumber, long amountPaise,
+			LocalDateTime transferDateTime, boolean status) {
+		this.senderAccountNumber = senderAccountNumber;
+		this.receiverAccountNumber = receiverAccountNumber;
+		this.amountPaise = amountPaise;
+		this.transferDateTime = transferDateTime;
+		this.status = status;
+	}
+
+	public Long getTransferId() {
+		return transferId;
+	}
+
+	public String getSenderAccountNumber() {
+		return senderAccountNumber;
+	}
+
+	public String getReceiverAccountNumber() {
+		return receiverAccountNumber;
+	}
+
+	public long getAmountPaise() {
+		return amountPaise;
+	}
+
+	public LocalDateTime getTransferDateTime() {
+		return transferDateTime;
+	}
+
+	public boolean isStatus() {
+		return status;
+	}
+}
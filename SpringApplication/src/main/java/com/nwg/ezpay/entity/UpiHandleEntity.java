@@ -0,0 +1,41 @@
+package com.nwg.ezpay.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Row of the {@code upi_handles} table, linking a UPI ID to a bank account.
+ */
+@Entity
+@Table(name = "upi_handles")
+public class UpiHandleEntity {
+
+	@Id
+	@Column(name = "upiId", length = 100)
+	private String upiId;
+
+	@Column(name = "accountNumber", nullable = false, length = 30)
+	private String accountNumber;
+
+	protected UpiHandleEntity() {
+	}
+
+	public UpiHandleEntity(String upiId, String accountNumber) {
+		this.upiId = upiId;
+		this.accountNumber = accountNumber;
+	}
+
+	public String getUpiId() {
+		return upiId;
+	}
+
+	public String getAccountNumber() {
+		return accountNumber;
+	}
+
+	public void setAccountNumber(String accountNumber) {
+		this.accountNumber = accountNumber;
+	}
+}
@@ -0,0 +1,53 @@
+package com.nwg.ezpay.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Row of the {@code users} table.
+ */
+@Entity
+@Table(name = "users")
+public class UserEntity {
+
+	@Id
+	@Column(name = "userId")
+	private Integer userId;
+
+	@Column(name = "userName", nullable = false, length = 100)
+	private String userName;
+
+	@Column(name = "emailId", nullable = false, length = 100)
+	private String emailId;
+
+	protected UserEntity() {
+	}
+
+	public UserEntity(Integer userId, String userName, String emailId) {
+		this.userId = userId;
+		this.userName = userName;
+		this.emailId = emailId;
+	}
+
+	public Integer getUserId() {
+		return userId;
+	}
+
+	public String getUserName() {
+		return userName;
+	}
+
+	public void setUserName(String userName) {
+		this.userName = userName;
+	}
+
+	public String getEmailId() {
+		return emailId;
+	}
+
+	public void setEmailId(String emailId) {
+		this.emailId = emailId;
+	}
+}
@@ -0,0 +1,18 @@
+package com.nwg.ezpay.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Maps the engine's input validation failures to 400 Bad Request.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+	@ExceptionHandler({ IllegalArgumentException.class, ArithmeticException.class })
+	public ProblemDetail handleInvalidInput(RuntimeException ex) {
+		return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+	}
+}
@@ -0,0 +1,58 @@
+package com.nwg.ezpay.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.nwg.ezpay.entity.BankAccountEntity;
+
+import jakarta.persistence.LockModeType;
+
+public interface BankAccountRepository extends JpaRepository<BankAccountEntity, Integer> {
+
+	Optional<BankAccountEntity> findByAccountNumber(String accountNumber);
+
+	List<BankAccountEntity> findByUserUserId(Integer userId);
+
+	boolean existsByAccountNumber(String accountNumber);
+
+	/**
+	 * Keyset page in account number order, served by the unique index on {@code accountNumber}.
+	 */
+	List<BankAccountEntity> findByAccountNumberGreaterThanOrderByAccountNumberAsc(String afterAccountNumber,
+			Limit limit);
+
+	/**
+	 * Loads an account with {@code SELECT ... FOR UPDATE}, holding its row lock until
+	 * the transaction ends.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select a from BankAccountEntity a where a.accountNumber = :accountNumber")
+	Optional<BankAccountEntity> findForUpdate(@Param("accountNumber") String accountNumber);
+
+	/**
+	 * Debits an account only if its balance covers the amount.
+	 *
+	 * @return 1 if the account was debited, 0 if it is unknown or short of funds
+	 */
+	@Modifying
+	@Query("update BankAccountEntity a set a.balancePaise = a.balancePaise - :amount, a.version = a.version + 1"
+			+ " where a.accountNumber = :accountNumber and a.balancePaise >= :amount")
+	int debitIfCovered(@Param("accountNumber") String accountNumber, @Param("amount") long amountPaise);
+
+	/**
+	 * Adds a signed amount to an account's balance.
+	 *
+	 * @return 1 if the account exists, 0 otherwise
+	 */
+	@Modifying
+	@Query("update BankAccountEntity a set a.balancePaise = a.balancePaise + :delta, a.version = a.version + 1"
+			+ " where a.accountNumber = :accountNumber")
+	int adjustBalance(@Param("accountNumber") String accountNumber, @Param("delta") long deltaPaise);
+}
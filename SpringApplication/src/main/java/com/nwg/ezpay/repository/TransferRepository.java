@@ -0,0 +1,46 @@
+package com.nwg.ezpay.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.nwg.ezpay.entity.TransferEntity;
+
+/**
+ * Transfers are written with {@link #saveAll(Iterable)}, which Hibernate sends as JDBC
+ * batches of {@code hibernate.jdbc.batch_size} inserts.
+ */
+public interface TransferRepository extends JpaRepository<TransferEntity, Long> {
+
+	List<TransferEntity> findBySenderAccountNumber(String senderAccountNumber);
+
+	List<TransferEntity> findByReceiverAccountNumber(String receiverAccountNumber);
+
+	/**
+	 * Keyset page over the primary key: {@code where transferId > ? order by transferId
+	 * fetch first ? rows}. Unlike an offset, the cost of a page does not grow with its depth.
+	 */
+	List<TransferEntity> findByTransferIdGreaterThanOrderByTransferIdAsc(long afterTransferId, Limit limit);
+
+	/**
+	 * Transfers an account sent in {@code [from, to)}, oldest first; a range scan of the
+	 * {@code (senderAccountNumber, transferDateTime)} index.
+	 */
+	@Query("select t from TransferEntity t where t.senderAccountNumber = :account"
+			+ " and t.transferDateTime >= :from and t.transferDateTime < :to order by t.transferDateTime, t.transferId")
+	List<TransferEntity> findSentBetween(@Param("account") String senderAccountNumber,
+			@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, Limit limit);
+
+	/**
+	 * Transfers an account received in {@code [from, to)}, oldest first; a range scan of
+	 * the {@code (receiverAccountNumber, transferDateTime)} index.
+	 */
+	@Query("select t from TransferEntity t where t.receiverAccountNumber = :account"
+			+ " and t.transferDateTime >= :from and t.transferDateTime < :to order by t.transferDateTime, t.transferId")
+	List<TransferEntity> findReceivedBetween(@Param("account") String receiverAccountNumber,
+			@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, Limit limit);
+}
@@ -0,0 +1,12 @@
+package com.nwg.ezpay.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.nwg.ezpay.entity.UpiHandleEntity;
+
+public interface UpiHandleRepository extends JpaRepository<UpiHandleEntity, String> {
+
+	List<UpiHandleEntity> findByAccountNumber(String accountNumber);
+}
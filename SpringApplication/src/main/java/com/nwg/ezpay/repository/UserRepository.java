@@ -0,0 +1,16 @@
+package com.nwg.ezpay.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.nwg.ezpay.entity.UserEntity;
+
+public interface UserRepository extends JpaRepository<UserEntity, Integer> {
+
+	/**
+	 * Keyset page over the primary key, in user ID order.
+	 */
+	List<UserEntity> findByUserIdGreaterThanOrderByUserIdAsc(Integer afterUserId, Limit limit);
+}
@@ -0,0 +1,153 @@
+package com.nwg.ezpay.service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nwg.ezpay.entity.BankAccountEntity;
+import com.nwg.ezpay.entity.TransferEntity;
+import com.nwg.ezpay.repository.BankAccountRepository;
+import com.nwg.ezpay.repository.TransferRepository;
+
+/**
+ * Moves money between rows of {@code bank_accounts} and records each transfer in
+ * {@code transfers}, using the {@link LockingMode} set by {@code ezpay.db.locking-mode}.
+ *
+ * Every transfer runs in its own transaction. An attempt that fails with a
+ * {@link ConcurrencyFailureException} (a stale version, a lock timeout or a deadlock
+ * victim) is rolled back and retried, up to {@link #MAX_ATTEMPTS} times. A transfer the
+ * sender cannot cover is still recorded, with status {@code false}.
+ */
+@Service
+public class AccountTransferService {
+
+	public static final int MAX_ATTEMPTS = 20;
+
+	private final BankAccountRepository accountRepository;
+	private final TransferRepository transferRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final LockingMode lockingMode;
+	private final LongAdder aborts = new LongAdder();
+
+	public AccountTransferService(BankAccountRepository accountRepository, TransferRepository transferRepository,
+			PlatformTransactionManager transactionManager,
+			@Value("${ezpay.db.locking-mode:PESSIMISTIC}") LockingMode lockingMode) {
+		this.accountRepository = accountRepository;
+		this.transferRepository = transferRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.lockingMode = lockingMode;
+	}
+
+	public LockingMode getLockingMode() {
+		return lockingMode;
+	}
+
+	/**
+	 * @return total attempts aborted by concurrency conflicts since startup
+	 */
+	public long getAbortCount() {
+		return aborts.sum();
+	}
+
+	public TransferOutcome transfer(String sender, String receiver, long amountPaise) {
+		return transfer(sender, receiver, amountPaise, lockingMode);
+	}
+
+	/**
+	 * Transfers between two accounts using the given locking mode.
+	 *
+	 * @throws IllegalArgumentException if the request is malformed or names an unknown account
+	 * @throws ConcurrencyFailureException if every attempt was aborted
+	 */
+	public TransferOutcome transfer(String sender, String receiver, long amountPaise, LockingMode mode) {
+		if (sender == null || receiver == null || sender.equals(receiver) || amountPaise <= 0) {
+			throw new IllegalArgumentException("Invalid transfer " + sender + " -> " + receiver);
+		}
+		for (int attempt = 1;; attempt++) {
+			try {
+				TransferEntity transfer = transactionTemplate.execute(status -> switch (mode) {
+				case PESSIMISTIC -> transferPessimistic(sender, receiver, amountPaise);
+				case OPTIMISTIC -> transferOptimistic(sender, receiver, amountPaise);
+				case CONDITIONAL_UPDATE -> transferConditional(sender, receiver, amountPaise);
+				});
+				return new TransferOutcome(transfer, attempt - 1);
+			} catch (ConcurrencyFailureException e) {
+				aborts.increment();
+				if (attempt == MAX_ATTEMPTS) {
+					throw e;
+				}
+			}
+		}
+	}
+
+	private TransferEntity transferPessimistic(String sender, String receiver, long amountPaise) {
+		// Lock in account-number order so opposing transfers queue instead of deadlocking
+		boolean senderFirst = sender.compareTo(receiver) < 0;
+		BankAccountEntity first = lock(senderFirst ? sender : receiver);
+		BankAccountEntity second = lock(senderFirst ? receiver : sender);
+		return applyAndRecord(senderFirst ? first : second, senderFirst ? second : first, amountPaise);
+	}
+
+	private TransferEntity transferOptimistic(String sender, String receiver, long amountPaise) {
+		// The version check happens when the transaction flushes
+		return applyAndRecord(find(sender), find(receiver), amountPaise);
+	}
+
+	private TransferEntity transferConditional(String sender, String receiver, long amountPaise) {
+		// Touch the rows in account-number order, as the pessimistic mode does
+		boolean applied;
+		if (sender.compareTo(receiver) < 0) {
+			applied = accountRepository.debitIfCovered(sender, amountPaise) == 1;
+			if (applied && accountRepository.adjustBalance(receiver, amountPaise) == 0) {
+				throw unknownAccount(receiver);
+			}
+		} else {
+			if (accountRepository.adjustBalance(receiver, amountPaise) == 0) {
+				throw unknownAccount(receiver);
+			}
+			applied = accountRepository.debitIfCovered(sender, amountPaise) == 1;
+			if (!applied) {
+				accountRepository.adjustBalance(receiver, -amountPaise);
+			}
+		}
+		if (!applied) {
+			if (!accountRepository.existsByAccountNumber(sender)) {
+				throw unknownAccount(sender);
+			}
+			if (!accountRepository.existsByAccountNumber(receiver)) {
+				throw unknownAccount(receiver);
+			}
+		}
+		return record(sender, receiver, amountPaise, applied);
+	}
+
+	private TransferEntity applyAndRecord(BankAccountEntity from, BankAccountEntity to, long amountPaise) {
+		boolean applied = from.getBalancePaise() >= amountPaise;
+		if (applied) {
+			from.setBalancePaise(from.getBalancePaise() - amountPaise);
+			to.setBalancePaise(to.getBalancePaise() + amountPaise);
+		}
+		return record(from.getAccountNumber(), to.getAccountNumber(), amountPaise, applied);
+	}
+
+	private TransferEntity record(String sender, String receiver, long amountPaise, boolean applied) {
+		return transferRepository.save(new TransferEntity(sender, receiver, amountPaise, LocalDateTime.now(), applied));
+	}
+
+	private BankAccountEntity lock(String accountNumber) {
+		return accountRepository.findForUpdate(accountNumber).orElseThrow(() -> unknownAccount(accountNumber));
+	}
+
+	private BankAccountEntity find(String accountNumber) {
+		return accountRepository.findByAccountNumber(accountNumber).orElseThrow(() -> unknownAccount(accountNumber));
+	}
+
+	private static IllegalArgumentException unknownAccount(String accountNumber) {
+		return new IllegalArgumentException("Unknown account " + accountNumber);
+	}
+}
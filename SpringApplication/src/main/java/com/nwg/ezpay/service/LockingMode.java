@@ -0,0 +1,26 @@
+package com.nwg.ezpay.service;
+
+/**
+ * How {@link AccountTransferService} keeps concurrent transfers on the
+ * {@code bank_accounts} table consistent.
+ */
+public enum LockingMode {
+
+	/**
+	 * {@code SELECT ... FOR UPDATE} on both accounts, taken in account-number order so
+	 * that two transfers between the same pair cannot deadlock.
+	 */
+	PESSIMISTIC,
+
+	/**
+	 * Plain reads and a {@code @Version} check at commit; a transfer that lost a race
+	 * is retried from scratch.
+	 */
+	OPTIMISTIC,
+
+	/**
+	 * A single {@code UPDATE ... SET balance = balance - ? WHERE balance >= ?} for the
+	 * debit and a plain increment for the credit, with no read beforehand.
+	 */
+	CONDITIONAL_UPDATE
+}
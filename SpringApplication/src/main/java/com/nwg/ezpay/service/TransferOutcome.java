@@ -0,0 +1,14 @@
+package com.nwg.ezpay.service;
+
+import com.nwg.ezpay.entity.TransferEntity;
+
+/**
+ * A recorded transfer and the number of attempts that were aborted by a concurrency
+ * conflict before it committed.
+ */
+public record TransferOutcome(TransferEntity transfer, int aborts) {
+
+	public boolean isApplied() {
+		return transfer.isStatus();
+	}
+}
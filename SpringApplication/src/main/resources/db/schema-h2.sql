@@ -0,0 +1,34 @@
+-- Tables of EzPay_DB/ezpay_db.sql for the embedded H2 database
+CREATE TABLE IF NOT EXISTS users (
+    userId INT PRIMARY KEY,
+    userName VARCHAR(100) NOT NULL,
+    emailId VARCHAR(100) NOT NULL
+);
+CREATE TABLE IF NOT EXISTS bank_accounts (
+    bankid INT PRIMARY KEY,
+    bankName VARCHAR(100) NOT NULL,
+    accountNumber VARCHAR(30) UNIQUE NOT NULL,
+    isVerified BOOLEAN NOT NULL,
+    balance BIGINT DEFAULT 0 NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
+    userId INT,
+    FOREIGN KEY (userId) REFERENCES users(userId)
+);
+CREATE TABLE IF NOT EXISTS upi_handles (
+    upiId VARCHAR(100) PRIMARY KEY,
+    accountNumber VARCHAR(30) NOT NULL,
+    FOREIGN KEY (accountNumber) REFERENCES bank_accounts(accountNumber)
+);
+CREATE TABLE IF NOT EXISTS transfers (
+    transferId BIGINT PRIMARY KEY,
+    senderAccountNumber VARCHAR(30) NOT NULL,
+    receiverAccountNumber VARCHAR(30) NOT NULL,
+    amount BIGINT NOT NULL,
+    transferDateTime TIMESTAMP NOT NULL,
+    status BOOLEAN NOT NULL,
+    FOREIGN KEY (senderAccountNumber) REFERENCES bank_accounts(accountNumber),
+    FOREIGN KEY (receiverAccountNumber) REFERENCES bank_accounts(accountNumber)
+);
+CREATE INDEX IF NOT EXISTS idx_transfers_sender_time ON transfers (senderAccountNumber, transferDateTime);
+CREATE INDEX IF NOT EXISTS idx_transfers_receiver_time ON transfers (receiverAccountNumber, transferDateTime);
+CREATE SEQUENCE IF NOT EXISTS transfer_seq START WITH 1101 INCREMENT BY 50;
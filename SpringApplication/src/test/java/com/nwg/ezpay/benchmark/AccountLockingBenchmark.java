@@ -0,0 +1,114 @@
+package com.nwg.ezpay.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.nwg.ezpay.EzpaybackendApplication;
+import com.nwg.ezpay.entity.BankAccountEntity;
+import com.nwg.ezpay.repository.BankAccountRepository;
+import com.nwg.ezpay.service.AccountTransferService;
+import com.nwg.ezpay.service.LockingMode;
+import com.nwg.ezpay.service.TransferOutcome;
+
+/**
+ * Throughput and abort rate of {@link AccountTransferService} for each {@link LockingMode}
+ * under hot-account skew.
+ *
+ * Eight threads make payments between {@code accounts} accounts on the embedded H2
+ * database. A {@code merchantShare} fraction of them go to one merchant account, and the
+ * rest go to a random account. The {@code aborts} counter is the number of attempts per
+ * second that a concurrency conflict rolled back and retried; divide it by the
+ * throughput for the abort rate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(8)
+@State(Scope.Benchmark)
+public class AccountLockingBenchmark {
+
+	private static final String MERCHANT = "BENCH0";
+
+	@Param({ "PESSIMISTIC", "OPTIMISTIC", "CONDITIONAL_UPDATE" })
+	public LockingMode mode;
+
+	@Param({ "0.3" })
+	public double merchantShare;
+
+	@Param({ "200" })
+	public int accounts;
+
+	private ConfigurableApplicationContext context;
+	private AccountTransferService transferService;
+
+	@Setup(Level.Trial)
+	public void startApplication() {
+		context = new SpringApplicationBuilder(EzpaybackendApplication.class).web(WebApplicationType.NONE)
+				.profiles("h2").properties("ezpay.db.locking-mode=" + mode, "logging.level.root=WARN").run();
+		transferService = context.getBean(AccountTransferService.class);
+
+		BankAccountRepository accountRepository = context.getBean(BankAccountRepository.class);
+		List<BankAccountEntity> rows = new ArrayList<>(accounts);
+		for (int i = 0; i < accounts; i++) {
+			BankAccountEntity account = new BankAccountEntity(i, "SBI", "BENCH" + i, true);
+			account.setBalancePaise(Long.MAX_VALUE / (4L * accounts));
+			rows.add(account);
+		}
+		accountRepository.saveAll(rows);
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		context.close();
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Payer {
+
+		public long aborts;
+
+		final SplittableRandom random = new SplittableRandom();
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			aborts = 0;
+		}
+	}
+
+	@Benchmark
+	public boolean pay(Payer payer) {
+		SplittableRandom random = payer.random;
+		String sender = "BENCH" + (1 + random.nextInt(accounts - 1));
+		String receiver = random.nextDouble() < merchantShare ? MERCHANT : "BENCH" + random.nextInt(accounts);
+		if (sender.equals(receiver)) {
+			receiver = MERCHANT;
+		}
+		TransferOutcome outcome = transferService.transfer(sender, receiver, 1 + random.nextInt(10_000), mode);
+		payer.aborts += outcome.aborts();
+		return outcome.isApplied();
+	}
+}
@@ -0,0 +1,170 @@
+package com.nwg.ezpay.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class TransferRestControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	private void addAccount(String accountNumber, String balance) throws Exception {
+		mockMvc.perform(post("/api/accounts").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"bankId\":1,\"bankName\":\"HDFC\",\"accountNumber\":\"" + accountNumber
+						+ "\",\"verified\":true,\"balance\":" + balance + "}"))
+				.andExpect(status().isCreated());
+	}
+
+	@Test
+	void testTransferMovesMoneyBetweenAccounts() throws Exception {
+		addAccount("REST-A1", "100.00");
+		addAccount("REST-B1", "0");
+
+		mockMvc.perform(post("/api/transfers").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"sender\":\"REST-A1\",\"receiver\":\"REST-B1\",\"amount\":40.25}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value(true));
+
+		mockMvc.perform(get("/api/accounts/REST-A1")).andExpect(jsonPath("$.balance").value(59.75));
+		mockMvc.perform(get("/api/accounts/REST-B1")).andExpect(jsonPath("$.balance").value(40.25));
+		mockMvc.perform(get("/api/transfers/recent").param("account", "REST-B1"))
+				.andExpect(jsonPath("$.length()").value(1))
+				.andExpect(jsonPath("$[0].sender").value("REST-A1"));
+		mockMvc.perform(get("/api/transfers/totals").param("account", "REST-A1"))
+				.andExpect(jsonPath("$.succeeded").value(1))
+				.andExpect(jsonPath("$.sent").value(40.25))
+				.andExpect(jsonPath("$.dayVolume").value(40.25));
+	}
+
+	@Test
+	void testUpiPaymentSettlesToLinkedAccount() throws Exception {
+		addAccount("REST-A2", "50");
+		addAccount("REST-B2", "0");
+		mockMvc.perform(post("/api/upi/handles").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"upiId\":\"shop@okaxis\",\"accountNumber\":\"REST-B2\"}"))
+				.andExpect(status().isNoContent());
+
+		mockMvc.perform(post("/api/upi/payments").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"sender\":\"REST-A2\",\"receiver\":\"shop@okaxis\",\"amount\":20}"))
+				.andExpect(status().isCreated());
+		mockMvc.perform(post("/api/upi/payments").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"sender\":\"REST-A2\",\"receiver\":\"shop@okaxis\",\"amount\":40}"))
+				.andExpect(status().isUnprocessableEntity());
+
+		mockMvc.perform(get("/api/accounts/REST-B2")).andExpect(jsonPath("$.balance").value(20.0));
+	}
+
+	@Test
+	void testRetryWithIdempotencyKeyIsAppliedOnce() throws Exception {
+		addAccount("REST-A3", "100");
+		addAccount("REST-B3", "0");
+
+		for (int i = 0; i < 2; i++) {
+			mockMvc.perform(post("/api/transfers").header("Idempotency-Key", "rest-order-3")
+					.contentType(MediaType.APPLICATION_JSON)
+					.content("{\"sender\":\"REST-A3\",\"receiver\":\"REST-B3\",\"amount\":30}"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.status").value(true));
+		}
+		mockMvc.perform(post("/api/transfers").header("Idempotency-Key", "rest-order-3")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"sender\":\"REST-A3\",\"receiver\":\"REST-B3\",\"amount\":31}"))
+				.andExpect(status().isBadRequest());
+
+		mockMvc.perform(get("/api/accounts/REST-A3")).andExpect(jsonPath("$.balance").value(70.0));
+	}
+
+	@Test
+	void testRejectsFractionalPaise() throws Exception {
+		mockMvc.perform(post("/api/transfers").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"sender\":\"X\",\"receiver\":\"Y\",\"amount\":1.005}"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void testAccountsArePagedInAccountNumberOrder() throws Exception {
+		addAccount("PAGE-2", "1");
+		addAccount("PAGE-1", "1");
+		addAccount("PAGE-3", "1");
+
+		mockMvc.perform(get("/api/accounts").param("after", "PAGE-").param("limit", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2))
+				.andExpect(jsonPath("$[0].accountNumber").value("PAGE-1"))
+				.andExpect(jsonPath("$[1].accountNumber").value("PAGE-2"));
+		mockMvc.perform(get("/api/accounts").param("after", "PAGE-2").param("limit", "1"))
+				.andExpect(jsonPath("$[0].accountNumber").value("PAGE-3"));
+	}
+
+	@Test
+	void testAddingATakenAccountNumberConflicts() throws Exception {
+		addAccount("REST-C1", "10");
+
+		mockMvc.perform(post("/api/accounts").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"bankId\":2,\"bankName\":\"SBI\",\"accountNumber\":\"REST-C1\",\"verified\":false}"))
+				.andExpect(status().isConflict());
+
+		mockMvc.perform(get("/api/accounts/REST-C1"))
+				.andExpect(jsonPath("$.bankName").value("HDFC"))
+				.andExpect(jsonPath("$.balance").value(10.0));
+	}
+
+	@Test
+	void testUpdateChangesDetailsAndKeepsBalance() throws Exception {
+		addAccount("REST-C2", "25.50");
+
+		mockMvc.perform(put("/api/accounts/REST-C2").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"bankId\":2,\"bankName\":\"SBI\",\"verified\":false}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.bankName").value("SBI"))
+				.andExpect(jsonPath("$.balance").value(25.5));
+		mockMvc.perform(put("/api/accounts/REST-C2").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"bankId\":2,\"bankName\":\"SBI\",\"verified\":false,\"balance\":1000}"))
+				.andExpect(status().isBadRequest());
+
+		mockMvc.perform(get("/api/accounts/REST-C2"))
+				.andExpect(jsonPath("$.verified").value(false))
+				.andExpect(jsonPath("$.balance").value(25.5));
+	}
+
+	@Test
+	void testReceivedUpiPaymentsArePaged() throws Exception {
+		addAccount("REST-A4", "50");
+		addAccount("REST-B4", "0");
+		mockMvc.perform(post("/api/upi/handles").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"upiId\":\"cafe@okaxis\",\"accountNumber\":\"REST-B4\"}"))
+				.andExpect(status().isNoContent());
+		for (int amount = 1; amount <= 3; amount++) {
+			mockMvc.perform(post("/api/upi/payments").contentType(MediaType.APPLICATION_JSON)
+					.content("{\"sender\":\"REST-A4\",\"receiver\":\"cafe@okaxis\",\"amount\":" + amount + "}"))
+					.andExpect(status().isCreated());
+		}
+
+		mockMvc.perform(get("/api/upi/payments/received").param("receiver", "cafe@okaxis")
+				.param("offset", "1").param("limit", "1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1))
+				.andExpect(jsonPath("$[0].amount").value(2.0));
+		mockMvc.perform(get("/api/upi/payments/received").param("receiver", "cafe@okaxis"))
+				.andExpect(jsonPath("$.length()").value(3));
+	}
+
+	@Test
+	void testUnknownTransferIsNotFound() throws Exception {
+		mockMvc.perform(get("/api/transfers/987654")).andExpect(status().isNotFound());
+	}
+}
@@ -0,0 +1,155 @@
+package com.nwg.ezpay.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.nwg.ezpay.entity.BankAccountEntity;
+import com.nwg.ezpay.entity.TransferEntity;
+import com.nwg.ezpay.entity.UserEntity;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TransferRepositoryTest {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private BankAccountRepository accountRepository;
+
+	@Autowired
+	private TransferRepository transferRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		UserEntity user = userRepository.save(new UserEntity(1, "Rahul Verma", "rahul.verma@example.com"));
+		BankAccountEntity sender = new BankAccountEntity(101, "HDFC", "ACC123456", true);
+		sender.setUser(user);
+		sender.setBalancePaise(500_000);
+		accountRepository.save(sender);
+		accountRepository.save(new BankAccountEntity(102, "ICICI", "ACC234567", true));
+	}
+
+	@Test
+	void testSaveAllAssignsDistinctSequenceIds() {
+		List<TransferEntity> transfers = new ArrayList<>();
+		for (int i = 0; i < 120; i++) {
+			transfers.add(new TransferEntity("ACC123456", "ACC234567", 100 + i, LocalDateTime.now(), true));
+		}
+		List<TransferEntity> saved = transferRepository.saveAll(transfers);
+		transferRepository.flush();
+
+		Set<Long> ids = new HashSet<>();
+		for (TransferEntity transfer : saved) {
+			assertTrue(transfer.getTransferId() >= 1001);
+			ids.add(transfer.getTransferId());
+		}
+		assertEquals(120, ids.size());
+		assertEquals(120, transferRepository.findBySenderAccountNumber("ACC123456").size());
+		assertEquals(0, transferRepository.findByReceiverAccountNumber("ACC123456").size());
+	}
+
+	/**
+	 * New transfers get IDs clear of the seeded transfers 1001-1004 that ezpay_db.sql inserts.
+	 * The in-memory database outlives a test, so the sequence may already have moved on; its
+	 * start value is checked too, since the pooled optimizer's first block ends there.
+	 */
+	@Test
+	void testSavesDoNotCollideWithSeededTransfers() {
+		Long start = jdbcTemplate.queryForObject(
+				"SELECT START_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'TRANSFER_SEQ'", Long.class);
+		assertTrue(start - TransferEntity.ID_ALLOCATION_SIZE + 1 > 1004, "first block starts at or below 1004");
+
+		accountRepository.flush();
+		for (long id = 1001; id <= 1004; id++) {
+			jdbcTemplate.update("INSERT INTO transfers (transferId, senderAccountNumber, receiverAccountNumber, "
+					+ "amount, transferDateTime, status) VALUES (?, 'ACC123456', 'ACC234567', 100, ?, TRUE)",
+					id, LocalDateTime.of(2025, 7, 30, 10, 0));
+		}
+
+		List<TransferEntity> transfers = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			transfers.add(new TransferEntity("ACC123456", "ACC234567", 100 + i, LocalDateTime.now(), true));
+		}
+		for (TransferEntity transfer : transferRepository.saveAll(transfers)) {
+			assertTrue(transfer.getTransferId() > 1004);
+		}
+		transferRepository.flush();
+		assertEquals(64, transferRepository.findBySenderAccountNumber("ACC123456").size());
+	}
+
+	@Test
+	void testKeysetPagesCoverEveryTransferOnce() {
+		List<TransferEntity> transfers = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			transfers.add(new TransferEntity("ACC123456", "ACC234567", 100 + i, LocalDateTime.now(), true));
+		}
+		transferRepository.saveAll(transfers);
+		transferRepository.flush();
+
+		Set<Long> seen = new HashSet<>();
+		long after = 0;
+		List<TransferEntity> page = transferRepository.findByTransferIdGreaterThanOrderByTransferIdAsc(after, Limit.of(10));
+		while (!page.isEmpty()) {
+			for (TransferEntity transfer : page) {
+				assertTrue(transfer.getTransferId() > after);
+				assertTrue(seen.add(transfer.getTransferId()));
+			}
+			after = page.get(page.size() - 1).getTransferId();
+			page = transferRepository.findByTransferIdGreaterThanOrderByTransferIdAsc(after, Limit.of(10));
+		}
+		assertEquals(transferRepository.count(), seen.size());
+
+		List<BankAccountEntity> accounts = accountRepository
+				.findByAccountNumberGreaterThanOrderByAccountNumberAsc("ACC123456", Limit.of(10));
+		assertEquals(1, accounts.size());
+		assertEquals("ACC234567", accounts.get(0).getAccountNumber());
+		assertEquals(1, userRepository.findByUserIdGreaterThanOrderByUserIdAsc(0, Limit.of(10)).size());
+	}
+
+	@Test
+	void testTimeRangeBySenderAndReceiver() {
+		LocalDateTime day = LocalDateTime.of(2025, 7, 30, 0, 0);
+		List<TransferEntity> transfers = new ArrayList<>();
+		for (int hour : new int[] { 14, 2, 9, 23 }) {
+			transfers.add(new TransferEntity("ACC123456", "ACC234567", 100, day.plusHours(hour), true));
+		}
+		transferRepository.saveAll(transfers);
+		transferRepository.flush();
+
+		List<TransferEntity> sent = transferRepository.findSentBetween("ACC123456", day.plusHours(2),
+				day.plusHours(23), Limit.of(10));
+		assertEquals(List.of(day.plusHours(2), day.plusHours(9), day.plusHours(14)),
+				sent.stream().map(TransferEntity::getTransferDateTime).toList());
+		assertEquals(1, transferRepository.findSentBetween("ACC123456", day, day.plusDays(1), Limit.of(1)).size());
+		assertEquals(4, transferRepository.findReceivedBetween("ACC234567", day, day.plusDays(1), Limit.of(10)).size());
+		assertTrue(transferRepository.findReceivedBetween("ACC123456", day, day.plusDays(1), Limit.of(10)).isEmpty());
+	}
+
+	@Test
+	void testAccountLookupByNumberAndOwner() {
+		BankAccountEntity account = accountRepository.findByAccountNumber("ACC123456").orElseThrow();
+		assertEquals(500_000, account.getBalancePaise());
+		assertEquals(1, accountRepository.findByUserUserId(1).size());
+		assertTrue(accountRepository.findByAccountNumber("ACC999999").isEmpty());
+	}
+}
@@ -0,0 +1,129 @@
+package com.nwg.ezpay.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.nwg.ezpay.entity.BankAccountEntity;
+import com.nwg.ezpay.repository.BankAccountRepository;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class AccountTransferServiceTest {
+
+	// The H2 database outlives each test, so every test opens its own accounts
+	private static final AtomicInteger NEXT_BANK_ID = new AtomicInteger(10_000);
+
+	@Autowired
+	private AccountTransferService transferService;
+
+	@Autowired
+	private BankAccountRepository accountRepository;
+
+	private String openAccount(long balancePaise) {
+		int bankId = NEXT_BANK_ID.getAndIncrement();
+		BankAccountEntity account = new BankAccountEntity(bankId, "HDFC", "LCK" + bankId, true);
+		account.setBalancePaise(balancePaise);
+		accountRepository.save(account);
+		return account.getAccountNumber();
+	}
+
+	private long balanceOf(String accountNumber) {
+		return accountRepository.findByAccountNumber(accountNumber).orElseThrow().getBalancePaise();
+	}
+
+	@ParameterizedTest
+	@EnumSource(LockingMode.class)
+	void testTransferMovesMoneyInBothDirections(LockingMode mode) {
+		String a = openAccount(10_000);
+		String b = openAccount(0);
+
+		assertTrue(transferService.transfer(a, b, 4_000, mode).isApplied());
+		assertTrue(transferService.transfer(b, a, 1_000, mode).isApplied());
+
+		assertEquals(7_000, balanceOf(a));
+		assertEquals(3_000, balanceOf(b));
+	}
+
+	@ParameterizedTest
+	@EnumSource(LockingMode.class)
+	void testInsufficientFundsIsRecordedButNotApplied(LockingMode mode) {
+		String a = openAccount(500);
+		String b = openAccount(0);
+
+		// Both orders, since the conditional mode credits first when the receiver sorts first
+		TransferOutcome forward = transferService.transfer(a, b, 600, mode);
+		TransferOutcome backward = transferService.transfer(b, a, 1, mode);
+
+		assertFalse(forward.isApplied());
+		assertFalse(backward.isApplied());
+		assertTrue(forward.transfer().getTransferId() != null);
+		assertEquals(500, balanceOf(a));
+		assertEquals(0, balanceOf(b));
+	}
+
+	@ParameterizedTest
+	@EnumSource(LockingMode.class)
+	void testUnknownAccountIsRejected(LockingMode mode) {
+		String a = openAccount(500);
+
+		assertThrows(IllegalArgumentException.class, () -> transferService.transfer(a, "LCK-NONE", 100, mode));
+		assertThrows(IllegalArgumentException.class, () -> transferService.transfer("LCK-NONE", a, 100, mode));
+		assertEquals(500, balanceOf(a));
+	}
+
+	@ParameterizedTest
+	@EnumSource(LockingMode.class)
+	void testConcurrentPaymentsToHotMerchantConserveMoney(LockingMode mode) throws Exception {
+		String merchant = openAccount(0);
+		List<String> payers = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			payers.add(openAccount(50_000));
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				futures.add(pool.submit(() -> {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int i = 0; i < 50; i++) {
+						String sender = payers.get(random.nextInt(payers.size()));
+						String receiver = random.nextInt(10) < 3 ? merchant : payers.get(random.nextInt(payers.size()));
+						if (!sender.equals(receiver)) {
+							transferService.transfer(sender, receiver, 1 + random.nextInt(2_000), mode);
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		long total = balanceOf(merchant);
+		for (String payer : payers) {
+			long balance = balanceOf(payer);
+			assertTrue(balance >= 0);
+			total += balance;
+		}
+		assertEquals(8 * 50_000, total);
+	}
+}